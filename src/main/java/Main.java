@@ -5,32 +5,58 @@ import model.task.Task;
 import model.user.Administrator;
 import model.user.Employee;
 import model.user.User;
+import model.user.UserRegistry;
 import service.TaskManagerImpl;
+import service.async.AsyncTaskManagerImpl;
+import service.http.TaskHttpServer;
+import service.rpc.TaskRpcServer;
+import service.transfer.BatchCommandRunner;
+import util.FileHandler;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.net.InetSocketAddress;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.InputMismatchException;
-import java.util.Optional;
 import java.util.Scanner;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class Main {
-    private static Set<User> users = new TreeSet<>();
+    private static UserRegistry users = new UserRegistry();
     private static User loggedInUser = null;
 
     public static void main(String[] args) {
         try { //global try-catch
+            FileHandler.setCheckpointsEnabled(true);
             TaskManagerImpl taskManager = new TaskManagerImpl();
+            if (args.length > 0 && args[0].equals("--http")) {
+                runHttpServer(taskManager, args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("--rpc")) {
+                runRpcServer(taskManager, args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals("--batch")) {
+                runBatchScript(taskManager, args);
+                return;
+            }
 
             User user1 = new Employee("ivan", "123", taskManager);
             User user2 = new Administrator("pesho", "1234", taskManager);
             User user3 = new Employee("georgi", "12345", taskManager);
             User user4 = new Administrator("martin", "123456", taskManager);
-            users.add(user1);
-            users.add(user2);
-            users.add(user3);
-            users.add(user4);
+            users.register(user1);
+            users.register(user2);
+            users.register(user3);
+            users.register(user4);
 
             Scanner scanner = new Scanner(System.in);
             int action;
@@ -48,6 +74,7 @@ public class Main {
                     System.out.println("3. Search tasks");
                     System.out.println("4. Complete task");
                     System.out.println("5. Delete task");
+                    System.out.println("9. Display my tasks");
                     System.out.println("8. Logout");
                     System.out.println("6. Exit program");
                 }
@@ -56,6 +83,8 @@ public class Main {
                 try {
                     action = scanner.nextInt();
                     scanner.nextLine(); // Consume newline
+                    // another process may share the tasks file; cheap unless it changed something
+                    taskManager.refreshFromStore();
 
                     if (loggedInUser == null) {
                         if (action == 7) {
@@ -167,6 +196,14 @@ public class Main {
                             scanner.nextLine();
                             loggedInUser.deleteTask(deleteTaskId);
                             break;
+                        case 9:
+                            Set<Task> myTasks = loggedInUser.getMyTasks();
+                            if (myTasks.isEmpty()) {
+                                System.out.println("You have not created any tasks.");
+                            } else {
+                                loggedInUser.displayGivenTasks(myTasks);
+                            }
+                            break;
                         case 8: // Logout option
                             loggedInUser = null;
                             System.out.println("Successfully logged out.");
@@ -195,18 +232,58 @@ public class Main {
         }
     }
 
+    // --http [port] [worker threads]: serves the tasks over HTTP/JSON until the process is
+    // stopped; without a thread count a virtual thread per request is used if available
+    private static void runHttpServer(TaskManagerImpl taskManager, String[] args) throws IOException, InterruptedException {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        ExecutorService workers = args.length > 2
+                ? Executors.newFixedThreadPool(Integer.parseInt(args[2]))
+                : AsyncTaskManagerImpl.newDefaultExecutor();
+        AsyncTaskManagerImpl asyncTaskManager = new AsyncTaskManagerImpl(taskManager, workers);
+        TaskHttpServer server = new TaskHttpServer(asyncTaskManager, new InetSocketAddress(port), workers);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            workers.shutdown();
+        }));
+        server.start();
+        Thread.currentThread().join();
+    }
+
+    // --rpc [port]: serves the binary task protocol until the process is stopped
+    private static void runRpcServer(TaskManagerImpl taskManager, String[] args) throws IOException, InterruptedException {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7070;
+        AsyncTaskManagerImpl asyncTaskManager = new AsyncTaskManagerImpl(taskManager);
+        TaskRpcServer server = new TaskRpcServer(asyncTaskManager, new InetSocketAddress(port));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            asyncTaskManager.close();
+        }));
+        server.start();
+        Thread.currentThread().join();
+    }
+
+    // --batch [script file, or - for stdin] [batch size]: runs the commands of the script
+    // (see BatchCommandRunner) with one write of the tasks file per batch and exits
+    private static void runBatchScript(TaskManagerImpl taskManager, String[] args) throws IOException {
+        String script = args.length > 1 ? args[1] : "-";
+        BatchCommandRunner runner = new BatchCommandRunner(args.length > 2 ? Integer.parseInt(args[2]) : BatchCommandRunner.DEFAULT_BATCH_SIZE);
+        try (Reader in = script.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Paths.get(script), StandardCharsets.UTF_8)) {
+            runner.run(taskManager, in);
+        }
+    }
+
     private static void handleLogin(Scanner scanner) {
         System.out.print("Enter username: ");
         String username = scanner.nextLine();
         System.out.print("Enter password: ");
         String password = scanner.nextLine();
 
-        Optional<User> foundUser = users.stream()
-                .filter(u -> u.getUsername().equals(username) && u.getPassword().equals(password))
-                .findFirst();
+        User foundUser = users.authenticate(username, password);
 
-        if (foundUser.isPresent()) {
-            loggedInUser = foundUser.get();
+        if (foundUser != null) {
+            loggedInUser = foundUser;
             System.out.println("Login successful! Welcome, " + loggedInUser.getUsername() + ".");
         } else {
             System.out.println("Invalid username or password. Please try again.");
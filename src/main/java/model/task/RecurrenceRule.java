@@ -0,0 +1,128 @@
+package model.task;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Repeat rule of a recurring task: every 'interval' days, weeks or months from the start
+// date, optionally up to an end date (inclusive). Monthly rules keep the start day of month,
+// clamped to the month length (a rule starting on the 31st falls on Feb 28/29).
+public class RecurrenceRule {
+
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY
+    }
+
+    private final Frequency frequency;
+    private final int interval;
+    private final LocalDate start;
+    private final LocalDate end;
+
+    public RecurrenceRule(Frequency frequency, int interval, LocalDate start, LocalDate end) {
+        if (frequency == null || start == null) {
+            throw new IllegalArgumentException("Recurrence frequency and start date cannot be null.");
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("Recurrence interval must be at least 1.");
+        }
+        if (end != null && end.isBefore(start)) {
+            throw new IllegalArgumentException("Recurrence end date cannot be before its start date.");
+        }
+        this.frequency = frequency;
+        this.interval = interval;
+        this.start = start;
+        this.end = end;
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public LocalDate getEnd() {
+        return end;
+    }
+
+    public boolean isOccurrence(LocalDate date) {
+        if (date.isBefore(start) || (end != null && date.isAfter(end))) {
+            return false;
+        }
+        long index = indexOnOrBefore(date);
+        return occurrence(index).equals(date);
+    }
+
+    // Occurrence dates in [from, to], computed one at a time as the iterator advances
+    public Iterator<LocalDate> occurrences(LocalDate from, LocalDate to) {
+        final LocalDate last = end != null && end.isBefore(to) ? end : to;
+        long first = from.isAfter(start) ? indexOnOrBefore(from) : 0;
+        if (occurrence(first).isBefore(from)) {
+            first++;
+        }
+        final long firstIndex = first;
+        return new Iterator<LocalDate>() {
+            private long index = firstIndex;
+
+            @Override
+            public boolean hasNext() {
+                return !occurrence(index).isAfter(last);
+            }
+
+            @Override
+            public LocalDate next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return occurrence(index++);
+            }
+        };
+    }
+
+    private LocalDate occurrence(long index) {
+        switch (frequency) {
+            case DAILY:
+                return start.plusDays(index * interval);
+            case WEEKLY:
+                return start.plusWeeks(index * interval);
+            default:
+                return start.plusMonths(index * interval);
+        }
+    }
+
+    // Index of the last occurrence on or before the date (date must not be before start)
+    private long indexOnOrBefore(LocalDate date) {
+        long units;
+        switch (frequency) {
+            case DAILY:
+                units = ChronoUnit.DAYS.between(start, date);
+                break;
+            case WEEKLY:
+                units = ChronoUnit.WEEKS.between(start, date);
+                break;
+            default:
+                units = ChronoUnit.MONTHS.between(start, date);
+                break;
+        }
+        long index = units / interval;
+        // month clamping can move occurrences relative to whole-month differences
+        while (index > 0 && occurrence(index).isAfter(date)) {
+            index--;
+        }
+        while (!occurrence(index + 1).isAfter(date)) {
+            index++;
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return frequency + (interval > 1 ? "/" + interval : "") + " from " + start + (end != null ? " until " + end : "");
+    }
+}
@@ -0,0 +1,79 @@
+package model.task;
+
+import java.time.LocalDate;
+
+// Definition of a repeating task, stored once. Each occurrence is a regular task due on one
+// of the rule's dates; it only becomes a stored Task when it is completed or changed.
+public class RecurringTask {
+    private final long id;
+    private final String title;
+    private final String description;
+    private final Priority priority;
+    private final Category category;
+    private final RecurrenceRule rule;
+    private final LocalDate creationDate;
+
+    public RecurringTask(long id, String title, String description, Priority priority, Category category, RecurrenceRule rule, LocalDate creationDate) {
+        if (title == null || title.trim().isEmpty()) {
+            throw new IllegalArgumentException("Recurring task title cannot be empty.");
+        }
+        if (rule == null) {
+            throw new IllegalArgumentException("Recurring task needs a recurrence rule.");
+        }
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.priority = priority;
+        this.category = category;
+        this.rule = rule;
+        this.creationDate = creationDate;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public RecurrenceRule getRule() {
+        return rule;
+    }
+
+    public LocalDate getCreationDate() {
+        return creationDate;
+    }
+
+    // Task titles are unique, so every occurrence carries its date in the title
+    public String occurrenceTitle(LocalDate date) {
+        return title + " (" + date + ")";
+    }
+
+    public TaskDraft occurrenceDraft(LocalDate date, Status status) {
+        return new TaskDraft(occurrenceTitle(date), description, date, priority, status, category, creationDate);
+    }
+
+    @Override
+    public String toString() {
+        return "RecurringTask{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", rule=" + rule +
+                ", priority=" + priority +
+                ", category=" + category +
+                '}';
+    }
+}
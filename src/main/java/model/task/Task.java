@@ -13,6 +13,10 @@ public abstract class Task implements Comparable<Task> {
     private Status status;
     private Category category;
     private LocalDate creationDate;
+    // Bumped by TaskManagerImpl on every change, for compare-and-set updates
+    private long version;
+    // Username of the user who created the task, null for tasks without one
+    private String owner;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
@@ -61,6 +65,22 @@ public abstract class Task implements Comparable<Task> {
         this.status = status;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
     public Category getCategory() {
         return category;
     }
@@ -74,7 +94,9 @@ public abstract class Task implements Comparable<Task> {
                 "Priority:" + priority.getPriorityName() + "\n" +
                 "Status:" + status.getStatusName() + "\n" +
                 "Category:" + category.name() + "\n" +
-                "Creation Date:" + creationDate.format(DATE_FORMATTER);
+                "Creation Date:" + creationDate.format(DATE_FORMATTER) +
+                (version > 0 ? "\nVersion:" + version : "") +
+                (owner != null ? "\nOwner:" + owner : "");
     }
 
     @Override
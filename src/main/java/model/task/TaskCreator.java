@@ -11,4 +11,18 @@ public class TaskCreator {
             return new PersonalTask(id, title, description, dueDate, priority, status,category, creationDate);
         }
     }
+
+    // The tasks file is line based: a line break inside a field would end it early and let
+    // the rest be read as other fields or another task, so text fields must be single lines
+    public static void requireSingleLine(String value, String name) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\n' || c == '\r') {
+                throw new IllegalArgumentException(name + " must not contain line breaks");
+            }
+        }
+    }
 }
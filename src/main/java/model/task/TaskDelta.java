@@ -0,0 +1,32 @@
+package model.task;
+
+// The fields changed by one update of a task and the version the task had afterwards;
+// the unit of the delta log next to the tasks file
+public class TaskDelta {
+    private final long taskId;
+    private final long version;
+    private final TaskUpdate changes;
+
+    public TaskDelta(long taskId, long version, TaskUpdate changes) {
+        this.taskId = taskId;
+        this.version = version;
+        this.changes = changes;
+    }
+
+    // The task as it was after this update, or the task itself if it already includes it
+    public Task applyTo(Task task) {
+        return task.getVersion() >= version ? task : changes.applyTo(task, version);
+    }
+
+    public long getTaskId() {
+        return taskId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public TaskUpdate getChanges() {
+        return changes;
+    }
+}
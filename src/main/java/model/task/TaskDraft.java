@@ -0,0 +1,56 @@
+package model.task;
+
+import java.time.LocalDate;
+
+// Field values of a task that has no id yet, e.g. a row being imported
+public class TaskDraft {
+    private final String title;
+    private final String description;
+    private final LocalDate dueDate;
+    private final Priority priority;
+    private final Status status;
+    private final Category category;
+    private final LocalDate creationDate;
+
+    public TaskDraft(String title, String description, LocalDate dueDate, Priority priority, Status status, Category category, LocalDate creationDate) {
+        this.title = title;
+        this.description = description;
+        this.dueDate = dueDate;
+        this.priority = priority;
+        this.status = status;
+        this.category = category;
+        this.creationDate = creationDate;
+    }
+
+    public Task toTask(long id) {
+        return TaskCreator.createTask(id, title, description, dueDate, priority, status, category, creationDate);
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public LocalDate getCreationDate() {
+        return creationDate;
+    }
+}
@@ -0,0 +1,90 @@
+package model.task;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+// New values for some fields of a task; null leaves a field unchanged
+public class TaskUpdate {
+
+    // bits of getFieldMask()
+    public static final int TITLE = 1;
+    public static final int DESCRIPTION = 1 << 1;
+    public static final int DUE_DATE = 1 << 2;
+    public static final int PRIORITY = 1 << 3;
+    public static final int STATUS = 1 << 4;
+
+    private final String title;
+    private final String description;
+    private final LocalDate dueDate;
+    private final Priority priority;
+    private final Status status;
+
+    public TaskUpdate(String title, String description, LocalDate dueDate, Priority priority, Status status) {
+        this.title = title;
+        this.description = description;
+        this.dueDate = dueDate;
+        this.priority = priority;
+        this.status = status;
+    }
+
+    public int getFieldMask() {
+        return (title != null ? TITLE : 0)
+                | (description != null ? DESCRIPTION : 0)
+                | (dueDate != null ? DUE_DATE : 0)
+                | (priority != null ? PRIORITY : 0)
+                | (status != null ? STATUS : 0);
+    }
+
+    public boolean isEmpty() {
+        return getFieldMask() == 0;
+    }
+
+    // Only the fields whose new value differs from the task's
+    public TaskUpdate changesFrom(Task task) {
+        return new TaskUpdate(
+                changed(title, task.getTitle()),
+                changed(description, task.getDescription()),
+                changed(dueDate, task.getDueDate()),
+                changed(priority, task.getPriority()),
+                changed(status, task.getStatus()));
+    }
+
+    // New task object with the fields applied and the given version; the task itself is not modified
+    public Task applyTo(Task task, long version) {
+        Task updated = TaskCreator.createTask(task.getId(),
+                title != null ? title : task.getTitle(),
+                description != null ? description : task.getDescription(),
+                dueDate != null ? dueDate : task.getDueDate(),
+                priority != null ? priority : task.getPriority(),
+                status != null ? status : task.getStatus(),
+                task.getCategory(),
+                task.getCreationDate());
+        updated.setVersion(version);
+        updated.setOwner(task.getOwner());
+        return updated;
+    }
+
+    private static <T> T changed(T value, T current) {
+        return value != null && !Objects.equals(value, current) ? value : null;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+}
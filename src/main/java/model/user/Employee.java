@@ -3,25 +3,26 @@ package model.user;
 import model.task.*;
 import service.TaskManagerImpl;
 
+import java.util.function.Predicate;
+
 public class Employee extends User {
+    // Employees may only change personal tasks; checked by the manager on its own id lookup
+    private static final Predicate<Task> MAY_CHANGE = task -> task instanceof PersonalTask;
+
     public Employee(String username, String password, TaskManagerImpl taskManager) {
         super(username, password, taskManager);
     }
     @Override
     public void completeTask(Long completedTaskId) {
-        Task completedTask = getTaskManager().getTaskById(completedTaskId);
-        if(completedTask instanceof PersonalTask) {
-            getTaskManager().completeTask(completedTaskId);
-        }else if(completedTask instanceof WorkTask) {
+        Task completedTask = getTaskManager().completeTask(completedTaskId, MAY_CHANGE);
+        if(completedTask instanceof WorkTask) {
             System.out.println("you have no permission to complete this work task with Id ->" + completedTask.getId() + "<- and title ->" + completedTask.getTitle()+ "<-");
         }
     }
     @Override
     public void deleteTask(Long deletedTaskId) {
-        Task deletedTask = getTaskManager().getTaskById(deletedTaskId);
-        if(deletedTask instanceof PersonalTask) {
-            getTaskManager().deleteTask(deletedTaskId);
-        }else if(deletedTask instanceof WorkTask) {
+        Task deletedTask = getTaskManager().deleteTask(deletedTaskId, MAY_CHANGE);
+        if(deletedTask instanceof WorkTask) {
             System.out.println("you have no permission to delete this work task with Id ->" + deletedTask.getId() + "<- and title ->" + deletedTask.getTitle()+ "<-");
         }
     }
@@ -6,6 +6,10 @@ import model.task.Status;
 import model.task.Task;
 import service.TaskManagerImpl;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.LocalDate;
 import java.util.Set;
 
@@ -14,17 +18,42 @@ public abstract class User implements Comparable<User> {
 
     private TaskManagerImpl taskManager;
     private String username;
-    private String password;
+    // Only a salted SHA-256 hash of the password is kept
+    private final byte[] passwordSalt;
+    private final byte[] passwordHash;
+
+    private static final SecureRandom SALT_SOURCE = new SecureRandom();
 
     public User(String username, String password, TaskManagerImpl taskManager) {
         this.username = username;
-        this.password = password;
+        this.passwordSalt = new byte[16];
+        SALT_SOURCE.nextBytes(passwordSalt);
+        this.passwordHash = hashPassword(passwordSalt, password);
         this.taskManager = taskManager;
     }
 
+    public boolean checkPassword(String password) {
+        return password != null && MessageDigest.isEqual(passwordHash, hashPassword(passwordSalt, password));
+    }
+
+    private static byte[] hashPassword(byte[] salt, String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            return digest.digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
 
     public Task createTask(String title, String description, LocalDate dueDate, Priority priority, Status status, Category category, LocalDate creationDate) {
-        return taskManager.createTask(title, description, dueDate, priority, status, category, creationDate);
+        return taskManager.createTask(title, description, dueDate, priority, status, category, creationDate, username);
+    }
+
+    // The tasks this user created
+    public Set<Task> getMyTasks() {
+        return taskManager.getTasksByOwner(username);
     }
 
     public void displayAllTasks() {
@@ -63,8 +92,4 @@ public abstract class User implements Comparable<User> {
     public String getUsername() {
         return username;
     }
-
-    public String getPassword() {
-        return password;
-    }
 }
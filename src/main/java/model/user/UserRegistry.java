@@ -0,0 +1,32 @@
+package model.user;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// Users by username, so a login is one hash lookup and one password hash check
+public class UserRegistry {
+
+    private final Map<String, User> usersByName = new HashMap<>();
+
+    public void register(User user) {
+        if (usersByName.putIfAbsent(user.getUsername(), user) != null) {
+            throw new IllegalArgumentException("User " + user.getUsername() + " already exists.");
+        }
+    }
+
+    // The user with these credentials, or null
+    public User authenticate(String username, String password) {
+        User user = usersByName.get(username);
+        return user != null && user.checkPassword(password) ? user : null;
+    }
+
+    public User getUser(String username) {
+        return usersByName.get(username);
+    }
+
+    public Collection<User> getUsers() {
+        return Collections.unmodifiableCollection(usersByName.values());
+    }
+}
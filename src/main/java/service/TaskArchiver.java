@@ -0,0 +1,79 @@
+package service;
+
+import model.task.Status;
+import model.task.Task;
+import util.TaskArchive;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Moves completed tasks whose due date is older than the threshold out of the live set
+// and into a new compressed archive segment. The hot TreeSet (and the tasks file that is
+// rewritten on every change) then only holds tasks that are still in play.
+public class TaskArchiver {
+
+    private final TaskManagerImpl taskManager;
+    private final TaskArchive archive;
+
+    public TaskArchiver(TaskManagerImpl taskManager, TaskArchive archive) {
+        this.taskManager = taskManager;
+        this.archive = archive;
+        taskManager.setArchive(archive);
+    }
+
+    public int archiveCompletedTasks(int olderThanDays) {
+        return archiveCompletedTasks(LocalDate.now().minusDays(olderThanDays));
+    }
+
+    public int archiveCompletedTasks(LocalDate cutoffDate) {
+        // pick candidates from a copy, without holding the manager lock for the whole scan
+        List<Long> candidateIds = new ArrayList<>();
+        for (Task task : taskManager.snapshotTasks()) {
+            if (isArchivable(task, cutoffDate)) {
+                candidateIds.add(task.getId());
+            }
+        }
+        if (candidateIds.isEmpty()) {
+            System.out.println("No completed tasks older than " + cutoffDate + " to archive.");
+            return 0;
+        }
+
+        int archived;
+        // a task may have changed since the copy was taken: check the live one again, and
+        // keep the lock until it is removed so it cannot change in between
+        synchronized (taskManager) {
+            List<Task> candidates = new ArrayList<>(candidateIds.size());
+            List<Long> archivedIds = new ArrayList<>(candidateIds.size());
+            for (Long id : candidateIds) {
+                Task task = taskManager.getLiveTask(id);
+                if (task != null && isArchivable(task, cutoffDate)) {
+                    candidates.add(task);
+                    archivedIds.add(id);
+                }
+            }
+            if (candidates.isEmpty()) {
+                return 0;
+            }
+            try {
+                // Segment first: a crash in between leaves a duplicate, never a lost task
+                archive.writeSegment(candidates);
+            } catch (IOException e) {
+                System.err.println("Error writing archive segment: " + e.getMessage());
+                return 0;
+            }
+            archived = taskManager.retireTasks(archivedIds).size();
+        }
+        System.out.println(archived + " completed task(s) moved to the archive.");
+        return archived;
+    }
+
+    private static boolean isArchivable(Task task, LocalDate cutoffDate) {
+        return task.getStatus() == Status.COMPLETED && task.getDueDate().isBefore(cutoffDate);
+    }
+
+    public TaskArchive getArchive() {
+        return archive;
+    }
+}
@@ -0,0 +1,29 @@
+package service;
+
+import model.task.Task;
+
+// Synchronous callbacks fired by TaskManagerImpl after a change has been applied and saved.
+// Called while the manager lock is held, so implementations must be quick and must not
+// call back into the manager.
+public interface TaskChangeListener {
+
+    void onTaskCreated(Task task);
+
+    // Fired only when the status actually changed to COMPLETED; nothing else about the task changed
+    void onTaskCompleted(Task task);
+
+    void onTaskDeleted(Task task);
+
+    // A task left the live set without a user deleting it: moved to the archive (still found
+    // by getTaskById) or purged by a retention policy. Treated as a delete unless overridden.
+    default void onTaskRetired(Task task) {
+        onTaskDeleted(task);
+    }
+
+    // A task was replaced by a different version with the same id (replication, external edits).
+    // Listeners that need nothing finer can treat it as a delete followed by a create.
+    default void onTaskUpdated(Task previous, Task current) {
+        onTaskDeleted(previous);
+        onTaskCreated(current);
+    }
+}
@@ -0,0 +1,214 @@
+package service;
+
+import model.task.Task;
+import util.FileHandler;
+import util.compression.BlockCompression;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+// Every task block of the plain tasks file by (length, CRC32), so a reload after a
+// rewrite only parses the blocks it has not seen before; the others are just checksummed.
+// The file is streamed a block at a time, so it may be larger than an array. Used by
+// TaskManagerImpl with the store locked.
+final class TaskFileBlockIndex {
+
+    private static final Pattern ID_PATTERN = Pattern.compile("ID:(\\d+)");
+
+    private Map<Long, Long> idsByChecksum = new HashMap<>();
+
+    private long bytesRead;
+    private long blocksParsed;
+
+    // What a diff found: the tasks of new blocks, and the id of every task in the file
+    static final class Diff {
+        final List<Task> changedTasks;
+        final Set<Long> presentIds;
+
+        Diff(List<Task> changedTasks, Set<Long> presentIds) {
+            this.changedTasks = changedTasks;
+            this.presentIds = presentIds;
+        }
+    }
+
+    private interface BlockVisitor {
+        // false stops the scan
+        boolean visit(byte[] content, int length) throws IOException;
+    }
+
+    static boolean isPlainText(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return true;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.size() < 4 || !BlockCompression.isCompressed(read(channel, 0, 4));
+        }
+    }
+
+    // Remembers the blocks of the file as it is now, without parsing them
+    synchronized void index(Path file) throws IOException {
+        Map<Long, Long> indexedIds = new HashMap<>();
+        if (Files.exists(file)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                scan(channel, (content, length) -> {
+                    Long id = extractId(content, length);
+                    if (id != null) {
+                        indexedIds.put(checksumKey(content, length), id);
+                    }
+                    return true;
+                });
+            }
+        }
+        idsByChecksum = indexedIds;
+    }
+
+    // The tasks of the blocks that are new since the last call, and the ids of all tasks in
+    // the file. Null if the file ends in an incomplete block or a new block does not parse,
+    // e.g. while someone who bypasses the store lock is still writing it: the caller should
+    // retry later, and the index is left as it was.
+    synchronized Diff diff(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null; // a missing file is more likely a hiccup than a request to drop everything
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readChangedBlocks(channel);
+        }
+    }
+
+    private Diff readChangedBlocks(FileChannel channel) throws IOException {
+        Map<Long, Long> readIds = new HashMap<>();
+        List<Task> changedTasks = new ArrayList<>();
+        Set<Long> presentIds = new HashSet<>();
+        boolean[] parsed = {true};
+        boolean complete = scan(channel, (content, length) -> {
+            long key = checksumKey(content, length);
+            Long id = idsByChecksum.get(key);
+            if (id == null) {
+                Task task = parse(content, length);
+                if (task == null) {
+                    parsed[0] = false;
+                    return false;
+                }
+                changedTasks.add(task);
+                id = task.getId();
+            }
+            readIds.put(key, id);
+            presentIds.add(id);
+            return true;
+        });
+        if (!complete || !parsed[0]) {
+            return null;
+        }
+        idsByChecksum = readIds;
+        return new Diff(changedTasks, presentIds);
+    }
+
+    // Calls the visitor with every block of the file. A block starts at every line whose
+    // first non-blank characters are "task", the same rule FileHandler.readTasksFromFile uses;
+    // anything before the first one is skipped. Returns false if the last block is not
+    // terminated by a blank line, so the file may still be being written, or the visitor
+    // stopped the scan.
+    private boolean scan(FileChannel channel, BlockVisitor visitor) throws IOException {
+        InputStream in = new BufferedInputStream(Channels.newInputStream(channel), 65536);
+        byte[] content = new byte[4096];
+        int length = 0;
+        int lineStart = 0;
+        boolean started = false;
+        while (true) {
+            int b = in.read();
+            if (b >= 0) {
+                bytesRead++;
+                if (length == content.length) {
+                    content = Arrays.copyOf(content, content.length * 2);
+                }
+                content[length++] = (byte) b;
+                if (b != '\n') {
+                    continue;
+                }
+            }
+            if (lineStart < length && startsWithTask(content, lineStart, length)) {
+                if (started && lineStart > 0 && !visitor.visit(content, lineStart)) {
+                    return false;
+                }
+                // drop the finished block, or what came before the first one
+                System.arraycopy(content, lineStart, content, 0, length - lineStart);
+                length -= lineStart;
+                started = true;
+            } else if (!started) {
+                length = 0;
+            }
+            if (b < 0) {
+                break;
+            }
+            lineStart = length;
+        }
+        if (!started || length == 0) {
+            return true;
+        }
+        return endsWithBlankLine(content, length) && visitor.visit(content, length);
+    }
+
+    private Task parse(byte[] content, int length) {
+        blocksParsed++;
+        return FileHandler.parseTaskBlock(new String(content, 0, length, Charset.defaultCharset()));
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.array();
+    }
+
+    private static boolean startsWithTask(byte[] content, int lineStart, int lineEnd) {
+        int i = lineStart;
+        while (i < lineEnd && (content[i] == ' ' || content[i] == '\t')) {
+            i++;
+        }
+        return lineEnd - i >= 4 && content[i] == 't' && content[i + 1] == 'a' && content[i + 2] == 's' && content[i + 3] == 'k';
+    }
+
+    // The writers end every block with an empty line
+    private static boolean endsWithBlankLine(byte[] content, int length) {
+        if (length < 2 || content[length - 1] != '\n') {
+            return false;
+        }
+        int previous = content[length - 2] == '\r' ? length - 3 : length - 2;
+        return previous >= 0 && content[previous] == '\n';
+    }
+
+    // CRC32 in the high half, length in the low half
+    private static long checksumKey(byte[] content, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, length);
+        return (crc.getValue() << 32) | (length & 0xffffffffL);
+    }
+
+    private static Long extractId(byte[] content, int length) {
+        Matcher matcher = ID_PATTERN.matcher(new String(content, 0, length, Charset.defaultCharset()));
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : null;
+    }
+
+    synchronized long getBytesRead() {
+        return bytesRead;
+    }
+
+    synchronized long getBlocksParsed() {
+        return blocksParsed;
+    }
+}
@@ -0,0 +1,126 @@
+package service;
+
+import util.FileHandler;
+import util.TaskStoreLock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+// Picks up changes another process makes to the tasks store as soon as they happen, instead
+// of at this manager's next write. Every change to the store bumps a generation in its lock
+// file, so the watcher only has to notice that file changing and call refreshFromStore(),
+// which reads the change under the store lock: new delta log records, or after a rewrite
+// only the task blocks that changed (see TaskFileBlockIndex). Compressed stores are reparsed
+// whole. Edits that bypass the store lock are not seen.
+public class TaskFileReloader implements Closeable {
+
+    private static final long DEBOUNCE_MILLIS = 50;
+
+    private final TaskManagerImpl taskManager;
+    private final Path file;
+    private final TaskFileBlockIndex blocks = new TaskFileBlockIndex();
+
+    private long reloadCount;
+    private long tasksApplied;
+
+    private WatchService watchService;
+    private Thread watchThread;
+    private volatile boolean running;
+
+    public TaskFileReloader(TaskManagerImpl taskManager) {
+        if (!taskManager.isPersistent()) {
+            throw new IllegalArgumentException("Only a manager backed by the tasks file can be reloaded.");
+        }
+        this.taskManager = taskManager;
+        this.file = FileHandler.getTasksFilePath().toAbsolutePath();
+        // the manager was loaded from this file: remember its blocks without parsing them
+        try {
+            taskManager.trackFileBlocks(blocks);
+        } catch (IOException e) {
+            System.err.println("Error indexing tasks file for reload: " + e.getMessage());
+        }
+    }
+
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        watchService = file.getFileSystem().newWatchService();
+        file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        running = true;
+        watchThread = new Thread(this::watchLoop, "tasks-file-reloader");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    private void watchLoop() {
+        Path fileName = file.getFileName();
+        Path lockFileName = TaskStoreLock.lockFileFor(file).getFileName();
+        while (running) {
+            try {
+                WatchKey key = watchService.take();
+                boolean relevant = false;
+                do {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (fileName.equals(event.context()) || lockFileName.equals(event.context())) {
+                            relevant = true;
+                        }
+                    }
+                    key.reset();
+                    // writers touch the file several times per save; let them finish
+                    key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                } while (key != null);
+                if (relevant) {
+                    reloadNow();
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+        }
+    }
+
+    // Brings the manager in line with the store. Returns the number of tasks changed.
+    public synchronized int reloadNow() {
+        int applied = taskManager.refreshFromStore();
+        reloadCount++;
+        tasksApplied += applied;
+        return applied;
+    }
+
+    public synchronized long getReloadCount() {
+        return reloadCount;
+    }
+
+    // Bytes of the tasks file read to diff rewrites
+    public long getBytesRead() {
+        return blocks.getBytesRead();
+    }
+
+    public long getBlocksParsed() {
+        return blocks.getBlocksParsed();
+    }
+
+    public synchronized long getTasksApplied() {
+        return tasksApplied;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                System.err.println("Error closing file watcher: " + e.getMessage());
+            }
+        }
+        if (watchThread != null) {
+            watchThread.interrupt();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import model.task.Category;
 import model.task.Priority;
 import model.task.Status;
 import model.task.Task;
+import model.task.TaskUpdate;
 
 import java.time.LocalDate;
 import java.util.Set;
@@ -20,4 +21,12 @@ public interface TaskManager {
     void deleteTask(Long completedTaskId);
 
     Task getTaskById(Long id);
+
+    // Changes the given fields if the task is still at expectedVersion, see Task.getVersion()
+    Task updateTask(Long taskId, long expectedVersion, TaskUpdate update);
+
+    // Runs several operations as a group; implementations may write the file once at the end
+    default void runBatch(Runnable operations) {
+        operations.run();
+    }
 }
@@ -2,39 +2,329 @@ package service;
 
 import model.task.*; // Ensure all necessary Task-related imports are here
 import util.FileHandler;
+import util.TaskArchive;
+import util.TaskOffsetTable;
+import util.TaskStoreLock;
 
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 public class TaskManagerImpl implements TaskManager {
 
-    private Set<Task> tasks = new TreeSet<>();
+    private final NavigableSet<Task> tasks = new TreeSet<>();
+    // Optional cold tier with archived completed tasks, consulted on live misses
+    private TaskArchive archive;
+    private final List<TaskChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // false for in-memory instances (e.g. replication followers) that must not touch the tasks file
+    private final boolean persistent;
+    // Highest live id, kept up to date on inserts and recomputed lazily after removals
+    private long maxTaskId;
+    private boolean maxTaskIdStale = true;
+    private final Map<Long, Task> tasksById = new HashMap<>();
+    // owner username -> ids of the live tasks it owns
+    private final Map<String, Set<Long>> taskIdsByOwner = new HashMap<>();
+    // Highest id handed out by reserveTaskId(), not necessarily in use yet
+    private long reservedTaskId;
+    // Updates appended to the delta log since the tasks file was last written in full
+    private long deltaCount;
+    // Open runBatch() calls; while > 0 file writes are deferred to the end of the outermost one
+    private int batchDepth;
+    private boolean batchDirty;
+    // Lazy startup: logged updates not yet applied to the tasks read from the file, by id
+    private Map<Long, List<TaskDelta>> pendingDeltas = Collections.emptyMap();
+    // Generation of the tasks file this manager last read or wrote (null until then, and for
+    // in-memory managers), and how much of the delta log it has read
+    private TaskStoreLock.Generation storeGeneration;
+    private long deltaLogOffset;
+    private long storeSyncCount;
+    // Set by TaskFileReloader, so a rewritten file is diffed by block instead of reparsed whole
+    private TaskFileBlockIndex fileBlocks;
+
+    // Lazy startup: until ready, getTaskById faults single tasks in through the id offset
+    // table while a background thread loads the rest; every other operation waits for it
+    private volatile boolean ready = true;
+    private TaskOffsetTable offsetTable;
+    private RandomAccessFile offsetTableFile;
+    // set if neither the background load nor the fallback could read the tasks
+    private RuntimeException loadFailure;
+    private volatile long loadedTaskCount;
+    private long totalTaskCount;
+
+    private static final int MIN_DELTAS_BEFORE_REWRITE = 1024;
+    private static final Predicate<Task> ANY_TASK = task -> true;
+    private static final TaskUpdate COMPLETE = new TaskUpdate(null, null, null, null, Status.COMPLETED);
 
     public TaskManagerImpl() {
-        // Initialize tasks by loading from file
-        loadAllTasks();
+        this(false);
+    }
+
+    // With lazyStartup the constructor returns as soon as the id offset table is available
+    // (loaded from the side file, or rebuilt by a quick byte scan); see isReady()
+    public TaskManagerImpl(boolean lazyStartup) {
+        this.persistent = true;
+        if (!lazyStartup || !startLazily()) {
+            // Initialize tasks by loading from file
+            loadAllTasks();
+        }
+    }
+
+    // In-memory manager seeded with the given tasks; changes are never written to the file
+    public TaskManagerImpl(Collection<Task> initialTasks) {
+        this.persistent = false;
+        for (Task task : initialTasks) {
+            if (this.tasks.add(task)) {
+                indexTask(task);
+            }
+        }
+    }
+
+    public synchronized void loadAllTasks() {
+        awaitReadyLocked();
+        readAllTasks();
+    }
+
+    private void readAllTasks() {
+        try (TaskStoreLock.Hold ignored = persistent ? FileHandler.lockTasksFile(false, false) : null) {
+            Set<Task> loadedTasks = FileHandler.readTasksFromFile();
+            tasks.clear();
+            tasksById.clear();
+            taskIdsByOwner.clear();
+            if (loadedTasks != null) {
+                for (Task task : loadedTasks) {
+                    if (tasks.add(task)) {
+                        indexTask(task);
+                    }
+                }
+            }
+            if (persistent) {
+                deltaCount = 0;
+                replayDeltas(groupById(FileHandler.readTaskDeltas()));
+                noteStoreWritten();
+            }
+        }
+        this.maxTaskIdStale = true;
+    }
+
+    private static Map<Long, List<TaskDelta>> groupById(List<TaskDelta> deltas) {
+        Map<Long, List<TaskDelta>> byId = new HashMap<>();
+        if (deltas != null) {
+            for (TaskDelta delta : deltas) {
+                byId.computeIfAbsent(delta.getTaskId(), id -> new ArrayList<>(1)).add(delta);
+            }
+        }
+        return byId;
     }
 
-    public void loadAllTasks() {
-        this.tasks = FileHandler.readTasksFromFile();
+    // Brings the tasks read from the file up to date with the updates logged after it was written
+    private void replayDeltas(Map<Long, List<TaskDelta>> deltasById) {
+        for (Map.Entry<Long, List<TaskDelta>> entry : deltasById.entrySet()) {
+            Task current = tasksById.get(entry.getKey());
+            if (current == null) {
+                continue;
+            }
+            Task updated = applyDeltas(current, entry.getValue());
+            if (updated != current) {
+                tasks.remove(current);
+                if (!tasks.add(updated)) {
+                    System.err.println("Skipping logged update of task ID " + updated.getId() + ": title " + updated.getTitle() + " already exists.");
+                    tasks.add(current);
+                    continue;
+                }
+                tasksById.put(updated.getId(), updated);
+            }
+            deltaCount += entry.getValue().size();
+        }
+    }
+
+    private static Task applyDeltas(Task task, List<TaskDelta> deltas) {
+        for (TaskDelta delta : deltas) {
+            task = delta.applyTo(task);
+        }
+        return task;
+    }
+
+    private boolean startLazily() {
+        Path tasksFile = FileHandler.getTasksFilePath();
+        try {
+            if (!Files.exists(tasksFile) || FileHandler.isCompressed(tasksFile)) {
+                return false;
+            }
+            try (TaskStoreLock.Hold ignored = FileHandler.lockTasksFile(false, false)) {
+                offsetTable = TaskOffsetTable.loadOrBuild(tasksFile);
+                offsetTableFile = new RandomAccessFile(tasksFile.toFile(), "r");
+                totalTaskCount = offsetTable.size();
+                pendingDeltas = groupById(FileHandler.readTaskDeltas(tasksFile));
+                noteStoreWritten();
+            }
+            FileHandler.setOffsetTableEnabled(true);
+        } catch (IOException e) {
+            System.err.println("Lazy startup unavailable, loading all tasks: " + e.getMessage());
+            return false;
+        }
+        ready = false;
+        Thread warmUp = new Thread(() -> warmUp(tasksFile), "task-warmup");
+        warmUp.setDaemon(true);
+        warmUp.start();
+        return true;
+    }
+
+    // Background load of the full task set and its indexes. Tasks already faulted in by
+    // getTaskById are kept as the live instances, so callers never see two copies.
+    private void warmUp(Path tasksFile) {
+        long started = System.nanoTime();
+        List<Task> loadedTasks = new ArrayList<>((int) Math.min(Integer.MAX_VALUE, totalTaskCount));
+        try {
+            FileHandler.readTasksFromFile(tasksFile, task -> {
+                loadedTasks.add(task);
+                loadedTaskCount++;
+            });
+        } catch (RuntimeException e) {
+            System.err.println("Error loading tasks in the background, loading them again: " + e.getMessage());
+            loadAfterFailedWarmUp(e);
+            return;
+        }
+        synchronized (this) {
+            for (Task task : loadedTasks) {
+                Task faulted = tasksById.get(task.getId());
+                Task live = faulted != null ? faulted : task;
+                if (tasks.add(live)) {
+                    indexTask(live);
+                }
+            }
+            // faulted-in tasks already carry their updates and are skipped by version
+            replayDeltas(pendingDeltas);
+            pendingDeltas = Collections.emptyMap();
+            maxTaskIdStale = true;
+            closeOffsetTable();
+            ready = true;
+            notifyAll();
+        }
+        System.out.println("Loaded " + tasks.size() + " tasks in the background in "
+                + (System.nanoTime() - started) / 1_000_000 + " ms.");
+        verifyOffsetTable(tasksFile);
+    }
+
+    // Falls back to the blocking load. If that fails too the manager never becomes ready:
+    // every caller waiting for it gets the error instead of a partial task set.
+    private synchronized void loadAfterFailedWarmUp(RuntimeException cause) {
+        closeOffsetTable();
+        pendingDeltas = Collections.emptyMap();
+        try {
+            readAllTasks();
+            ready = true;
+        } catch (RuntimeException e) {
+            e.addSuppressed(cause);
+            loadFailure = e;
+            System.err.println("Error loading tasks: " + e.getMessage());
+        }
+        notifyAll();
+    }
+
+    private void closeOffsetTable() {
+        offsetTable = null;
+        try {
+            offsetTableFile.close();
+        } catch (IOException e) {
+            System.err.println("Error closing tasks file: " + e.getMessage());
+        }
+        offsetTableFile = null;
+    }
+
+    // Startup trusted the offset table's stamp; the full checksum is checked here, off the
+    // startup path, so a table that no longer matches is rebuilt on the next start
+    private static void verifyOffsetTable(Path tasksFile) {
+        try (TaskStoreLock.Hold ignored = FileHandler.lockTasksFile(false, false)) {
+            if (!TaskOffsetTable.verify(tasksFile)) {
+                System.err.println("Task offset table did not match " + tasksFile + ", it will be rebuilt.");
+            }
+        } catch (IOException e) {
+            System.err.println("Error verifying task offset table: " + e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Fraction of the tasks file loaded so far, 1.0 once ready
+    public double getLoadProgress() {
+        if (ready || totalTaskCount == 0) {
+            return 1.0;
+        }
+        return Math.min(1.0, (double) loadedTaskCount / totalTaskCount);
+    }
+
+    public long getLoadedTaskCount() {
+        return ready ? tasksById.size() : loadedTaskCount;
+    }
+
+    // Returns false if the timeout elapsed before all tasks were loaded
+    public synchronized boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!ready) {
+            checkLoaded();
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    private void awaitReadyLocked() {
+        while (!ready) {
+            checkLoaded();
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for tasks to load.", e);
+            }
+        }
+    }
+
+    private void checkLoaded() {
+        if (loadFailure != null) {
+            throw new IllegalStateException("Tasks could not be loaded: " + loadFailure.getMessage(), loadFailure);
+        }
+    }
+
+    private Task faultIn(long id) {
+        Task task = null;
+        try {
+            task = offsetTable.readTask(offsetTableFile, id);
+        } catch (IOException e) {
+            System.err.println("Error reading task ID " + id + " from file: " + e.getMessage());
+        }
+        if (task != null) {
+            List<TaskDelta> deltas = pendingDeltas.get(id);
+            if (deltas != null) {
+                task = applyDeltas(task, deltas);
+            }
+            tasksById.put(id, task);
+        }
+        return task;
     }
 
     @Override
-    public void displayAllTasks() {
+    public synchronized void displayAllTasks() {
+        awaitReadyLocked();
         displayGivenTasks(tasks);
     }
 
     // GENERATE NEXT TASK ID
     private long generateNextTaskId() {
-        // Find the maximum existing ID
-        Optional<Long> maxIdOptional = tasks.stream()
-                .map(task -> (long) task.getId())
-                .max(Long::compare);
-
         long nextId;
-        if (maxIdOptional.isPresent()) {
-            long currentMaxId = maxIdOptional.get();
+        if (!tasks.isEmpty()) {
+            long currentMaxId = currentMaxTaskId();
             // Check for potential overflow before incrementing
             if (currentMaxId >= Long.MAX_VALUE) {
                 throw new IllegalStateException("Cannot generate new task ID: Maximum ID limit reached.");
@@ -43,36 +333,110 @@ public class TaskManagerImpl implements TaskManager {
         } else {
             nextId = 1; // Start with 1 if no tasks exist
         }
+        // Never hand out an id that is still taken by an archived task
+        if (archive != null && archive.getMaxId() >= nextId) {
+            nextId = archive.getMaxId() + 1;
+        }
+        if (reservedTaskId >= nextId) {
+            nextId = reservedTaskId + 1;
+        }
         return nextId;
     }
 
+    private long currentMaxTaskId() {
+        if (maxTaskIdStale) {
+            long max = 0;
+            for (Task task : tasks) {
+                max = Math.max(max, task.getId());
+            }
+            maxTaskId = max;
+            maxTaskIdStale = false;
+        }
+        return maxTaskId;
+    }
+
+    private void noteAdded(Task task) {
+        indexTask(task);
+        if (!maxTaskIdStale && task.getId() > maxTaskId) {
+            maxTaskId = task.getId();
+        }
+    }
+
+    private void noteRemoved(Task task) {
+        unindexTask(task);
+        if (task.getId() >= maxTaskId) {
+            maxTaskIdStale = true;
+        }
+    }
+
+    private void indexTask(Task task) {
+        tasksById.put(task.getId(), task);
+        if (task.getOwner() != null) {
+            taskIdsByOwner.computeIfAbsent(task.getOwner(), owner -> new HashSet<>()).add(task.getId());
+        }
+    }
+
+    private void unindexTask(Task task) {
+        tasksById.remove(task.getId());
+        Set<Long> owned = task.getOwner() != null ? taskIdsByOwner.get(task.getOwner()) : null;
+        if (owned != null && owned.remove(task.getId()) && owned.isEmpty()) {
+            taskIdsByOwner.remove(task.getOwner());
+        }
+    }
+
     @Override
-    public Task createTask(String title, String description, LocalDate dueDate, Priority priority, Status status, Category category, LocalDate creationDate) {
-        long newTaskId = generateNextTaskId(); // Generate the ID here
-
-        Task task = TaskCreator.createTask(
-                newTaskId,
-                title,
-                description,
-                dueDate,
-                priority,
-                status,
-                category,
-                creationDate
-        );
-
-        // Add the new task to the in-memory set
-        boolean isAdded = tasks.add(task);
-
-        if (isAdded) {
-            //Write ALL tasks back to the file, overwriting old content
-            FileHandler.writeTasksToFile(tasks); // Call the method that writes the whole Set
-            System.out.println("Task created: " + task.getTitle() + " (ID: " + task.getId() + ") and saved to file.");
-        } else {
-            System.out.println("Task with Title " + task.getTitle() + " already exists or could not be added.");
-            return null; // Task was not added
+    public synchronized Task createTask(String title, String description, LocalDate dueDate, Priority priority, Status status, Category category, LocalDate creationDate) {
+        return createTask(title, description, dueDate, priority, status, category, creationDate, null);
+    }
+
+    // As createTask, recording the given username as the task's owner
+    public synchronized Task createTask(String title, String description, LocalDate dueDate, Priority priority, Status status, Category category, LocalDate creationDate, String owner) {
+        requireStorableText(title, description, owner);
+        awaitReadyLocked();
+        try (TaskStoreLock.Hold ignored = beginStoreWrite(true)) {
+            long newTaskId = generateNextTaskId(); // Generate the ID here
+
+            Task task = TaskCreator.createTask(
+                    newTaskId,
+                    title,
+                    description,
+                    dueDate,
+                    priority,
+                    status,
+                    category,
+                    creationDate
+            );
+            task.setOwner(owner);
+
+            // Add the new task to the in-memory set
+            boolean isAdded = tasks.add(task);
+
+            if (isAdded) {
+                noteAdded(task);
+                //Write ALL tasks back to the file, overwriting old content
+                saveTasks(); // Writes the whole Set
+                System.out.println("Task created: " + task.getTitle() + " (ID: " + task.getId() + ") and saved to file.");
+                for (TaskChangeListener listener : listeners) {
+                    listener.onTaskCreated(task);
+                }
+            } else {
+                System.out.println("Task with Title " + task.getTitle() + " already exists or could not be added.");
+                return null; // Task was not added
+            }
+            return task;
         }
-        return task;
+    }
+
+    // Text the line-based tasks file cannot hold is rejected before anything is changed;
+    // a line break would let the rest of the field be read back as other fields or tasks
+    private static void requireStorableText(String title, String description, String owner) {
+        TaskCreator.requireSingleLine(title, "Task title");
+        TaskCreator.requireSingleLine(description, "Task description");
+        TaskCreator.requireSingleLine(owner, "Task owner");
+    }
+
+    private static void requireStorableText(Task task) {
+        requireStorableText(task.getTitle(), task.getDescription(), task.getOwner());
     }
 
     public void displayGivenTasks(Set<Task> tasksToDisplay) { // Renamed parameter for clarity
@@ -89,79 +453,692 @@ public class TaskManagerImpl implements TaskManager {
                 System.out.println("Status: " + task.getStatus());
                 System.out.println("Category: " + task.getCategory());
                 System.out.println("Creation Date: " + task.getCreationDate());
+                if (task.getOwner() != null) {
+                    System.out.println("Owner: " + task.getOwner());
+                }
                 System.out.println();
             }
         }
     }
 
     @Override
-    public Set<Task> searchTask(String title, String description) {
+    public synchronized Set<Task> searchTask(String title, String description) {
+        awaitReadyLocked();
         final String searchTitle = (title != null) ? title : "";
         final String searchDescription = (description != null) ? description : "";
 
-        Set<Task> foundTasks = tasks.stream()
-                .filter(task -> (task.getTitle() != null && task.getTitle().toLowerCase().contains(searchTitle.toLowerCase())) &&
-                        (task.getDescription() != null && task.getDescription().toLowerCase().contains(searchDescription.toLowerCase()))
-                )
-                .collect(Collectors.toSet());
+        // compared in place, ignoring case, instead of lower-casing a copy of every title
+        Set<Task> foundTasks = new HashSet<>();
+        for (Task task : tasks) {
+            if (containsIgnoreCase(task.getTitle(), searchTitle) && containsIgnoreCase(task.getDescription(), searchDescription)) {
+                foundTasks.add(task);
+            }
+        }
 
+        if (archive != null) {
+            foundTasks.addAll(archive.searchTask(title, description));
+        }
         return foundTasks;
     }
 
-    @Override
-    public void completeTask(Long taskIdToComplete) {
-        if (taskIdToComplete == null) {
-            System.out.println("Task ID to complete cannot be null.");
-            return;
+    private static boolean containsIgnoreCase(String text, String part) {
+        if (text == null) {
+            return false;
         }
-
-        boolean taskFoundAndUpdated = false;
-        // Iterate and find the task in the 'tasks' Set
-        for (Task existingTask : tasks) {
-            if (existingTask.getId() == taskIdToComplete) {
-                existingTask.setStatus(Status.COMPLETED); // Modify the existing object
-                taskFoundAndUpdated = true;
-                break; // Found and updated, exit loop
+        int last = text.length() - part.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, part, 0, part.length())) {
+                return true;
             }
         }
+        return false;
+    }
+
+    @Override
+    public synchronized void completeTask(Long taskIdToComplete) {
+        completeTask(taskIdToComplete, ANY_TASK);
+    }
+
+    // Completes the task only if permission accepts it, checked on the same single id lookup.
+    // Returns the task looked up, also when refused, or null if there is none.
+    public synchronized Task completeTask(Long taskIdToComplete, Predicate<? super Task> permission) {
+        awaitReadyLocked();
+        try (TaskStoreLock.Hold ignored = beginStoreWrite(true)) {
+            if (taskIdToComplete == null) {
+                System.out.println("Task ID to complete cannot be null.");
+                return null;
+            }
+
+            Task current = tasksById.get(taskIdToComplete);
+            if (current == null) {
+                System.out.println("Task ID " + taskIdToComplete + " not found.");
+                return null;
+            }
+            if (!permission.test(current)) {
+                return current;
+            }
+            // replaced, as in updateTask, so readers holding the old object never see it change
+            TaskUpdate changes = COMPLETE.changesFrom(current);
+            Task completedTask = current;
+            if (!changes.isEmpty()) {
+                completedTask = changes.applyTo(current, current.getVersion() + 1);
+                tasks.remove(current);
+                tasks.add(completedTask);
+                tasksById.put(taskIdToComplete, completedTask);
+            }
 
-        if (taskFoundAndUpdated) {
             // Write ALL tasks back to the file after modification
-            FileHandler.writeTasksToFile(tasks);
+            saveTasks();
             System.out.println("Task ID " + taskIdToComplete + " marked as COMPLETED and file saved.");
-        } else {
-            System.out.println("Task ID " + taskIdToComplete + " not found.");
+            if (completedTask != current) {
+                for (TaskChangeListener listener : listeners) {
+                    listener.onTaskCompleted(completedTask);
+                }
+            }
+            return completedTask;
         }
     }
 
     @Override
-    public void deleteTask(Long taskIdToDelete) {
-        if (taskIdToDelete == null) {
-            System.out.println("Task ID to delete cannot be null.");
-            return;
-        }
+    public synchronized void deleteTask(Long taskIdToDelete) {
+        deleteTask(taskIdToDelete, ANY_TASK);
+    }
 
-        boolean removed = tasks.removeIf(task -> task.getId() == taskIdToDelete);
+    // Deletes the task only if permission accepts it, checked on the same single id lookup.
+    // Returns the task looked up, also when refused, or null if there is none.
+    public synchronized Task deleteTask(Long taskIdToDelete, Predicate<? super Task> permission) {
+        awaitReadyLocked();
+        try (TaskStoreLock.Hold ignored = beginStoreWrite(true)) {
+            if (taskIdToDelete == null) {
+                System.out.println("Task ID to delete cannot be null.");
+                return null;
+            }
+
+            Task deletedTask = tasksById.get(taskIdToDelete);
+            if (deletedTask == null) {
+                System.out.println("Task ID " + taskIdToDelete + " not found.");
+                return null;
+            }
+            if (!permission.test(deletedTask)) {
+                return deletedTask;
+            }
+            tasks.remove(deletedTask);
+            noteRemoved(deletedTask);
 
-        if (removed) {
             // Write ALL tasks back to the file after modification
-            FileHandler.writeTasksToFile(tasks);
+            saveTasks();
             System.out.println("Task ID " + taskIdToDelete + " deleted and file saved.");
-        } else {
-            System.out.println("Task ID " + taskIdToDelete + " not found.");
+            for (TaskChangeListener listener : listeners) {
+                listener.onTaskDeleted(deletedTask);
+            }
+            return deletedTask;
         }
     }
 
+    // Tasks created by the given user, ordered by title. Costs the number of tasks the user
+    // owns, not the number of tasks.
+    public synchronized Set<Task> getTasksByOwner(String owner) {
+        awaitReadyLocked();
+        Set<Task> owned = new TreeSet<>();
+        Set<Long> ids = owner != null ? taskIdsByOwner.get(owner) : null;
+        if (ids != null) {
+            for (Long id : ids) {
+                owned.add(tasksById.get(id));
+            }
+        }
+        return owned;
+    }
+
     @Override
-    public Task getTaskById(Long id) {
+    public synchronized Task getTaskById(Long id) {
         if (id == null) return null;
-        return tasks.stream()
-                .filter(task -> task.getId() == id)
-                .findFirst()
-                .orElse(null);
+        Task task = tasksById.get(id);
+        if (task == null && !ready) {
+            checkLoaded();
+            task = faultIn(id);
+        }
+        if (task == null && archive != null) {
+            task = archive.getTaskById(id);
+        }
+        return task;
+    }
+
+    // Changes only the fields set in the update, and only if the task is still at
+    // expectedVersion (compare-and-set); the task is replaced by a copy with the next version.
+    // Instead of rewriting the tasks file, the changed fields are appended to its delta log,
+    // which is folded into a full rewrite once it grows as large as the task set.
+    // Returns the task after the update, or null if the id is not found.
+    @Override
+    public synchronized Task updateTask(Long taskId, long expectedVersion, TaskUpdate update) {
+        requireStorableText(update.getTitle(), update.getDescription(), null);
+        awaitReadyLocked();
+        boolean rewrite = persistent && deltaCount >= Math.max(MIN_DELTAS_BEFORE_REWRITE, tasks.size());
+        try (TaskStoreLock.Hold ignored = beginStoreWrite(rewrite)) {
+            Task current = taskId != null ? tasksById.get(taskId) : null;
+            if (current == null) {
+                System.out.println("Task ID " + taskId + " not found.");
+                return null;
+            }
+            if (current.getVersion() != expectedVersion) {
+                throw new TaskVersionConflictException(taskId, expectedVersion, current.getVersion());
+            }
+            TaskUpdate changes = update.changesFrom(current);
+            if (changes.isEmpty()) {
+                return current;
+            }
+            Task updated = changes.applyTo(current, current.getVersion() + 1);
+            if (changes.getTitle() != null) {
+                Task holder = tasks.ceiling(updated);
+                if (holder != null && holder.compareTo(updated) == 0) {
+                    throw new IllegalArgumentException("Task with Title " + updated.getTitle() + " already exists.");
+                }
+            }
+            tasks.remove(current);
+            tasks.add(updated);
+            tasksById.put(taskId, updated);
+            if (persistent) {
+                deltaCount++;
+                if (rewrite) {
+                    saveTasks();
+                } else {
+                    FileHandler.appendTaskDelta(new TaskDelta(taskId, updated.getVersion(), changes));
+                    noteStoreWritten();
+                }
+            }
+            System.out.println("Task ID " + taskId + " updated to version " + updated.getVersion() + ".");
+            for (TaskChangeListener listener : listeners) {
+                listener.onTaskUpdated(current, updated);
+            }
+            return updated;
+        }
+    }
+
+    // Bulk insert: ids are allocated as one contiguous range and, if save is true, the file is
+    // written once for the whole batch. Drafts whose title already exists are skipped.
+    public synchronized List<Task> createTasks(List<TaskDraft> drafts, boolean save) {
+        for (TaskDraft draft : drafts) {
+            requireStorableText(draft.getTitle(), draft.getDescription(), null);
+        }
+        awaitReadyLocked();
+        try (TaskStoreLock.Hold ignored = beginStoreWrite(true)) {
+            List<Task> createdTasks = new ArrayList<>(drafts.size());
+            if (drafts.isEmpty()) {
+                return createdTasks;
+            }
+            long nextId = generateNextTaskId();
+            for (TaskDraft draft : drafts) {
+                Task task = draft.toTask(nextId);
+                if (tasks.add(task)) {
+                    noteAdded(task);
+                    createdTasks.add(task);
+                    if (nextId == Long.MAX_VALUE) {
+                        throw new IllegalStateException("Cannot generate new task ID: Maximum ID limit reached.");
+                    }
+                    nextId++;
+                }
+            }
+            if (!createdTasks.isEmpty()) {
+                if (save) {
+                    saveTasks();
+                }
+                for (Task task : createdTasks) {
+                    for (TaskChangeListener listener : listeners) {
+                        listener.onTaskCreated(task);
+                    }
+                }
+            }
+            return createdTasks;
+        }
+    }
+
+    // Writes the whole set, e.g. after bulk inserts done with save == false
+    public synchronized void saveAllTasks() {
+        awaitReadyLocked();
+        try (TaskStoreLock.Hold ignored = beginStoreWrite(true)) {
+            saveTasks();
+        }
+    }
+
+    // Up to limit tasks that sort after the given one (by title), for paging through the
+    // store without copying it. Pass null to start at the beginning.
+    public synchronized List<Task> pageTasks(Task after, int limit) {
+        awaitReadyLocked();
+        Iterable<Task> source = after == null ? tasks : tasks.tailSet(after, false);
+        List<Task> page = new ArrayList<>(Math.min(limit, tasks.size()));
+        for (Task task : source) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(task);
+        }
+        return page;
+    }
+
+    // Inserts a task that already has an id, e.g. one received from a replication primary.
+    // A task with the same id is replaced. Returns false if the title is taken by another task.
+    public synchronized boolean putTask(Task task) {
+        requireStorableText(task);
+        awaitReadyLocked();
+        try (TaskStoreLock.Hold ignored = beginStoreWrite(true)) {
+            Task previous = tasksById.get(task.getId());
+            if (previous != null) {
+                tasks.remove(previous);
+            }
+            if (!tasks.add(task)) {
+                if (previous != null) {
+                    tasks.add(previous);
+                }
+                return false;
+            }
+            if (previous != null) {
+                task.setVersion(Math.max(task.getVersion(), previous.getVersion() + 1));
+                if (task.getOwner() == null) {
+                    task.setOwner(previous.getOwner());
+                }
+                unindexTask(previous);
+            }
+            noteAdded(task);
+            saveTasks();
+            for (TaskChangeListener listener : listeners) {
+                if (previous == null) {
+                    listener.onTaskCreated(task);
+                } else {
+                    listener.onTaskUpdated(previous, task);
+                }
+            }
+            return true;
+        }
+    }
+
+    // Applies changes made to the tasks file by someone else. Nothing is written back, since
+    // the file already holds this state. Tasks identical to the in-memory version are skipped.
+    // Returns the number of tasks inserted, replaced or removed.
+    public synchronized int applyExternalChanges(Collection<Task> changedTasks, Collection<Long> removedTaskIds) {
+        awaitReadyLocked();
+        int applied = 0;
+        for (Long removedId : removedTaskIds) {
+            Task removed = tasksById.get(removedId);
+            if (removed != null && tasks.remove(removed)) {
+                noteRemoved(removed);
+                applied++;
+                for (TaskChangeListener listener : listeners) {
+                    listener.onTaskDeleted(removed);
+                }
+            }
+        }
+        for (Task changed : changedTasks) {
+            Task existing = tasksById.get(changed.getId());
+            if (existing != null && existing.toString().equals(changed.toString())) {
+                continue;
+            }
+            if (existing != null) {
+                tasks.remove(existing);
+            }
+            if (!tasks.add(changed)) {
+                System.err.println("Skipping external task ID " + changed.getId() + ": title " + changed.getTitle() + " already exists.");
+                if (existing != null) {
+                    tasks.add(existing);
+                }
+                continue;
+            }
+            if (existing != null) {
+                changed.setVersion(Math.max(changed.getVersion(), existing.getVersion() + 1));
+                unindexTask(existing);
+            }
+            noteAdded(changed);
+            applied++;
+            for (TaskChangeListener listener : listeners) {
+                if (existing == null) {
+                    listener.onTaskCreated(changed);
+                } else {
+                    listener.onTaskUpdated(existing, changed);
+                }
+            }
+        }
+        return applied;
+    }
+
+    // Hands out an id for a task that is added later, e.g. by a transaction commit. The id is
+    // never allocated again, even if the task is not added in the end.
+    public synchronized long reserveTaskId() {
+        awaitReadyLocked();
+        try (TaskStoreLock.Hold ignored = beginStoreWrite(true)) {
+            reservedTaskId = generateNextTaskId();
+            return reservedTaskId;
+        }
+    }
+
+    // Applies a batch of changes by id as one unit: a task replaces the task with its id or
+    // is inserted, null removes the task. Titles are checked for the whole batch before
+    // anything is modified, and the file is written once.
+    public synchronized void applyChanges(Map<Long, Task> changes) {
+        awaitReadyLocked();
+        try (TaskStoreLock.Hold ignored = beginStoreWrite(true)) {
+            Map<Task, Long> claimedTitles = new TreeMap<>();
+            for (Map.Entry<Long, Task> change : changes.entrySet()) {
+                Task task = change.getValue();
+                if (task == null) {
+                    continue;
+                }
+                requireStorableText(task);
+                if (task.getId() != change.getKey()) {
+                    throw new IllegalArgumentException("Task ID " + task.getId() + " does not match change for ID " + change.getKey() + ".");
+                }
+                // the title stays taken unless its current holder is changed in the same batch
+                Task holder = tasks.ceiling(task);
+                boolean takenByOther = holder != null && holder.compareTo(task) == 0
+                        && holder.getId() != task.getId() && !changes.containsKey(holder.getId());
+                if (claimedTitles.put(task, task.getId()) != null || takenByOther) {
+                    throw new IllegalArgumentException("Task with Title " + task.getTitle() + " already exists.");
+                }
+            }
+            Map<Long, Task> previousTasks = new HashMap<>();
+            for (Long id : changes.keySet()) {
+                Task previous = tasksById.get(id);
+                if (previous != null) {
+                    previousTasks.put(id, previous);
+                    tasks.remove(previous);
+                    noteRemoved(previous);
+                }
+            }
+            for (Task task : changes.values()) {
+                if (task != null) {
+                    Task previous = previousTasks.get(task.getId());
+                    if (previous != null) {
+                        task.setVersion(previous.getVersion() + 1);
+                        if (task.getOwner() == null) {
+                            task.setOwner(previous.getOwner());
+                        }
+                    }
+                    tasks.add(task);
+                    noteAdded(task);
+                }
+            }
+            saveTasks();
+            System.out.println(changes.size() + " task changes applied and saved to file.");
+            for (Map.Entry<Long, Task> change : changes.entrySet()) {
+                Task previous = previousTasks.get(change.getKey());
+                Task current = change.getValue();
+                for (TaskChangeListener listener : listeners) {
+                    if (previous == null && current != null) {
+                        listener.onTaskCreated(current);
+                    } else if (previous != null && current == null) {
+                        listener.onTaskDeleted(previous);
+                    } else if (previous != null) {
+                        listener.onTaskUpdated(previous, current);
+                    }
+                }
+            }
+        }
+    }
+
+    // Runs the operations under the manager lock with a single write of the tasks file at
+    // the end (group commit) instead of one per change. Listeners still fire per change.
+    @Override
+    public synchronized void runBatch(Runnable operations) {
+        awaitReadyLocked();
+        try (TaskStoreLock.Hold ignored = beginStoreWrite(true)) {
+            batchDepth++;
+            try {
+                operations.run();
+            } finally {
+                if (--batchDepth == 0 && batchDirty) {
+                    batchDirty = false;
+                    saveTasks();
+                }
+            }
+        }
+    }
+
+    // Removes all given ids from the live set with a single file rewrite.
+    // Returns the tasks that were actually removed.
+    public synchronized List<Task> removeTasks(Collection<Long> taskIds) {
+        return removeTasks(taskIds, false);
+    }
+
+    // As removeTasks, for tasks moved to the archive or purged by retention rather than
+    // deleted by a user; listeners get onTaskRetired instead of onTaskDeleted
+    public synchronized List<Task> retireTasks(Collection<Long> taskIds) {
+        return removeTasks(taskIds, true);
+    }
+
+    private List<Task> removeTasks(Collection<Long> taskIds, boolean retired) {
+        awaitReadyLocked();
+        try (TaskStoreLock.Hold ignored = beginStoreWrite(true)) {
+            List<Task> removedTasks = new ArrayList<>();
+            if (taskIds == null || taskIds.isEmpty()) {
+                return removedTasks;
+            }
+            // by id, so a few removals do not walk the whole set
+            for (Long id : taskIds) {
+                Task task = id != null ? tasksById.get(id) : null;
+                if (task != null) {
+                    tasks.remove(task);
+                    noteRemoved(task);
+                    removedTasks.add(task);
+                }
+            }
+            if (!removedTasks.isEmpty()) {
+                saveTasks();
+                for (Task removedTask : removedTasks) {
+                    for (TaskChangeListener listener : listeners) {
+                        if (retired) {
+                            listener.onTaskRetired(removedTask);
+                        } else {
+                            listener.onTaskDeleted(removedTask);
+                        }
+                    }
+                }
+            }
+            return removedTasks;
+        }
+    }
+
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    private void saveTasks() {
+        if (batchDepth > 0) {
+            batchDirty = true;
+            return;
+        }
+        if (persistent) {
+            FileHandler.writeTasksToFile(tasks);
+            deltaCount = 0;
+            noteStoreWritten();
+        }
+    }
+
+    // Another process sharing the tasks file may have changed it since this manager last read
+    // or wrote it. The generation counters of the store tell cheaply whether it did, and which
+    // part: if only the delta log grew, just its new records are read; if the file was
+    // rewritten it is read again, and only tasks that differ are replaced.
+    // Returns the number of tasks changed.
+    public synchronized int refreshFromStore() {
+        if (!persistent) {
+            return 0;
+        }
+        awaitReadyLocked();
+        try (TaskStoreLock.Hold ignored = FileHandler.lockTasksFile(false, false)) {
+            return syncWithStore();
+        }
+    }
+
+    // Locks the store for a change (exclusively, or only the delta log if it is not
+    // rewritten) and brings this manager up to date first, so the change is made on the
+    // latest state and no other process's changes are overwritten. Reentrant.
+    private TaskStoreLock.Hold beginStoreWrite(boolean rewrite) {
+        if (!persistent) {
+            return null;
+        }
+        TaskStoreLock.Hold hold = FileHandler.lockTasksFile(rewrite, true);
+        syncWithStore();
+        return hold;
+    }
+
+    private int syncWithStore() {
+        TaskStoreLock.Generation current = FileHandler.getTasksFileGeneration();
+        if (current == null || current.equals(storeGeneration)) {
+            return 0;
+        }
+        int changed;
+        if (storeGeneration == null) {
+            changed = 0; // loaded without a generation, e.g. while the lock file was unavailable
+        } else if (current.getFileGeneration() != storeGeneration.getFileGeneration()) {
+            changed = reloadChangedTasks();
+            if (changed < 0) {
+                return 0; // keep the old generation so the next sync tries again
+            }
+        } else {
+            changed = applyNewDeltas();
+        }
+        storeGeneration = current;
+        storeSyncCount++;
+        if (changed > 0) {
+            System.out.println("Picked up " + changed + " task change(s) made by another process.");
+        }
+        return changed;
+    }
+
+    // Returns -1 if the file could not be read completely, so nothing was applied
+    private int reloadChangedTasks() {
+        Path tasksFile = FileHandler.getTasksFilePath();
+        Map<Long, Task> loaded = new HashMap<>();
+        Set<Long> presentIds = new HashSet<>();
+        boolean byBlock = false;
+        if (fileBlocks != null) {
+            try {
+                if (TaskFileBlockIndex.isPlainText(tasksFile)) {
+                    TaskFileBlockIndex.Diff diff = fileBlocks.diff(tasksFile);
+                    if (diff == null) {
+                        System.err.println("Tasks file is incomplete or unreadable, reload postponed.");
+                        return -1;
+                    }
+                    for (Task task : diff.changedTasks) {
+                        loaded.put(task.getId(), task);
+                    }
+                    presentIds.addAll(diff.presentIds);
+                    byBlock = true;
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading tasks file: " + e.getMessage());
+                return -1;
+            }
+        }
+        if (!byBlock) {
+            for (Task task : FileHandler.readTasksFromFile()) {
+                loaded.put(task.getId(), task);
+                presentIds.add(task.getId());
+            }
+        }
+        List<TaskDelta> deltas = FileHandler.readTaskDeltas();
+        deltaLogOffset = FileHandler.getTaskDeltaLogLength();
+        for (TaskDelta delta : deltas) {
+            // a task whose block did not change is as in memory
+            Task task = loaded.containsKey(delta.getTaskId()) ? loaded.get(delta.getTaskId())
+                    : byBlock && presentIds.contains(delta.getTaskId()) ? tasksById.get(delta.getTaskId()) : null;
+            if (task != null && task.getVersion() < delta.getVersion()) {
+                loaded.put(task.getId(), delta.applyTo(task));
+            }
+        }
+        deltaCount = deltas.size();
+        List<Long> removedIds = new ArrayList<>();
+        for (Long id : tasksById.keySet()) {
+            if (!presentIds.contains(id)) {
+                removedIds.add(id);
+            }
+        }
+        // applyExternalChanges skips the tasks that are the same as in memory
+        return applyExternalChanges(loaded.values(), removedIds);
+    }
+
+    // Remembers the blocks of the tasks file as it is now, so later reloads only parse blocks
+    // that changed; see TaskFileReloader
+    synchronized void trackFileBlocks(TaskFileBlockIndex index) throws IOException {
+        if (!persistent) {
+            throw new IllegalStateException("Only a manager backed by the tasks file can track it.");
+        }
+        awaitReadyLocked();
+        try (TaskStoreLock.Hold ignored = FileHandler.lockTasksFile(false, false)) {
+            syncWithStore();
+            index.index(FileHandler.getTasksFilePath());
+            fileBlocks = index;
+        }
+    }
+
+    private int applyNewDeltas() {
+        List<TaskDelta> deltas = FileHandler.readTaskDeltas(FileHandler.getTasksFilePath(), deltaLogOffset);
+        deltaLogOffset = FileHandler.getTaskDeltaLogLength();
+        int applied = 0;
+        for (TaskDelta delta : deltas) {
+            deltaCount++;
+            Task current = tasksById.get(delta.getTaskId());
+            if (current == null || current.getVersion() >= delta.getVersion()) {
+                continue;
+            }
+            Task updated = delta.applyTo(current);
+            tasks.remove(current);
+            if (!tasks.add(updated)) {
+                System.err.println("Skipping external update of task ID " + updated.getId() + ": title " + updated.getTitle() + " already exists.");
+                tasks.add(current);
+                continue;
+            }
+            tasksById.put(updated.getId(), updated);
+            applied++;
+            for (TaskChangeListener listener : listeners) {
+                listener.onTaskUpdated(current, updated);
+            }
+        }
+        return applied;
+    }
+
+    // Called with the store locked, right after this manager wrote to it
+    private void noteStoreWritten() {
+        storeGeneration = FileHandler.getTasksFileGeneration();
+        deltaLogOffset = FileHandler.getTaskDeltaLogLength();
+    }
+
+    // Number of times this manager found the store changed by another process
+    public synchronized long getStoreSyncCount() {
+        return storeSyncCount;
+    }
+
+    public void addTaskChangeListener(TaskChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeTaskChangeListener(TaskChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    public TaskArchive getArchive() {
+        return archive;
+    }
+
+    public void setArchive(TaskArchive archive) {
+        this.archive = archive;
     }
 
     public Set<Task> getTasks() {
+        if (!ready) {
+            synchronized (this) {
+                awaitReadyLocked();
+            }
+        }
         return Collections.unmodifiableSet(tasks);
     }
+
+    // The live task with this id, never one faulted in from the file or read from the archive;
+    // background jobs call it under the manager lock to re-check a task before removing it
+    public synchronized Task getLiveTask(Long id) {
+        awaitReadyLocked();
+        return id != null ? tasksById.get(id) : null;
+    }
+
+    // Point-in-time copy that background jobs can iterate without holding the lock
+    public synchronized List<Task> snapshotTasks() {
+        awaitReadyLocked();
+        return new ArrayList<>(tasks);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package service;
+
+// Thrown by updateTask when the task was changed since the caller read it
+public class TaskVersionConflictException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    private final long taskId;
+    private final long expectedVersion;
+    private final long actualVersion;
+
+    public TaskVersionConflictException(long taskId, long expectedVersion, long actualVersion) {
+        super("Task ID " + taskId + " was changed concurrently: expected version " + expectedVersion + ", found " + actualVersion + ".");
+        this.taskId = taskId;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    public long getTaskId() {
+        return taskId;
+    }
+
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    public long getActualVersion() {
+        return actualVersion;
+    }
+}
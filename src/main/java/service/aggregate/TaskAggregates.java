@@ -0,0 +1,188 @@
+package service.aggregate;
+
+import model.task.Category;
+import model.task.Priority;
+import model.task.Status;
+import model.task.Task;
+import service.TaskChangeListener;
+import service.TaskManagerImpl;
+import util.FenwickTree;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Materialized counts kept up to date from TaskChangeListener callbacks, so dashboard
+// queries never scan the task set:
+//  - a Status x Priority x Category cube of counters (O(1) update, O(1) query)
+//  - per Status, a Fenwick tree of due dates over epoch days (O(log n) update and range count)
+public class TaskAggregates implements TaskChangeListener {
+
+    private static final Status[] STATUSES = Status.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final long[][][] counts = new long[STATUSES.length][PRIORITIES.length][CATEGORIES.length];
+    private final FenwickTree[] dueDates = new FenwickTree[STATUSES.length];
+    private long total;
+
+    private TaskManagerImpl manager;
+
+    // Builds the views from the current tasks and starts following changes. The snapshot
+    // and the registration happen under the manager lock so no mutation falls in between.
+    public void attach(TaskManagerImpl taskManager) {
+        if (manager != null) {
+            throw new IllegalStateException("TaskAggregates is already attached to a task manager.");
+        }
+        synchronized (taskManager) {
+            rebuild(taskManager.snapshotTasks());
+            taskManager.addTaskChangeListener(this);
+            manager = taskManager;
+        }
+    }
+
+    public void detach() {
+        if (manager != null) {
+            manager.removeTaskChangeListener(this);
+            manager = null;
+        }
+    }
+
+    // Recomputes everything from scratch, e.g. after TaskManagerImpl.loadAllTasks() which
+    // replaces the task set without firing listener callbacks
+    public synchronized void rebuild(Collection<Task> tasks) {
+        for (long[][] byPriority : counts) {
+            for (long[] byCategory : byPriority) {
+                Arrays.fill(byCategory, 0);
+            }
+        }
+        for (int i = 0; i < dueDates.length; i++) {
+            dueDates[i] = null;
+        }
+        total = 0;
+        for (Task task : tasks) {
+            apply(task, 1);
+        }
+    }
+
+    public void rebuild() {
+        if (manager == null) {
+            throw new IllegalStateException("TaskAggregates is not attached to a task manager.");
+        }
+        synchronized (manager) {
+            rebuild(manager.snapshotTasks());
+        }
+    }
+
+    @Override
+    public synchronized void onTaskCreated(Task task) {
+        apply(task, 1);
+    }
+
+    @Override
+    public synchronized void onTaskCompleted(Task task) {
+        // the task object is already COMPLETED; everything else is unchanged
+        move(task, Status.PENDING, Status.COMPLETED);
+    }
+
+    @Override
+    public synchronized void onTaskDeleted(Task task) {
+        apply(task, -1);
+    }
+
+    @Override
+    public synchronized void onTaskUpdated(Task previous, Task current) {
+        apply(previous, -1);
+        apply(current, 1);
+    }
+
+    // Count of tasks matching the given dimensions; null means "any value"
+    public synchronized long count(Status status, Priority priority, Category category) {
+        long sum = 0;
+        for (int s = 0; s < STATUSES.length; s++) {
+            if (status != null && s != status.ordinal()) {
+                continue;
+            }
+            for (int p = 0; p < PRIORITIES.length; p++) {
+                if (priority != null && p != priority.ordinal()) {
+                    continue;
+                }
+                for (int c = 0; c < CATEGORIES.length; c++) {
+                    if (category == null || c == category.ordinal()) {
+                        sum += counts[s][p][c];
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    public synchronized long total() {
+        return total;
+    }
+
+    // Tasks due in [from, to], both inclusive; status null means any status
+    public synchronized long countDueBetween(Status status, LocalDate from, LocalDate to) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        long sum = 0;
+        for (int s = 0; s < STATUSES.length; s++) {
+            if ((status == null || s == status.ordinal()) && dueDates[s] != null) {
+                sum += dueDates[s].rangeSum(fromDay, toDay);
+            }
+        }
+        return sum;
+    }
+
+    // Tasks due in the Monday-to-Sunday week containing the given day
+    public long countDueInWeek(Status status, LocalDate dayInWeek) {
+        LocalDate monday = weekStart(dayInWeek);
+        return countDueBetween(status, monday, monday.plusDays(6));
+    }
+
+    // Per-week totals keyed by the Monday of each week, covering every week from the one
+    // containing 'from' to the one containing 'to' (empty weeks included)
+    public synchronized Map<LocalDate, Long> weeklyDueTotals(Status status, LocalDate from, LocalDate to) {
+        Map<LocalDate, Long> totals = new LinkedHashMap<>();
+        for (LocalDate monday = weekStart(from); !monday.isAfter(to); monday = monday.plusWeeks(1)) {
+            totals.put(monday, countDueBetween(status, monday, monday.plusDays(6)));
+        }
+        return totals;
+    }
+
+    private static LocalDate weekStart(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private void apply(Task task, int delta) {
+        int s = task.getStatus().ordinal();
+        counts[s][task.getPriority().ordinal()][task.getCategory().ordinal()] += delta;
+        total += delta;
+        if (task.getDueDate() != null) {
+            dueTree(s, task.getDueDate()).add(task.getDueDate().toEpochDay(), delta);
+        }
+    }
+
+    private void move(Task task, Status from, Status to) {
+        int p = task.getPriority().ordinal();
+        int c = task.getCategory().ordinal();
+        counts[from.ordinal()][p][c]--;
+        counts[to.ordinal()][p][c]++;
+        if (task.getDueDate() != null) {
+            long day = task.getDueDate().toEpochDay();
+            dueTree(from.ordinal(), task.getDueDate()).add(day, -1);
+            dueTree(to.ordinal(), task.getDueDate()).add(day, 1);
+        }
+    }
+
+    private FenwickTree dueTree(int status, LocalDate firstDate) {
+        if (dueDates[status] == null) {
+            dueDates[status] = new FenwickTree(firstDate.toEpochDay());
+        }
+        return dueDates[status];
+    }
+}
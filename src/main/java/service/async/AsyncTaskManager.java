@@ -0,0 +1,30 @@
+package service.async;
+
+import model.task.Category;
+import model.task.Priority;
+import model.task.Status;
+import model.task.Task;
+import model.task.TaskUpdate;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+// Non-blocking variant of TaskManager: every call returns at once and its future completes
+// when the operation is done, or exceptionally with what the operation threw
+public interface AsyncTaskManager {
+    CompletableFuture<Task> createTask(String title, String description, LocalDate dueDate, Priority priority, Status status, Category category, LocalDate creationDate);
+
+    CompletableFuture<Void> displayAllTasks();
+
+    CompletableFuture<Set<Task>> searchTask(String title, String description);
+
+    CompletableFuture<Void> completeTask(Long taskIdToComplete);
+
+    // Completes with the deleted task, or null if there was no task with the id
+    CompletableFuture<Task> deleteTask(Long taskIdToDelete);
+
+    CompletableFuture<Task> getTaskById(Long id);
+
+    CompletableFuture<Task> updateTask(Long taskId, long expectedVersion, TaskUpdate update);
+}
@@ -0,0 +1,261 @@
+package service.async;
+
+import model.task.Category;
+import model.task.Priority;
+import model.task.Status;
+import model.task.Task;
+import model.task.TaskUpdate;
+import service.TaskManager;
+import service.TaskManagerImpl;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// AsyncTaskManager on top of a blocking TaskManager.
+//  - reads run on the executor right away
+//  - writes are queued and applied in submission order by a single drain task, which takes
+//    everything queued so far (up to maxBatchSize) and runs it as one TaskManager.runBatch(),
+//    so a burst of pipelined writes costs one file write instead of one each; the futures of
+//    a batch complete after its file write
+// A write submitted after another one sees its effect; a read does not wait for earlier
+// writes, chain it on the write's future for that.
+public class AsyncTaskManagerImpl implements AsyncTaskManager, Closeable {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private static final class PendingWrite {
+        final Supplier<?> operation;
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        Object result;
+        RuntimeException failure;
+
+        PendingWrite(Supplier<?> operation) {
+            this.operation = operation;
+        }
+    }
+
+    private final TaskManager taskManager;
+    private final Executor executor;
+    private final boolean ownsExecutor;
+    private final int maxBatchSize;
+    private final Queue<PendingWrite> writes = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong batchedWriteCount = new AtomicLong();
+
+    // Runs on newDefaultExecutor(), which is shut down by close()
+    public AsyncTaskManagerImpl(TaskManager taskManager) {
+        this(taskManager, newDefaultExecutor(), DEFAULT_MAX_BATCH_SIZE, true);
+    }
+
+    public AsyncTaskManagerImpl(TaskManager taskManager, Executor executor) {
+        this(taskManager, executor, DEFAULT_MAX_BATCH_SIZE, false);
+    }
+
+    public AsyncTaskManagerImpl(TaskManager taskManager, Executor executor, int maxBatchSize) {
+        this(taskManager, executor, maxBatchSize, false);
+    }
+
+    private AsyncTaskManagerImpl(TaskManager taskManager, Executor executor, int maxBatchSize, boolean ownsExecutor) {
+        if (taskManager == null || executor == null) {
+            throw new IllegalArgumentException("Task manager and executor cannot be null.");
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Maximum batch size must be positive.");
+        }
+        this.taskManager = taskManager;
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    // A virtual thread per task when the JDK has them (21+), else a daemon pool sized to the CPUs
+    public static ExecutorService newDefaultExecutor() {
+        ExecutorService virtualThreads = newVirtualThreadExecutor();
+        if (virtualThreads != null) {
+            return virtualThreads;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, "task-async-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor(), or null on JDKs without virtual threads.
+    // Looked up reflectively since the code is built for Java 8.
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Task> createTask(String title, String description, LocalDate dueDate, Priority priority, Status status, Category category, LocalDate creationDate) {
+        return write(() -> taskManager.createTask(title, description, dueDate, priority, status, category, creationDate));
+    }
+
+    @Override
+    public CompletableFuture<Void> displayAllTasks() {
+        return read(() -> {
+            taskManager.displayAllTasks();
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Set<Task>> searchTask(String title, String description) {
+        return read(() -> taskManager.searchTask(title, description));
+    }
+
+    @Override
+    public CompletableFuture<Void> completeTask(Long taskIdToComplete) {
+        return write(() -> {
+            taskManager.completeTask(taskIdToComplete);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Task> deleteTask(Long taskIdToDelete) {
+        return write(() -> {
+            // one locked call, so the task cannot go away between the lookup and the delete
+            if (taskManager instanceof TaskManagerImpl) {
+                return ((TaskManagerImpl) taskManager).deleteTask(taskIdToDelete, task -> true);
+            }
+            Task task = taskManager.getTaskById(taskIdToDelete);
+            if (task != null) {
+                taskManager.deleteTask(taskIdToDelete);
+            }
+            return task;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Task> getTaskById(Long id) {
+        return read(() -> taskManager.getTaskById(id));
+    }
+
+    @Override
+    public CompletableFuture<Task> updateTask(Long taskId, long expectedVersion, TaskUpdate update) {
+        return write(() -> taskManager.updateTask(taskId, expectedVersion, update));
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    // Writes per file write so far, 0 before the first batch
+    public double getAverageBatchSize() {
+        long batches = batchCount.get();
+        return batches == 0 ? 0 : (double) batchedWriteCount.get() / batches;
+    }
+
+    public int getQueuedWriteCount() {
+        return writes.size();
+    }
+
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    private <T> CompletableFuture<T> read(Supplier<T> operation) {
+        try {
+            return CompletableFuture.supplyAsync(operation, executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> write(Supplier<T> operation) {
+        PendingWrite write = new PendingWrite(operation);
+        writes.add(write);
+        scheduleDrain();
+        return (CompletableFuture<T>) write.future;
+    }
+
+    private void scheduleDrain() {
+        if (writes.isEmpty() || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::drainWrites);
+        } catch (RejectedExecutionException e) {
+            draining.set(false);
+            PendingWrite write;
+            while ((write = writes.poll()) != null) {
+                write.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void drainWrites() {
+        List<PendingWrite> batch = new ArrayList<>(Math.min(maxBatchSize, 64));
+        try {
+            PendingWrite write;
+            while (batch.size() < maxBatchSize && (write = writes.poll()) != null) {
+                batch.add(write);
+            }
+            if (!batch.isEmpty()) {
+                runBatch(batch);
+            }
+        } finally {
+            draining.set(false);
+            // writes queued meanwhile, or beyond maxBatchSize, go into the next batch; a new
+            // task keeps the executor fair to reads
+            scheduleDrain();
+        }
+    }
+
+    private void runBatch(List<PendingWrite> batch) {
+        RuntimeException batchFailure = null;
+        try {
+            taskManager.runBatch(() -> {
+                for (PendingWrite write : batch) {
+                    try {
+                        write.result = write.operation.get();
+                    } catch (RuntimeException e) {
+                        write.failure = e;
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            batchFailure = e;
+        }
+        batchCount.incrementAndGet();
+        batchedWriteCount.addAndGet(batch.size());
+        for (PendingWrite write : batch) {
+            RuntimeException failure = write.failure != null ? write.failure : batchFailure;
+            if (failure != null) {
+                write.future.completeExceptionally(failure);
+            } else {
+                write.future.complete(write.result);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package service.cache;
+
+public class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long negativeHitCount;
+    private final long evictionCount;
+    private final long invalidationCount;
+
+    public CacheStats(long hitCount, long missCount, long negativeHitCount, long evictionCount, long invalidationCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.negativeHitCount = negativeHitCount;
+        this.evictionCount = evictionCount;
+        this.invalidationCount = invalidationCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    // Lookups answered by the negative cache (known unknown ids) without reaching the backend
+    public long getNegativeHitCount() {
+        return negativeHitCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    public long getRequestCount() {
+        return hitCount + negativeHitCount + missCount;
+    }
+
+    public double getHitRate() {
+        long requests = getRequestCount();
+        return requests == 0 ? 1.0 : (double) (hitCount + negativeHitCount) / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hits=" + hitCount +
+                ", misses=" + missCount +
+                ", negativeHits=" + negativeHitCount +
+                ", evictions=" + evictionCount +
+                ", invalidations=" + invalidationCount +
+                ", hitRate=" + String.format("%.2f", getHitRate()) + "}";
+    }
+}
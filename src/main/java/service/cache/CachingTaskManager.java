@@ -0,0 +1,193 @@
+package service.cache;
+
+import model.task.Category;
+import model.task.Priority;
+import model.task.Status;
+import model.task.Task;
+import model.task.TaskUpdate;
+import service.TaskChangeListener;
+import service.TaskManager;
+import service.TaskManagerImpl;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Read-through cache for getTaskById in front of any TaskManager backend.
+// Writes go straight to the backend and invalidate the affected ids (write-through).
+// Over a TaskManagerImpl the cache also follows its change callbacks, so writes that do not
+// go through this class (other callers, replication, reloads, archiving) invalidate too.
+public class CachingTaskManager implements TaskManager {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    private final TaskManager delegate;
+    private final SegmentedLruCache<Long, Task> cache;
+    private final Map<Long, Boolean> negativeCache;
+    // Filled by the delegate's callbacks, which run under the delegate's lock; taking this
+    // cache's lock there would invert the lock order, so they are applied on the next call
+    private final Queue<Long> pendingInvalidations = new ConcurrentLinkedQueue<>();
+
+    private long hitCount;
+    private long missCount;
+    private long negativeHitCount;
+    private long invalidationCount;
+
+    public CachingTaskManager(TaskManager delegate) {
+        this(delegate, DEFAULT_MAXIMUM_SIZE, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public CachingTaskManager(TaskManager delegate, int maximumSize, final int maximumNegativeSize) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Backend TaskManager cannot be null.");
+        }
+        this.delegate = delegate;
+        this.cache = new SegmentedLruCache<>(maximumSize);
+        this.negativeCache = new LinkedHashMap<Long, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > maximumNegativeSize;
+            }
+        };
+        if (delegate instanceof TaskManagerImpl) {
+            ((TaskManagerImpl) delegate).addTaskChangeListener(new InvalidatingListener());
+        }
+    }
+
+    @Override
+    public synchronized Task createTask(String title, String description, LocalDate dueDate, Priority priority, Status status, Category category, LocalDate creationDate) {
+        Task task = delegate.createTask(title, description, dueDate, priority, status, category, creationDate);
+        applyPendingInvalidations();
+        if (task != null) {
+            // the new id may have been remembered as unknown
+            negativeCache.remove(task.getId());
+            cache.put(task.getId(), task);
+        }
+        return task;
+    }
+
+    @Override
+    public void displayAllTasks() {
+        delegate.displayAllTasks();
+    }
+
+    @Override
+    public Set<Task> searchTask(String title, String description) {
+        return delegate.searchTask(title, description);
+    }
+
+    @Override
+    public synchronized void completeTask(Long taskIdToComplete) {
+        delegate.completeTask(taskIdToComplete);
+        invalidate(taskIdToComplete);
+    }
+
+    @Override
+    public synchronized void runBatch(Runnable operations) {
+        // operations go through this cache, so they invalidate as usual; the cache lock is
+        // taken first, as in every other method, so the lock order stays the same
+        delegate.runBatch(operations);
+    }
+
+    @Override
+    public synchronized Task updateTask(Long taskId, long expectedVersion, TaskUpdate update) {
+        try {
+            return delegate.updateTask(taskId, expectedVersion, update);
+        } finally {
+            // a conflict means the cached copy may be stale as well
+            invalidate(taskId);
+        }
+    }
+
+    @Override
+    public synchronized void deleteTask(Long taskIdToDelete) {
+        delegate.deleteTask(taskIdToDelete);
+        invalidate(taskIdToDelete);
+    }
+
+    @Override
+    public synchronized Task getTaskById(Long id) {
+        if (id == null) return null;
+        applyPendingInvalidations();
+
+        Task cached = cache.get(id);
+        if (cached != null) {
+            hitCount++;
+            return cached;
+        }
+        if (negativeCache.get(id) != null) {
+            negativeHitCount++;
+            return null;
+        }
+
+        missCount++;
+        Task loaded = delegate.getTaskById(id);
+        if (loaded != null) {
+            cache.put(id, loaded);
+        } else {
+            negativeCache.put(id, Boolean.TRUE);
+        }
+        return loaded;
+    }
+
+    public synchronized void invalidate(Long id) {
+        if (id == null) return;
+        cache.remove(id);
+        negativeCache.remove(id);
+        invalidationCount++;
+    }
+
+    // Call after the backend changed behind the cache's back, e.g. loadAllTasks()
+    public synchronized void invalidateAll() {
+        pendingInvalidations.clear();
+        cache.clear();
+        negativeCache.clear();
+        invalidationCount++;
+    }
+
+    public synchronized int size() {
+        applyPendingInvalidations();
+        return cache.size();
+    }
+
+    public synchronized CacheStats getStats() {
+        applyPendingInvalidations();
+        return new CacheStats(hitCount, missCount, negativeHitCount, cache.getEvictionCount(), invalidationCount);
+    }
+
+    private void applyPendingInvalidations() {
+        Long id;
+        while ((id = pendingInvalidations.poll()) != null) {
+            invalidate(id);
+        }
+    }
+
+    public TaskManager getDelegate() {
+        return delegate;
+    }
+
+    private class InvalidatingListener implements TaskChangeListener {
+        @Override
+        public void onTaskCreated(Task task) {
+            pendingInvalidations.add(task.getId());
+        }
+
+        @Override
+        public void onTaskCompleted(Task task) {
+            pendingInvalidations.add(task.getId());
+        }
+
+        @Override
+        public void onTaskDeleted(Task task) {
+            pendingInvalidations.add(task.getId());
+        }
+
+        @Override
+        public void onTaskUpdated(Task previous, Task current) {
+            pendingInvalidations.add(current.getId());
+        }
+    }
+}
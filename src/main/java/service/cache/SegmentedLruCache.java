@@ -0,0 +1,93 @@
+package service.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded segmented LRU. New entries land in the probation segment and are promoted
+ * to the protected segment on their second hit, so a one-off scan over cold tasks cannot
+ * flush the hot working set. Not thread-safe; callers synchronize.
+ */
+class SegmentedLruCache<K, V> {
+
+    private final int maximumSize;
+    private final int protectedCapacity;
+
+    // access-ordered: the eldest entry is the least recently used one
+    private final LinkedHashMap<K, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long evictionCount;
+
+    SegmentedLruCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        // 80% protected / 20% probation is the usual split for SLRU
+        this.protectedCapacity = Math.max(1, (int) (maximumSize * 0.8));
+    }
+
+    V get(K key) {
+        V value = protectedSegment.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = probation.remove(key);
+        if (value != null) {
+            promote(key, value);
+        }
+        return value;
+    }
+
+    void put(K key, V value) {
+        if (protectedSegment.containsKey(key)) {
+            protectedSegment.put(key, value);
+            return;
+        }
+        probation.put(key, value);
+        evictIfNeeded();
+    }
+
+    V remove(K key) {
+        V value = probation.remove(key);
+        V protectedValue = protectedSegment.remove(key);
+        return value != null ? value : protectedValue;
+    }
+
+    void clear() {
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    int size() {
+        return probation.size() + protectedSegment.size();
+    }
+
+    long getEvictionCount() {
+        return evictionCount;
+    }
+
+    private void promote(K key, V value) {
+        protectedSegment.put(key, value);
+        if (protectedSegment.size() > protectedCapacity) {
+            // demote the protected LRU back to probation instead of dropping it
+            Iterator<Map.Entry<K, V>> eldest = protectedSegment.entrySet().iterator();
+            Map.Entry<K, V> demoted = eldest.next();
+            eldest.remove();
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        while (size() > maximumSize) {
+            LinkedHashMap<K, V> victimSegment = probation.isEmpty() ? protectedSegment : probation;
+            Iterator<K> eldest = victimSegment.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictionCount++;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package service.event;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Parks subscribers on a condition; cheapest on CPU, highest wake-up latency
+public class BlockingWaitStrategy implements WaitStrategy {
+
+    private static final long MAX_WAIT_MILLIS = 100;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+
+    @Override
+    public long waitFor(long sequence, AtomicLong cursor) throws InterruptedException {
+        long available = cursor.get();
+        if (available >= sequence) {
+            return available;
+        }
+        lock.lock();
+        try {
+            // bounded wait so halted processors notice without an extra signal
+            if ((available = cursor.get()) < sequence) {
+                published.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+                available = cursor.get();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return available;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        lock.lock();
+        try {
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
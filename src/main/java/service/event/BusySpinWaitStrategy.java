@@ -0,0 +1,23 @@
+package service.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lowest latency, burns a core per subscriber
+public class BusySpinWaitStrategy implements WaitStrategy {
+
+    private static final int SPINS_BEFORE_RECHECK = 1 << 20;
+
+    @Override
+    public long waitFor(long sequence, AtomicLong cursor) {
+        long available;
+        int spins = SPINS_BEFORE_RECHECK;
+        while ((available = cursor.get()) < sequence && --spins > 0) {
+            // spin
+        }
+        return available;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+    }
+}
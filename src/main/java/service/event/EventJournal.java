@@ -0,0 +1,192 @@
+package service.event;
+
+import model.task.Task;
+import util.TaskCodec;
+import util.compression.BlockCompression;
+import util.compression.CompressionCodec;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Append-only file of published events, used to replay a subscriber whose offset has
+// already fallen out of the ring buffer. Records are (sequence, type, timestamp, task).
+// With a codec, the records of each flush are written as one compressed block frame.
+// On close the last sequence and the journal length are saved next to it, so reopening
+// only reads what was appended after that (nothing, unless the process crashed).
+public class EventJournal implements Closeable {
+
+    private static final TaskEventType[] TYPES = TaskEventType.values();
+
+    private final Path file;
+    private final CompressionCodec codec;
+    private OutputStream fileOut;
+    private DataOutputStream out;
+    private ByteArrayOutputStream pending; // records since the last flush, codec mode only
+    private long lastAppended = -1;
+
+    public EventJournal(Path file) {
+        this(file, null);
+    }
+
+    public EventJournal(Path file, CompressionCodec codec) {
+        this.file = file;
+        this.codec = codec;
+    }
+
+    // Highest sequence stored in the journal, -1 if it is empty
+    public long lastSequence() throws IOException {
+        if (!Files.exists(file)) {
+            return -1;
+        }
+        long startOffset = 0;
+        long last = -1;
+        Path tailFile = tailFile();
+        if (Files.exists(tailFile)) {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(tailFile))) {
+                long tailSequence = in.readLong();
+                long tailLength = in.readLong();
+                long length = Files.size(file);
+                if (length == tailLength) {
+                    return tailSequence;
+                }
+                if (length > tailLength) {
+                    // appended after the last close: only read that part
+                    startOffset = tailLength;
+                    last = tailSequence;
+                }
+            } catch (EOFException e) {
+                // torn tail file, read the whole journal
+            }
+        }
+        final long[] found = {last};
+        replay(startOffset, 0, Long.MAX_VALUE, (event, sequence, endOfBatch) -> found[0] = sequence);
+        return found[0];
+    }
+
+    private Path tailFile() {
+        return file.resolveSibling(file.getFileName() + ".tail");
+    }
+
+    synchronized void append(TaskEvent event) throws IOException {
+        if (out == null) {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            fileOut = new BufferedOutputStream(new FileOutputStream(file.toFile(), true));
+            if (codec != null) {
+                pending = new ByteArrayOutputStream();
+                out = new DataOutputStream(pending);
+            } else {
+                out = new DataOutputStream(fileOut);
+            }
+        }
+        out.writeLong(event.getSequence());
+        lastAppended = event.getSequence();
+        out.writeByte(event.getType().ordinal());
+        out.writeLong(event.getTimestamp());
+        TaskCodec.writeTask(out, event.toTask());
+    }
+
+    synchronized void flush() throws IOException {
+        if (out == null) {
+            return;
+        }
+        out.flush();
+        if (pending != null && pending.size() > 0) {
+            byte[] records = pending.toByteArray();
+            BlockCompression.writeFrame(fileOut, codec, records, 0, records.length);
+            pending.reset();
+        }
+        fileOut.flush();
+    }
+
+    // Feeds events with fromSequence <= sequence <= toSequence to the subscriber.
+    // Returns the sequence after the last one delivered.
+    public long replay(long fromSequence, long toSequence, TaskEventSubscriber subscriber) throws IOException {
+        return replay(0, fromSequence, toSequence, subscriber);
+    }
+
+    // startOffset must be the start of a record, or of a frame in a compressed journal
+    private long replay(long startOffset, long fromSequence, long toSequence, TaskEventSubscriber subscriber) throws IOException {
+        long[] next = {fromSequence};
+        if (!Files.exists(file)) {
+            return next[0];
+        }
+        TaskEvent scratch = new TaskEvent();
+        try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            in.mark(4);
+            byte[] magic = new byte[4];
+            int read = in.read(magic);
+            in.reset();
+            long skipped = 0;
+            while (skipped < startOffset) {
+                long step = in.skip(startOffset - skipped);
+                if (step <= 0) {
+                    return next[0];
+                }
+                skipped += step;
+            }
+            if (read == 4 && BlockCompression.isCompressed(magic)) {
+                byte[] block;
+                while ((block = BlockCompression.readFrame(in)) != null) {
+                    DataInputStream records = new DataInputStream(new ByteArrayInputStream(block));
+                    if (!replayRecords(records, fromSequence, toSequence, subscriber, scratch, next)) {
+                        break;
+                    }
+                }
+            } else {
+                replayRecords(new DataInputStream(in), fromSequence, toSequence, subscriber, scratch, next);
+            }
+        } catch (EOFException e) {
+            // torn tail from a crash, everything before it was delivered
+        }
+        return next[0];
+    }
+
+    // Returns false once a record past toSequence was seen
+    private static boolean replayRecords(DataInputStream in, long fromSequence, long toSequence, TaskEventSubscriber subscriber,
+                                         TaskEvent scratch, long[] next) throws IOException {
+        while (true) {
+            long sequence;
+            try {
+                sequence = in.readLong();
+            } catch (EOFException e) {
+                return true;
+            }
+            TaskEventType type = TYPES[in.readUnsignedByte()];
+            long timestamp = in.readLong();
+            Task task = TaskCodec.readTask(in);
+            if (sequence > toSequence) {
+                return false;
+            }
+            if (sequence >= fromSequence) {
+                scratch.set(sequence, type, timestamp, task);
+                try {
+                    subscriber.onEvent(scratch, sequence, sequence == toSequence);
+                } catch (Exception e) {
+                    System.err.println("Subscriber failed on replayed event " + sequence + ": " + e.getMessage());
+                }
+                next[0] = sequence + 1;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            flush();
+            fileOut.close();
+            fileOut = null;
+            out = null;
+            pending = null;
+            if (lastAppended >= 0) {
+                ByteArrayOutputStream tail = new ByteArrayOutputStream(16);
+                DataOutputStream tailOut = new DataOutputStream(tail);
+                tailOut.writeLong(lastAppended);
+                tailOut.writeLong(Files.size(file));
+                Files.write(tailFile(), tail.toByteArray());
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package service.event;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One subscriber thread. Catches up from the journal while its position is older than the
+// ring, then follows the ring cursor, handing over every available event as one batch.
+// Each event is copied out of its slot and the copy checked against the writer, so a
+// subscriber the writer lapped goes back to catching up instead of reading a reused slot.
+// Offsets are saved at most every OFFSET_SAVE_INTERVAL_MILLIS and when the processor stops,
+// so after a crash a subscriber may see the events of the last interval again.
+public class EventProcessor implements Runnable {
+
+    static final long OFFSET_SAVE_INTERVAL_MILLIS = 1000;
+
+    private final TaskEventBus bus;
+    private final String name;
+    private final TaskEventSubscriber subscriber;
+    private final long startSequence;
+    private final FileOffsetStore offsetStore;
+    private final AtomicLong sequence = new AtomicLong(-1);
+    private final TaskEvent scratch = new TaskEvent();
+    private long savedOffset;
+    private long lastOffsetSaveNanos = System.nanoTime();
+    private volatile boolean running = true;
+    private boolean registered;
+    private Thread thread;
+
+    EventProcessor(TaskEventBus bus, String name, TaskEventSubscriber subscriber, long startSequence, FileOffsetStore offsetStore) {
+        this.bus = bus;
+        this.name = name;
+        this.subscriber = subscriber;
+        this.startSequence = startSequence;
+        this.offsetStore = offsetStore;
+        this.sequence.set(startSequence - 1);
+        this.savedOffset = startSequence - 1;
+    }
+
+    void start(boolean alreadyRegistered) {
+        this.registered = alreadyRegistered;
+        thread = new Thread(this, "task-event-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        try {
+            long next = registered ? startSequence : catchUp(startSequence);
+            while (running) {
+                long available = bus.waitStrategy().waitFor(next, bus.cursorSequence());
+                if (available < next) {
+                    continue;
+                }
+                long s = next;
+                for (; s <= available; s++) {
+                    scratch.copyFrom(bus.slot(s));
+                    if (bus.isOverwritten(s)) {
+                        break;
+                    }
+                    deliver(scratch, s, s == available);
+                }
+                sequence.set(s - 1);
+                saveOffset(s - 1, false);
+                next = s <= available ? catchUp(s) : s;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            saveOffset(sequence.get(), true);
+            bus.deregister(this);
+        }
+    }
+
+    private long catchUp(long next) {
+        while (running && !bus.tryRegister(this, next)) {
+            long before = next;
+            EventJournal journal = bus.journal();
+            if (journal != null) {
+                try {
+                    next = journal.replay(next, bus.journalSequence(), this::deliver);
+                } catch (IOException e) {
+                    System.err.println("Error replaying event journal for " + name + ": " + e.getMessage());
+                }
+            }
+            if (next == before) {
+                // nothing left to replay from: resume at the oldest event still in the ring
+                next = bus.oldestAvailableSequence();
+                System.err.println("Subscriber " + name + " skipped events " + before + " to " + (next - 1) + ".");
+            } else {
+                sequence.set(next - 1);
+                saveOffset(next - 1, false);
+            }
+        }
+        return next;
+    }
+
+    private void deliver(TaskEvent event, long eventSequence, boolean endOfBatch) {
+        try {
+            subscriber.onEvent(event, eventSequence, endOfBatch);
+        } catch (Exception e) {
+            // one bad event must not stop the feed
+            System.err.println("Subscriber " + name + " failed on event " + eventSequence + ": " + e.getMessage());
+        }
+    }
+
+    private void saveOffset(long processedSequence, boolean force) {
+        if (offsetStore == null || processedSequence == savedOffset) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (force || now - lastOffsetSaveNanos >= TimeUnit.MILLISECONDS.toNanos(OFFSET_SAVE_INTERVAL_MILLIS)) {
+            offsetStore.save(name, processedSequence);
+            savedOffset = processedSequence;
+            lastOffsetSaveNanos = now;
+        }
+    }
+
+    public void halt() {
+        running = false;
+        bus.waitStrategy().signalAllWhenBlocking();
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Last sequence fully handled by the subscriber
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    void setSequence(long value) {
+        sequence.set(value);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,46 @@
+package service.event;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+// Durable per-subscriber offsets: one small file per subscriber name holding the last
+// processed sequence. Written to a temp file and moved into place so a crash never
+// leaves a torn offset.
+public class FileOffsetStore {
+
+    private final Path directory;
+
+    public FileOffsetStore(Path directory) {
+        this.directory = directory;
+    }
+
+    public long load(String subscriberName) {
+        Path file = offsetFile(subscriberName);
+        if (!Files.exists(file)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Error reading offset for subscriber " + subscriberName + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
+    public void save(String subscriberName, long sequence) {
+        Path file = offsetFile(subscriberName);
+        Path tempFile = directory.resolve(subscriberName + ".offset.tmp");
+        try {
+            Files.createDirectories(directory);
+            Files.write(tempFile, Long.toString(sequence).getBytes(StandardCharsets.UTF_8));
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error saving offset for subscriber " + subscriberName + ": " + e.getMessage());
+        }
+    }
+
+    private Path offsetFile(String subscriberName) {
+        return directory.resolve(subscriberName + ".offset");
+    }
+}
@@ -0,0 +1,122 @@
+package service.event;
+
+import model.task.*;
+
+import java.time.LocalDate;
+
+// A ring buffer slot. Slots are preallocated and overwritten in place, so publishing an
+// event only copies field references. Subscribers must not keep a slot past onEvent;
+// call toTask() for a standalone copy.
+public class TaskEvent {
+    private long sequence = -1;
+    private TaskEventType type;
+    private long timestamp;
+
+    private long taskId;
+    private String title;
+    private String description;
+    private LocalDate dueDate;
+    private Priority priority;
+    private Status status;
+    private Category category;
+    private LocalDate creationDate;
+    private long version;
+    private String owner;
+
+    void set(long sequence, TaskEventType type, long timestamp, Task task) {
+        this.sequence = sequence;
+        this.type = type;
+        this.timestamp = timestamp;
+        this.taskId = task.getId();
+        this.title = task.getTitle();
+        this.description = task.getDescription();
+        this.dueDate = task.getDueDate();
+        this.priority = task.getPriority();
+        this.status = task.getStatus();
+        this.category = task.getCategory();
+        this.creationDate = task.getCreationDate();
+        this.version = task.getVersion();
+        this.owner = task.getOwner();
+    }
+
+    // Copies another slot's fields, so the copy stays valid after the slot is reused
+    void copyFrom(TaskEvent other) {
+        this.sequence = other.sequence;
+        this.type = other.type;
+        this.timestamp = other.timestamp;
+        this.taskId = other.taskId;
+        this.title = other.title;
+        this.description = other.description;
+        this.dueDate = other.dueDate;
+        this.priority = other.priority;
+        this.status = other.status;
+        this.category = other.category;
+        this.creationDate = other.creationDate;
+        this.version = other.version;
+        this.owner = other.owner;
+    }
+
+    public Task toTask() {
+        Task task = TaskCreator.createTask(taskId, title, description, dueDate, priority, status, category, creationDate);
+        task.setVersion(version);
+        task.setOwner(owner);
+        return task;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public TaskEventType getType() {
+        return type;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getTaskId() {
+        return taskId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public LocalDate getCreationDate() {
+        return creationDate;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + type + " task " + taskId + " (" + title + ")";
+    }
+}
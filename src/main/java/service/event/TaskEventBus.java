@@ -0,0 +1,248 @@
+package service.event;
+
+import model.task.Task;
+import service.TaskChangeListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// In-process change feed in the style of a Disruptor: a preallocated ring of TaskEvent slots,
+// a published cursor, and one thread per subscriber that consumes everything available in a
+// batch. Events are published under the manager lock, so the writer does not wait for a
+// subscriber that is a full ring behind: it stops gating on it, and the subscriber notices
+// it was lapped and catches up from the journal (without a journal it skips what it missed).
+// Only the journal itself, which just appends to a buffered file, can hold the writer up.
+// Register with TaskManagerImpl.addTaskChangeListener(bus) to publish its changes.
+public class TaskEventBus implements TaskChangeListener, Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+    private static final String JOURNAL_SUBSCRIBER = "journal";
+
+    private final TaskEvent[] ring;
+    private final int mask;
+    private final AtomicLong cursor;
+    // the sequence being written; its slot no longer holds sequence - ring.length
+    private volatile long claimed;
+    private final long firstSequence;
+    private final WaitStrategy waitStrategy;
+    private final EventJournal journal;
+    private final EventProcessor journalProcessor;
+
+    private final Object publishLock = new Object();
+    private final List<EventProcessor> gatingProcessors = new CopyOnWriteArrayList<>();
+    private final List<EventProcessor> allProcessors = new CopyOnWriteArrayList<>();
+
+    public TaskEventBus() {
+        this(DEFAULT_BUFFER_SIZE, new BlockingWaitStrategy(), null);
+    }
+
+    public TaskEventBus(int bufferSize, WaitStrategy waitStrategy, EventJournal journal) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Buffer size must be a power of 2: " + bufferSize);
+        }
+        this.ring = new TaskEvent[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            ring[i] = new TaskEvent();
+        }
+        this.mask = bufferSize - 1;
+        this.waitStrategy = waitStrategy;
+        this.journal = journal;
+
+        long lastSequence = -1;
+        if (journal != null) {
+            try {
+                lastSequence = journal.lastSequence(); // continue numbering after a restart
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read event journal", e);
+            }
+        }
+        this.cursor = new AtomicLong(lastSequence);
+        this.claimed = lastSequence;
+        this.firstSequence = lastSequence + 1;
+
+        if (journal != null) {
+            journalProcessor = subscribe(JOURNAL_SUBSCRIBER, (event, sequence, endOfBatch) -> {
+                journal.append(event);
+                if (endOfBatch) {
+                    journal.flush();
+                }
+            }, firstSequence);
+        } else {
+            journalProcessor = null;
+        }
+    }
+
+    @Override
+    public void onTaskCreated(Task task) {
+        publish(TaskEventType.CREATED, task);
+    }
+
+    @Override
+    public void onTaskCompleted(Task task) {
+        publish(TaskEventType.COMPLETED, task);
+    }
+
+    @Override
+    public void onTaskDeleted(Task task) {
+        publish(TaskEventType.DELETED, task);
+    }
+
+    @Override
+    public void onTaskUpdated(Task previous, Task current) {
+        publish(TaskEventType.UPDATED, current);
+    }
+
+    public long publish(TaskEventType type, Task task) {
+        long sequence;
+        synchronized (publishLock) {
+            sequence = cursor.get() + 1;
+            long wrapPoint = sequence - ring.length;
+            if (wrapPoint > minimumGatingSequence(sequence - 1)) {
+                releaseLappedProcessors(wrapPoint);
+                while (journalProcessor != null && wrapPoint > journalProcessor.getSequence() && journalProcessor.isRunning()) {
+                    LockSupport.parkNanos(1_000);
+                }
+            }
+            claimed = sequence;
+            ring[(int) (sequence & mask)].set(sequence, type, System.currentTimeMillis(), task);
+            cursor.set(sequence); // volatile write makes the slot visible to subscribers
+        }
+        waitStrategy.signalAllWhenBlocking();
+        return sequence;
+    }
+
+    // Starts after the last offset stored for this name, replaying from the journal if needed
+    public EventProcessor subscribe(String name, TaskEventSubscriber subscriber, FileOffsetStore offsetStore) {
+        return startProcessor(name, subscriber, offsetStore.load(name) + 1, offsetStore);
+    }
+
+    // Starts at the given sequence; pass getCursor() + 1 to only see new events
+    public EventProcessor subscribe(String name, TaskEventSubscriber subscriber, long fromSequence) {
+        return startProcessor(name, subscriber, fromSequence, null);
+    }
+
+    private EventProcessor startProcessor(String name, TaskEventSubscriber subscriber, long fromSequence, FileOffsetStore offsetStore) {
+        EventProcessor processor = new EventProcessor(this, name, subscriber, fromSequence, offsetStore);
+        allProcessors.add(processor);
+        // register right away when possible, so the writer cannot lap the new subscriber
+        // before its thread gets going
+        processor.start(tryRegister(processor, fromSequence));
+        return processor;
+    }
+
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    // True if a subscriber starting at this sequence would see every event from there on
+    public boolean canReplayFrom(long sequence) {
+        if (sequence > cursor.get() + 1) {
+            return false; // ahead of this bus, e.g. the journal was reset
+        }
+        return sequence >= oldestAvailableSequence() || (journal != null && sequence >= 0);
+    }
+
+    public int getBufferSize() {
+        return ring.length;
+    }
+
+    // How far the slowest subscriber is behind the writer
+    public long getLag() {
+        long current = cursor.get();
+        return current - minimumGatingSequence(current);
+    }
+
+    @Override
+    public void close() {
+        // let the journal catch up so nothing published is lost
+        if (journalProcessor != null) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (journalProcessor.getSequence() < cursor.get() && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+        for (EventProcessor processor : allProcessors) {
+            processor.halt();
+        }
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Error closing event journal: " + e.getMessage());
+            }
+        }
+    }
+
+    TaskEvent slot(long sequence) {
+        return ring[(int) (sequence & mask)];
+    }
+
+    AtomicLong cursorSequence() {
+        return cursor;
+    }
+
+    WaitStrategy waitStrategy() {
+        return waitStrategy;
+    }
+
+    EventJournal journal() {
+        return journal;
+    }
+
+    // Everything up to this sequence is flushed to the journal
+    long journalSequence() {
+        return journalProcessor != null ? journalProcessor.getSequence() : -1;
+    }
+
+    long oldestAvailableSequence() {
+        return Math.max(firstSequence, cursor.get() - ring.length + 1);
+    }
+
+    // Starts gating the writer on the processor if `next` is still in the ring. Done under the
+    // publish lock so the slot cannot be overwritten between the check and the registration.
+    boolean tryRegister(EventProcessor processor, long next) {
+        synchronized (publishLock) {
+            if (next < oldestAvailableSequence()) {
+                return false;
+            }
+            processor.setSequence(next - 1);
+            if (!gatingProcessors.contains(processor)) {
+                gatingProcessors.add(processor);
+            }
+            return true;
+        }
+    }
+
+    void deregister(EventProcessor processor) {
+        gatingProcessors.remove(processor);
+        allProcessors.remove(processor);
+    }
+
+    // Stops gating on subscribers that have not finished the slot about to be reused
+    private void releaseLappedProcessors(long wrapPoint) {
+        for (EventProcessor processor : gatingProcessors) {
+            if (processor != journalProcessor && processor.getSequence() < wrapPoint) {
+                gatingProcessors.remove(processor);
+            }
+        }
+    }
+
+    // True if the slot of this sequence may already hold a later event
+    boolean isOverwritten(long sequence) {
+        return claimed >= sequence + ring.length;
+    }
+
+    private long minimumGatingSequence(long defaultSequence) {
+        long minimum = defaultSequence;
+        for (EventProcessor processor : gatingProcessors) {
+            minimum = Math.min(minimum, processor.getSequence());
+        }
+        return minimum;
+    }
+}
@@ -0,0 +1,7 @@
+package service.event;
+
+public interface TaskEventSubscriber {
+
+    // endOfBatch is true for the last event currently available, a good point to flush
+    void onEvent(TaskEvent event, long sequence, boolean endOfBatch) throws Exception;
+}
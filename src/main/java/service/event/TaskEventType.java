@@ -0,0 +1,6 @@
+package service.event;
+
+// Ordinals are stored in the journal and sent to followers: only append new types
+public enum TaskEventType {
+    CREATED, COMPLETED, DELETED, UPDATED
+}
@@ -0,0 +1,13 @@
+package service.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// How a subscriber waits for the producer to publish the next sequence
+public interface WaitStrategy {
+
+    // Returns the highest published sequence once it is >= sequence, or a lower value
+    // if the wait timed out or the processor was halted, so the caller can re-check.
+    long waitFor(long sequence, AtomicLong cursor) throws InterruptedException;
+
+    void signalAllWhenBlocking();
+}
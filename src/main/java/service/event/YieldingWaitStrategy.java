@@ -0,0 +1,26 @@
+package service.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Spins briefly, then yields the CPU between checks
+public class YieldingWaitStrategy implements WaitStrategy {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELDS_BEFORE_RECHECK = 10_000;
+
+    @Override
+    public long waitFor(long sequence, AtomicLong cursor) {
+        long available;
+        int counter = SPIN_TRIES + YIELDS_BEFORE_RECHECK;
+        while ((available = cursor.get()) < sequence && --counter > 0) {
+            if (counter < YIELDS_BEFORE_RECHECK) {
+                Thread.yield();
+            }
+        }
+        return available;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+    }
+}
@@ -0,0 +1,241 @@
+package service.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.task.Task;
+import model.task.TaskDraft;
+import service.TaskVersionConflictException;
+import service.async.AsyncTaskManager;
+import service.transfer.TransferFormat;
+import util.Json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+// JSON over HTTP for an AsyncTaskManager, on the JDK's built-in server:
+//   POST   /tasks                {"title":..,"description":..,"dueDate":..,"priority":..,"category":..}
+//   GET    /tasks/{id}
+//   GET    /tasks?title=..&description=..    search, returns an array
+//   POST   /tasks/{id}/complete
+//   DELETE /tasks/{id}
+// The executor only parses requests and starts the operation; the response is sent when the
+// operation's future completes, so no thread waits on the task manager. Every response has a
+// Content-Length, so HTTP/1.1 clients keep their connections alive.
+public class TaskHttpServer implements Closeable {
+
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    static {
+        // Without TCP_NODELAY small responses on kept-alive connections wait out the client's
+        // delayed ACK (about 40 ms each). Read once by the JDK server, so set it before the
+        // first server is created; an explicit -D setting wins.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final AsyncTaskManager taskManager;
+
+    public TaskHttpServer(AsyncTaskManager taskManager, InetSocketAddress address, Executor executor) throws IOException {
+        if (taskManager == null || executor == null) {
+            throw new IllegalArgumentException("Task manager and executor cannot be null.");
+        }
+        this.taskManager = taskManager;
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/tasks", this::handle);
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("Task HTTP server listening on port " + getPort() + ".");
+    }
+
+    // The bound port, useful when created with port 0
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) {
+        CompletableFuture<Response> response;
+        try {
+            response = route(exchange);
+        } catch (RuntimeException | IOException e) {
+            CompletableFuture<Response> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            response = failed;
+        }
+        response.whenComplete((result, failure) -> send(exchange, failure == null ? result : errorResponse(failure)));
+    }
+
+    private CompletableFuture<Response> route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        // path[0] is empty, path[1] is "tasks"
+        if (path.length == 2) {
+            if (method.equals("POST")) {
+                TaskDraft draft = TransferFormat.JSON_LINES.parse(readBody(exchange));
+                return taskManager.createTask(draft.getTitle(), draft.getDescription(), draft.getDueDate(), draft.getPriority(),
+                                draft.getStatus(), draft.getCategory(), draft.getCreationDate())
+                        .thenApply(task -> task != null ? taskResponse(201, task)
+                                : errorResponse(409, "Task with Title " + draft.getTitle() + " already exists."));
+            }
+            if (method.equals("GET")) {
+                Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+                return taskManager.searchTask(query.get("title"), query.get("description"))
+                        .thenApply(tasks -> new Response(200, toJsonArray(tasks)));
+            }
+        } else if (path.length == 3 || (path.length == 4 && path[3].equals("complete"))) {
+            long id = parseId(path[2]);
+            if (path.length == 4 && method.equals("POST")) {
+                return taskManager.completeTask(id)
+                        .thenCompose(ignored -> taskManager.getTaskById(id))
+                        .thenApply(task -> task != null ? taskResponse(200, task) : notFound(id));
+            }
+            if (path.length == 3 && method.equals("GET")) {
+                return taskManager.getTaskById(id)
+                        .thenApply(task -> task != null ? taskResponse(200, task) : notFound(id));
+            }
+            if (path.length == 3 && method.equals("DELETE")) {
+                return taskManager.deleteTask(id)
+                        .thenApply(task -> task != null ? new Response(204, null) : notFound(id));
+            }
+        } else {
+            return CompletableFuture.completedFuture(errorResponse(404, "No such resource."));
+        }
+        return CompletableFuture.completedFuture(errorResponse(405, "Method " + method + " is not allowed here."));
+    }
+
+    private static final class Response {
+        final int status;
+        final String body; // null: no content
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private static Response taskResponse(int status, Task task) {
+        return new Response(status, Json.toJson(task));
+    }
+
+    private static Response notFound(long id) {
+        return errorResponse(404, "Task ID " + id + " not found.");
+    }
+
+    private static Response errorResponse(int status, String message) {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        Json.appendString(json, message);
+        return new Response(status, json.append('}').toString());
+    }
+
+    private static Response errorResponse(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (cause instanceof TaskVersionConflictException) {
+            return errorResponse(409, cause.getMessage());
+        }
+        // e.g. interrupted while the manager was still loading, or the executor shut down
+        if (cause instanceof RejectedExecutionException
+                || (cause instanceof IllegalStateException && cause.getCause() instanceof InterruptedException)) {
+            return errorResponse(503, "Service unavailable, try again later.");
+        }
+        if (cause instanceof IllegalArgumentException || cause instanceof DateTimeParseException) {
+            return errorResponse(400, cause.getMessage());
+        }
+        System.err.println("Error handling HTTP request: " + cause);
+        return errorResponse(500, "Internal error.");
+    }
+
+    private static void send(HttpExchange exchange, Response response) {
+        try {
+            if (response.body == null) {
+                exchange.sendResponseHeaders(response.status, -1);
+            } else {
+                byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                exchange.sendResponseHeaders(response.status, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error sending HTTP response: " + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String toJsonArray(Collection<Task> tasks) {
+        List<Task> sorted = new ArrayList<>(tasks);
+        sorted.sort(null);
+        StringBuilder json = new StringBuilder(2 + sorted.size() * 160).append('[');
+        for (int i = 0; i < sorted.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            Json.appendTask(json, sorted.get(i));
+        }
+        return json.append(']').toString();
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+        byte[] buffer = new byte[4096];
+        try (InputStream in = exchange.getRequestBody()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                body.write(buffer, 0, read);
+                if (body.size() > MAX_BODY_BYTES) {
+                    throw new IllegalArgumentException("Request body is larger than " + MAX_BODY_BYTES + " bytes.");
+                }
+            }
+        }
+        return body.toString("UTF-8");
+    }
+
+    private static long parseId(String segment) {
+        try {
+            return Long.parseLong(segment);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid task ID: " + segment);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, String> values = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return values;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            values.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+        }
+        return values;
+    }
+}
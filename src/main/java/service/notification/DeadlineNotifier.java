@@ -0,0 +1,210 @@
+package service.notification;
+
+import model.task.Status;
+import model.task.Task;
+import service.TaskChangeListener;
+import service.TaskManagerImpl;
+import util.TimingWheel;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Reminder and overdue notifications for PENDING tasks, driven by a TimingWheel instead of
+// periodic scans. A task is overdue once its due date has passed (start of the next day in
+// the clock's zone); the reminder fires reminderLead before that. Each pending task holds at
+// most two wheel entries, added and cancelled in O(1) as tasks are created, completed,
+// deleted or replaced. Callbacks run on the ticking thread, outside any lock.
+public class DeadlineNotifier implements TaskChangeListener, Closeable {
+
+    public static final long DEFAULT_TICK_MILLIS = 60_000;
+
+    public interface DeadlineListener {
+        void onReminder(Task task);
+
+        void onOverdue(Task task);
+    }
+
+    private static final class Deadline {
+        final Task task;
+        final boolean overdue;
+
+        Deadline(Task task, boolean overdue) {
+            this.task = task;
+            this.overdue = overdue;
+        }
+    }
+
+    // wheel entries of one task: [0] reminder, [1] overdue
+    private final Map<Long, TimingWheel.Timeout<Deadline>[]> scheduled = new HashMap<>();
+    private final TimingWheel<Deadline> wheel;
+    private final Clock clock;
+    private final Duration reminderLead;
+    private final DeadlineListener listener;
+    private final long tickMillis;
+    private TaskManagerImpl taskManager;
+    private ScheduledExecutorService ticker;
+    private long firedReminders;
+    private long firedOverdue;
+
+    public DeadlineNotifier(Clock clock, Duration reminderLead, DeadlineListener listener) {
+        this(clock, reminderLead, listener, DEFAULT_TICK_MILLIS);
+    }
+
+    public DeadlineNotifier(Clock clock, Duration reminderLead, DeadlineListener listener, long tickMillis) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Deadline listener cannot be null.");
+        }
+        this.clock = clock;
+        this.reminderLead = reminderLead != null ? reminderLead : Duration.ZERO;
+        this.listener = listener;
+        this.tickMillis = tickMillis;
+        this.wheel = new TimingWheel<>(tickMillis, clock.millis());
+    }
+
+    // Schedules every pending task and follows later changes; the snapshot and the
+    // registration happen under the manager lock so no change falls in between
+    public void attach(TaskManagerImpl manager) {
+        synchronized (manager) {
+            for (Task task : manager.snapshotTasks()) {
+                onTaskCreated(task);
+            }
+            manager.addTaskChangeListener(this);
+            taskManager = manager;
+        }
+    }
+
+    // Advances the wheel from a daemon thread every tick
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deadline-notifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                advance();
+            } catch (RuntimeException e) {
+                System.err.println("Error delivering deadline notifications: " + e.getMessage());
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        ScheduledExecutorService toStop;
+        synchronized (this) {
+            toStop = ticker;
+            ticker = null;
+        }
+        if (toStop != null) {
+            toStop.shutdownNow();
+        }
+        if (taskManager != null) {
+            taskManager.removeTaskChangeListener(this);
+            taskManager = null;
+        }
+    }
+
+    public int advance() {
+        return advanceTo(clock.millis());
+    }
+
+    // Fires the callbacks of every deadline up to nowMillis; returns how many fired
+    public int advanceTo(long nowMillis) {
+        List<Deadline> due;
+        synchronized (this) {
+            due = wheel.advanceTo(nowMillis);
+            for (Deadline deadline : due) {
+                long id = deadline.task.getId();
+                TimingWheel.Timeout<Deadline>[] entries = scheduled.get(id);
+                if (entries == null) {
+                    continue;
+                }
+                entries[deadline.overdue ? 1 : 0] = null;
+                if (entries[0] == null && entries[1] == null) {
+                    scheduled.remove(id);
+                }
+                if (deadline.overdue) {
+                    firedOverdue++;
+                } else {
+                    firedReminders++;
+                }
+            }
+        }
+        for (Deadline deadline : due) {
+            if (deadline.overdue) {
+                listener.onOverdue(deadline.task);
+            } else {
+                listener.onReminder(deadline.task);
+            }
+        }
+        return due.size();
+    }
+
+    @Override
+    public synchronized void onTaskCreated(Task task) {
+        unschedule(task.getId());
+        if (task.getStatus() != Status.PENDING || task.getDueDate() == null) {
+            return;
+        }
+        long overdueAt = overdueAt(task.getDueDate());
+        @SuppressWarnings("unchecked")
+        TimingWheel.Timeout<Deadline>[] entries = (TimingWheel.Timeout<Deadline>[]) new TimingWheel.Timeout<?>[2];
+        long now = clock.millis();
+        if (now < overdueAt) {
+            entries[0] = wheel.schedule(new Deadline(task, false), overdueAt - reminderLead.toMillis());
+        }
+        entries[1] = wheel.schedule(new Deadline(task, true), overdueAt);
+        scheduled.put(task.getId(), entries);
+    }
+
+    @Override
+    public synchronized void onTaskCompleted(Task task) {
+        unschedule(task.getId());
+    }
+
+    @Override
+    public synchronized void onTaskDeleted(Task task) {
+        unschedule(task.getId());
+    }
+
+    @Override
+    public synchronized void onTaskUpdated(Task previous, Task current) {
+        onTaskCreated(current);
+    }
+
+    public synchronized int getScheduledTaskCount() {
+        return scheduled.size();
+    }
+
+    public synchronized long getFiredReminderCount() {
+        return firedReminders;
+    }
+
+    public synchronized long getFiredOverdueCount() {
+        return firedOverdue;
+    }
+
+    private long overdueAt(LocalDate dueDate) {
+        return dueDate.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private void unschedule(long taskId) {
+        TimingWheel.Timeout<Deadline>[] entries = scheduled.remove(taskId);
+        if (entries != null) {
+            wheel.cancel(entries[0]);
+            wheel.cancel(entries[1]);
+        }
+    }
+}
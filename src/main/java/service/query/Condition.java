@@ -0,0 +1,105 @@
+package service.query;
+
+import model.task.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// A single comparison such as "priority in (HIGH, MEDIUM)" or "due < 2026-11-01"
+public class Condition extends Expression {
+
+    public enum Operator {
+        EQ("="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">="), IN("in"), CONTAINS("contains");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        @Override
+        public String toString() {
+            return symbol;
+        }
+    }
+
+    private final QueryField field;
+    private final Operator operator;
+    @SuppressWarnings("rawtypes")
+    private final List<Comparable> values;
+
+    @SuppressWarnings("rawtypes")
+    Condition(QueryField field, Operator operator, List<Comparable> values) {
+        if (operator == Operator.CONTAINS && !field.isText()) {
+            throw new IllegalArgumentException("'contains' can only be used on title or description.");
+        }
+        this.field = field;
+        this.operator = operator;
+        this.values = new ArrayList<>(values);
+    }
+
+    public QueryField getField() {
+        return field;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    @SuppressWarnings("rawtypes")
+    public List<Comparable> getValues() {
+        return values;
+    }
+
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public boolean matches(Task task) {
+        Comparable actual = field.valueOf(task);
+        if (actual == null) {
+            return false;
+        }
+        switch (operator) {
+            case IN:
+                return values.contains(actual);
+            case CONTAINS:
+                return ((String) actual).toLowerCase(Locale.ROOT).contains(((String) values.get(0)).toLowerCase(Locale.ROOT));
+            default:
+                int comparison = actual.compareTo(values.get(0));
+                switch (operator) {
+                    case EQ:
+                        return comparison == 0;
+                    case NE:
+                        return comparison != 0;
+                    case LT:
+                        return comparison < 0;
+                    case LE:
+                        return comparison <= 0;
+                    case GT:
+                        return comparison > 0;
+                    default:
+                        return comparison >= 0;
+                }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(field).append(' ').append(operator).append(' ');
+        if (operator == Operator.IN) {
+            builder.append('(');
+        }
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            Object value = values.get(i);
+            builder.append(value instanceof String ? "'" + value + "'" : value);
+        }
+        if (operator == Operator.IN) {
+            builder.append(')');
+        }
+        return builder.toString();
+    }
+}
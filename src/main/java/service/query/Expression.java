@@ -0,0 +1,92 @@
+package service.query;
+
+import model.task.Task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Boolean filter over tasks, as parsed from the where-part of a query
+public abstract class Expression {
+
+    public abstract boolean matches(Task task);
+
+    // The AND-ed terms of this expression; a single-element list for anything but AND
+    public List<Expression> conjuncts() {
+        return Collections.singletonList(this);
+    }
+
+    static Expression and(List<Expression> terms) {
+        return terms.size() == 1 ? terms.get(0) : new Logical(true, terms);
+    }
+
+    static Expression or(List<Expression> terms) {
+        return terms.size() == 1 ? terms.get(0) : new Logical(false, terms);
+    }
+
+    static Expression not(Expression term) {
+        return new Not(term);
+    }
+
+    static class Logical extends Expression {
+        private final boolean and;
+        private final List<Expression> terms;
+
+        Logical(boolean and, List<Expression> terms) {
+            this.and = and;
+            this.terms = new ArrayList<>(terms);
+        }
+
+        @Override
+        public boolean matches(Task task) {
+            for (Expression term : terms) {
+                if (term.matches(task) != and) {
+                    return !and;
+                }
+            }
+            return and;
+        }
+
+        @Override
+        public List<Expression> conjuncts() {
+            if (!and) {
+                return super.conjuncts();
+            }
+            List<Expression> flattened = new ArrayList<>();
+            for (Expression term : terms) {
+                flattened.addAll(term.conjuncts());
+            }
+            return flattened;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("(");
+            for (int i = 0; i < terms.size(); i++) {
+                if (i > 0) {
+                    builder.append(and ? " and " : " or ");
+                }
+                builder.append(terms.get(i));
+            }
+            return builder.append(')').toString();
+        }
+    }
+
+    static class Not extends Expression {
+        private final Expression term;
+
+        Not(Expression term) {
+            this.term = term;
+        }
+
+        @Override
+        public boolean matches(Task task) {
+            return !term.matches(task);
+        }
+
+        @Override
+        public String toString() {
+            return "not " + term;
+        }
+    }
+}
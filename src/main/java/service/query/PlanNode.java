@@ -0,0 +1,341 @@
+package service.query;
+
+import model.task.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Operator of an execution plan. open() returns a lazy iterator: rows are pulled one at a
+// time through the pipeline, so a Limit above a Filter stops the scan as soon as enough
+// rows have been produced. Only Sort/TopN need to consume their whole input.
+public abstract class PlanNode {
+
+    protected final long estimatedRows;
+
+    protected PlanNode(long estimatedRows) {
+        this.estimatedRows = estimatedRows;
+    }
+
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    public abstract Iterator<Task> open();
+
+    protected abstract String describe();
+
+    protected List<PlanNode> children() {
+        return Collections.emptyList();
+    }
+
+    public String explain() {
+        StringBuilder builder = new StringBuilder();
+        explain(builder, 0);
+        return builder.toString();
+    }
+
+    private void explain(StringBuilder builder, int depth) {
+        for (int i = 0; i < depth; i++) {
+            builder.append("  ");
+        }
+        builder.append(depth > 0 ? "-> " : "").append(describe()).append("  (rows=").append(estimatedRows).append(")\n");
+        for (PlanNode child : children()) {
+            child.explain(builder, depth + 1);
+        }
+    }
+
+    static Comparator<Task> ordering(QueryField field, boolean descending) {
+        Comparator<Task> byField = field.comparator().thenComparingLong(Task::getId);
+        return descending ? byField.reversed() : byField;
+    }
+
+    // Every task in title order
+    static class FullScan extends PlanNode {
+        private final Set<Task> tasks;
+
+        FullScan(Set<Task> tasks) {
+            super(tasks.size());
+            this.tasks = tasks;
+        }
+
+        @Override
+        public Iterator<Task> open() {
+            return tasks.iterator();
+        }
+
+        @Override
+        protected String describe() {
+            return "FullScan tasks";
+        }
+    }
+
+    static class IdLookup extends PlanNode {
+        private final TaskQueryIndex index;
+        private final long id;
+
+        IdLookup(TaskQueryIndex index, long id) {
+            super(index.getById(id) != null ? 1 : 0);
+            this.index = index;
+            this.id = id;
+        }
+
+        @Override
+        public Iterator<Task> open() {
+            Task task = index.getById(id);
+            return task != null ? Collections.singletonList(task).iterator() : Collections.<Task>emptyIterator();
+        }
+
+        @Override
+        protected String describe() {
+            return "IdLookup id = " + id;
+        }
+    }
+
+    // Concatenates the index buckets of the given enum values
+    static class ValueIndexScan extends PlanNode {
+        private final TaskQueryIndex index;
+        private final QueryField field;
+        private final List<Enum<?>> values;
+
+        ValueIndexScan(TaskQueryIndex index, QueryField field, List<Enum<?>> values, long estimatedRows) {
+            super(estimatedRows);
+            this.index = index;
+            this.field = field;
+            this.values = values;
+        }
+
+        @Override
+        public Iterator<Task> open() {
+            final Iterator<Enum<?>> remainingValues = values.iterator();
+            return new Iterator<Task>() {
+                private Iterator<Task> current = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!current.hasNext() && remainingValues.hasNext()) {
+                        current = index.getByValue(field, remainingValues.next()).iterator();
+                    }
+                    return current.hasNext();
+                }
+
+                @Override
+                public Task next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return current.next();
+                }
+            };
+        }
+
+        @Override
+        protected String describe() {
+            return "IndexScan " + field + " in " + values;
+        }
+    }
+
+    // Walks the date index between the bounds, producing rows already ordered by that date;
+    // tasks sharing a date come out in index order
+    static class DateRangeScan extends PlanNode {
+        private final TaskQueryIndex index;
+        private final QueryField field;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final boolean descending;
+
+        DateRangeScan(TaskQueryIndex index, QueryField field, LocalDate from, LocalDate to, boolean descending, long estimatedRows) {
+            super(estimatedRows);
+            this.index = index;
+            this.field = field;
+            this.from = from;
+            this.to = to;
+            this.descending = descending;
+        }
+
+        @Override
+        public Iterator<Task> open() {
+            NavigableMap<LocalDate, Set<Task>> range = index.getDateRange(field, from, to);
+            final Iterator<Set<Task>> buckets = (descending ? range.descendingMap() : range).values().iterator();
+            return new Iterator<Task>() {
+                private Iterator<Task> current = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!current.hasNext() && buckets.hasNext()) {
+                        current = buckets.next().iterator();
+                    }
+                    return current.hasNext();
+                }
+
+                @Override
+                public Task next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return current.next();
+                }
+            };
+        }
+
+        @Override
+        protected String describe() {
+            return "IndexRangeScan " + field + " [" + (from != null ? from : "-inf") + ", " + (to != null ? to : "+inf") + "]"
+                    + (descending ? " desc" : "");
+        }
+    }
+
+    static class Filter extends PlanNode {
+        private final PlanNode input;
+        private final Expression predicate;
+
+        Filter(PlanNode input, Expression predicate, long estimatedRows) {
+            super(estimatedRows);
+            this.input = input;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public Iterator<Task> open() {
+            final Iterator<Task> rows = input.open();
+            return new Iterator<Task>() {
+                private Task next;
+
+                @Override
+                public boolean hasNext() {
+                    while (next == null && rows.hasNext()) {
+                        Task candidate = rows.next();
+                        if (predicate.matches(candidate)) {
+                            next = candidate;
+                        }
+                    }
+                    return next != null;
+                }
+
+                @Override
+                public Task next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Task result = next;
+                    next = null;
+                    return result;
+                }
+            };
+        }
+
+        @Override
+        protected String describe() {
+            return "Filter " + predicate;
+        }
+
+        @Override
+        protected List<PlanNode> children() {
+            return Collections.singletonList(input);
+        }
+    }
+
+    static class Limit extends PlanNode {
+        private final PlanNode input;
+        private final int limit;
+
+        Limit(PlanNode input, int limit) {
+            super(Math.min(limit, input.estimatedRows));
+            this.input = input;
+            this.limit = limit;
+        }
+
+        @Override
+        public Iterator<Task> open() {
+            final Iterator<Task> rows = input.open();
+            return new Iterator<Task>() {
+                private int produced;
+
+                @Override
+                public boolean hasNext() {
+                    return produced < limit && rows.hasNext();
+                }
+
+                @Override
+                public Task next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    produced++;
+                    return rows.next();
+                }
+            };
+        }
+
+        @Override
+        protected String describe() {
+            return "Limit " + limit;
+        }
+
+        @Override
+        protected List<PlanNode> children() {
+            return Collections.singletonList(input);
+        }
+    }
+
+    // Full sort, or a bounded heap keeping only the first 'limit' rows when limit >= 0
+    static class Sort extends PlanNode {
+        private final PlanNode input;
+        private final QueryField field;
+        private final boolean descending;
+        private final int limit;
+
+        Sort(PlanNode input, QueryField field, boolean descending, int limit) {
+            super(limit >= 0 ? Math.min(limit, input.estimatedRows) : input.estimatedRows);
+            this.input = input;
+            this.field = field;
+            this.descending = descending;
+            this.limit = limit;
+        }
+
+        @Override
+        public Iterator<Task> open() {
+            Comparator<Task> order = ordering(field, descending);
+            Iterator<Task> rows = input.open();
+            List<Task> sorted;
+            if (limit >= 0) {
+                // max-heap on the requested order: the root is the worst row kept so far
+                PriorityQueue<Task> heap = new PriorityQueue<>(Math.max(1, Math.min(limit, 1024)), order.reversed());
+                while (rows.hasNext()) {
+                    Task task = rows.next();
+                    if (heap.size() < limit) {
+                        heap.add(task);
+                    } else if (limit > 0 && order.compare(task, heap.peek()) < 0) {
+                        heap.poll();
+                        heap.add(task);
+                    }
+                }
+                sorted = new ArrayList<>(heap);
+            } else {
+                sorted = new ArrayList<>();
+                while (rows.hasNext()) {
+                    sorted.add(rows.next());
+                }
+            }
+            sorted.sort(order);
+            return sorted.iterator();
+        }
+
+        @Override
+        protected String describe() {
+            return (limit >= 0 ? "TopN " + limit + " by " : "Sort by ") + field + (descending ? " desc" : "");
+        }
+
+        @Override
+        protected List<PlanNode> children() {
+            return Collections.singletonList(input);
+        }
+    }
+}
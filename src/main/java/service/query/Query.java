@@ -0,0 +1,54 @@
+package service.query;
+
+// Parsed form of a query: optional filter, optional ordering and optional limit
+public class Query {
+
+    public static final int NO_LIMIT = -1;
+
+    private final Expression filter;
+    private final QueryField orderBy;
+    private final boolean descending;
+    private final int limit;
+
+    Query(Expression filter, QueryField orderBy, boolean descending, int limit) {
+        this.filter = filter;
+        this.orderBy = orderBy;
+        this.descending = descending;
+        this.limit = limit;
+    }
+
+    public static Query parse(String text) {
+        return new QueryParser(text).parse();
+    }
+
+    public Expression getFilter() {
+        return filter;
+    }
+
+    public QueryField getOrderBy() {
+        return orderBy;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        if (filter != null) {
+            builder.append(filter);
+        }
+        if (orderBy != null) {
+            builder.append(builder.length() > 0 ? " " : "").append("order by ").append(orderBy).append(descending ? " desc" : "");
+        }
+        if (limit != NO_LIMIT) {
+            builder.append(builder.length() > 0 ? " " : "").append("limit ").append(limit);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package service.query;
+
+import model.task.Task;
+import service.TaskManagerImpl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+
+// Runs query-language expressions against a TaskManagerImpl, e.g.
+//   status = PENDING and priority in (HIGH, MEDIUM) and due < 2026-11-01 order by due limit 50
+// Planning and execution run under the task manager lock, which is also the lock the
+// secondary indexes are updated under.
+public class QueryEngine {
+
+    private final TaskManagerImpl taskManager;
+    private final TaskQueryIndex index = new TaskQueryIndex();
+    private final QueryPlanner planner;
+
+    public QueryEngine(TaskManagerImpl taskManager) {
+        this.taskManager = taskManager;
+        this.planner = new QueryPlanner(index, taskManager.getTasks());
+        synchronized (taskManager) {
+            index.addAll(taskManager.snapshotTasks());
+            taskManager.addTaskChangeListener(index);
+        }
+    }
+
+    public List<Task> execute(String query) {
+        final List<Task> results = new ArrayList<>();
+        forEach(query, task -> {
+            results.add(task);
+            return true;
+        });
+        return results;
+    }
+
+    // Streams results to the consumer until it returns false; the rest of the pipeline is
+    // then never evaluated
+    public void forEach(String query, Predicate<Task> consumer) {
+        Query parsed = Query.parse(query);
+        synchronized (taskManager) {
+            Iterator<Task> rows = planner.plan(parsed).open();
+            while (rows.hasNext()) {
+                if (!consumer.test(rows.next())) {
+                    return;
+                }
+            }
+        }
+    }
+
+    public String explain(String query) {
+        Query parsed = Query.parse(query);
+        synchronized (taskManager) {
+            return "EXPLAIN " + parsed + "\n" + planner.plan(parsed).explain();
+        }
+    }
+
+    public void close() {
+        taskManager.removeTaskChangeListener(index);
+    }
+}
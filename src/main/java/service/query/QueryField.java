@@ -0,0 +1,131 @@
+package service.query;
+
+import model.task.Category;
+import model.task.Priority;
+import model.task.Status;
+import model.task.Task;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.Locale;
+
+// Task attributes usable in queries, with the name used in the query text
+public enum QueryField {
+    ID("id"),
+    TITLE("title"),
+    DESCRIPTION("description"),
+    DUE("due"),
+    CREATED("created"),
+    PRIORITY("priority"),
+    STATUS("status"),
+    CATEGORY("category");
+
+    private final String queryName;
+
+    QueryField(String queryName) {
+        this.queryName = queryName;
+    }
+
+    public String getQueryName() {
+        return queryName;
+    }
+
+    public static QueryField forName(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        for (QueryField field : values()) {
+            if (field.queryName.equals(lower)) {
+                return field;
+            }
+        }
+        if (lower.equals("duedate")) {
+            return DUE;
+        }
+        if (lower.equals("creationdate")) {
+            return CREATED;
+        }
+        throw new IllegalArgumentException("Unknown field: " + name);
+    }
+
+    public boolean isDate() {
+        return this == DUE || this == CREATED;
+    }
+
+    public boolean isText() {
+        return this == TITLE || this == DESCRIPTION;
+    }
+
+    @SuppressWarnings("rawtypes")
+    public Comparable valueOf(Task task) {
+        switch (this) {
+            case ID:
+                return task.getId();
+            case TITLE:
+                return task.getTitle();
+            case DESCRIPTION:
+                return task.getDescription();
+            case DUE:
+                return task.getDueDate();
+            case CREATED:
+                return task.getCreationDate();
+            case PRIORITY:
+                return task.getPriority();
+            case STATUS:
+                return task.getStatus();
+            default:
+                return task.getCategory();
+        }
+    }
+
+    // Orders tasks by this field's value, tasks without one last
+    public Comparator<Task> comparator() {
+        switch (this) {
+            case ID:
+                return Comparator.comparingLong(Task::getId);
+            case TITLE:
+                return Comparator.comparing(Task::getTitle, Comparator.nullsLast(Comparator.<String>naturalOrder()));
+            case DESCRIPTION:
+                return Comparator.comparing(Task::getDescription, Comparator.nullsLast(Comparator.<String>naturalOrder()));
+            case DUE:
+                return Comparator.comparing(Task::getDueDate, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()));
+            case CREATED:
+                return Comparator.comparing(Task::getCreationDate, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()));
+            case PRIORITY:
+                return Comparator.comparing(Task::getPriority, Comparator.nullsLast(Comparator.<Priority>naturalOrder()));
+            case STATUS:
+                return Comparator.comparing(Task::getStatus, Comparator.nullsLast(Comparator.<Status>naturalOrder()));
+            default:
+                return Comparator.comparing(Task::getCategory, Comparator.nullsLast(Comparator.<Category>naturalOrder()));
+        }
+    }
+
+    // Converts a literal from the query text to this field's value type
+    @SuppressWarnings("rawtypes")
+    public Comparable parseValue(String literal) {
+        try {
+            switch (this) {
+                case ID:
+                    return Long.parseLong(literal);
+                case TITLE:
+                case DESCRIPTION:
+                    return literal;
+                case DUE:
+                case CREATED:
+                    return LocalDate.parse(literal);
+                case PRIORITY:
+                    return Priority.valueOf(literal.toUpperCase(Locale.ROOT));
+                case STATUS:
+                    return Status.valueOf(literal.toUpperCase(Locale.ROOT));
+                default:
+                    return Category.valueOf(literal.toUpperCase(Locale.ROOT));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid value for " + queryName + ": " + literal);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return queryName;
+    }
+}
@@ -0,0 +1,222 @@
+package service.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Recursive-descent parser for the query language:
+//
+//   query      := [expression] ["order" "by" field ["asc" | "desc"]] ["limit" number]
+//   expression := conjunction ("or" conjunction)*
+//   conjunction:= unary ("and" unary)*
+//   unary      := "not" unary | "(" expression ")" | comparison
+//   comparison := field op value | field "in" "(" value ("," value)* ")" | field "contains" value
+//   op         := "=" | "!=" | "<" | "<=" | ">" | ">="
+//
+// Keywords and enum values are case-insensitive; strings may be quoted with ' or ".
+class QueryParser {
+
+    private static final String SYMBOLS = "(),=!<>";
+
+    private final String text;
+    private final List<String> tokens = new ArrayList<>();
+    private final List<Integer> positions = new ArrayList<>();
+    private final List<Boolean> quoted = new ArrayList<>();
+    private int next;
+
+    QueryParser(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Query cannot be null.");
+        }
+        this.text = text;
+        tokenize();
+    }
+
+    Query parse() {
+        Expression filter = null;
+        if (!atEnd() && !isKeyword("order") && !isKeyword("limit")) {
+            filter = parseExpression();
+        }
+        QueryField orderBy = null;
+        boolean descending = false;
+        if (acceptKeyword("order")) {
+            expectKeyword("by");
+            orderBy = parseField();
+            if (acceptKeyword("desc")) {
+                descending = true;
+            } else {
+                acceptKeyword("asc");
+            }
+        }
+        int limit = Query.NO_LIMIT;
+        if (acceptKeyword("limit")) {
+            String value = take("a number");
+            try {
+                limit = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                limit = -1;
+            }
+            if (limit < 0) {
+                throw error("Limit must be a non-negative number", next - 1);
+            }
+        }
+        if (!atEnd()) {
+            throw error("Unexpected '" + tokens.get(next) + "'", next);
+        }
+        return new Query(filter, orderBy, descending, limit);
+    }
+
+    private Expression parseExpression() {
+        List<Expression> terms = new ArrayList<>();
+        terms.add(parseConjunction());
+        while (acceptKeyword("or")) {
+            terms.add(parseConjunction());
+        }
+        return Expression.or(terms);
+    }
+
+    private Expression parseConjunction() {
+        List<Expression> terms = new ArrayList<>();
+        terms.add(parseUnary());
+        while (acceptKeyword("and")) {
+            terms.add(parseUnary());
+        }
+        return Expression.and(terms);
+    }
+
+    private Expression parseUnary() {
+        if (acceptKeyword("not")) {
+            return Expression.not(parseUnary());
+        }
+        if (acceptSymbol("(")) {
+            Expression inner = parseExpression();
+            expectSymbol(")");
+            return inner;
+        }
+        return parseComparison();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Expression parseComparison() {
+        QueryField field = parseField();
+        List<Comparable> values = new ArrayList<>();
+        Condition.Operator operator;
+        if (acceptKeyword("in")) {
+            operator = Condition.Operator.IN;
+            expectSymbol("(");
+            do {
+                values.add(field.parseValue(take("a value")));
+            } while (acceptSymbol(","));
+            expectSymbol(")");
+        } else if (acceptKeyword("contains")) {
+            operator = Condition.Operator.CONTAINS;
+            values.add(field.parseValue(take("a value")));
+        } else {
+            operator = parseOperator();
+            values.add(field.parseValue(take("a value")));
+        }
+        return new Condition(field, operator, values);
+    }
+
+    private QueryField parseField() {
+        int position = next;
+        String name = take("a field name");
+        try {
+            return QueryField.forName(name);
+        } catch (IllegalArgumentException e) {
+            throw error(e.getMessage(), position);
+        }
+    }
+
+    private Condition.Operator parseOperator() {
+        int position = next;
+        String symbol = take("an operator");
+        for (Condition.Operator operator : Condition.Operator.values()) {
+            if (operator.toString().equals(symbol) && operator != Condition.Operator.IN && operator != Condition.Operator.CONTAINS) {
+                return operator;
+            }
+        }
+        throw error("Expected an operator but found '" + symbol + "'", position);
+    }
+
+    private boolean atEnd() {
+        return next >= tokens.size();
+    }
+
+    private String take(String expected) {
+        if (atEnd()) {
+            throw error("Expected " + expected + " but the query ended", next);
+        }
+        return tokens.get(next++);
+    }
+
+    private boolean isKeyword(String keyword) {
+        return !atEnd() && !quoted.get(next) && tokens.get(next).equalsIgnoreCase(keyword);
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        if (isKeyword(keyword)) {
+            next++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expectKeyword(String keyword) {
+        if (!acceptKeyword(keyword)) {
+            throw error("Expected '" + keyword + "'", next);
+        }
+    }
+
+    private boolean acceptSymbol(String symbol) {
+        if (!atEnd() && !quoted.get(next) && tokens.get(next).equals(symbol)) {
+            next++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expectSymbol(String symbol) {
+        if (!acceptSymbol(symbol)) {
+            throw error("Expected '" + symbol + "'", next);
+        }
+    }
+
+    private IllegalArgumentException error(String message, int tokenIndex) {
+        int position = tokenIndex < positions.size() ? positions.get(tokenIndex) : text.length();
+        return new IllegalArgumentException(message + " at position " + position + " in query: " + text);
+    }
+
+    private void tokenize() {
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'' || c == '"') {
+                int end = text.indexOf(c, i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated string at position " + i + " in query: " + text);
+                }
+                addToken(text.substring(i + 1, end), i, true);
+                i = end + 1;
+            } else if (SYMBOLS.indexOf(c) >= 0) {
+                boolean twoChars = (c == '!' || c == '<' || c == '>') && i + 1 < text.length() && text.charAt(i + 1) == '=';
+                addToken(text.substring(i, twoChars ? i + 2 : i + 1), i, false);
+                i += twoChars ? 2 : 1;
+            } else {
+                int start = i;
+                while (i < text.length() && !Character.isWhitespace(text.charAt(i)) && SYMBOLS.indexOf(text.charAt(i)) < 0
+                        && text.charAt(i) != '\'' && text.charAt(i) != '"') {
+                    i++;
+                }
+                addToken(text.substring(start, i), start, false);
+            }
+        }
+    }
+
+    private void addToken(String token, int position, boolean isQuoted) {
+        tokens.add(token);
+        positions.add(position);
+        quoted.add(isQuoted);
+    }
+}
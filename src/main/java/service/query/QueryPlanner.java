@@ -0,0 +1,212 @@
+package service.query;
+
+import model.task.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Turns a Query into a PlanNode tree. Every usable access path (full scan, id lookup,
+// enum value index, date range index) is costed from cardinality estimates taken from the
+// indexes, the cheapest one is picked, and the conditions it does not cover become a Filter.
+//
+// Cost model, in "rows touched":
+//  - a full scan reads every task; an index path reads its estimated rows at INDEX_ROW_COST each
+//  - a path whose output is not in the requested order pays SORT_ROW_COST per row for Sort/TopN
+//  - with a limit and no sort needed, a path stops after about limit / selectivity rows
+class QueryPlanner {
+
+    private static final double INDEX_ROW_COST = 1.5;
+    private static final double SORT_ROW_COST = 1.0;
+    private static final double DEFAULT_SELECTIVITY = 0.33;
+    private static final double CONTAINS_SELECTIVITY = 0.1;
+
+    private final TaskQueryIndex index;
+    private final Set<Task> allTasks;
+
+    QueryPlanner(TaskQueryIndex index, Set<Task> allTasks) {
+        this.index = index;
+        this.allTasks = allTasks;
+    }
+
+    private static class AccessPath {
+        final PlanNode node;
+        final Set<Expression> covered;
+        final boolean ordered;
+
+        AccessPath(PlanNode node, Set<Expression> covered, boolean ordered) {
+            this.node = node;
+            this.covered = covered;
+            this.ordered = ordered;
+        }
+    }
+
+    PlanNode plan(Query query) {
+        List<Expression> conjuncts = query.getFilter() != null
+                ? query.getFilter().conjuncts() : Collections.<Expression>emptyList();
+        long totalRows = index.size();
+        double selectivity = 1.0;
+        for (Expression conjunct : conjuncts) {
+            selectivity *= selectivity(conjunct, totalRows);
+        }
+        long estimatedResult = Math.round(totalRows * selectivity);
+
+        AccessPath best = null;
+        double bestCost = Double.MAX_VALUE;
+        for (AccessPath path : accessPaths(query, conjuncts)) {
+            double cost = cost(path, query, totalRows, estimatedResult);
+            if (cost < bestCost) {
+                best = path;
+                bestCost = cost;
+            }
+        }
+
+        PlanNode plan = best.node;
+        List<Expression> residual = new ArrayList<>();
+        for (Expression conjunct : conjuncts) {
+            if (!best.covered.contains(conjunct)) {
+                residual.add(conjunct);
+            }
+        }
+        if (!residual.isEmpty()) {
+            plan = new PlanNode.Filter(plan, Expression.and(residual), Math.min(plan.getEstimatedRows(), estimatedResult));
+        }
+        if (query.getOrderBy() != null && !best.ordered) {
+            return new PlanNode.Sort(plan, query.getOrderBy(), query.isDescending(), query.getLimit());
+        }
+        return query.getLimit() != Query.NO_LIMIT ? new PlanNode.Limit(plan, query.getLimit()) : plan;
+    }
+
+    private double cost(AccessPath path, Query query, long totalRows, long estimatedResult) {
+        double rows = path.node.getEstimatedRows();
+        double rowCost = path.node instanceof PlanNode.FullScan ? 1.0 : INDEX_ROW_COST;
+        boolean needsSort = query.getOrderBy() != null && !path.ordered;
+        if (query.getLimit() != Query.NO_LIMIT && !needsSort && rows > 0) {
+            // rows of this path that survive the residual filter
+            double matching = Math.max(1.0, Math.min(rows, estimatedResult));
+            rows = Math.min(rows, query.getLimit() * rows / matching);
+        }
+        return rows * rowCost + (needsSort ? path.node.getEstimatedRows() * SORT_ROW_COST : 0);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private List<AccessPath> accessPaths(Query query, List<Expression> conjuncts) {
+        List<AccessPath> paths = new ArrayList<>();
+        QueryField orderBy = query.getOrderBy();
+        paths.add(new AccessPath(new PlanNode.FullScan(allTasks), Collections.<Expression>emptySet(),
+                orderBy == QueryField.TITLE && !query.isDescending()));
+
+        for (Expression conjunct : conjuncts) {
+            if (!(conjunct instanceof Condition)) {
+                continue;
+            }
+            Condition condition = (Condition) conjunct;
+            QueryField field = condition.getField();
+            Condition.Operator operator = condition.getOperator();
+            if (field == QueryField.ID && operator == Condition.Operator.EQ) {
+                paths.add(new AccessPath(new PlanNode.IdLookup(index, (Long) condition.getValues().get(0)),
+                        Collections.<Expression>singleton(condition), true));
+            } else if (TaskQueryIndex.isEnumField(field) && (operator == Condition.Operator.EQ || operator == Condition.Operator.IN)) {
+                List<Enum<?>> values = new ArrayList<>();
+                long rows = 0;
+                for (Comparable value : new LinkedHashSet<>(condition.getValues())) {
+                    values.add((Enum<?>) value);
+                    rows += index.getByValue(field, (Enum<?>) value).size();
+                }
+                paths.add(new AccessPath(new PlanNode.ValueIndexScan(index, field, values, rows),
+                        Collections.<Expression>singleton(condition), false));
+            }
+        }
+
+        for (QueryField dateField : new QueryField[]{QueryField.DUE, QueryField.CREATED}) {
+            LocalDate from = null;
+            LocalDate to = null;
+            Set<Expression> covered = new HashSet<>();
+            for (Expression conjunct : conjuncts) {
+                if (!(conjunct instanceof Condition) || ((Condition) conjunct).getField() != dateField) {
+                    continue;
+                }
+                Condition condition = (Condition) conjunct;
+                LocalDate value = condition.getOperator() == Condition.Operator.IN || condition.getOperator() == Condition.Operator.NE
+                        ? null : (LocalDate) condition.getValues().get(0);
+                if (value == null) {
+                    continue;
+                }
+                LocalDate lower = null;
+                LocalDate upper = null;
+                switch (condition.getOperator()) {
+                    case EQ:
+                        lower = value;
+                        upper = value;
+                        break;
+                    case LT:
+                        upper = value.minusDays(1);
+                        break;
+                    case LE:
+                        upper = value;
+                        break;
+                    case GT:
+                        lower = value.plusDays(1);
+                        break;
+                    default:
+                        lower = value;
+                        break;
+                }
+                if (lower != null && (from == null || lower.isAfter(from))) {
+                    from = lower;
+                }
+                if (upper != null && (to == null || upper.isBefore(to))) {
+                    to = upper;
+                }
+                covered.add(condition);
+            }
+            boolean ordered = orderBy == dateField;
+            // an unbounded range scan is only useful for producing rows in date order
+            if (!covered.isEmpty() || ordered) {
+                boolean descending = ordered && query.isDescending();
+                paths.add(new AccessPath(new PlanNode.DateRangeScan(index, dateField, from, to, descending,
+                        index.countDateRange(dateField, from, to)), covered, ordered));
+            }
+        }
+        return paths;
+    }
+
+    // Estimated fraction of all tasks matching one conjunct
+    @SuppressWarnings("rawtypes")
+    private double selectivity(Expression expression, long totalRows) {
+        if (!(expression instanceof Condition) || totalRows == 0) {
+            return DEFAULT_SELECTIVITY;
+        }
+        Condition condition = (Condition) expression;
+        QueryField field = condition.getField();
+        Condition.Operator operator = condition.getOperator();
+        if (field == QueryField.ID && operator == Condition.Operator.EQ) {
+            return 1.0 / totalRows;
+        }
+        if (operator == Condition.Operator.CONTAINS) {
+            return CONTAINS_SELECTIVITY;
+        }
+        if (TaskQueryIndex.isEnumField(field) && (operator == Condition.Operator.EQ || operator == Condition.Operator.IN
+                || operator == Condition.Operator.NE)) {
+            long rows = 0;
+            for (Comparable value : new LinkedHashSet<>(condition.getValues())) {
+                rows += index.getByValue(field, (Enum<?>) value).size();
+            }
+            double fraction = (double) rows / totalRows;
+            return operator == Condition.Operator.NE ? 1.0 - fraction : fraction;
+        }
+        if (field.isDate() && operator != Condition.Operator.IN && operator != Condition.Operator.NE) {
+            LocalDate value = (LocalDate) condition.getValues().get(0);
+            LocalDate from = operator == Condition.Operator.GT ? value.plusDays(1)
+                    : operator == Condition.Operator.GE || operator == Condition.Operator.EQ ? value : null;
+            LocalDate to = operator == Condition.Operator.LT ? value.minusDays(1)
+                    : operator == Condition.Operator.LE || operator == Condition.Operator.EQ ? value : null;
+            return (double) index.countDateRange(field, from, to) / totalRows;
+        }
+        return DEFAULT_SELECTIVITY;
+    }
+}
@@ -0,0 +1,159 @@
+package service.query;
+
+import model.task.Task;
+import service.TaskChangeListener;
+import util.FenwickTree;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Secondary indexes the query planner can use instead of scanning every task:
+// id -> task, one task set per status/priority/category value, and due/creation date
+// trees with Fenwick counters for O(log n) range cardinality estimates.
+// Updated under the task manager lock; readers must hold the same lock.
+class TaskQueryIndex implements TaskChangeListener {
+
+    private final Map<Long, Task> byId = new HashMap<>();
+    private final Map<QueryField, Map<Enum<?>, Set<Task>>> byEnum = new EnumMap<>(QueryField.class);
+    private final Map<QueryField, NavigableMap<LocalDate, Set<Task>>> byDate = new EnumMap<>(QueryField.class);
+    private final Map<QueryField, FenwickTree> dateCounts = new EnumMap<>(QueryField.class);
+
+    TaskQueryIndex() {
+        byEnum.put(QueryField.STATUS, new HashMap<>());
+        byEnum.put(QueryField.PRIORITY, new HashMap<>());
+        byEnum.put(QueryField.CATEGORY, new HashMap<>());
+        byDate.put(QueryField.DUE, new TreeMap<>());
+        byDate.put(QueryField.CREATED, new TreeMap<>());
+    }
+
+    void addAll(Collection<Task> tasks) {
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    @Override
+    public void onTaskCreated(Task task) {
+        add(task);
+    }
+
+    @Override
+    public void onTaskCompleted(Task task) {
+        // a new object: every set must drop the previous one, not just the status set
+        Task previous = byId.get(task.getId());
+        if (previous != null) {
+            remove(previous);
+        }
+        add(task);
+    }
+
+    @Override
+    public void onTaskDeleted(Task task) {
+        remove(task);
+    }
+
+    @Override
+    public void onTaskUpdated(Task previous, Task current) {
+        remove(previous);
+        add(current);
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    Task getById(long id) {
+        return byId.get(id);
+    }
+
+    boolean isIndexed(QueryField field) {
+        return field == QueryField.ID || byEnum.containsKey(field) || byDate.containsKey(field);
+    }
+
+    Set<Task> getByValue(QueryField field, Enum<?> value) {
+        Set<Task> tasks = byEnum.get(field).get(value);
+        return tasks != null ? tasks : Collections.<Task>emptySet();
+    }
+
+    // Date buckets in [from, to], both inclusive; null bounds are open
+    NavigableMap<LocalDate, Set<Task>> getDateRange(QueryField field, LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, Set<Task>> dates = byDate.get(field);
+        if (from != null && to != null) {
+            return from.isAfter(to) ? Collections.<LocalDate, Set<Task>>emptyNavigableMap() : dates.subMap(from, true, to, true);
+        }
+        if (from != null) {
+            return dates.tailMap(from, true);
+        }
+        return to != null ? dates.headMap(to, true) : dates;
+    }
+
+    long countDateRange(QueryField field, LocalDate from, LocalDate to) {
+        FenwickTree counts = dateCounts.get(field);
+        if (counts == null) {
+            return 0;
+        }
+        long fromDay = from != null ? from.toEpochDay() : Long.MIN_VALUE / 2;
+        long toDay = to != null ? to.toEpochDay() : Long.MAX_VALUE / 2;
+        return counts.rangeSum(fromDay, toDay);
+    }
+
+    private void add(Task task) {
+        byId.put(task.getId(), task);
+        addValue(QueryField.STATUS, task.getStatus(), task);
+        addValue(QueryField.PRIORITY, task.getPriority(), task);
+        addValue(QueryField.CATEGORY, task.getCategory(), task);
+        addDate(QueryField.DUE, task.getDueDate(), task, 1);
+        addDate(QueryField.CREATED, task.getCreationDate(), task, 1);
+    }
+
+    private void remove(Task task) {
+        byId.remove(task.getId());
+        for (Map<Enum<?>, Set<Task>> values : byEnum.values()) {
+            for (Set<Task> tasks : values.values()) {
+                tasks.remove(task);
+            }
+        }
+        addDate(QueryField.DUE, task.getDueDate(), task, -1);
+        addDate(QueryField.CREATED, task.getCreationDate(), task, -1);
+    }
+
+    private void addValue(QueryField field, Enum<?> value, Task task) {
+        byEnum.get(field).computeIfAbsent(value, k -> new LinkedHashSet<>()).add(task);
+    }
+
+    private void addDate(QueryField field, LocalDate date, Task task, int delta) {
+        if (date == null) {
+            return;
+        }
+        NavigableMap<LocalDate, Set<Task>> dates = byDate.get(field);
+        if (delta > 0) {
+            dates.computeIfAbsent(date, k -> new LinkedHashSet<>()).add(task);
+        } else {
+            Set<Task> tasks = dates.get(date);
+            if (tasks == null || !tasks.remove(task)) {
+                return;
+            }
+            if (tasks.isEmpty()) {
+                dates.remove(date);
+            }
+        }
+        FenwickTree counts = dateCounts.get(field);
+        if (counts == null) {
+            counts = new FenwickTree(date.toEpochDay());
+            dateCounts.put(field, counts);
+        }
+        counts.add(date.toEpochDay(), delta);
+    }
+
+    static boolean isEnumField(QueryField field) {
+        return field == QueryField.STATUS || field == QueryField.PRIORITY || field == QueryField.CATEGORY;
+    }
+}
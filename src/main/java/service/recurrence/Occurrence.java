@@ -0,0 +1,47 @@
+package service.recurrence;
+
+import model.task.RecurringTask;
+import model.task.Status;
+import model.task.Task;
+
+import java.time.LocalDate;
+
+// One date of a recurring task. Unless it has been materialized, the task is a transient
+// PENDING copy with id VIRTUAL_TASK_ID that is not stored anywhere.
+public class Occurrence {
+
+    public static final long VIRTUAL_TASK_ID = 0L;
+
+    private final RecurringTask template;
+    private final LocalDate date;
+    private final Task task;
+    private final boolean materialized;
+
+    Occurrence(RecurringTask template, LocalDate date, Task materializedTask) {
+        this.template = template;
+        this.date = date;
+        this.materialized = materializedTask != null;
+        this.task = materialized ? materializedTask : template.occurrenceDraft(date, Status.PENDING).toTask(VIRTUAL_TASK_ID);
+    }
+
+    public RecurringTask getTemplate() {
+        return template;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public boolean isMaterialized() {
+        return materialized;
+    }
+
+    @Override
+    public String toString() {
+        return task.getTitle() + (materialized ? " [ID: " + task.getId() + ", " + task.getStatus() + "]" : " [virtual]");
+    }
+}
@@ -0,0 +1,369 @@
+package service.recurrence;
+
+import model.task.Category;
+import model.task.Priority;
+import model.task.RecurrenceRule;
+import model.task.RecurringTask;
+import model.task.Status;
+import model.task.Task;
+import model.task.TaskDraft;
+import service.TaskChangeListener;
+import service.TaskManagerImpl;
+import service.query.Query;
+import service.query.QueryField;
+import util.Json;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+// Recurring task definitions and their occurrences. A definition is one record in the
+// recurring file however many dates it covers; occurrences are expanded on the fly for the
+// requested date range. An occurrence becomes a regular task in the TaskManagerImpl only
+// when it is completed or changed (materialize), and the definition then remembers the
+// task id for that date. Deleting a materialized task skips that date from then on; archiving
+// it keeps the link, and a task purged by retention leaves its date out like a skipped one.
+//
+// All state is guarded by the task manager lock, which listener callbacks already hold.
+public class RecurringTaskService implements TaskChangeListener {
+
+    private static final String RECURRING_FILE_PATH = "src/main/resources/recurring";
+    private static final long SKIPPED = -1L;
+
+    private static class OccurrenceKey {
+        final long templateId;
+        final LocalDate date;
+
+        OccurrenceKey(long templateId, LocalDate date) {
+            this.templateId = templateId;
+            this.date = date;
+        }
+    }
+
+    // next pending date of one definition during forEachOccurrence
+    private static class Cursor {
+        final RecurringTask template;
+        final Iterator<LocalDate> dates;
+        LocalDate date;
+
+        Cursor(RecurringTask template, Iterator<LocalDate> dates) {
+            this.template = template;
+            this.dates = dates;
+            this.date = dates.next();
+        }
+    }
+
+    private final TaskManagerImpl taskManager;
+    private final Path filePath; // null keeps definitions in memory only
+    private final Map<Long, RecurringTask> templates = new TreeMap<>();
+    // per definition: date -> materialized task id, or SKIPPED
+    private final Map<Long, NavigableMap<LocalDate, Long>> overrides = new HashMap<>();
+    private final Map<Long, OccurrenceKey> occurrenceByTaskId = new HashMap<>();
+    private long nextTemplateId = 1;
+
+    public RecurringTaskService(TaskManagerImpl taskManager) {
+        this(taskManager, taskManager.isPersistent() ? Paths.get(RECURRING_FILE_PATH) : null);
+    }
+
+    public RecurringTaskService(TaskManagerImpl taskManager, Path filePath) {
+        this.taskManager = taskManager;
+        this.filePath = filePath;
+        synchronized (taskManager) {
+            load();
+            taskManager.addTaskChangeListener(this);
+        }
+    }
+
+    public RecurringTask addRecurringTask(String title, String description, Priority priority, Category category, RecurrenceRule rule, LocalDate creationDate) {
+        synchronized (taskManager) {
+            RecurringTask template = new RecurringTask(nextTemplateId++, title, description, priority, category, rule, creationDate);
+            templates.put(template.getId(), template);
+            overrides.put(template.getId(), new TreeMap<>());
+            save();
+            System.out.println("Recurring task created: " + template.getTitle() + " (ID: " + template.getId() + ", " + rule + ").");
+            return template;
+        }
+    }
+
+    // Materialized occurrences stay behind as regular tasks
+    public boolean removeRecurringTask(long templateId) {
+        synchronized (taskManager) {
+            if (templates.remove(templateId) == null) {
+                System.out.println("Recurring task ID " + templateId + " not found.");
+                return false;
+            }
+            for (Long taskId : overrides.remove(templateId).values()) {
+                occurrenceByTaskId.remove(taskId);
+            }
+            save();
+            return true;
+        }
+    }
+
+    public List<RecurringTask> getRecurringTasks() {
+        synchronized (taskManager) {
+            return new ArrayList<>(templates.values());
+        }
+    }
+
+    public RecurringTask getRecurringTask(long templateId) {
+        synchronized (taskManager) {
+            return templates.get(templateId);
+        }
+    }
+
+    // Turns the occurrence into a stored PENDING task (or returns the one already stored) so
+    // it can be completed or changed through the TaskManagerImpl like any other task
+    public Task materialize(long templateId, LocalDate date) {
+        synchronized (taskManager) {
+            RecurringTask template = requireOccurrence(templateId, date);
+            Long taskId = overrides.get(templateId).get(date);
+            if (taskId != null) {
+                Task task = taskId != SKIPPED ? taskManager.getTaskById(taskId) : null;
+                if (task == null) {
+                    throw new IllegalStateException("Occurrence " + template.occurrenceTitle(date) + " was deleted.");
+                }
+                return task;
+            }
+            TaskDraft draft = template.occurrenceDraft(date, Status.PENDING);
+            Task task = taskManager.createTask(draft.getTitle(), draft.getDescription(), draft.getDueDate(),
+                    draft.getPriority(), draft.getStatus(), draft.getCategory(), draft.getCreationDate());
+            if (task == null) {
+                throw new IllegalStateException("Could not materialize occurrence " + draft.getTitle() + ".");
+            }
+            overrides.get(templateId).put(date, task.getId());
+            occurrenceByTaskId.put(task.getId(), new OccurrenceKey(templateId, date));
+            save();
+            return task;
+        }
+    }
+
+    public Task completeOccurrence(long templateId, LocalDate date) {
+        synchronized (taskManager) {
+            Task task = materialize(templateId, date);
+            return taskManager.completeTask(task.getId(), completed -> true);
+        }
+    }
+
+    public void skipOccurrence(long templateId, LocalDate date) {
+        synchronized (taskManager) {
+            requireOccurrence(templateId, date);
+            Long taskId = overrides.get(templateId).get(date);
+            if (taskId != null && taskId != SKIPPED) {
+                taskManager.deleteTask(taskId); // onTaskDeleted marks the date skipped
+            } else if (taskId == null) {
+                overrides.get(templateId).put(date, SKIPPED);
+                save();
+            }
+        }
+    }
+
+    public List<Occurrence> occurrences(LocalDate from, LocalDate to) {
+        final List<Occurrence> result = new ArrayList<>();
+        forEachOccurrence(from, to, occurrence -> {
+            result.add(occurrence);
+            return true;
+        });
+        return result;
+    }
+
+    // Occurrences of every definition in [from, to] in date order, expanded one at a time:
+    // a k-way merge over the per-definition date iterators. Stops when the consumer returns false.
+    public void forEachOccurrence(LocalDate from, LocalDate to, Predicate<Occurrence> consumer) {
+        synchronized (taskManager) {
+            PriorityQueue<Cursor> cursors = new PriorityQueue<>(Math.max(1, templates.size()), (a, b) -> {
+                int byDate = a.date.compareTo(b.date);
+                return byDate != 0 ? byDate : Long.compare(a.template.getId(), b.template.getId());
+            });
+            for (RecurringTask template : templates.values()) {
+                Iterator<LocalDate> dates = template.getRule().occurrences(from, to);
+                if (dates.hasNext()) {
+                    cursors.add(new Cursor(template, dates));
+                }
+            }
+            while (!cursors.isEmpty()) {
+                Cursor cursor = cursors.poll();
+                RecurringTask template = cursor.template;
+                LocalDate date = cursor.date;
+                if (cursor.dates.hasNext()) {
+                    cursor.date = cursor.dates.next();
+                    cursors.add(cursor);
+                }
+                Long taskId = overrides.get(template.getId()).get(date);
+                if (taskId != null && taskId == SKIPPED) {
+                    continue;
+                }
+                Task materialized = taskId != null ? taskManager.getTaskById(taskId) : null;
+                if (taskId != null && materialized == null) {
+                    continue; // purged by retention
+                }
+                if (!consumer.test(new Occurrence(template, date, materialized))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Filters occurrences with the query language (see service.query.QueryEngine); results
+    // come in due date order, so only "order by due" is accepted
+    public List<Task> query(String query, LocalDate from, LocalDate to) {
+        final Query parsed = Query.parse(query);
+        if ((parsed.getOrderBy() != null && parsed.getOrderBy() != QueryField.DUE) || parsed.isDescending()) {
+            throw new IllegalArgumentException("Occurrences can only be ordered by ascending due date.");
+        }
+        final List<Task> results = new ArrayList<>();
+        if (parsed.getLimit() == 0) {
+            return results;
+        }
+        forEachOccurrence(from, to, occurrence -> {
+            Task task = occurrence.getTask();
+            if (parsed.getFilter() == null || parsed.getFilter().matches(task)) {
+                results.add(task);
+            }
+            return parsed.getLimit() == Query.NO_LIMIT || results.size() < parsed.getLimit();
+        });
+        return results;
+    }
+
+    @Override
+    public void onTaskCreated(Task task) {
+    }
+
+    @Override
+    public void onTaskCompleted(Task task) {
+    }
+
+    @Override
+    public void onTaskDeleted(Task task) {
+        OccurrenceKey key = occurrenceByTaskId.remove(task.getId());
+        if (key != null) {
+            overrides.get(key.templateId).put(key.date, SKIPPED);
+            save();
+        }
+    }
+
+    @Override
+    public void onTaskRetired(Task task) {
+        // not the user's choice: the occurrence stays done, archived or purged
+    }
+
+    @Override
+    public void onTaskUpdated(Task previous, Task current) {
+        // same id, the occurrence link stays valid
+    }
+
+    private RecurringTask requireOccurrence(long templateId, LocalDate date) {
+        RecurringTask template = templates.get(templateId);
+        if (template == null) {
+            throw new IllegalArgumentException("Recurring task ID " + templateId + " not found.");
+        }
+        if (!template.getRule().isOccurrence(date)) {
+            throw new IllegalArgumentException("Recurring task ID " + templateId + " has no occurrence on " + date + ".");
+        }
+        return template;
+    }
+
+    // One JSON object per line and definition; overrides as "date=taskId" pairs
+    private void save() {
+        if (filePath == null) {
+            return;
+        }
+        Path tempFile = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        try {
+            if (filePath.getParent() != null) {
+                Files.createDirectories(filePath.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                StringBuilder line = new StringBuilder(256);
+                for (RecurringTask template : templates.values()) {
+                    line.setLength(0);
+                    RecurrenceRule rule = template.getRule();
+                    line.append("{\"id\":").append(template.getId());
+                    line.append(",\"title\":");
+                    Json.appendString(line, template.getTitle());
+                    line.append(",\"description\":");
+                    Json.appendString(line, template.getDescription());
+                    line.append(",\"priority\":\"").append(template.getPriority().name()).append('"');
+                    line.append(",\"category\":\"").append(template.getCategory().name()).append('"');
+                    line.append(",\"creationDate\":\"").append(template.getCreationDate()).append('"');
+                    line.append(",\"frequency\":\"").append(rule.getFrequency().name()).append('"');
+                    line.append(",\"interval\":").append(rule.getInterval());
+                    line.append(",\"start\":\"").append(rule.getStart()).append('"');
+                    line.append(",\"end\":").append(rule.getEnd() != null ? "\"" + rule.getEnd() + "\"" : "null");
+                    line.append(",\"overrides\":\"");
+                    boolean first = true;
+                    for (Map.Entry<LocalDate, Long> override : overrides.get(template.getId()).entrySet()) {
+                        line.append(first ? "" : ";").append(override.getKey()).append('=').append(override.getValue());
+                        first = false;
+                    }
+                    line.append("\"}");
+                    writer.write(line.toString());
+                    writer.newLine();
+                }
+            }
+            Files.move(tempFile, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error writing recurring tasks to file: " + e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (filePath == null || !Files.exists(filePath)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    Map<String, String> values = Json.parseObject(line);
+                    RecurrenceRule rule = new RecurrenceRule(
+                            RecurrenceRule.Frequency.valueOf(values.get("frequency")),
+                            Integer.parseInt(values.get("interval")),
+                            LocalDate.parse(values.get("start")),
+                            values.get("end") != null ? LocalDate.parse(values.get("end")) : null);
+                    RecurringTask template = new RecurringTask(Long.parseLong(values.get("id")), values.get("title"),
+                            values.get("description"), Priority.valueOf(values.get("priority")),
+                            Category.valueOf(values.get("category")), rule, LocalDate.parse(values.get("creationDate")));
+                    NavigableMap<LocalDate, Long> templateOverrides = new TreeMap<>();
+                    String encoded = values.get("overrides");
+                    if (encoded != null && !encoded.isEmpty()) {
+                        for (String pair : encoded.split(";")) {
+                            int separator = pair.indexOf('=');
+                            LocalDate date = LocalDate.parse(pair.substring(0, separator));
+                            long taskId = Long.parseLong(pair.substring(separator + 1));
+                            templateOverrides.put(date, taskId);
+                            if (taskId != SKIPPED) {
+                                occurrenceByTaskId.put(taskId, new OccurrenceKey(template.getId(), date));
+                            }
+                        }
+                    }
+                    templates.put(template.getId(), template);
+                    overrides.put(template.getId(), templateOverrides);
+                    nextTemplateId = Math.max(nextTemplateId, template.getId() + 1);
+                } catch (RuntimeException e) {
+                    System.err.println("Skipping malformed recurring task record: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading recurring tasks from file: " + e.getMessage());
+        }
+    }
+}
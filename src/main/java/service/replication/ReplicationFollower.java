@@ -0,0 +1,255 @@
+package service.replication;
+
+import model.task.*;
+import service.TaskManager;
+import service.TaskManagerImpl;
+import service.event.TaskEventType;
+import util.TaskCodec;
+
+import java.io.*;
+import java.net.Socket;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+// Read-only replica. Connects to a ReplicationPrimary, loads a snapshot if the primary sends
+// one, then applies the streamed events to its own in-memory TaskManagerImpl. Reconnects on
+// failure and resumes from the last applied sequence.
+public class ReplicationFollower implements TaskManager, Closeable {
+
+    private static final long RECONNECT_DELAY_MILLIS = 500;
+    private static final TaskEventType[] EVENT_TYPES = TaskEventType.values();
+
+    private final String host;
+    private final int port;
+
+    private volatile TaskManagerImpl replica = new TaskManagerImpl(Collections.<Task>emptyList());
+    private volatile long appliedSequence = -1;
+    private volatile long primarySequence = -1;
+    private volatile long caughtUpAtMillis = System.currentTimeMillis();
+    private volatile long eventsApplied;
+    private volatile int snapshotsLoaded;
+    private volatile boolean connected;
+    private volatile boolean running;
+    private volatile Socket socket;
+    private Thread thread;
+
+    public ReplicationFollower(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "replication-follower");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        while (running) {
+            try (Socket connection = new Socket(host, port)) {
+                socket = connection;
+                connection.setTcpNoDelay(true);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+                DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+                out.writeInt(ReplicationProtocol.MAGIC);
+                out.writeLong(appliedSequence);
+                out.flush();
+                connected = true;
+                readFrames(in);
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Replication connection to " + host + ":" + port + " lost: " + e.getMessage());
+                }
+            } finally {
+                connected = false;
+            }
+            if (running) {
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void readFrames(DataInputStream in) throws IOException {
+        while (running) {
+            byte frame = in.readByte();
+            switch (frame) {
+                case ReplicationProtocol.SNAPSHOT_BEGIN:
+                    loadSnapshot(in);
+                    break;
+                case ReplicationProtocol.EVENT:
+                    long sequence = in.readLong();
+                    TaskEventType type = EVENT_TYPES[in.readUnsignedByte()];
+                    in.readLong(); // event timestamp
+                    Task task = TaskCodec.readTask(in);
+                    apply(type, task);
+                    appliedSequence = sequence;
+                    eventsApplied++;
+                    if (sequence > primarySequence) {
+                        primarySequence = sequence;
+                    }
+                    markCaughtUpIfCurrent();
+                    break;
+                case ReplicationProtocol.HEARTBEAT:
+                    primarySequence = in.readLong();
+                    in.readLong(); // primary clock
+                    markCaughtUpIfCurrent();
+                    break;
+                default:
+                    throw new IOException("unknown replication frame " + frame);
+            }
+        }
+    }
+
+    private void loadSnapshot(DataInputStream in) throws IOException {
+        long sequence = in.readLong();
+        int count = in.readInt();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.readByte() != ReplicationProtocol.SNAPSHOT_TASK) {
+                throw new IOException("malformed snapshot");
+            }
+            tasks.add(TaskCodec.readTask(in));
+        }
+        if (in.readByte() != ReplicationProtocol.SNAPSHOT_END) {
+            throw new IOException("malformed snapshot");
+        }
+        replica = new TaskManagerImpl(tasks);
+        appliedSequence = sequence;
+        primarySequence = Math.max(primarySequence, sequence);
+        snapshotsLoaded++;
+        markCaughtUpIfCurrent();
+    }
+
+    private void apply(TaskEventType type, Task task) {
+        switch (type) {
+            case CREATED:
+            case COMPLETED:
+            case UPDATED:
+                replica.putTask(task);
+                break;
+            case DELETED:
+                replica.removeTasks(Collections.singletonList(task.getId()));
+                break;
+        }
+    }
+
+    private void markCaughtUpIfCurrent() {
+        if (appliedSequence >= primarySequence) {
+            caughtUpAtMillis = System.currentTimeMillis();
+        }
+    }
+
+    // Waits until the follower has applied the given sequence; false on timeout
+    public boolean awaitSequence(long sequence, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (appliedSequence < sequence) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    // --- reads are served locally ---
+
+    @Override
+    public Task getTaskById(Long id) {
+        return replica.getTaskById(id);
+    }
+
+    @Override
+    public Set<Task> searchTask(String title, String description) {
+        return replica.searchTask(title, description);
+    }
+
+    @Override
+    public void displayAllTasks() {
+        replica.displayAllTasks();
+    }
+
+    // A copy: the replication thread keeps changing the replica's own set
+    public List<Task> getTasks() {
+        return replica.snapshotTasks();
+    }
+
+    // --- writes belong on the primary ---
+
+    @Override
+    public Task createTask(String title, String description, LocalDate dueDate, Priority priority, Status status, Category category, LocalDate creationDate) {
+        throw new UnsupportedOperationException("Follower is read-only, create tasks on the primary.");
+    }
+
+    @Override
+    public void completeTask(Long taskIdToComplete) {
+        throw new UnsupportedOperationException("Follower is read-only, complete tasks on the primary.");
+    }
+
+    @Override
+    public void deleteTask(Long completedTaskId) {
+        throw new UnsupportedOperationException("Follower is read-only, delete tasks on the primary.");
+    }
+
+    @Override
+    public Task updateTask(Long taskId, long expectedVersion, TaskUpdate update) {
+        throw new UnsupportedOperationException("Follower is read-only, update tasks on the primary.");
+    }
+
+    // --- replication metrics ---
+
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    public long getPrimarySequence() {
+        return primarySequence;
+    }
+
+    public long getLagEvents() {
+        return Math.max(0, primarySequence - appliedSequence);
+    }
+
+    // How long the follower has been behind the primary, 0 when caught up
+    public long getLagMillis() {
+        return getLagEvents() == 0 ? 0 : System.currentTimeMillis() - caughtUpAtMillis;
+    }
+
+    public long getEventsApplied() {
+        return eventsApplied;
+    }
+
+    public int getSnapshotsLoaded() {
+        return snapshotsLoaded;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException ignored) {
+                // closing anyway
+            }
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
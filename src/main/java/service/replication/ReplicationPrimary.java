@@ -0,0 +1,247 @@
+package service.replication;
+
+import model.task.Task;
+import service.TaskManagerImpl;
+import service.event.EventProcessor;
+import service.event.TaskEvent;
+import service.event.TaskEventBus;
+import service.event.TaskEventType;
+import util.TaskCodec;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Streams the primary's mutation log to followers over TCP. Each follower gets a bus
+// subscriber that forwards events from where the follower left off; a follower that is new,
+// or further behind than the bus can replay, first receives a snapshot of all tasks.
+// The subscriber only copies events into the follower's bounded queue, and a thread per
+// follower writes them to its socket, so a slow or stalled follower never holds up the bus
+// (and with it the manager). A follower whose queue overflows is disconnected; it catches up
+// from the bus or journal when it reconnects, or from a new snapshot if they cannot replay.
+public class ReplicationPrimary implements Closeable {
+
+    public static final int DEFAULT_FOLLOWER_QUEUE_CAPACITY = 8192;
+
+    private final TaskManagerImpl taskManager;
+    private final TaskEventBus eventBus;
+    private final ServerSocket serverSocket;
+    private final int followerQueueCapacity;
+    private final List<FollowerSession> sessions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger sessionIds = new AtomicInteger();
+    private final AtomicLong droppedFollowers = new AtomicLong();
+    private volatile boolean running;
+    private Thread acceptThread;
+
+    // taskManager must already publish to eventBus (addTaskChangeListener)
+    public ReplicationPrimary(TaskManagerImpl taskManager, TaskEventBus eventBus, int port) throws IOException {
+        this(taskManager, eventBus, port, DEFAULT_FOLLOWER_QUEUE_CAPACITY);
+    }
+
+    public ReplicationPrimary(TaskManagerImpl taskManager, TaskEventBus eventBus, int port, int followerQueueCapacity) throws IOException {
+        if (followerQueueCapacity < 1) {
+            throw new IllegalArgumentException("Follower queue capacity must be positive.");
+        }
+        this.taskManager = taskManager;
+        this.eventBus = eventBus;
+        this.followerQueueCapacity = followerQueueCapacity;
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        acceptThread = new Thread(this::acceptLoop, "replication-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                FollowerSession session = new FollowerSession(socket, sessionIds.incrementAndGet());
+                Thread thread = new Thread(session::run, "replication-session-" + session.id);
+                thread.setDaemon(true);
+                thread.start();
+            } catch (SocketException e) {
+                // server socket closed
+            } catch (IOException e) {
+                System.err.println("Error accepting follower connection: " + e.getMessage());
+            }
+        }
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getFollowerCount() {
+        return sessions.size();
+    }
+
+    // Followers disconnected so far because they fell a full queue behind
+    public long getDroppedFollowerCount() {
+        return droppedFollowers.get();
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            System.err.println("Error closing replication socket: " + e.getMessage());
+        }
+        for (FollowerSession session : sessions) {
+            session.close();
+        }
+    }
+
+    // An event copied out of its ring slot, which is reused once the subscriber returns
+    private static final class QueuedEvent {
+        final long sequence;
+        final TaskEventType type;
+        final long timestamp;
+        final Task task;
+
+        QueuedEvent(long sequence, TaskEventType type, long timestamp, Task task) {
+            this.sequence = sequence;
+            this.type = type;
+            this.timestamp = timestamp;
+            this.task = task;
+        }
+    }
+
+    private class FollowerSession {
+        private final Socket socket;
+        private final int id;
+        private final BlockingQueue<QueuedEvent> queue = new ArrayBlockingQueue<>(followerQueueCapacity);
+        private DataOutputStream out;
+        private EventProcessor processor;
+        private volatile boolean closed;
+
+        FollowerSession(Socket socket, int id) {
+            this.socket = socket;
+            this.id = id;
+        }
+
+        // The session's own thread: handshake, snapshot if needed, then the queued events
+        void run() {
+            List<Task> snapshot = null;
+            long startSequence;
+            try {
+                socket.setTcpNoDelay(true);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                if (in.readInt() != ReplicationProtocol.MAGIC) {
+                    throw new IOException("bad handshake");
+                }
+                long followerSequence = in.readLong();
+
+                // Under the manager lock no change can be published, so the task copy and the
+                // cursor describe the same point in the log
+                synchronized (taskManager) {
+                    if (followerSequence >= 0 && eventBus.canReplayFrom(followerSequence + 1)) {
+                        startSequence = followerSequence + 1;
+                    } else {
+                        snapshot = taskManager.snapshotTasks();
+                        startSequence = eventBus.getCursor() + 1;
+                    }
+                    sessions.add(this);
+                    processor = eventBus.subscribe("replica-" + id, this::forward, startSequence);
+                }
+            } catch (IOException e) {
+                System.err.println("Replication handshake failed: " + e.getMessage());
+                close();
+                return;
+            }
+            System.out.println("Follower " + socket.getRemoteSocketAddress() + " streaming from sequence " + startSequence + ".");
+            try {
+                if (snapshot != null) {
+                    sendSnapshot(snapshot, startSequence - 1);
+                }
+                stream();
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Lost follower " + socket.getRemoteSocketAddress() + ": " + e.getMessage());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        private void sendSnapshot(List<Task> tasks, long sequence) throws IOException {
+            out.writeByte(ReplicationProtocol.SNAPSHOT_BEGIN);
+            out.writeLong(sequence);
+            out.writeInt(tasks.size());
+            for (Task task : tasks) {
+                out.writeByte(ReplicationProtocol.SNAPSHOT_TASK);
+                TaskCodec.writeTask(out, task);
+            }
+            out.writeByte(ReplicationProtocol.SNAPSHOT_END);
+            out.flush();
+        }
+
+        // Writes queued events as they come, flushing when the queue runs dry, and a
+        // heartbeat after a quiet interval
+        private void stream() throws IOException, InterruptedException {
+            while (!closed) {
+                QueuedEvent event = queue.poll(ReplicationProtocol.HEARTBEAT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    out.writeByte(ReplicationProtocol.HEARTBEAT);
+                    out.writeLong(eventBus.getCursor());
+                    out.writeLong(System.currentTimeMillis());
+                } else {
+                    do {
+                        out.writeByte(ReplicationProtocol.EVENT);
+                        out.writeLong(event.sequence);
+                        out.writeByte(event.type.ordinal());
+                        out.writeLong(event.timestamp);
+                        TaskCodec.writeTask(out, event.task);
+                    } while ((event = queue.poll()) != null);
+                }
+                out.flush();
+            }
+        }
+
+        // Bus subscriber: never blocks, the session thread does the writing
+        private void forward(TaskEvent event, long sequence, boolean endOfBatch) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(new QueuedEvent(sequence, event.getType(), event.getTimestamp(), event.toTask()))) {
+                droppedFollowers.incrementAndGet();
+                System.err.println("Follower " + socket.getRemoteSocketAddress() + " fell " + followerQueueCapacity
+                        + " events behind, disconnecting it to catch up on reconnect.");
+                close();
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            sessions.remove(this);
+            if (processor != null) {
+                processor.halt();
+            }
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // already gone
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package service.replication;
+
+// Frames exchanged between primary and follower. The follower opens with MAGIC and the last
+// sequence it applied (-1 if it has nothing); the primary answers with a snapshot if it cannot
+// stream from there, then with EVENT frames and periodic HEARTBEATs carrying its cursor.
+final class ReplicationProtocol {
+
+    static final int MAGIC = 0x54524550; // "TREP"
+
+    static final byte SNAPSHOT_BEGIN = 1; // long sequence, int taskCount
+    static final byte SNAPSHOT_TASK = 2;  // task
+    static final byte SNAPSHOT_END = 3;
+    static final byte EVENT = 4;          // long sequence, byte type, long timestamp, task
+    static final byte HEARTBEAT = 5;      // long primaryCursor, long timestamp
+
+    static final long HEARTBEAT_INTERVAL_MILLIS = 100;
+
+    private ReplicationProtocol() {
+    }
+}
@@ -0,0 +1,197 @@
+package service.retention;
+
+import model.task.Task;
+import service.TaskManagerImpl;
+import util.FileHandler;
+import util.TaskArchive;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Background purge/archive of old tasks. Work is done in slices: each slice looks at no more
+// than maxTasksPerSlice tasks of the current sweep (and stops early once its time budget is
+// spent), then applies everything it found with one archive segment and one file rewrite.
+// The manager lock is only held for the snapshot and for applying a slice; the sweep is a
+// snapshot, so every candidate is checked again against the live task under the lock.
+public class RetentionEngine {
+
+    public static final int DEFAULT_MAX_TASKS_PER_SLICE = 1000;
+    public static final long DEFAULT_SLICE_BUDGET_MILLIS = 20;
+
+    private final TaskManagerImpl taskManager;
+    private final List<RetentionPolicy> policies;
+    private final TaskArchive archive;
+    private final int maxTasksPerSlice;
+    private final long sliceBudgetNanos;
+
+    private List<Task> sweep;
+    private int cursor;
+    private LocalDate sweepDate;
+    private RetentionReport totals = new RetentionReport(0, 0, 0, 0);
+    private long completedSweeps;
+
+    private ScheduledExecutorService scheduler;
+
+    public RetentionEngine(TaskManagerImpl taskManager, List<RetentionPolicy> policies, TaskArchive archive) {
+        this(taskManager, policies, archive, DEFAULT_MAX_TASKS_PER_SLICE, DEFAULT_SLICE_BUDGET_MILLIS);
+    }
+
+    public RetentionEngine(TaskManagerImpl taskManager, List<RetentionPolicy> policies, TaskArchive archive,
+                           int maxTasksPerSlice, long sliceBudgetMillis) {
+        if (maxTasksPerSlice < 1) {
+            throw new IllegalArgumentException("Slice size must be positive: " + maxTasksPerSlice);
+        }
+        for (RetentionPolicy policy : policies) {
+            if (policy.getAction() == RetentionPolicy.Action.ARCHIVE && archive == null) {
+                throw new IllegalArgumentException("Policy '" + policy + "' needs an archive.");
+            }
+        }
+        this.taskManager = taskManager;
+        this.policies = new ArrayList<>(policies);
+        this.archive = archive;
+        this.maxTasksPerSlice = maxTasksPerSlice;
+        this.sliceBudgetNanos = TimeUnit.MILLISECONDS.toNanos(sliceBudgetMillis);
+        if (archive != null) {
+            taskManager.setArchive(archive);
+        }
+    }
+
+    public synchronized void start(long interval, TimeUnit unit) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                runSlice();
+            } catch (RuntimeException e) {
+                // keep the schedule alive, the next slice retries
+                System.err.println("Retention slice failed: " + e.getMessage());
+            }
+        }, interval, interval, unit);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    public synchronized RetentionReport runSlice() {
+        if (sweep == null) {
+            sweep = taskManager.snapshotTasks();
+            cursor = 0;
+            sweepDate = LocalDate.now();
+        }
+
+        long deadline = System.nanoTime() + sliceBudgetNanos;
+        List<Long> candidateIds = new ArrayList<>();
+        int scanned = 0;
+        while (cursor < sweep.size() && scanned < maxTasksPerSlice) {
+            Task task = sweep.get(cursor++);
+            scanned++;
+            if (firstMatchingPolicy(task) != null) {
+                candidateIds.add(task.getId());
+            }
+            if ((scanned & 63) == 0 && System.nanoTime() > deadline) {
+                break;
+            }
+        }
+
+        RetentionReport sliceReport = apply(scanned, candidateIds);
+        totals = totals.plus(sliceReport);
+        if (cursor >= sweep.size()) {
+            sweep = null;
+            completedSweeps++;
+        }
+        return sliceReport;
+    }
+
+    // Runs slices back to back until the current sweep is finished
+    public RetentionReport runSweep() {
+        RetentionReport report = new RetentionReport(0, 0, 0, 0);
+        long sweepsBefore = getCompletedSweeps();
+        while (getCompletedSweeps() == sweepsBefore) {
+            report = report.plus(runSlice());
+        }
+        System.out.println("Retention sweep finished: " + report);
+        return report;
+    }
+
+    private RetentionReport apply(int scanned, List<Long> candidateIds) {
+        if (candidateIds.isEmpty()) {
+            return new RetentionReport(scanned, 0, 0, 0);
+        }
+        // Under the manager lock nothing can change between the re-check and the removal: a
+        // task completed, updated or deleted since the snapshot is judged by its live state
+        synchronized (taskManager) {
+            List<Long> purgeIds = new ArrayList<>();
+            List<Task> archiveTasks = new ArrayList<>();
+            for (Long id : candidateIds) {
+                Task task = taskManager.getLiveTask(id);
+                RetentionPolicy policy = task != null ? firstMatchingPolicy(task) : null;
+                if (policy == null) {
+                    continue;
+                }
+                if (policy.getAction() == RetentionPolicy.Action.ARCHIVE) {
+                    archiveTasks.add(task);
+                } else {
+                    purgeIds.add(id);
+                }
+            }
+            Set<Long> archivedIds = new HashSet<>();
+            if (!archiveTasks.isEmpty()) {
+                try {
+                    archive.writeSegment(archiveTasks);
+                    for (Task task : archiveTasks) {
+                        archivedIds.add(task.getId());
+                    }
+                    purgeIds.addAll(archivedIds);
+                } catch (IOException e) {
+                    System.err.println("Error writing archive segment, tasks kept live: " + e.getMessage());
+                }
+            }
+            long purged = 0;
+            long archived = 0;
+            long bytes = 0;
+            for (Task removed : taskManager.retireTasks(purgeIds)) {
+                bytes += FileHandler.recordSizeInBytes(removed);
+                if (archivedIds.contains(removed.getId())) {
+                    archived++;
+                } else {
+                    purged++;
+                }
+            }
+            return new RetentionReport(scanned, purged, archived, bytes);
+        }
+    }
+
+    private RetentionPolicy firstMatchingPolicy(Task task) {
+        for (RetentionPolicy policy : policies) {
+            if (policy.matches(task, sweepDate)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    public synchronized RetentionReport getTotals() {
+        return totals;
+    }
+
+    public synchronized long getCompletedSweeps() {
+        return completedSweeps;
+    }
+}
@@ -0,0 +1,76 @@
+package service.retention;
+
+import model.task.Category;
+import model.task.Status;
+import model.task.Task;
+
+import java.time.LocalDate;
+
+public class RetentionPolicy {
+
+    public enum DateBasis {
+        CREATION_DATE, DUE_DATE
+    }
+
+    public enum Action {
+        PURGE, ARCHIVE
+    }
+
+    private final Status status;
+    private final Category category; // null applies the policy to every category
+    private final int olderThanDays;
+    private final DateBasis dateBasis;
+    private final Action action;
+
+    public RetentionPolicy(Status status, Category category, int olderThanDays, DateBasis dateBasis, Action action) {
+        if (olderThanDays < 0) {
+            throw new IllegalArgumentException("Retention age cannot be negative: " + olderThanDays);
+        }
+        this.status = status;
+        this.category = category;
+        this.olderThanDays = olderThanDays;
+        this.dateBasis = dateBasis;
+        this.action = action;
+    }
+
+    public static RetentionPolicy purgeCompleted(Category category, int olderThanDays, DateBasis dateBasis) {
+        return new RetentionPolicy(Status.COMPLETED, category, olderThanDays, dateBasis, Action.PURGE);
+    }
+
+    public static RetentionPolicy archiveCompleted(Category category, int olderThanDays, DateBasis dateBasis) {
+        return new RetentionPolicy(Status.COMPLETED, category, olderThanDays, dateBasis, Action.ARCHIVE);
+    }
+
+    public boolean matches(Task task, LocalDate today) {
+        if (task.getStatus() != status) return false;
+        if (category != null && task.getCategory() != category) return false;
+        LocalDate date = dateBasis == DateBasis.DUE_DATE ? task.getDueDate() : task.getCreationDate();
+        return date.isBefore(today.minusDays(olderThanDays));
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public int getOlderThanDays() {
+        return olderThanDays;
+    }
+
+    public DateBasis getDateBasis() {
+        return dateBasis;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    @Override
+    public String toString() {
+        return action + " " + status + " " + (category == null ? "ALL" : category.name()) +
+                " tasks older than " + olderThanDays + " days by " + dateBasis;
+    }
+}
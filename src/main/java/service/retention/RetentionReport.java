@@ -0,0 +1,47 @@
+package service.retention;
+
+public class RetentionReport {
+    private final long tasksScanned;
+    private final long tasksPurged;
+    private final long tasksArchived;
+    private final long bytesReclaimed;
+
+    public RetentionReport(long tasksScanned, long tasksPurged, long tasksArchived, long bytesReclaimed) {
+        this.tasksScanned = tasksScanned;
+        this.tasksPurged = tasksPurged;
+        this.tasksArchived = tasksArchived;
+        this.bytesReclaimed = bytesReclaimed;
+    }
+
+    public long getTasksScanned() {
+        return tasksScanned;
+    }
+
+    public long getTasksPurged() {
+        return tasksPurged;
+    }
+
+    public long getTasksArchived() {
+        return tasksArchived;
+    }
+
+    public long getTasksReclaimed() {
+        return tasksPurged + tasksArchived;
+    }
+
+    // Bytes no longer written to the live tasks file
+    public long getBytesReclaimed() {
+        return bytesReclaimed;
+    }
+
+    RetentionReport plus(RetentionReport other) {
+        return new RetentionReport(tasksScanned + other.tasksScanned, tasksPurged + other.tasksPurged,
+                tasksArchived + other.tasksArchived, bytesReclaimed + other.bytesReclaimed);
+    }
+
+    @Override
+    public String toString() {
+        return "scanned " + tasksScanned + ", purged " + tasksPurged + ", archived " + tasksArchived +
+                ", reclaimed " + bytesReclaimed + " bytes";
+    }
+}
@@ -0,0 +1,206 @@
+package service.rpc;
+
+import util.DirectBufferPool;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+
+// Outgoing length-prefixed frames of one connection, encoded straight into pooled direct
+// buffers. A frame that does not fit spills into the next buffer; buffers go back to the pool
+// once written to the socket.
+final class FrameOutput implements DataOutput {
+
+    private final DirectBufferPool pool;
+    // full buffers, flipped for writing, oldest first
+    private final ArrayDeque<ByteBuffer> ready = new ArrayDeque<>();
+    private ByteBuffer current;
+    private ByteBuffer lengthBuffer;
+    private int lengthPosition;
+    private int frameBytes;
+    // bytes of finished frames not yet written to the socket
+    private long queuedBytes;
+
+    FrameOutput(DirectBufferPool pool) {
+        this.pool = pool;
+    }
+
+    void beginFrame() {
+        // the length prefix must not be split, it is patched in place by endFrame()
+        ensure(4);
+        lengthBuffer = current;
+        lengthPosition = current.position();
+        current.putInt(0);
+        frameBytes = 0;
+    }
+
+    void endFrame() {
+        lengthBuffer.putInt(lengthPosition, frameBytes);
+        lengthBuffer = null;
+        queuedBytes += 4 + frameBytes;
+    }
+
+    long getQueuedBytes() {
+        return queuedBytes;
+    }
+
+    boolean isEmpty() {
+        return ready.isEmpty() && (current == null || current.position() == 0);
+    }
+
+    // Writes as much as the socket takes; true if everything was written
+    boolean writeTo(SocketChannel channel) throws IOException {
+        if (current != null && current.position() > 0) {
+            current.flip();
+            ready.addLast(current);
+            current = null;
+        }
+        while (!ready.isEmpty()) {
+            ByteBuffer head = ready.peekFirst();
+            queuedBytes -= channel.write(head);
+            if (head.hasRemaining()) {
+                return false;
+            }
+            pool.release(ready.pollFirst());
+        }
+        return true;
+    }
+
+    void release() {
+        for (ByteBuffer buffer : ready) {
+            pool.release(buffer);
+        }
+        ready.clear();
+        queuedBytes = 0;
+        if (current != null) {
+            pool.release(current);
+            current = null;
+        }
+    }
+
+    private void ensure(int bytes) {
+        if (current == null) {
+            current = pool.acquire();
+        } else if (current.remaining() < bytes) {
+            current.flip();
+            ready.addLast(current);
+            current = pool.acquire();
+        }
+    }
+
+    @Override
+    public void write(int b) {
+        ensure(1);
+        current.put((byte) b);
+        frameBytes++;
+    }
+
+    @Override
+    public void write(byte[] b) {
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        while (len > 0) {
+            ensure(1);
+            int chunk = Math.min(len, current.remaining());
+            current.put(b, off, chunk);
+            off += chunk;
+            len -= chunk;
+            frameBytes += chunk;
+        }
+    }
+
+    @Override
+    public void writeBoolean(boolean v) {
+        write(v ? 1 : 0);
+    }
+
+    @Override
+    public void writeByte(int v) {
+        write(v);
+    }
+
+    @Override
+    public void writeShort(int v) {
+        ensure(2);
+        current.putShort((short) v);
+        frameBytes += 2;
+    }
+
+    @Override
+    public void writeChar(int v) {
+        ensure(2);
+        current.putChar((char) v);
+        frameBytes += 2;
+    }
+
+    @Override
+    public void writeInt(int v) {
+        ensure(4);
+        current.putInt(v);
+        frameBytes += 4;
+    }
+
+    @Override
+    public void writeLong(long v) {
+        ensure(8);
+        current.putLong(v);
+        frameBytes += 8;
+    }
+
+    @Override
+    public void writeFloat(float v) {
+        writeInt(Float.floatToIntBits(v));
+    }
+
+    @Override
+    public void writeDouble(double v) {
+        writeLong(Double.doubleToLongBits(v));
+    }
+
+    @Override
+    public void writeBytes(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            write(s.charAt(i));
+        }
+    }
+
+    @Override
+    public void writeChars(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            writeChar(s.charAt(i));
+        }
+    }
+
+    // Modified UTF-8 with a two-byte length, as DataOutputStream writes it
+    @Override
+    public void writeUTF(String s) throws IOException {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            length += c >= 0x0001 && c <= 0x007F ? 1 : c > 0x07FF ? 3 : 2;
+        }
+        if (length > 0xFFFF) {
+            throw new UTFDataFormatException("String too long to encode: " + length + " bytes");
+        }
+        writeShort(length);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                write(c);
+            } else if (c > 0x07FF) {
+                write(0xE0 | ((c >> 12) & 0x0F));
+                write(0x80 | ((c >> 6) & 0x3F));
+                write(0x80 | (c & 0x3F));
+            } else {
+                write(0xC0 | ((c >> 6) & 0x1F));
+                write(0x80 | (c & 0x3F));
+            }
+        }
+    }
+}
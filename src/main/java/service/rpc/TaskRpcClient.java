@@ -0,0 +1,218 @@
+package service.rpc;
+
+import model.task.Category;
+import model.task.Priority;
+import model.task.Status;
+import model.task.Task;
+import model.task.TaskCreator;
+import model.task.TaskDelta;
+import model.task.TaskUpdate;
+import service.TaskVersionConflictException;
+import util.TaskCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Client of TaskRpcServer. Calls return at once with a future; any number may be in flight
+// on the one connection (pipelining), and a reader thread completes them in order as the
+// replies arrive. With autoFlush off, requests are buffered until flush(), so a burst goes
+// out in a few packets. Thread-safe.
+public class TaskRpcClient implements Closeable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final Socket socket;
+    private final DataOutputStream out;
+    private final DataInputStream in;
+    private final ByteArrayOutputStream frame = new ByteArrayOutputStream(256);
+    private final DataOutputStream frameOut = new DataOutputStream(frame);
+    private final Queue<PendingCall> pending = new ConcurrentLinkedQueue<>();
+    private final Thread reader;
+    private volatile boolean autoFlush = true;
+    private volatile boolean closed;
+
+    private static final class PendingCall {
+        final byte code;
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        PendingCall(byte code) {
+            this.code = code;
+        }
+    }
+
+    public TaskRpcClient(String host, int port) throws IOException {
+        socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(new InetSocketAddress(host, port));
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE));
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE));
+        reader = new Thread(this::readReplies, "task-rpc-client");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    public void setAutoFlush(boolean autoFlush) {
+        this.autoFlush = autoFlush;
+    }
+
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    // Completes with null if the title is taken
+    public CompletableFuture<Task> createTask(String title, String description, LocalDate dueDate, Priority priority, Status status, Category category, LocalDate creationDate) {
+        return call(TaskRpcProtocol.CREATE, request ->
+                TaskCodec.writeTask(request, TaskCreator.createTask(0, title, description, dueDate, priority, status, category, creationDate)));
+    }
+
+    // Completes with null if there is no such task
+    public CompletableFuture<Task> getTaskById(long id) {
+        return call(TaskRpcProtocol.GET, request -> request.writeLong(id));
+    }
+
+    // Completes with the completed task, or null if there is no such task
+    public CompletableFuture<Task> completeTask(long id) {
+        return call(TaskRpcProtocol.COMPLETE, request -> request.writeLong(id));
+    }
+
+    // Completes with false if there was no such task
+    public CompletableFuture<Boolean> deleteTask(long id) {
+        return call(TaskRpcProtocol.DELETE, request -> request.writeLong(id));
+    }
+
+    public CompletableFuture<List<Task>> searchTask(String title, String description) {
+        return call(TaskRpcProtocol.SEARCH, request -> {
+            request.writeUTF(title != null ? title : "");
+            request.writeUTF(description != null ? description : "");
+        });
+    }
+
+    // Fails with TaskVersionConflictException if the task is no longer at expectedVersion
+    public CompletableFuture<Task> updateTask(long id, long expectedVersion, TaskUpdate update) {
+        return call(TaskRpcProtocol.UPDATE, request -> TaskCodec.writeDelta(request, new TaskDelta(id, expectedVersion, update)));
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            System.err.println("Error closing RPC connection: " + e.getMessage());
+        }
+    }
+
+    private interface RequestWriter {
+        void write(DataOutputStream request) throws IOException;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> call(byte code, RequestWriter writer) {
+        PendingCall call = new PendingCall(code);
+        try {
+            synchronized (this) {
+                if (closed) {
+                    throw new IOException("Connection is closed.");
+                }
+                frame.reset();
+                frameOut.writeByte(code);
+                writer.write(frameOut);
+                // queued before sending, so the reader always finds the call for a reply
+                pending.add(call);
+                out.writeInt(frame.size());
+                frame.writeTo(out);
+                if (autoFlush) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            call.future.completeExceptionally(e);
+        }
+        return (CompletableFuture<T>) call.future;
+    }
+
+    private void readReplies() {
+        try {
+            while (true) {
+                int length = in.readInt();
+                if (length < 1) {
+                    throw new IOException("Invalid frame length " + length);
+                }
+                byte code = in.readByte();
+                PendingCall call = pending.poll();
+                if (call == null) {
+                    throw new IOException("Reply without a request.");
+                }
+                switch (code) {
+                    case TaskRpcProtocol.TASK:
+                        call.future.complete(readTask());
+                        break;
+                    case TaskRpcProtocol.TASKS: {
+                        int count = in.readInt();
+                        List<Task> tasks = new ArrayList<>(count);
+                        for (int i = 0; i < count; i++) {
+                            tasks.add(readTask());
+                        }
+                        call.future.complete(tasks);
+                        break;
+                    }
+                    case TaskRpcProtocol.DONE:
+                        call.future.complete(Boolean.TRUE);
+                        break;
+                    case TaskRpcProtocol.NOT_FOUND:
+                        call.future.complete(call.code == TaskRpcProtocol.DELETE ? Boolean.FALSE : null);
+                        break;
+                    case TaskRpcProtocol.CONFLICT:
+                        call.future.completeExceptionally(new TaskVersionConflictException(in.readLong(), in.readLong(), in.readLong()));
+                        break;
+                    case TaskRpcProtocol.BAD_REQUEST:
+                        call.future.completeExceptionally(new IllegalArgumentException(in.readUTF()));
+                        break;
+                    case TaskRpcProtocol.ERROR:
+                        call.future.completeExceptionally(new IllegalStateException(in.readUTF()));
+                        break;
+                    default:
+                        throw new IOException("Unknown reply code " + code);
+                }
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                // no call can be queued after this, so none is left waiting
+                closed = true;
+            }
+            IOException failure = new IOException("Connection lost: " + e.getMessage(), e);
+            PendingCall call;
+            while ((call = pending.poll()) != null) {
+                call.future.completeExceptionally(failure);
+            }
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // already failing
+            }
+        }
+    }
+
+    private Task readTask() throws IOException {
+        Task task = TaskCodec.readTask(in);
+        task.setVersion(in.readLong());
+        return task;
+    }
+}
@@ -0,0 +1,29 @@
+package service.rpc;
+
+// Frames of the binary task protocol. Every frame is an int length (of the rest of the frame)
+// followed by a one-byte code and its payload; tasks use TaskCodec's encoding. A connection
+// may send many requests without waiting; responses come back in request order.
+final class TaskRpcProtocol {
+
+    // requests
+    static final byte CREATE = 1;   // task (id ignored)
+    static final byte GET = 2;      // long id
+    static final byte COMPLETE = 3; // long id
+    static final byte DELETE = 4;   // long id
+    static final byte SEARCH = 5;   // UTF title, UTF description
+    static final byte UPDATE = 6;   // delta, its version is the expected version
+
+    // responses
+    static final byte TASK = 1;        // task, long version
+    static final byte TASKS = 2;       // int count, count x (task, long version)
+    static final byte DONE = 3;        // no payload
+    static final byte NOT_FOUND = 4;   // no payload; for CREATE: the title is taken
+    static final byte CONFLICT = 5;    // long taskId, long expectedVersion, long actualVersion
+    static final byte BAD_REQUEST = 6; // UTF message
+    static final byte ERROR = 7;       // UTF message
+
+    static final int MAX_FRAME_BYTES = 1 << 20;
+
+    private TaskRpcProtocol() {
+    }
+}
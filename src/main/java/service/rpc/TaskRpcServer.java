@@ -0,0 +1,404 @@
+package service.rpc;
+
+import model.task.Task;
+import model.task.TaskCreator;
+import model.task.TaskDelta;
+import service.TaskVersionConflictException;
+import service.async.AsyncTaskManager;
+import util.DirectBufferPool;
+import util.TaskCodec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Serves the binary task protocol (see TaskRpcProtocol) from one selector thread.
+//  - requests are decoded straight from a pooled direct buffer per connection and handed to
+//    an AsyncTaskManager, so the selector never waits for the task manager
+//  - replies are encoded into pooled direct buffers in request order as their futures
+//    complete; a finished operation only queues its connection and wakes the selector
+//  - a connection with MAX_PIPELINED requests in flight, or MAX_QUEUED_REPLY_BYTES of replies
+//    the client has not read yet, is not read until replies drain; replies beyond that byte
+//    cap stay as futures instead of being encoded into buffers
+public class TaskRpcServer implements Closeable {
+
+    public static final int BUFFER_SIZE = 16 * 1024;
+    public static final int MAX_PIPELINED = 1024;
+    public static final int MAX_QUEUED_REPLY_BYTES = 1024 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 1024;
+
+    private final AsyncTaskManager taskManager;
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final DirectBufferPool pool = new DirectBufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+    private final FrameInput frameInput = new FrameInput();
+    // connections with completed replies, filled by the threads completing the operations
+    private final Queue<Connection> replyReady = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private final List<Connection> connections = new ArrayList<>();
+    private volatile boolean running;
+    private Thread thread;
+    private long requestCount;
+
+    public TaskRpcServer(AsyncTaskManager taskManager, InetSocketAddress address) throws IOException {
+        if (taskManager == null) {
+            throw new IllegalArgumentException("Task manager cannot be null.");
+        }
+        this.taskManager = taskManager;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "task-rpc-selector");
+        thread.setDaemon(true);
+        thread.start();
+        System.out.println("Task RPC server listening on port " + getPort() + ".");
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    // Direct buffers allocated so far; flat under steady load since they are reused
+    public long getAllocatedBufferCount() {
+        return pool.getAllocatedCount();
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            System.err.println("Error closing RPC server: " + e.getMessage());
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                wakeupPending.set(false);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            connection.onReadable();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flushReplies();
+                        }
+                    } catch (IOException e) {
+                        connection.close();
+                    }
+                }
+                Connection connection;
+                while ((connection = replyReady.poll()) != null) {
+                    try {
+                        connection.flushReplies();
+                    } catch (IOException e) {
+                        connection.close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("RPC selector failed: " + e.getMessage());
+        } finally {
+            for (Connection connection : new ArrayList<>(connections)) {
+                connection.close();
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        connections.add(connection);
+    }
+
+    private static final class PendingReply {
+        final CompletableFuture<?> future;
+
+        PendingReply(CompletableFuture<?> future) {
+            this.future = future;
+        }
+    }
+
+    private final class Connection {
+        final SocketChannel channel;
+        SelectionKey key;
+        ByteBuffer in = pool.acquire();
+        final FrameOutput out = new FrameOutput(pool);
+        final ArrayDeque<PendingReply> pending = new ArrayDeque<>();
+        final AtomicBoolean queued = new AtomicBoolean();
+        boolean readPaused;
+        boolean closed;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void onReadable() throws IOException {
+            if (channel.read(in) < 0) {
+                close();
+                return;
+            }
+            processFrames();
+        }
+
+        // Dispatches every complete frame in the input buffer, up to the pipelining limit
+        void processFrames() throws IOException {
+            in.flip();
+            int needed = 0;
+            while (true) {
+                if (pending.size() >= MAX_PIPELINED || out.getQueuedBytes() >= MAX_QUEUED_REPLY_BYTES) {
+                    pauseReading();
+                    break;
+                }
+                if (in.remaining() < 4) {
+                    break;
+                }
+                int length = in.getInt(in.position());
+                if (length < 1 || length > TaskRpcProtocol.MAX_FRAME_BYTES) {
+                    throw new IOException("Invalid frame length " + length);
+                }
+                if (in.remaining() < 4 + length) {
+                    needed = 4 + length;
+                    break;
+                }
+                int limit = in.limit();
+                int frameEnd = in.position() + 4 + length;
+                in.position(in.position() + 4).limit(frameEnd);
+                dispatch(in);
+                in.limit(limit).position(frameEnd);
+            }
+            in.compact();
+            if (needed > in.capacity()) {
+                // rare large request: a one-off heap buffer, swapped back once drained
+                ByteBuffer larger = ByteBuffer.allocate(needed);
+                in.flip();
+                larger.put(in);
+                pool.release(in);
+                in = larger;
+            } else if (in.position() == 0 && in.capacity() != pool.getBufferSize()) {
+                in = pool.acquire();
+            }
+        }
+
+        void dispatch(ByteBuffer frame) {
+            requestCount++;
+            frameInput.reset(frame);
+            CompletableFuture<?> reply;
+            try {
+                reply = execute(frameInput);
+            } catch (IOException | RuntimeException e) {
+                CompletableFuture<Object> failed = new CompletableFuture<>();
+                failed.completeExceptionally(new IllegalArgumentException("Malformed request: " + e.getMessage()));
+                reply = failed;
+            }
+            pending.addLast(new PendingReply(reply));
+            reply.whenComplete((result, failure) -> signal());
+        }
+
+        void signal() {
+            if (queued.compareAndSet(false, true)) {
+                replyReady.add(this);
+                if (Thread.currentThread() != thread && wakeupPending.compareAndSet(false, true)) {
+                    selector.wakeup();
+                }
+            }
+        }
+
+        // Encodes the replies that are done, in request order, and writes what the socket takes.
+        // Encoding stops at the byte cap until the client reads, also when the socket
+        // becomes writable again.
+        void flushReplies() throws IOException {
+            queued.set(false);
+            if (closed) {
+                return;
+            }
+            while (true) {
+                while (!pending.isEmpty() && pending.peekFirst().future.isDone()
+                        && out.getQueuedBytes() < MAX_QUEUED_REPLY_BYTES) {
+                    encodeReply(pending.pollFirst().future);
+                }
+                writeReplies();
+                // the socket took it all, so there may be room for more replies
+                if (!out.isEmpty() || pending.isEmpty() || !pending.peekFirst().future.isDone()) {
+                    break;
+                }
+            }
+            if (readPaused && pending.size() < MAX_PIPELINED / 2 && out.getQueuedBytes() < MAX_QUEUED_REPLY_BYTES / 2) {
+                readPaused = false;
+                key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+                processFrames();
+            }
+        }
+
+        void writeReplies() throws IOException {
+            if (out.writeTo(channel)) {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            } else {
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            }
+        }
+
+        void pauseReading() {
+            if (!readPaused) {
+                readPaused = true;
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            }
+        }
+
+        void encodeReply(CompletableFuture<?> future) throws IOException {
+            Object result = null;
+            Throwable failure = null;
+            try {
+                result = future.join();
+            } catch (CompletionException e) {
+                failure = e.getCause() != null ? e.getCause() : e;
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            out.beginFrame();
+            if (failure instanceof TaskVersionConflictException) {
+                TaskVersionConflictException conflict = (TaskVersionConflictException) failure;
+                out.writeByte(TaskRpcProtocol.CONFLICT);
+                out.writeLong(conflict.getTaskId());
+                out.writeLong(conflict.getExpectedVersion());
+                out.writeLong(conflict.getActualVersion());
+            } else if (failure != null) {
+                boolean badRequest = failure instanceof IllegalArgumentException || failure instanceof IllegalStateException;
+                out.writeByte(badRequest ? TaskRpcProtocol.BAD_REQUEST : TaskRpcProtocol.ERROR);
+                out.writeUTF(String.valueOf(failure.getMessage()));
+            } else if (result instanceof Task) {
+                out.writeByte(TaskRpcProtocol.TASK);
+                writeTask((Task) result);
+            } else if (result instanceof Collection) {
+                Collection<?> tasks = (Collection<?>) result;
+                out.writeByte(TaskRpcProtocol.TASKS);
+                out.writeInt(tasks.size());
+                for (Object task : tasks) {
+                    writeTask((Task) task);
+                }
+            } else if (Boolean.TRUE.equals(result)) {
+                out.writeByte(TaskRpcProtocol.DONE);
+            } else {
+                out.writeByte(TaskRpcProtocol.NOT_FOUND);
+            }
+            out.endFrame();
+        }
+
+        void writeTask(Task task) throws IOException {
+            TaskCodec.writeTask(out, task);
+            out.writeLong(task.getVersion());
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            connections.remove(this);
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing RPC connection: " + e.getMessage());
+            }
+            out.release();
+            pool.release(in);
+            pending.clear();
+        }
+    }
+
+    private CompletableFuture<?> execute(FrameInput request) throws IOException {
+        byte code = request.readByte();
+        switch (code) {
+            case TaskRpcProtocol.CREATE: {
+                Task task = TaskCodec.readTask(request);
+                // line breaks would corrupt the line-based tasks file
+                TaskCreator.requireSingleLine(task.getTitle(), "title");
+                TaskCreator.requireSingleLine(task.getDescription(), "description");
+                return taskManager.createTask(task.getTitle(), task.getDescription(), task.getDueDate(), task.getPriority(),
+                        task.getStatus(), task.getCategory(), task.getCreationDate());
+            }
+            case TaskRpcProtocol.GET:
+                return taskManager.getTaskById(request.readLong());
+            case TaskRpcProtocol.COMPLETE: {
+                long id = request.readLong();
+                return taskManager.completeTask(id).thenCompose(ignored -> taskManager.getTaskById(id));
+            }
+            case TaskRpcProtocol.DELETE: {
+                long id = request.readLong();
+                return taskManager.deleteTask(id).thenApply(task -> task != null);
+            }
+            case TaskRpcProtocol.SEARCH: {
+                String title = request.readUTF();
+                String description = request.readUTF();
+                return taskManager.searchTask(title, description);
+            }
+            case TaskRpcProtocol.UPDATE: {
+                TaskDelta delta = TaskCodec.readDelta(request);
+                TaskCreator.requireSingleLine(delta.getChanges().getTitle(), "title");
+                TaskCreator.requireSingleLine(delta.getChanges().getDescription(), "description");
+                return taskManager.updateTask(delta.getTaskId(), delta.getVersion(), delta.getChanges());
+            }
+            default:
+                throw new IllegalArgumentException("Unknown request code " + code);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package service.search;
+
+import java.util.Arrays;
+
+// Append-only posting list of (document number, term frequency) pairs in two primitive
+// arrays. Removed documents are skipped at query time and dropped on compaction.
+class Postings {
+
+    int[] docs = new int[4];
+    int[] freqs = new int[4];
+    int size;
+    int liveCount; // document frequency among live documents
+
+    void add(int doc, int freq) {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+            freqs = Arrays.copyOf(freqs, size * 2);
+        }
+        docs[size] = doc;
+        freqs[size] = freq;
+        size++;
+        liveCount++;
+    }
+
+    // Keeps only entries whose document is still live, renumbered through newDocNumbers
+    void compact(int[] newDocNumbers) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int renumbered = newDocNumbers[docs[i]];
+            if (renumbered >= 0) {
+                docs[kept] = renumbered;
+                freqs[kept] = freqs[i];
+                kept++;
+            }
+        }
+        size = kept;
+        if (docs.length > 16 && size < docs.length / 4) {
+            docs = Arrays.copyOf(docs, Math.max(4, size * 2));
+            freqs = Arrays.copyOf(freqs, Math.max(4, size * 2));
+        }
+    }
+}
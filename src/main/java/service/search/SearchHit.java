@@ -0,0 +1,27 @@
+package service.search;
+
+import model.task.Task;
+
+public class SearchHit {
+
+    private final Task task;
+    private final double score;
+
+    SearchHit(Task task, double score) {
+        this.task = task;
+        this.score = score;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.3f  %s (ID: %d)", score, task.getTitle(), task.getId());
+    }
+}
@@ -0,0 +1,566 @@
+package service.search;
+
+import model.task.Task;
+import service.TaskChangeListener;
+import service.TaskManagerImpl;
+import util.FileHandler;
+import util.IndexCheckpoint;
+import util.TaskStoreLock;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Ranked full-text search over titles and descriptions.
+//  - an inverted index per field; BM25 scoring with titles weighted above descriptions
+//  - a trigram index over the vocabulary, used to expand misspelled query terms to similar
+//    indexed terms (Jaccard similarity of padded trigrams)
+//  - document-at-a-time evaluation over posting lists sorted by document number, feeding a
+//    bounded min-heap, so a query allocates O(limit) results regardless of corpus size
+// Kept up to date as a TaskChangeListener; see attach(). Can be checkpointed next to the
+// tasks file and reloaded on restart instead of re-tokenizing every task.
+public class TaskSearchIndex implements TaskChangeListener {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double TITLE_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final double MIN_FUZZY_SIMILARITY = 0.35;
+    private static final int MAX_FUZZY_EXPANSIONS = 3;
+    private static final int MIN_DEAD_DOCS_FOR_COMPACTION = 1024;
+    private static final String CHECKPOINT_NAME = "search";
+    private static final int CHECKPOINT_VERSION = 2;
+
+    private static final Comparator<SearchHit> BY_SCORE = Comparator.comparingDouble(SearchHit::getScore);
+
+    private static class Document {
+        final Task task;
+        final int titleLength;
+        final int descriptionLength;
+
+        Document(Task task, int titleLength, int descriptionLength) {
+            this.task = task;
+            this.titleLength = titleLength;
+            this.descriptionLength = descriptionLength;
+        }
+    }
+
+    // one posting list to walk during a query, with its precomputed per-term factors
+    private static class Cursor {
+        final Postings postings;
+        final double weight; // idf * field weight * query term weight
+        final boolean title;
+        int position;
+
+        Cursor(Postings postings, double weight, boolean title) {
+            this.postings = postings;
+            this.weight = weight;
+            this.title = title;
+        }
+
+        int doc() {
+            return position < postings.size ? postings.docs[position] : Integer.MAX_VALUE;
+        }
+    }
+
+    private final Map<String, Postings> titlePostings = new HashMap<>();
+    private final Map<String, Postings> descriptionPostings = new HashMap<>();
+    private final Map<String, Integer> vocabulary = new HashMap<>(); // term -> live documents containing it
+    private final Map<String, Set<String>> trigramIndex = new HashMap<>();
+
+    private List<Document> documents = new ArrayList<>();
+    private final Map<Long, Integer> documentNumbers = new HashMap<>();
+    private int deadDocuments;
+    private long totalTitleLength;
+    private long totalDescriptionLength;
+
+    private TaskManagerImpl manager;
+
+    public void attach(TaskManagerImpl taskManager) {
+        if (manager != null) {
+            throw new IllegalStateException("TaskSearchIndex is already attached to a task manager.");
+        }
+        synchronized (taskManager) {
+            for (Task task : taskManager.snapshotTasks()) {
+                onTaskCreated(task);
+            }
+            taskManager.addTaskChangeListener(this);
+            manager = taskManager;
+        }
+    }
+
+    // Like attach(), but starts from the checkpoint saved next to storeFile by saveCheckpoint()
+    // when it was taken from the store's current content, delta log included, and covers
+    // exactly the manager's tasks; otherwise indexes from scratch. Returns true if the
+    // checkpoint was used.
+    public boolean attach(TaskManagerImpl taskManager, Path storeFile) {
+        if (manager != null) {
+            throw new IllegalStateException("TaskSearchIndex is already attached to a task manager.");
+        }
+        synchronized (taskManager) {
+            List<Task> tasks = taskManager.snapshotTasks();
+            TaskSearchIndex loaded = null;
+            try (TaskStoreLock.Hold ignored = TaskStoreLock.forFile(storeFile).lock(false, false)) {
+                IndexCheckpoint.StoreFingerprint store = fingerprint(storeFile);
+                loaded = IndexCheckpoint.load(storeFile, CHECKPOINT_NAME, CHECKPOINT_VERSION, store, in -> readCheckpoint(in, tasks));
+            } catch (IOException e) {
+                System.err.println("Error reading search index checkpoint: " + e.getMessage());
+            }
+            synchronized (this) {
+                if (loaded != null) {
+                    adopt(loaded);
+                } else {
+                    for (Task task : tasks) {
+                        onTaskCreated(task);
+                    }
+                }
+            }
+            taskManager.addTaskChangeListener(this);
+            manager = taskManager;
+            return loaded != null;
+        }
+    }
+
+    // Saves the index as a checkpoint of storeFile, the file the attached manager persists to.
+    // Taken under the manager lock, so the index and the file describe the same tasks.
+    public void saveCheckpoint(Path storeFile) throws IOException {
+        TaskManagerImpl taskManager = manager;
+        if (taskManager == null) {
+            throw new IllegalStateException("TaskSearchIndex is not attached to a task manager.");
+        }
+        synchronized (taskManager) {
+            try (TaskStoreLock.Hold ignored = TaskStoreLock.forFile(storeFile).lock(false, false)) {
+                IndexCheckpoint.StoreFingerprint store = fingerprint(storeFile);
+                synchronized (this) {
+                    IndexCheckpoint.save(storeFile, CHECKPOINT_NAME, CHECKPOINT_VERSION, store, this::writeCheckpoint);
+                }
+            }
+        }
+    }
+
+    // An update only appends to the delta log and leaves the tasks file as it was, so the
+    // checkpoint must match both
+    private static IndexCheckpoint.StoreFingerprint fingerprint(Path storeFile) throws IOException {
+        return IndexCheckpoint.StoreFingerprint.of(storeFile, FileHandler.deltaFileFor(storeFile));
+    }
+
+    public void detach() {
+        if (manager != null) {
+            manager.removeTaskChangeListener(this);
+            manager = null;
+        }
+    }
+
+    @Override
+    public synchronized void onTaskCreated(Task task) {
+        remove(task.getId());
+        add(task);
+    }
+
+    @Override
+    public void onTaskCompleted(Task task) {
+        // status is not indexed
+    }
+
+    @Override
+    public synchronized void onTaskDeleted(Task task) {
+        remove(task.getId());
+    }
+
+    @Override
+    public synchronized void onTaskUpdated(Task previous, Task current) {
+        remove(previous.getId());
+        add(current);
+    }
+
+    public synchronized int size() {
+        return documentNumbers.size();
+    }
+
+    public List<SearchHit> search(String query, int limit) {
+        return search(query, limit, true);
+    }
+
+    // Best 'limit' tasks for the query, highest score first. With fuzzy on, every query term
+    // also matches up to MAX_FUZZY_EXPANSIONS similar indexed terms, scored by similarity.
+    public synchronized List<SearchHit> search(String query, int limit, boolean fuzzy) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Search limit must be positive.");
+        }
+        int liveDocuments = documentNumbers.size();
+        if (query == null || liveDocuments == 0) {
+            return Collections.emptyList();
+        }
+        double averageTitleLength = Math.max(1.0, (double) totalTitleLength / liveDocuments);
+        double averageDescriptionLength = Math.max(1.0, (double) totalDescriptionLength / liveDocuments);
+
+        Map<String, Double> terms = new LinkedHashMap<>();
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            if (vocabulary.containsKey(term)) {
+                terms.merge(term, 1.0, Math::max);
+            }
+            if (fuzzy) {
+                for (Map.Entry<String, Double> similar : similarTerms(term).entrySet()) {
+                    terms.merge(similar.getKey(), similar.getValue(), Math::max);
+                }
+            }
+        }
+
+        List<Cursor> cursors = new ArrayList<>();
+        for (Map.Entry<String, Double> term : terms.entrySet()) {
+            addCursor(cursors, titlePostings.get(term.getKey()), TITLE_WEIGHT * term.getValue(), true, liveDocuments);
+            addCursor(cursors, descriptionPostings.get(term.getKey()), DESCRIPTION_WEIGHT * term.getValue(), false, liveDocuments);
+        }
+
+        PriorityQueue<SearchHit> best = new PriorityQueue<>(Math.min(limit, 1024) + 1, BY_SCORE);
+        while (true) {
+            int doc = Integer.MAX_VALUE;
+            for (Cursor cursor : cursors) {
+                doc = Math.min(doc, cursor.doc());
+            }
+            if (doc == Integer.MAX_VALUE) {
+                break;
+            }
+            Document document = documents.get(doc);
+            double score = 0;
+            for (Cursor cursor : cursors) {
+                if (cursor.doc() != doc) {
+                    continue;
+                }
+                if (document != null) {
+                    int freq = cursor.postings.freqs[cursor.position];
+                    double lengthRatio = cursor.title
+                            ? document.titleLength / averageTitleLength
+                            : document.descriptionLength / averageDescriptionLength;
+                    score += cursor.weight * freq * (K1 + 1) / (freq + K1 * (1 - B + B * lengthRatio));
+                }
+                cursor.position++;
+            }
+            if (document != null && (best.size() < limit || score > best.peek().getScore())) {
+                best.add(new SearchHit(document.task, score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+
+        List<SearchHit> hits = new ArrayList<>(best);
+        hits.sort(BY_SCORE.reversed());
+        return hits;
+    }
+
+    private static void addCursor(List<Cursor> cursors, Postings postings, double weight, boolean title, int liveDocuments) {
+        if (postings == null || postings.liveCount == 0) {
+            return;
+        }
+        int df = postings.liveCount;
+        double idf = Math.log(1 + (liveDocuments - df + 0.5) / (df + 0.5));
+        cursors.add(new Cursor(postings, idf * weight, title));
+    }
+
+    // Indexed terms sharing enough trigrams with the given one, excluding the term itself
+    private Map<String, Double> similarTerms(String term) {
+        Set<String> queryTrigrams = trigrams(term);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            Set<String> candidates = trigramIndex.get(trigram);
+            if (candidates != null) {
+                for (String candidate : candidates) {
+                    shared.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+        PriorityQueue<Map.Entry<String, Double>> best = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+            if (candidate.getKey().equals(term)) {
+                continue;
+            }
+            int common = candidate.getValue();
+            // a padded term of length n has n trigrams
+            double similarity = (double) common / (queryTrigrams.size() + candidate.getKey().length() - common);
+            if (similarity >= MIN_FUZZY_SIMILARITY) {
+                best.add(new AbstractMap.SimpleEntry<>(candidate.getKey(), Math.min(1.0, similarity)));
+                if (best.size() > MAX_FUZZY_EXPANSIONS) {
+                    best.poll();
+                }
+            }
+        }
+        Map<String, Double> similar = new HashMap<>();
+        for (Map.Entry<String, Double> entry : best) {
+            similar.put(entry.getKey(), entry.getValue());
+        }
+        return similar;
+    }
+
+    private void add(Task task) {
+        Map<String, Integer> titleTerms = termFrequencies(task.getTitle());
+        Map<String, Integer> descriptionTerms = termFrequencies(task.getDescription());
+        int doc = documents.size();
+        int titleLength = sum(titleTerms);
+        int descriptionLength = sum(descriptionTerms);
+        documents.add(new Document(task, titleLength, descriptionLength));
+        documentNumbers.put(task.getId(), doc);
+        totalTitleLength += titleLength;
+        totalDescriptionLength += descriptionLength;
+
+        for (Map.Entry<String, Integer> term : titleTerms.entrySet()) {
+            titlePostings.computeIfAbsent(term.getKey(), k -> new Postings()).add(doc, term.getValue());
+        }
+        for (Map.Entry<String, Integer> term : descriptionTerms.entrySet()) {
+            descriptionPostings.computeIfAbsent(term.getKey(), k -> new Postings()).add(doc, term.getValue());
+        }
+        for (String term : union(titleTerms.keySet(), descriptionTerms.keySet())) {
+            if (vocabulary.merge(term, 1, Integer::sum) == 1) {
+                for (String trigram : trigrams(term)) {
+                    trigramIndex.computeIfAbsent(trigram, k -> new HashSet<>()).add(term);
+                }
+            }
+        }
+    }
+
+    private void remove(long taskId) {
+        Integer doc = documentNumbers.remove(taskId);
+        if (doc == null) {
+            return;
+        }
+        Document document = documents.set(doc, null);
+        totalTitleLength -= document.titleLength;
+        totalDescriptionLength -= document.descriptionLength;
+        Set<String> titleTerms = termFrequencies(document.task.getTitle()).keySet();
+        Set<String> descriptionTerms = termFrequencies(document.task.getDescription()).keySet();
+        for (String term : titleTerms) {
+            titlePostings.get(term).liveCount--;
+        }
+        for (String term : descriptionTerms) {
+            descriptionPostings.get(term).liveCount--;
+        }
+        for (String term : union(titleTerms, descriptionTerms)) {
+            if (vocabulary.merge(term, -1, Integer::sum) == 0) {
+                vocabulary.remove(term);
+                for (String trigram : trigrams(term)) {
+                    Set<String> terms = trigramIndex.get(trigram);
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        trigramIndex.remove(trigram);
+                    }
+                }
+            }
+        }
+        deadDocuments++;
+        if (deadDocuments >= MIN_DEAD_DOCS_FOR_COMPACTION && deadDocuments > documentNumbers.size()) {
+            compact();
+        }
+    }
+
+    // Drops removed documents from the posting lists. Renumbering keeps the relative order,
+    // so every posting list stays sorted by document number.
+    private void compact() {
+        int[] newNumbers = new int[documents.size()];
+        List<Document> live = new ArrayList<>(documentNumbers.size());
+        for (int doc = 0; doc < documents.size(); doc++) {
+            Document document = documents.get(doc);
+            if (document == null) {
+                newNumbers[doc] = -1;
+            } else {
+                newNumbers[doc] = live.size();
+                documentNumbers.put(document.task.getId(), live.size());
+                live.add(document);
+            }
+        }
+        compact(titlePostings, newNumbers);
+        compact(descriptionPostings, newNumbers);
+        documents = live;
+        deadDocuments = 0;
+    }
+
+    private static void compact(Map<String, Postings> index, int[] newNumbers) {
+        index.values().removeIf(postings -> postings.liveCount == 0);
+        for (Postings postings : index.values()) {
+            postings.compact(newNumbers);
+        }
+    }
+
+    // Live documents only, renumbered densely as compact() would; the trigram index is
+    // rebuilt from the vocabulary on load
+    private void writeCheckpoint(DataOutput out) throws IOException {
+        int[] newNumbers = new int[documents.size()];
+        out.writeInt(documentNumbers.size());
+        int live = 0;
+        for (int doc = 0; doc < documents.size(); doc++) {
+            Document document = documents.get(doc);
+            if (document == null) {
+                newNumbers[doc] = -1;
+                continue;
+            }
+            newNumbers[doc] = live++;
+            out.writeLong(document.task.getId());
+            out.writeInt(document.titleLength);
+            out.writeInt(document.descriptionLength);
+        }
+        writePostings(out, titlePostings, newNumbers);
+        writePostings(out, descriptionPostings, newNumbers);
+        out.writeInt(vocabulary.size());
+        for (Map.Entry<String, Integer> term : vocabulary.entrySet()) {
+            out.writeUTF(term.getKey());
+            out.writeInt(term.getValue());
+        }
+    }
+
+    private static void writePostings(DataOutput out, Map<String, Postings> index, int[] newNumbers) throws IOException {
+        int terms = 0;
+        for (Postings postings : index.values()) {
+            if (postings.liveCount > 0) {
+                terms++;
+            }
+        }
+        out.writeInt(terms);
+        for (Map.Entry<String, Postings> term : index.entrySet()) {
+            Postings postings = term.getValue();
+            if (postings.liveCount == 0) {
+                continue;
+            }
+            out.writeUTF(term.getKey());
+            out.writeInt(postings.liveCount);
+            for (int i = 0; i < postings.size; i++) {
+                int doc = newNumbers[postings.docs[i]];
+                if (doc >= 0) {
+                    out.writeInt(doc);
+                    out.writeInt(postings.freqs[i]);
+                }
+            }
+        }
+    }
+
+    // null if the checkpointed documents are not exactly the given tasks
+    private static TaskSearchIndex readCheckpoint(DataInput in, List<Task> tasks) throws IOException {
+        int count = in.readInt();
+        if (count != tasks.size()) {
+            return null;
+        }
+        Map<Long, Task> byId = new HashMap<>();
+        for (Task task : tasks) {
+            byId.put(task.getId(), task);
+        }
+        TaskSearchIndex index = new TaskSearchIndex();
+        index.documents = new ArrayList<>(count);
+        for (int doc = 0; doc < count; doc++) {
+            Task task = byId.get(in.readLong());
+            int titleLength = in.readInt();
+            int descriptionLength = in.readInt();
+            if (task == null || index.documentNumbers.put(task.getId(), doc) != null) {
+                return null;
+            }
+            index.documents.add(new Document(task, titleLength, descriptionLength));
+            index.totalTitleLength += titleLength;
+            index.totalDescriptionLength += descriptionLength;
+        }
+        readPostings(in, index.titlePostings);
+        readPostings(in, index.descriptionPostings);
+        int terms = in.readInt();
+        for (int i = 0; i < terms; i++) {
+            String term = in.readUTF();
+            index.vocabulary.put(term, in.readInt());
+            for (String trigram : trigrams(term)) {
+                index.trigramIndex.computeIfAbsent(trigram, k -> new HashSet<>()).add(term);
+            }
+        }
+        return index;
+    }
+
+    private static void readPostings(DataInput in, Map<String, Postings> index) throws IOException {
+        int terms = in.readInt();
+        for (int i = 0; i < terms; i++) {
+            String term = in.readUTF();
+            int size = in.readInt();
+            Postings postings = new Postings();
+            postings.docs = new int[Math.max(4, size)];
+            postings.freqs = new int[Math.max(4, size)];
+            for (int j = 0; j < size; j++) {
+                postings.docs[j] = in.readInt();
+                postings.freqs[j] = in.readInt();
+            }
+            postings.size = size;
+            postings.liveCount = size;
+            index.put(term, postings);
+        }
+    }
+
+    private void adopt(TaskSearchIndex loaded) {
+        titlePostings.putAll(loaded.titlePostings);
+        descriptionPostings.putAll(loaded.descriptionPostings);
+        vocabulary.putAll(loaded.vocabulary);
+        trigramIndex.putAll(loaded.trigramIndex);
+        documents = loaded.documents;
+        documentNumbers.putAll(loaded.documentNumbers);
+        deadDocuments = 0;
+        totalTitleLength = loaded.totalTitleLength;
+        totalDescriptionLength = loaded.totalDescriptionLength;
+    }
+
+    // Lower-cased runs of letters and digits
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Trigrams of the term padded with '$' on both sides, so short terms and word edges count
+    static Set<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        if (trigrams.isEmpty()) {
+            trigrams.add(padded);
+        }
+        return trigrams;
+    }
+
+    private static Map<String, Integer> termFrequencies(String text) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokenize(text)) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    private static int sum(Map<String, Integer> frequencies) {
+        int total = 0;
+        for (int frequency : frequencies.values()) {
+            total += frequency;
+        }
+        return total;
+    }
+
+    private static Set<String> union(Set<String> first, Set<String> second) {
+        Set<String> union = new HashSet<>(first);
+        union.addAll(second);
+        return union;
+    }
+}
@@ -0,0 +1,130 @@
+package service.transaction;
+
+import model.task.Category;
+import model.task.Priority;
+import model.task.Status;
+import model.task.Task;
+import model.task.TaskCreator;
+import model.task.TaskDraft;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// A set of task changes that is committed as a whole or not at all. Reads see the committed
+// state as of begin() plus the transaction's own changes; changes are buffered until commit.
+// A transaction belongs to one thread. Tasks returned by reads must not be modified.
+public class TaskTransaction implements AutoCloseable {
+
+    private final TransactionManager transactions;
+    private final long snapshotVersion;
+    // task id -> new state of the task, null if deleted
+    private final Map<Long, Task> writes = new LinkedHashMap<>();
+    private boolean active = true;
+
+    TaskTransaction(TransactionManager transactions, long snapshotVersion) {
+        this.transactions = transactions;
+        this.snapshotVersion = snapshotVersion;
+    }
+
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public int getWriteCount() {
+        return writes.size();
+    }
+
+    public Task getTaskById(long id) {
+        checkActive();
+        if (writes.containsKey(id)) {
+            return writes.get(id);
+        }
+        return transactions.read(id, snapshotVersion);
+    }
+
+    // Every task visible to the transaction, ordered by title
+    public List<Task> getTasks() {
+        checkActive();
+        return transactions.readAll(snapshotVersion, writes);
+    }
+
+    // The id is reserved right away; the title is checked on commit
+    public Task createTask(String title, String description, LocalDate dueDate, Priority priority, Status status, Category category, LocalDate creationDate) {
+        checkActive();
+        Task task = TaskCreator.createTask(transactions.reserveTaskId(), title, description, dueDate, priority, status, category, creationDate);
+        writes.put(task.getId(), task);
+        return task;
+    }
+
+    public void completeTask(long id) {
+        Task task = existing(id);
+        Task completed = TaskCreator.createTask(id, task.getTitle(), task.getDescription(), task.getDueDate(),
+                task.getPriority(), Status.COMPLETED, task.getCategory(), task.getCreationDate());
+        completed.setOwner(task.getOwner());
+        writes.put(id, completed);
+    }
+
+    // Replaces every field of the task with the given values; the owner is kept
+    public void updateTask(long id, TaskDraft values) {
+        existing(id);
+        writes.put(id, values.toTask(id));
+    }
+
+    public void deleteTask(long id) {
+        existing(id);
+        writes.put(id, null);
+    }
+
+    // Applies all changes with a single write of the tasks file. Throws
+    // TransactionConflictException if another commit changed one of the written tasks since
+    // begin(), or IllegalArgumentException if a title is already taken; either way nothing
+    // is applied. The transaction is finished afterwards in every case.
+    public void commit() {
+        checkActive();
+        try {
+            transactions.commit(snapshotVersion, Collections.unmodifiableMap(writes));
+        } finally {
+            finish();
+        }
+    }
+
+    public void rollback() {
+        checkActive();
+        finish();
+    }
+
+    // Rolls back unless committed
+    @Override
+    public void close() {
+        if (active) {
+            finish();
+        }
+    }
+
+    private Task existing(long id) {
+        Task task = getTaskById(id);
+        if (task == null) {
+            throw new IllegalArgumentException("Task ID " + id + " not found.");
+        }
+        return task;
+    }
+
+    private void finish() {
+        active = false;
+        writes.clear();
+        transactions.end(snapshotVersion);
+    }
+
+    private void checkActive() {
+        if (!active) {
+            throw new IllegalStateException("Transaction is no longer active.");
+        }
+    }
+}
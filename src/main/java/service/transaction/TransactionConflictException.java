@@ -0,0 +1,19 @@
+package service.transaction;
+
+// Thrown by commit when a task written by the transaction was changed by someone else after
+// the transaction's snapshot was taken. Nothing of the transaction has been applied.
+public class TransactionConflictException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long taskId;
+
+    public TransactionConflictException(long taskId) {
+        super("Task ID " + taskId + " was changed by another transaction after this one started.");
+        this.taskId = taskId;
+    }
+
+    public long getTaskId() {
+        return taskId;
+    }
+}
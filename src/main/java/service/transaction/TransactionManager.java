@@ -0,0 +1,236 @@
+package service.transaction;
+
+import model.task.Task;
+import model.task.TaskCreator;
+import service.TaskChangeListener;
+import service.TaskManagerImpl;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Multi-version concurrency control over a TaskManagerImpl.
+//  - every task id maps to a chain of immutable versions, newest first, each stamped with the
+//    commit version that produced it; a transaction reads the newest version not newer than
+//    its snapshot, without taking the manager lock
+//  - a commit validates and applies under the manager lock: if any task it writes has a
+//    version newer than its snapshot, it fails (first committer wins); otherwise all its
+//    changes go to the manager as one batch with a single file write, and become visible to
+//    new snapshots together
+//  - changes made directly through the manager are picked up as a TaskChangeListener and
+//    count as single-change commits, so they conflict with transactions too
+//  - versions no active snapshot can see any more are pruned as chains are updated
+public class TransactionManager implements TaskChangeListener, Closeable {
+
+    private static final class Version {
+        final long taskId;
+        final long version;
+        final Task task; // null: deleted
+        volatile Version older;
+
+        Version(long taskId, long version, Task task, Version older) {
+            this.taskId = taskId;
+            this.version = version;
+            this.task = task;
+            this.older = older;
+        }
+    }
+
+    private final TaskManagerImpl taskManager;
+    private final Map<Long, Version> versions = new ConcurrentHashMap<>();
+    private volatile long lastCommittedVersion;
+    // version being committed while a commit applies its changes; 0 outside commits
+    private long committingVersion;
+    // snapshot version -> number of active transactions reading it
+    private final TreeMap<Long, Integer> activeSnapshots = new TreeMap<>();
+    // versions that left older versions or a deletion behind, in version order; their
+    // chains are pruned once no snapshot older than them is active
+    private final ArrayDeque<Version> prunable = new ArrayDeque<>();
+
+    public TransactionManager(TaskManagerImpl taskManager) {
+        this.taskManager = taskManager;
+        synchronized (taskManager) {
+            for (Task task : taskManager.snapshotTasks()) {
+                versions.put(task.getId(), new Version(task.getId(), 0, copyOf(task), null));
+            }
+            taskManager.addTaskChangeListener(this);
+        }
+    }
+
+    public TaskTransaction begin() {
+        synchronized (activeSnapshots) {
+            long snapshot = lastCommittedVersion;
+            activeSnapshots.merge(snapshot, 1, Integer::sum);
+            return new TaskTransaction(this, snapshot);
+        }
+    }
+
+    public long getLastCommittedVersion() {
+        return lastCommittedVersion;
+    }
+
+    public int getActiveTransactionCount() {
+        synchronized (activeSnapshots) {
+            int count = 0;
+            for (int transactions : activeSnapshots.values()) {
+                count += transactions;
+            }
+            return count;
+        }
+    }
+
+    @Override
+    public void close() {
+        taskManager.removeTaskChangeListener(this);
+    }
+
+    Task read(long id, long snapshot) {
+        Version version = visible(versions.get(id), snapshot);
+        return version != null ? version.task : null;
+    }
+
+    List<Task> readAll(long snapshot, Map<Long, Task> writes) {
+        List<Task> visibleTasks = new ArrayList<>();
+        for (Map.Entry<Long, Version> entry : versions.entrySet()) {
+            if (writes.containsKey(entry.getKey())) {
+                continue;
+            }
+            Version version = visible(entry.getValue(), snapshot);
+            if (version != null && version.task != null) {
+                visibleTasks.add(version.task);
+            }
+        }
+        for (Task written : writes.values()) {
+            if (written != null) {
+                visibleTasks.add(written);
+            }
+        }
+        visibleTasks.sort(null);
+        return visibleTasks;
+    }
+
+    long reserveTaskId() {
+        return taskManager.reserveTaskId();
+    }
+
+    void commit(long snapshot, Map<Long, Task> writes) {
+        if (writes.isEmpty()) {
+            return;
+        }
+        synchronized (taskManager) {
+            for (Long id : writes.keySet()) {
+                Version head = versions.get(id);
+                if (head != null && head.version > snapshot) {
+                    throw new TransactionConflictException(id);
+                }
+            }
+            // the manager keeps and may modify the tasks it is given, so it gets its own copies
+            Map<Long, Task> changes = new HashMap<>();
+            for (Map.Entry<Long, Task> write : writes.entrySet()) {
+                changes.put(write.getKey(), write.getValue() != null ? copyOf(write.getValue()) : null);
+            }
+            committingVersion = lastCommittedVersion + 1;
+            try {
+                taskManager.applyChanges(changes);
+            } finally {
+                // published only now, so new snapshots see either none or all of the changes
+                lastCommittedVersion = committingVersion;
+                committingVersion = 0;
+            }
+        }
+    }
+
+    void end(long snapshot) {
+        synchronized (activeSnapshots) {
+            activeSnapshots.computeIfPresent(snapshot, (version, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    @Override
+    public void onTaskCreated(Task task) {
+        install(task.getId(), copyOf(task));
+    }
+
+    @Override
+    public void onTaskCompleted(Task task) {
+        install(task.getId(), copyOf(task));
+    }
+
+    @Override
+    public void onTaskDeleted(Task task) {
+        install(task.getId(), null);
+    }
+
+    @Override
+    public void onTaskUpdated(Task previous, Task current) {
+        if (previous.getId() != current.getId()) {
+            install(previous.getId(), null);
+        }
+        install(current.getId(), copyOf(current));
+    }
+
+    // Called under the manager lock, by commit() or for a direct change to the manager
+    private void install(long id, Task task) {
+        boolean directChange = committingVersion == 0;
+        long version = directChange ? lastCommittedVersion + 1 : committingVersion;
+        Version head = versions.get(id);
+        if (head == null && task == null) {
+            return;
+        }
+        Version installed = new Version(id, version, task, head);
+        versions.put(id, installed);
+        if (directChange) {
+            lastCommittedVersion = version;
+        }
+        long oldest = oldestVisibleVersion();
+        prune(installed, oldest);
+        if (installed.older != null || installed.task == null) {
+            prunable.add(installed);
+        }
+        while (!prunable.isEmpty() && prunable.peek().version <= oldest) {
+            prune(prunable.poll(), oldest);
+        }
+    }
+
+    private long oldestVisibleVersion() {
+        synchronized (activeSnapshots) {
+            return activeSnapshots.isEmpty() ? lastCommittedVersion : Math.min(activeSnapshots.firstKey(), lastCommittedVersion);
+        }
+    }
+
+    // Keeps the versions newer than oldest plus the newest one at or below it, which is what
+    // the oldest snapshot still reads; a deletion every snapshot sees drops the whole chain
+    private void prune(Version from, long oldest) {
+        Version version = from;
+        while (version != null && version.version > oldest) {
+            version = version.older;
+        }
+        if (version == null) {
+            return;
+        }
+        version.older = null;
+        if (version.task == null) {
+            versions.remove(version.taskId, version);
+        }
+    }
+
+    private static Version visible(Version version, long snapshot) {
+        while (version != null && version.version > snapshot) {
+            version = version.older;
+        }
+        return version;
+    }
+
+    private static Task copyOf(Task task) {
+        Task copy = TaskCreator.createTask(task.getId(), task.getTitle(), task.getDescription(), task.getDueDate(),
+                task.getPriority(), task.getStatus(), task.getCategory(), task.getCreationDate());
+        copy.setVersion(task.getVersion());
+        copy.setOwner(task.getOwner());
+        return copy;
+    }
+}
@@ -0,0 +1,209 @@
+package service.transfer;
+
+import model.task.Task;
+import model.task.TaskDraft;
+import service.TaskManagerImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Runs a script of task commands, one per line, in CSV syntax (fields may be quoted):
+//   create,title,description,dueDate,priority[,status],category[,creationDate]
+//   complete,id
+//   delete,id
+//   search,title[,description]
+// Blank lines and lines starting with # are skipped. Lines are parsed as they are read and
+// collected into batches of batchSize commands; each batch runs in one
+// TaskManagerImpl.runBatch call, so the tasks file is written once per batch. Within a
+// batch, consecutive creates go to createTasks and consecutive deletes to removeTasks.
+public class BatchCommandRunner {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private enum CommandType {CREATE, COMPLETE, DELETE, SEARCH}
+
+    private static final class Command {
+        final CommandType type;
+        final TaskDraft draft;
+        final long id;
+        final String title;
+        final String description;
+
+        Command(CommandType type, TaskDraft draft, long id, String title, String description) {
+            this.type = type;
+            this.draft = draft;
+            this.id = id;
+            this.title = title;
+            this.description = description;
+        }
+    }
+
+    // Counts of one run
+    private static final class Tally {
+        long commands;
+        long created;
+        long completed;
+        long deleted;
+        long searches;
+        long failed;
+        long rejected;
+        long batches;
+    }
+
+    private final int batchSize;
+
+    public BatchCommandRunner() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    public BatchCommandRunner(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public BatchReport run(TaskManagerImpl taskManager, Reader in) throws IOException {
+        long start = System.currentTimeMillis();
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        Tally tally = new Tally();
+        List<Command> batch = new ArrayList<>(batchSize);
+        String record;
+        // a quoted field may span lines, which CSV.readRecord takes care of
+        while ((record = TransferFormat.CSV.readRecord(reader)) != null) {
+            String line = record.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            tally.commands++;
+            try {
+                batch.add(parse(record));
+            } catch (RuntimeException e) {
+                if (++tally.rejected <= MAX_REPORTED_ERRORS) {
+                    System.err.println("Skipping command " + tally.commands + ": " + e.getMessage());
+                }
+                continue;
+            }
+            if (batch.size() == batchSize) {
+                runBatch(taskManager, batch, tally);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            runBatch(taskManager, batch, tally);
+        }
+        BatchReport report = new BatchReport(tally.commands, tally.created, tally.completed, tally.deleted, tally.searches,
+                tally.failed, tally.rejected, tally.batches, System.currentTimeMillis() - start);
+        System.out.println("Batch finished: " + report);
+        return report;
+    }
+
+    private static Command parse(String record) {
+        List<String> fields = TransferFormat.splitCsv(record);
+        String verb = fields.get(0).trim().toLowerCase();
+        switch (verb) {
+            case "create":
+                if (fields.size() == 6) {
+                    // no status given
+                    return new Command(CommandType.CREATE, TransferFormat.toDraft(fields.get(1), fields.get(2), fields.get(3).trim(),
+                            fields.get(4), null, fields.get(5), null), 0, null, null);
+                }
+                if (fields.size() != 7 && fields.size() != 8) {
+                    throw new IllegalArgumentException("create expects title,description,dueDate,priority[,status],category[,creationDate]");
+                }
+                return new Command(CommandType.CREATE, TransferFormat.toDraft(fields.get(1), fields.get(2), fields.get(3).trim(),
+                        fields.get(4), fields.get(5), fields.get(6), fields.size() == 8 ? fields.get(7).trim() : null), 0, null, null);
+            case "complete":
+            case "delete":
+                if (fields.size() != 2) {
+                    throw new IllegalArgumentException(verb + " expects a task ID");
+                }
+                return new Command(verb.equals("complete") ? CommandType.COMPLETE : CommandType.DELETE, null,
+                        Long.parseLong(fields.get(1).trim()), null, null);
+            case "search":
+                if (fields.size() > 3) {
+                    throw new IllegalArgumentException("search expects title[,description]");
+                }
+                return new Command(CommandType.SEARCH, null, 0, fields.size() > 1 ? fields.get(1) : "",
+                        fields.size() > 2 ? fields.get(2) : "");
+            default:
+                throw new IllegalArgumentException("unknown command " + fields.get(0));
+        }
+    }
+
+    private static void runBatch(TaskManagerImpl taskManager, List<Command> batch, Tally tally) {
+        long counted = tally.created + tally.completed + tally.deleted + tally.searches + tally.failed;
+        try {
+            taskManager.runBatch(() -> {
+                int from = 0;
+                while (from < batch.size()) {
+                    CommandType type = batch.get(from).type;
+                    int to = from + 1;
+                    while (to < batch.size() && batch.get(to).type == type) {
+                        to++;
+                    }
+                    execute(taskManager, type, batch.subList(from, to), tally);
+                    from = to;
+                }
+            });
+        } catch (RuntimeException e) {
+            // what ran before the error is kept and counted; the rest of the batch failed,
+            // and the script goes on with the next batch
+            long notRun = batch.size() - (tally.created + tally.completed + tally.deleted + tally.searches + tally.failed - counted);
+            tally.failed += notRun;
+            System.err.println("Batch " + (tally.batches + 1) + " failed, " + notRun + " command(s) not run: " + e.getMessage());
+        }
+        tally.batches++;
+    }
+
+    // Runs a run of commands of the same type, in script order
+    private static void execute(TaskManagerImpl taskManager, CommandType type, List<Command> commands, Tally tally) {
+        switch (type) {
+            case CREATE: {
+                List<TaskDraft> drafts = new ArrayList<>(commands.size());
+                for (Command command : commands) {
+                    drafts.add(command.draft);
+                }
+                // written at the end of the batch
+                int created = taskManager.createTasks(drafts, true).size();
+                tally.created += created;
+                tally.failed += drafts.size() - created;
+                break;
+            }
+            case COMPLETE:
+                for (Command command : commands) {
+                    if (taskManager.completeTask(command.id, task -> true) != null) {
+                        tally.completed++;
+                    } else {
+                        tally.failed++;
+                    }
+                }
+                break;
+            case DELETE: {
+                List<Long> ids = new ArrayList<>(commands.size());
+                for (Command command : commands) {
+                    ids.add(command.id);
+                }
+                int deleted = taskManager.removeTasks(ids).size();
+                tally.deleted += deleted;
+                tally.failed += ids.size() - deleted;
+                break;
+            }
+            case SEARCH:
+                for (Command command : commands) {
+                    Set<Task> found = taskManager.searchTask(command.title, command.description);
+                    tally.searches++;
+                    System.out.println("Search \"" + command.title + "\" / \"" + command.description + "\": " + found.size() + " task(s)");
+                    for (Task task : found) {
+                        System.out.println("  " + task.getId() + " " + task.getTitle());
+                    }
+                }
+                break;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package service.transfer;
+
+public class BatchReport {
+    private final long commands;
+    private final long created;
+    private final long completed;
+    private final long deleted;
+    private final long searches;
+    private final long failed;
+    private final long rejected;
+    private final long batches;
+    private final long elapsedMillis;
+
+    public BatchReport(long commands, long created, long completed, long deleted, long searches,
+                       long failed, long rejected, long batches, long elapsedMillis) {
+        this.commands = commands;
+        this.created = created;
+        this.completed = completed;
+        this.deleted = deleted;
+        this.searches = searches;
+        this.failed = failed;
+        this.rejected = rejected;
+        this.batches = batches;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Command lines read, rejected ones included
+    public long getCommands() {
+        return commands;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+
+    public long getSearches() {
+        return searches;
+    }
+
+    // Commands that parsed but had no effect: unknown ids, titles that already exist, or the
+    // rest of a batch stopped by an error
+    public long getFailed() {
+        return failed;
+    }
+
+    // Lines that could not be parsed
+    public long getRejected() {
+        return rejected;
+    }
+
+    // Number of commits of the tasks file
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getCommandsPerSecond() {
+        return elapsedMillis == 0 ? commands : commands * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return commands + " commands (created " + created + ", completed " + completed + ", deleted " + deleted +
+                ", searches " + searches + ", failed " + failed + ", rejected " + rejected + ") in " + batches +
+                " batches, " + elapsedMillis + " ms (" + String.format("%.0f", getCommandsPerSecond()) + " commands/s)";
+    }
+}
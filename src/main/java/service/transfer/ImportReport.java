@@ -0,0 +1,50 @@
+package service.transfer;
+
+public class ImportReport {
+    private final long recordsRead;
+    private final long imported;
+    private final long duplicates;
+    private final long rejected;
+    private final long elapsedMillis;
+
+    public ImportReport(long recordsRead, long imported, long duplicates, long rejected, long elapsedMillis) {
+        this.recordsRead = recordsRead;
+        this.imported = imported;
+        this.duplicates = duplicates;
+        this.rejected = rejected;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    // Records skipped because a task with the same title already exists
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    // Records that could not be parsed
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getRecordsPerSecond() {
+        return elapsedMillis == 0 ? recordsRead : recordsRead * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "read " + recordsRead + ", imported " + imported + ", duplicates " + duplicates +
+                ", rejected " + rejected + " in " + elapsedMillis + " ms (" +
+                String.format("%.0f", getRecordsPerSecond()) + " records/s)";
+    }
+}
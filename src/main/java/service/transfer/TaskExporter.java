@@ -0,0 +1,109 @@
+package service.transfer;
+
+import model.task.Task;
+import service.TaskManagerImpl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Streams the store out page by page: a reader thread pulls pages of tasks from the manager
+// into a bounded queue and the calling thread formats and writes them. At most
+// queueCapacity + 2 pages are in memory, however large the store is.
+public class TaskExporter {
+
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+    public static final int DEFAULT_QUEUE_CAPACITY = 4;
+
+    private static final List<Task> END_OF_STREAM = Collections.emptyList();
+
+    private final int pageSize;
+    private final int queueCapacity;
+
+    public TaskExporter() {
+        this(DEFAULT_PAGE_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public TaskExporter(int pageSize, int queueCapacity) {
+        if (pageSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Page size and queue capacity must be positive.");
+        }
+        this.pageSize = pageSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long exportToFile(TaskManagerImpl taskManager, Path file) throws IOException {
+        TransferFormat format = TransferFormat.forFileName(file.getFileName().toString());
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return export(taskManager, format, writer);
+        }
+    }
+
+    // Returns the number of tasks written
+    public long export(final TaskManagerImpl taskManager, TransferFormat format, Writer out) throws IOException {
+        final BlockingQueue<List<Task>> pages = new ArrayBlockingQueue<>(queueCapacity);
+        final AtomicReference<RuntimeException> readerFailure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                Task after = null;
+                List<Task> page;
+                do {
+                    page = taskManager.pageTasks(after, pageSize);
+                    if (!page.isEmpty()) {
+                        pages.put(page); // blocks while the writer is behind
+                        after = page.get(page.size() - 1);
+                    }
+                } while (page.size() == pageSize);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                readerFailure.set(e);
+            } finally {
+                try {
+                    pages.put(END_OF_STREAM);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "task-export-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        long written = 0;
+        StringBuilder record = new StringBuilder(256);
+        try {
+            if (format.header() != null) {
+                out.write(format.header());
+                out.write('\n');
+            }
+            List<Task> page;
+            while ((page = pages.take()) != END_OF_STREAM) {
+                for (Task task : page) {
+                    record.setLength(0);
+                    format.append(record, task);
+                    record.append('\n');
+                    out.append(record);
+                    written++;
+                }
+            }
+            out.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } finally {
+            reader.interrupt();
+        }
+        if (readerFailure.get() != null) {
+            throw readerFailure.get();
+        }
+        return written;
+    }
+}
@@ -0,0 +1,136 @@
+package service.transfer;
+
+import model.task.Task;
+import model.task.TaskDraft;
+import service.TaskManagerImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Streams records in: a parser thread turns records into drafts and hands them over in
+// batches through a bounded queue; the calling thread inserts each batch with
+// TaskManagerImpl.createTasks, which allocates the batch's ids in one step. The tasks file
+// is written every commitEveryBatches batches (0 = once at the end).
+public class TaskImporter {
+
+    public static final int DEFAULT_BATCH_SIZE = 5000;
+    public static final int DEFAULT_QUEUE_CAPACITY = 4;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private static final List<TaskDraft> END_OF_STREAM = Collections.emptyList();
+
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int commitEveryBatches;
+
+    public TaskImporter() {
+        this(DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY, 0);
+    }
+
+    public TaskImporter(int batchSize, int queueCapacity, int commitEveryBatches) {
+        if (batchSize < 1 || queueCapacity < 1 || commitEveryBatches < 0) {
+            throw new IllegalArgumentException("Batch size and queue capacity must be positive.");
+        }
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.commitEveryBatches = commitEveryBatches;
+    }
+
+    public ImportReport importFromFile(TaskManagerImpl taskManager, Path file) throws IOException {
+        TransferFormat format = TransferFormat.forFileName(file.getFileName().toString());
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importTasks(taskManager, format, reader);
+        }
+    }
+
+    public ImportReport importTasks(TaskManagerImpl taskManager, final TransferFormat format, Reader in) throws IOException {
+        long start = System.currentTimeMillis();
+        final BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        final BlockingQueue<List<TaskDraft>> batches = new ArrayBlockingQueue<>(queueCapacity);
+        final AtomicLong recordsRead = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicReference<IOException> readFailure = new AtomicReference<>();
+
+        Thread parser = new Thread(() -> {
+            try {
+                List<TaskDraft> batch = new ArrayList<>(batchSize);
+                String record;
+                while ((record = format.readRecord(reader)) != null) {
+                    if (record.trim().isEmpty() || (recordsRead.get() == 0 && format.isHeader(record))) {
+                        continue;
+                    }
+                    long recordNumber = recordsRead.incrementAndGet();
+                    try {
+                        batch.add(format.parse(record));
+                    } catch (RuntimeException e) {
+                        if (rejected.incrementAndGet() <= MAX_REPORTED_ERRORS) {
+                            System.err.println("Skipping record " + recordNumber + ": " + e.getMessage());
+                        }
+                        continue;
+                    }
+                    if (batch.size() == batchSize) {
+                        batches.put(batch); // blocks while inserts are behind
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    batches.put(batch);
+                }
+            } catch (IOException e) {
+                readFailure.set(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                try {
+                    batches.put(END_OF_STREAM);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "task-import-parser");
+        parser.setDaemon(true);
+        parser.start();
+
+        long imported = 0;
+        long duplicates = 0;
+        int uncommittedBatches = 0;
+        try {
+            List<TaskDraft> batch;
+            while ((batch = batches.take()) != END_OF_STREAM) {
+                List<Task> created = taskManager.createTasks(batch, false);
+                imported += created.size();
+                duplicates += batch.size() - created.size();
+                uncommittedBatches++;
+                if (commitEveryBatches > 0 && uncommittedBatches >= commitEveryBatches) {
+                    taskManager.saveAllTasks();
+                    uncommittedBatches = 0;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } finally {
+            parser.interrupt();
+            if (uncommittedBatches > 0 && imported > 0) {
+                taskManager.saveAllTasks(); // whatever made it in is kept
+            }
+        }
+        if (readFailure.get() != null) {
+            throw readFailure.get();
+        }
+        ImportReport report = new ImportReport(recordsRead.get(), imported, duplicates, rejected.get(), System.currentTimeMillis() - start);
+        System.out.println("Import finished: " + report);
+        return report;
+    }
+}
@@ -0,0 +1,212 @@
+package service.transfer;
+
+import model.task.*;
+import util.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Record formats for streaming import/export, one task per record
+public enum TransferFormat {
+
+    CSV {
+        @Override
+        public String header() {
+            return String.join(",", COLUMNS);
+        }
+
+        @Override
+        public void append(StringBuilder out, Task task) {
+            out.append(task.getId()).append(',');
+            appendCsvField(out, task.getTitle());
+            out.append(',');
+            appendCsvField(out, task.getDescription());
+            out.append(',').append(task.getDueDate())
+                    .append(',').append(task.getPriority().name())
+                    .append(',').append(task.getStatus().name())
+                    .append(',').append(task.getCategory().name())
+                    .append(',').append(task.getCreationDate());
+        }
+
+        @Override
+        public String readRecord(BufferedReader reader) throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            // a quoted field may span lines: keep reading while a quote is open
+            StringBuilder record = null;
+            while (countQuotes(record == null ? line : record) % 2 != 0) {
+                String next = reader.readLine();
+                if (next == null) {
+                    break;
+                }
+                if (record == null) {
+                    record = new StringBuilder(line);
+                }
+                record.append('\n').append(next);
+            }
+            return record == null ? line : record.toString();
+        }
+
+        @Override
+        public boolean isHeader(String record) {
+            return record.startsWith("id,title,");
+        }
+
+        @Override
+        public TaskDraft parse(String record) {
+            List<String> fields = splitCsv(record);
+            if (fields.size() != COLUMNS.length) {
+                throw new IllegalArgumentException("expected " + COLUMNS.length + " columns but found " + fields.size());
+            }
+            return toDraft(fields.get(1), fields.get(2), fields.get(3), fields.get(4), fields.get(5), fields.get(6), fields.get(7));
+        }
+    },
+
+    JSON_LINES {
+        @Override
+        public String header() {
+            return null;
+        }
+
+        @Override
+        public void append(StringBuilder out, Task task) {
+            Json.appendTask(out, task);
+        }
+
+        @Override
+        public String readRecord(BufferedReader reader) throws IOException {
+            return reader.readLine();
+        }
+
+        @Override
+        public boolean isHeader(String record) {
+            return false;
+        }
+
+        @Override
+        public TaskDraft parse(String record) {
+            Map<String, String> values = Json.parseObject(record);
+            return toDraft(values.get("title"), values.get("description"), values.get("dueDate"), values.get("priority"),
+                    values.get("status"), values.get("category"), values.get("creationDate"));
+        }
+    };
+
+    private static final String[] COLUMNS = {"id", "title", "description", "dueDate", "priority", "status", "category", "creationDate"};
+
+    // null if the format has no header line
+    public abstract String header();
+
+    public abstract void append(StringBuilder out, Task task);
+
+    // Next raw record, or null at end of input
+    public abstract String readRecord(BufferedReader reader) throws IOException;
+
+    public abstract boolean isHeader(String record);
+
+    // The id of an imported record is not kept: the importing manager allocates new ones
+    public abstract TaskDraft parse(String record);
+
+    public static TransferFormat forFileName(String fileName) {
+        String lower = fileName.toLowerCase();
+        if (lower.endsWith(".csv")) {
+            return CSV;
+        }
+        if (lower.endsWith(".jsonl") || lower.endsWith(".ndjson") || lower.endsWith(".json")) {
+            return JSON_LINES;
+        }
+        throw new IllegalArgumentException("Cannot tell the format of " + fileName + " (use .csv or .jsonl)");
+    }
+
+    static TaskDraft toDraft(String title, String description, String dueDate, String priority,
+                                     String status, String category, String creationDate) {
+        if (title == null || title.isEmpty()) {
+            throw new IllegalArgumentException("title is required");
+        }
+        // a quoted CSV field or a JSON escape can carry line breaks the tasks file cannot hold
+        TaskCreator.requireSingleLine(title, "title");
+        TaskCreator.requireSingleLine(description, "description");
+        return new TaskDraft(
+                title,
+                description != null ? description : "",
+                LocalDate.parse(required(dueDate, "dueDate")),
+                Priority.valueOf(required(priority, "priority").trim().toUpperCase()),
+                status != null && !status.isEmpty() ? Status.valueOf(status.trim().toUpperCase()) : Status.PENDING,
+                Category.valueOf(required(category, "category").trim().toUpperCase()),
+                creationDate != null && !creationDate.isEmpty() ? LocalDate.parse(creationDate) : LocalDate.now()
+        );
+    }
+
+    private static String required(String value, String name) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        return value;
+    }
+
+    private static void appendCsvField(StringBuilder out, String value) {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    static List<String> splitCsv(String record) {
+        List<String> fields = new ArrayList<>(COLUMNS.length);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static int countQuotes(CharSequence text) {
+        int quotes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+}
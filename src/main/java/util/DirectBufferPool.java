@@ -0,0 +1,54 @@
+package util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+// Free list of equally sized direct buffers, so network code does not allocate (or wait for
+// the GC to free native memory) per message. Not thread-safe: meant to be owned by one thread,
+// e.g. a selector loop.
+public class DirectBufferPool {
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+    private long allocatedCount;
+
+    public DirectBufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize < 16 || maxPooled < 0) {
+            throw new IllegalArgumentException("Invalid buffer pool size: " + bufferSize + " x " + maxPooled);
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    // A cleared buffer of getBufferSize() bytes
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = free.pollLast();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+            allocatedCount++;
+        }
+        return buffer;
+    }
+
+    // Buffers of another size, e.g. one-off large ones, are left to the GC
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() == bufferSize && buffer.isDirect() && free.size() < maxPooled) {
+            buffer.clear();
+            free.addLast(buffer);
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getPooledCount() {
+        return free.size();
+    }
+
+    // Buffers allocated so far; stays flat once the pool has warmed up
+    public long getAllocatedCount() {
+        return allocatedCount;
+    }
+}
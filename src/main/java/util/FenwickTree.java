@@ -0,0 +1,101 @@
+package util;
+
+// Binary indexed tree of counts over a range of long keys (e.g. epoch days) with
+// O(log n) point updates and range sums. The covered key range starts small and doubles
+// whenever a key falls outside it.
+public class FenwickTree {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long origin;    // key stored at index 0
+    private long[] tree;    // 1-based Fenwick array
+    private long[] points;  // plain counts per key, needed to rebuild on growth
+    private long total;
+
+    public FenwickTree(long firstKey) {
+        this.origin = firstKey - INITIAL_CAPACITY / 2;
+        this.tree = new long[INITIAL_CAPACITY + 1];
+        this.points = new long[INITIAL_CAPACITY];
+    }
+
+    public void add(long key, long delta) {
+        ensureCovers(key);
+        int index = (int) (key - origin);
+        points[index] += delta;
+        total += delta;
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // Sum of counts for keys in [fromKey, toKey], both inclusive
+    public long rangeSum(long fromKey, long toKey) {
+        if (toKey < fromKey) {
+            return 0;
+        }
+        return prefixSum(toKey) - prefixSum(fromKey - 1);
+    }
+
+    public long get(long key) {
+        long index = key - origin;
+        return index < 0 || index >= points.length ? 0 : points[(int) index];
+    }
+
+    public long total() {
+        return total;
+    }
+
+    // Sum of counts for all keys <= key
+    private long prefixSum(long key) {
+        long index = key - origin;
+        if (index < 0) {
+            return 0;
+        }
+        if (index >= points.length) {
+            return total;
+        }
+        long sum = 0;
+        for (int i = (int) index + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private void ensureCovers(long key) {
+        if (key >= origin && key < origin + points.length) {
+            return;
+        }
+        long newOrigin = Math.min(origin, key);
+        long newEnd = Math.max(origin + points.length, key + 1);
+        int capacity = points.length;
+        while (capacity < newEnd - newOrigin) {
+            if (capacity > Integer.MAX_VALUE / 4) {
+                throw new IllegalArgumentException("Key range too wide for FenwickTree: " + newOrigin + ".." + newEnd);
+            }
+            capacity *= 2;
+        }
+        // leave headroom on the side we grew towards
+        if (key < origin) {
+            newOrigin = newEnd - capacity;
+        }
+        long[] newPoints = new long[capacity];
+        System.arraycopy(points, 0, newPoints, (int) (origin - newOrigin), points.length);
+        long[] newTree = new long[capacity + 1];
+        // O(n) build: add each node into its parent
+        for (int i = 1; i <= capacity; i++) {
+            newTree[i] += newPoints[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                newTree[parent] += newTree[i];
+            }
+        }
+        origin = newOrigin;
+        points = newPoints;
+        tree = newTree;
+    }
+
+    @Override
+    public String toString() {
+        return "FenwickTree{origin=" + origin + ", capacity=" + points.length + ", total=" + total + "}";
+    }
+}
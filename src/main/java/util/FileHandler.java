@@ -2,45 +2,187 @@ package util;
 
 import model.task.*;
 
+import util.compression.BlockCompression;
+import util.compression.CompressionCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.Month;
+import java.time.Year;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
 
 public class FileHandler {
 
     private static final String TASKS_FILE_PATH = "src/main/resources/tasks";
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    // null writes plain text; reading detects compressed files on its own
+    private static volatile CompressionCodec compressionCodec;
+    private static volatile boolean offsetTableEnabled;
+    private static volatile boolean checkpointsEnabled;
+
+    private static final String TASKS_CHECKPOINT = "snapshot";
+    private static final int TASKS_CHECKPOINT_VERSION = 4;
+    private static final int MAX_DELTA_RECORD_BYTES = 1 << 20;
+
+    public static void setCompressionCodec(CompressionCodec codec) {
+        compressionCodec = codec;
+    }
+
+    public static CompressionCodec getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    // Lazily started managers keep an id -> block offset table next to the tasks file
+    public static void setOffsetTableEnabled(boolean enabled) {
+        offsetTableEnabled = enabled;
+    }
+
+    public static boolean isOffsetTableEnabled() {
+        return offsetTableEnabled;
+    }
+
+    // Keep a checksum-validated binary snapshot of the parsed tasks next to the tasks file
+    // (see IndexCheckpoint), so a restart skips parsing unless the file has changed
+    public static void setCheckpointsEnabled(boolean enabled) {
+        checkpointsEnabled = enabled;
+    }
+
+    public static boolean isCheckpointsEnabled() {
+        return checkpointsEnabled;
+    }
+
+    public static Path getTasksFilePath() {
+        return Paths.get(TASKS_FILE_PATH);
+    }
+
+    // Locks the tasks file and its delta log against other processes (see TaskStoreLock).
+    // Returns null if the lock file cannot be opened, so callers carry on unlocked.
+    public static TaskStoreLock.Hold lockTasksFile(boolean exclusiveFile, boolean exclusiveDeltas) {
+        try {
+            return TaskStoreLock.forFile(Paths.get(TASKS_FILE_PATH)).lock(exclusiveFile, exclusiveDeltas);
+        } catch (IOException e) {
+            System.err.println("Error locking tasks file: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // The generation of the tasks file and its delta log, or null if it cannot be read
+    public static TaskStoreLock.Generation getTasksFileGeneration() {
+        try {
+            return TaskStoreLock.forFile(Paths.get(TASKS_FILE_PATH)).readGeneration();
+        } catch (IOException e) {
+            System.err.println("Error reading tasks file generation: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static TaskStoreLock.Hold lockStore(Path tasksFile, boolean exclusiveFile, boolean exclusiveDeltas) throws IOException {
+        return TaskStoreLock.forFile(tasksFile).lock(exclusiveFile, exclusiveDeltas);
+    }
 
     public static Set<Task> readTasksFromFile() {
+        return readTasksFromFile(Paths.get(TASKS_FILE_PATH));
+    }
+
+    public static Set<Task> readTasksFromFile(Path filePath) {
         Set<Task> tasks = new TreeSet<>(); // Initialize a new Set for each read operation
-        Path filePath = Paths.get(TASKS_FILE_PATH);
+        readTasksFromFile(filePath, tasks::add);
+        return tasks;
+    }
 
+    // Streams the tasks of the file to the consumer one at a time, in file order
+    public static void readTasksFromFile(Path filePath, Consumer<Task> consumer) {
         if (!Files.exists(filePath)) {
-            System.out.println("Tasks file not found at: " + TASKS_FILE_PATH);
-            return tasks;
+            System.out.println("Tasks file not found at: " + filePath);
+            return;
+        }
+        try (TaskStoreLock.Hold ignored = TaskStoreLock.forFile(filePath).lock(TaskStoreLock.Region.FILE, false)) {
+            if (checkpointsEnabled) {
+                readTasksWithCheckpoint(filePath, consumer);
+            } else {
+                parseTasksFile(filePath, consumer);
+            }
+        } catch (IOException e) {
+            System.err.println("Error locking tasks file: " + e.getMessage());
+        }
+    }
+
+    // Loads the binary snapshot of the parsed tasks if it matches the file's checksum;
+    // otherwise parses the text and saves a new snapshot for the next start
+    private static void readTasksWithCheckpoint(Path filePath, Consumer<Task> consumer) {
+        IndexCheckpoint.StoreFingerprint store;
+        try {
+            store = IndexCheckpoint.StoreFingerprint.of(filePath);
+        } catch (IOException e) {
+            System.err.println("Error reading tasks from file: " + e.getMessage());
+            return;
+        }
+        List<Task> tasks = IndexCheckpoint.load(filePath, TASKS_CHECKPOINT, TASKS_CHECKPOINT_VERSION, store, in -> {
+            int count = in.readInt();
+            List<Task> loaded = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                loaded.add(TaskCodec.readTask(in));
+            }
+            return loaded;
+        });
+        if (tasks == null) {
+            List<Task> parsed = new ArrayList<>();
+            parseTasksFile(filePath, parsed::add);
+            try {
+                // only if the file did not change while it was parsed
+                if (store.equals(IndexCheckpoint.StoreFingerprint.of(filePath))) {
+                    IndexCheckpoint.save(filePath, TASKS_CHECKPOINT, TASKS_CHECKPOINT_VERSION, store, out -> {
+                        out.writeInt(parsed.size());
+                        for (Task task : parsed) {
+                            TaskCodec.writeTask(out, task);
+                        }
+                    });
+                }
+            } catch (IOException e) {
+                System.err.println("Error writing tasks checkpoint: " + e.getMessage());
+            }
+            tasks = parsed;
         }
+        for (Task task : tasks) {
+            consumer.accept(task);
+        }
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath.toFile()))) {
+    private static void parseTasksFile(Path filePath, Consumer<Task> consumer) {
+        try (BufferedReader reader = openReader(filePath)) {
             String line;
             StringBuilder currentTaskBlock = new StringBuilder();
             while ((line = reader.readLine()) != null) {
                 if (line.trim().startsWith("task") && currentTaskBlock.length() > 0) {
                     Task task = parseTaskBlock(currentTaskBlock.toString());
                     if (task != null) {
-                        tasks.add(task);
+                        consumer.accept(task);
                     }
                     currentTaskBlock.setLength(0); // Reset for new task
                 }
@@ -49,16 +191,47 @@ public class FileHandler {
             if (currentTaskBlock.length() > 0) {
                 Task task = parseTaskBlock(currentTaskBlock.toString());
                 if (task != null) {
-                    tasks.add(task);
+                    consumer.accept(task);
                 }
             }
         } catch (IOException e) {
             System.err.println("Error reading tasks from file: " + e.getMessage());
         }
-        return tasks;
     }
 
-    private static Task parseTaskBlock(String block) {
+    public static boolean isCompressed(Path filePath) throws IOException {
+        try (InputStream in = new FileInputStream(filePath.toFile())) {
+            byte[] magic = new byte[4];
+            return in.read(magic) == 4 && BlockCompression.isCompressed(magic);
+        }
+    }
+
+    private static BufferedReader openReader(Path filePath) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(filePath.toFile()));
+        in.mark(4);
+        byte[] magic = new byte[4];
+        int read = in.read(magic);
+        in.reset();
+        if (read == 4 && BlockCompression.isCompressed(magic)) {
+            try (InputStream compressed = in) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int n;
+                while ((n = compressed.read(buffer)) > 0) {
+                    content.write(buffer, 0, n);
+                }
+                // blocks are inflated in parallel
+                byte[] text = BlockCompression.decompress(content.toByteArray());
+                return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(text), Charset.defaultCharset()));
+            }
+        }
+        return new BufferedReader(new InputStreamReader(in, Charset.defaultCharset()));
+    }
+
+    // Reads the "Key:value" lines of a block as written by Task.toString(); the first line with
+    // a key wins. Scans the block once, without regular expressions, so a task costs little
+    // more than the strings and dates it is made of.
+    public static Task parseTaskBlock(String block) {
         int id = -1;
         String title = null;
         String description = null;
@@ -67,93 +240,373 @@ public class FileHandler {
         Status status = null;
         Category category = null;
         LocalDate creationDate = null;
+        long version = -1;
+        String owner = null;
 
-        Pattern idPattern = Pattern.compile("ID:(\\d+)");
-        Pattern titlePattern = Pattern.compile("Title:(.*)");
-        Pattern descPattern = Pattern.compile("Description:(.*)");
-        Pattern dueDatePattern = Pattern.compile("Due Date:(\\d{4}-\\d{2}-\\d{2})");
-        Pattern priorityPattern = Pattern.compile("Priority:(\\w+)");
-        Pattern statusPattern = Pattern.compile("Status:(\\w+)");
-        Pattern categoryPattern = Pattern.compile("Category:(\\w+)");
-        Pattern creationDatePattern = Pattern.compile("Creation Date:(\\d{4}-\\d{2}-\\d{2})");
-
-        Matcher matcher;
+        int length = block.length();
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = block.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = length;
+            }
+            int keyStart = lineStart;
+            while (keyStart < lineEnd && Character.isWhitespace(block.charAt(keyStart))) {
+                keyStart++;
+            }
+            int colon = block.indexOf(':', keyStart);
+            if (colon > keyStart && colon < lineEnd) {
+                int valueStart = colon + 1;
+                switch (colon - keyStart) {
+                    case 2:
+                        if (id == -1 && block.startsWith("ID", keyStart)) {
+                            long value = parseDigits(block, valueStart, lineEnd);
+                            id = value >= 0 && value <= Integer.MAX_VALUE ? (int) value : -1;
+                        }
+                        break;
+                    case 5:
+                        if (title == null && block.startsWith("Title", keyStart)) {
+                            title = trimmed(block, valueStart, lineEnd);
+                        } else if (owner == null && keyStart == lineStart && block.startsWith("Owner", keyStart)) {
+                            owner = trimmed(block, valueStart, lineEnd);
+                        }
+                        break;
+                    case 6:
+                        if (status == null && block.startsWith("Status", keyStart)) {
+                            status = enumValue(Status.values(), block, valueStart, lineEnd, "Status");
+                        }
+                        break;
+                    case 7:
+                        if (version < 0 && keyStart == lineStart && block.startsWith("Version", keyStart)) {
+                            version = parseDigits(block, valueStart, lineEnd);
+                        }
+                        break;
+                    case 8:
+                        if (dueDate == null && block.startsWith("Due Date", keyStart)) {
+                            dueDate = parseDate(block, valueStart, lineEnd);
+                        } else if (priority == null && block.startsWith("Priority", keyStart)) {
+                            priority = enumValue(Priority.values(), block, valueStart, lineEnd, "Priority");
+                        } else if (category == null && block.startsWith("Category", keyStart)) {
+                            category = enumValue(Category.values(), block, valueStart, lineEnd, "Category");
+                        }
+                        break;
+                    case 11:
+                        if (description == null && block.startsWith("Description", keyStart)) {
+                            description = trimmed(block, valueStart, lineEnd);
+                        }
+                        break;
+                    case 13:
+                        if (creationDate == null && block.startsWith("Creation Date", keyStart)) {
+                            creationDate = parseDate(block, valueStart, lineEnd);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
 
-        matcher = idPattern.matcher(block);
-        if (matcher.find()) {
-            id = Integer.parseInt(matcher.group(1));
+        if (id != -1 && title != null && description != null && dueDate != null &&
+                priority != null && status != null && category != null && creationDate != null) {
+            Task task = TaskCreator.createTask(id, title, description, dueDate, priority, status, category, creationDate);
+            // optional, absent for tasks that were never changed
+            if (version >= 0) {
+                task.setVersion(version);
+            }
+            task.setOwner(owner);
+            return task;
+        } else {
+            System.err.println("Could not fully parse task block:\n" + block);
+            return null;
         }
+    }
 
-        matcher = titlePattern.matcher(block);
-        if (matcher.find()) {
-            title = matcher.group(1).trim();
+    private static String trimmed(String block, int from, int to) {
+        while (from < to && block.charAt(from) <= ' ') {
+            from++;
         }
+        while (to > from && block.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return block.substring(from, to);
+    }
 
-        matcher = descPattern.matcher(block);
-        if (matcher.find()) {
-            description = matcher.group(1).trim();
+    // The leading digits of the value, or -1 if it does not start with one
+    private static long parseDigits(String block, int from, int to) {
+        long value = -1;
+        for (int i = from; i < to; i++) {
+            char c = block.charAt(i);
+            if (c < '0' || c > '9' || value > (Long.MAX_VALUE - 9) / 10) {
+                break;
+            }
+            value = (value < 0 ? 0 : value * 10) + (c - '0');
         }
+        return value;
+    }
 
-        matcher = dueDatePattern.matcher(block);
-        if (matcher.find()) {
-            dueDate = LocalDate.parse(matcher.group(1), DATE_FORMATTER);
+    // A yyyy-MM-dd date right after the colon, or null. A day past the end of the month is
+    // moved to its last day, as LocalDate.parse does with this pattern.
+    private static LocalDate parseDate(String block, int from, int to) {
+        if (to - from < 10) {
+            return null;
+        }
+        for (int i = 0; i < 10; i++) {
+            char c = block.charAt(from + i);
+            if (i == 4 || i == 7 ? c != '-' : c < '0' || c > '9') {
+                return null;
+            }
+        }
+        int year = (int) parseDigits(block, from, from + 4);
+        int month = (int) parseDigits(block, from + 5, from + 7);
+        int day = (int) parseDigits(block, from + 8, from + 10);
+        if (month < 1 || month > 12 || day < 1 || day > 31) {
+            System.err.println("Invalid date: " + block.substring(from, from + 10));
+            return null;
         }
+        return LocalDate.of(year, month, Math.min(day, Month.of(month).length(Year.isLeap(year))));
+    }
 
-        matcher = priorityPattern.matcher(block);
-        if (matcher.find()) {
-            try {
-                priority = Priority.valueOf(matcher.group(1).trim().toUpperCase());
-            } catch (IllegalArgumentException e) {
-                System.err.println("Invalid Priority: " + matcher.group(1));
+    // The constant whose name matches the word after the colon, ignoring case
+    private static <E extends Enum<E>> E enumValue(E[] constants, String block, int from, int to, String field) {
+        int end = from;
+        while (end < to && isWordChar(block.charAt(end))) {
+            end++;
+        }
+        if (end == from) {
+            return null;
+        }
+        for (E constant : constants) {
+            String name = constant.name();
+            if (name.length() == end - from && block.regionMatches(true, from, name, 0, name.length())) {
+                return constant;
             }
         }
+        System.err.println("Invalid " + field + ": " + block.substring(from, end));
+        return null;
+    }
 
-        matcher = statusPattern.matcher(block);
-        if (matcher.find()) {
-            try {
-                status = Status.valueOf(matcher.group(1).trim().toUpperCase());
-            } catch (IllegalArgumentException e) {
-                System.err.println("Invalid Status: " + matcher.group(1));
+    private static boolean isWordChar(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_';
+    }
+
+
+    public static void writeTasksToFile(Set<Task> tasks) {
+        writeTasksToFile(tasks, Paths.get(TASKS_FILE_PATH));
+    }
+
+    // Rewrites the file under an exclusive lock on the whole store and bumps its generation
+    public static void writeTasksToFile(Set<Task> tasks, Path filePath) {
+        CompressionCodec codec = compressionCodec;
+        try (TaskStoreLock.Hold ignored = lockStore(filePath, true, true)) {
+            boolean written;
+            if (codec != null) {
+                written = writeCompressedTasksToFile(tasks, filePath, codec);
+            } else if (offsetTableEnabled) {
+                written = writeTasksWithOffsetTable(tasks, filePath);
+            } else {
+                written = writePlainTasksToFile(tasks, filePath);
+            }
+            if (written) {
+                // the file now holds every change recorded in the delta log
+                discardTaskDeltas(filePath);
+                TaskStoreLock.forFile(filePath).bump(TaskStoreLock.Region.FILE);
             }
+        } catch (IOException e) {
+            System.err.println("Error locking tasks file: " + e.getMessage());
+        }
+    }
+
+    private static boolean writePlainTasksToFile(Set<Task> tasks, Path filePath) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath.toFile()))) {
+            writeTasks(writer, tasks);
+            System.out.println("Tasks written successfully to: " + filePath);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing tasks to file: " + e.getMessage());
+            return false;
         }
+    }
 
-        matcher = categoryPattern.matcher(block);
-        if (matcher.find()) {
-            try {
-                category = Category.valueOf(matcher.group(1).trim().toUpperCase());
-            } catch (IllegalArgumentException e) {
-                System.err.println("Invalid Category: " + matcher.group(1));
+    public static Path deltaFileFor(Path tasksFile) {
+        return tasksFile.resolveSibling(tasksFile.getFileName() + ".delta");
+    }
+
+    public static void appendTaskDelta(TaskDelta delta) {
+        appendTaskDelta(delta, Paths.get(TASKS_FILE_PATH));
+    }
+
+    // Appends one update to the delta log of the tasks file instead of rewriting the file.
+    // Each record is framed by its length and CRC32, so a torn last record is detected.
+    // Only the log is locked exclusively; other processes may go on reading the tasks file.
+    public static void appendTaskDelta(TaskDelta delta, Path tasksFile) {
+        try (TaskStoreLock.Hold ignored = TaskStoreLock.forFile(tasksFile).lock(TaskStoreLock.Region.DELTAS, true)) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream(64);
+            try (DataOutputStream bodyOut = new DataOutputStream(body)) {
+                TaskCodec.writeDelta(bodyOut, delta);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(body.toByteArray(), 0, body.size());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(deltaFileFor(tasksFile).toFile(), true), body.size() + 8))) {
+                out.writeInt(body.size());
+                out.writeInt((int) crc.getValue());
+                body.writeTo(out);
             }
+            TaskStoreLock.forFile(tasksFile).bump(TaskStoreLock.Region.DELTAS);
+        } catch (IOException e) {
+            System.err.println("Error writing task update to file: " + e.getMessage());
+        }
+    }
+
+    public static List<TaskDelta> readTaskDeltas() {
+        return readTaskDeltas(Paths.get(TASKS_FILE_PATH));
+    }
+
+    // The updates logged since the tasks file was last written, oldest first. A torn or
+    // corrupt tail (e.g. after a crash during an append) is cut off.
+    public static List<TaskDelta> readTaskDeltas(Path tasksFile) {
+        return readTaskDeltas(tasksFile, 0);
+    }
+
+    // The updates logged from the given byte offset of the delta log on, e.g. the log
+    // length a process saw last time (see getTaskDeltaLogLength)
+    public static List<TaskDelta> readTaskDeltas(Path tasksFile, long fromOffset) {
+        List<TaskDelta> deltas = new ArrayList<>();
+        Path deltaFile = deltaFileFor(tasksFile);
+        if (!Files.exists(deltaFile)) {
+            return deltas;
+        }
+        try (TaskStoreLock.Hold ignored = TaskStoreLock.forFile(tasksFile).lock(TaskStoreLock.Region.DELTAS, false)) {
+            readTaskDeltas(deltaFile, fromOffset, deltas);
+        } catch (IOException e) {
+            System.err.println("Error locking task update file: " + e.getMessage());
         }
+        return deltas;
+    }
 
-        matcher = creationDatePattern.matcher(block);
-        if (matcher.find()) {
-            creationDate = LocalDate.parse(matcher.group(1), DATE_FORMATTER);
+    public static long getTaskDeltaLogLength() {
+        Path deltaFile = deltaFileFor(Paths.get(TASKS_FILE_PATH));
+        try {
+            return Files.exists(deltaFile) ? Files.size(deltaFile) : 0;
+        } catch (IOException e) {
+            System.err.println("Error reading task update file: " + e.getMessage());
+            return 0;
         }
+    }
 
-        if (id != -1 && title != null && description != null && dueDate != null &&
-                priority != null && status != null && category != null && creationDate != null) {
-            return TaskCreator.createTask(id, title, description, dueDate, priority, status, category, creationDate);
-        } else {
-            System.err.println("Could not fully parse task block:\n" + block);
-            return null;
+    private static void readTaskDeltas(Path deltaFile, long fromOffset, List<TaskDelta> deltas) {
+        long validLength = fromOffset;
+        try (FileInputStream file = new FileInputStream(deltaFile.toFile())) {
+            file.getChannel().position(fromOffset);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(file, 65536));
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                int checksum = in.readInt();
+                if (length < 0 || length > MAX_DELTA_RECORD_BYTES) {
+                    break;
+                }
+                byte[] body = new byte[length];
+                in.readFully(body);
+                CRC32 crc = new CRC32();
+                crc.update(body, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                deltas.add(TaskCodec.readDelta(new DataInputStream(new ByteArrayInputStream(body))));
+                validLength += 8 + length;
+            }
+        } catch (EOFException e) {
+            // torn last record
+        } catch (IOException e) {
+            System.err.println("Error reading task updates from file: " + e.getMessage());
+            return;
+        }
+        try {
+            if (Files.size(deltaFile) > validLength) {
+                System.err.println("Dropping incomplete task update records from " + deltaFile);
+                try (RandomAccessFile file = new RandomAccessFile(deltaFile.toFile(), "rw")) {
+                    file.setLength(validLength);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error repairing task update file: " + e.getMessage());
         }
     }
 
+    private static void discardTaskDeltas(Path tasksFile) {
+        try {
+            Files.deleteIfExists(deltaFileFor(tasksFile));
+        } catch (IOException e) {
+            System.err.println("Error removing task update file: " + e.getMessage());
+        }
+    }
 
-    public static void writeTasksToFile(Set<Task> tasks) {
-        Path filePath = Paths.get(TASKS_FILE_PATH);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath.toFile()))) {
-            for (Task task : tasks) {
-                writer.write("task");
-                writer.newLine();
-                writer.write(task.toString()); // Uses Task's toString()
-                writer.newLine(); // Newline after task block
-                writer.newLine(); // Empty line between tasks
-            }
-            System.out.println("Tasks written successfully to: " + TASKS_FILE_PATH);
+    // Same bytes as the plain writer, encoded block by block so each block's offset is known;
+    // the id offset table is saved next to the file afterwards (see TaskOffsetTable), stamped
+    // with the generation the caller bumps the file to
+    private static boolean writeTasksWithOffsetTable(Set<Task> tasks, Path filePath) {
+        TaskOffsetTable.Builder offsets = new TaskOffsetTable.Builder(tasks.size());
+        String lineSeparator = System.lineSeparator();
+        Charset charset = Charset.defaultCharset();
+        CRC32 crc = new CRC32();
+        try {
+            long position = 0;
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(filePath.toFile()), 65536)) {
+                for (Task task : tasks) {
+                    byte[] block = ("task" + lineSeparator + task.toString() + lineSeparator + lineSeparator).getBytes(charset);
+                    out.write(block);
+                    crc.update(block, 0, block.length);
+                    offsets.add(task.getId(), position, block.length);
+                    position += block.length;
+                }
+            }
+            long generation = TaskStoreLock.forFile(filePath).readGeneration().getFileGeneration() + 1;
+            offsets.build().save(filePath, new IndexCheckpoint.StoreFingerprint(position, crc.getValue()),
+                    TaskOffsetTable.FileStamp.of(filePath, generation));
+            System.out.println("Tasks written successfully to: " + filePath);
+            return true;
         } catch (IOException e) {
             System.err.println("Error writing tasks to file: " + e.getMessage());
+            return false;
         }
     }
+
+    private static boolean writeCompressedTasksToFile(Set<Task> tasks, Path filePath, CompressionCodec codec) {
+        try {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(content, Charset.defaultCharset()))) {
+                writeTasks(writer, tasks);
+            }
+            Files.write(filePath, BlockCompression.compress(content.toByteArray(), codec));
+            System.out.println("Tasks written successfully to: " + filePath + " (" + codec.getName() + ")");
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing tasks to file: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void writeTasks(BufferedWriter writer, Set<Task> tasks) throws IOException {
+        for (Task task : tasks) {
+            writer.write("task");
+            writer.newLine();
+            writer.write(task.toString()); // Uses Task's toString()
+            writer.newLine(); // Newline after task block
+            writer.newLine(); // Empty line between tasks
+        }
+    }
+
+    // Number of bytes a task occupies in the tasks file, as written by writeTasksToFile
+    // (in the platform charset, like the writers above)
+    public static long recordSizeInBytes(Task task) {
+        String lineSeparator = System.lineSeparator();
+        return ("task" + lineSeparator + task.toString() + lineSeparator + lineSeparator)
+                .getBytes(Charset.defaultCharset()).length;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,201 @@
+package util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+// Versioned side files holding serialized index structures for a store file, so they can be
+// loaded on restart instead of rebuilt from the store. A checkpoint named "offsets" for
+// "tasks" lives in "tasks.offsets.ckpt". Its header records the checkpoint format version,
+// the index's own version and the size and CRC32 of the store it was taken from; the
+// payload is preceded by its own length and CRC32. A checkpoint is only loaded when all of these
+// match, so a changed store, an index format change or a torn write all mean "rebuild".
+public class IndexCheckpoint {
+
+    private static final int MAGIC = 0x54434B50; // "TCKP"
+    private static final int FORMAT_VERSION = 1;
+
+    public interface PayloadWriter {
+        void write(DataOutput out) throws IOException;
+    }
+
+    public interface PayloadReader<T> {
+        T read(DataInput in) throws IOException;
+    }
+
+    // Size and CRC32 of a store file's content
+    public static final class StoreFingerprint {
+        private final long size;
+        private final long checksum;
+
+        public StoreFingerprint(long size, long checksum) {
+            this.size = size;
+            this.checksum = checksum;
+        }
+
+        public static StoreFingerprint of(Path storeFile) throws IOException {
+            CRC32 crc = new CRC32();
+            long size = update(crc, storeFile);
+            return new StoreFingerprint(size, crc.getValue());
+        }
+
+        // The store file followed by logs of changes not yet written into it (e.g. its delta
+        // log). The offset each log starts at goes into the checksum, so bytes moving from one
+        // file to the next still change it. A missing log counts as empty.
+        public static StoreFingerprint of(Path storeFile, Path... logFiles) throws IOException {
+            CRC32 crc = new CRC32();
+            long size = update(crc, storeFile);
+            for (Path logFile : logFiles) {
+                updateLength(crc, size);
+                if (Files.exists(logFile)) {
+                    size += update(crc, logFile);
+                }
+            }
+            return new StoreFingerprint(size, crc.getValue());
+        }
+
+        private static long update(CRC32 crc, Path file) throws IOException {
+            long size = 0;
+            try (InputStream in = Files.newInputStream(file)) {
+                byte[] buffer = new byte[65536];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    crc.update(buffer, 0, read);
+                    size += read;
+                }
+            }
+            return size;
+        }
+
+        private static void updateLength(CRC32 crc, long length) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                crc.update((int) (length >>> shift));
+            }
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getChecksum() {
+            return checksum;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            StoreFingerprint that = (StoreFingerprint) o;
+            return size == that.size && checksum == that.checksum;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(size) * 31 + Long.hashCode(checksum);
+        }
+
+        @Override
+        public String toString() {
+            return size + " bytes, crc " + Long.toHexString(checksum);
+        }
+    }
+
+    public static Path checkpointFileFor(Path storeFile, String name) {
+        return storeFile.resolveSibling(storeFile.getFileName() + "." + name + ".ckpt");
+    }
+
+    // Writes to a temporary file and renames it, so readers never see a partial checkpoint
+    public static void save(Path storeFile, String name, int version, StoreFingerprint store, PayloadWriter payload) throws IOException {
+        Path checkpointFile = checkpointFileFor(storeFile, name);
+        Path tempFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        // buffered so the header can carry the payload's length and checksum
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (DataOutputStream payloadOut = new DataOutputStream(content)) {
+            payload.write(payloadOut);
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), 65536))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(name);
+            out.writeInt(version);
+            out.writeLong(store.getSize());
+            out.writeLong(store.getChecksum());
+            out.writeInt(content.size());
+            out.writeLong(checksum(content.toByteArray()));
+            content.writeTo(out);
+        }
+        Files.move(tempFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // The checkpointed structure, or null if there is no checkpoint or it does not match the
+    // store, the version or its own checksum. Readers must consume exactly what was written.
+    // A null store skips the store check, for callers that validate the payload themselves.
+    public static <T> T load(Path storeFile, String name, int version, StoreFingerprint store, PayloadReader<T> payload) {
+        Path checkpointFile = checkpointFileFor(storeFile, name);
+        if (!Files.exists(checkpointFile)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpointFile), 65536))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !name.equals(in.readUTF())) {
+                System.err.println("Ignoring unreadable checkpoint: " + checkpointFile);
+                return null;
+            }
+            if (in.readInt() != version) {
+                System.out.println("Checkpoint " + checkpointFile + " has an old version, rebuilding.");
+                return null;
+            }
+            StoreFingerprint checkpointed = new StoreFingerprint(in.readLong(), in.readLong());
+            if (store != null && !checkpointed.equals(store)) {
+                System.out.println("Checkpoint " + checkpointFile + " is out of date, rebuilding.");
+                return null;
+            }
+            int length = in.readInt();
+            if (length < 0 || length > Files.size(checkpointFile)) {
+                System.err.println("Ignoring truncated checkpoint: " + checkpointFile);
+                return null;
+            }
+            byte[] content = new byte[length];
+            long contentChecksum = in.readLong();
+            in.readFully(content);
+            if (checksum(content) != contentChecksum) {
+                System.err.println("Ignoring corrupt checkpoint: " + checkpointFile);
+                return null;
+            }
+            ByteArrayInputStream contentIn = new ByteArrayInputStream(content);
+            T value = payload.read(new DataInputStream(contentIn));
+            if (contentIn.available() != 0) {
+                System.err.println("Ignoring checkpoint with unread data: " + checkpointFile);
+                return null;
+            }
+            return value;
+        } catch (EOFException e) {
+            System.err.println("Ignoring truncated checkpoint: " + checkpointFile);
+            return null;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading checkpoint " + checkpointFile + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static long checksum(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+        return crc.getValue();
+    }
+
+    public static boolean delete(Path storeFile, String name) throws IOException {
+        return Files.deleteIfExists(checkpointFileFor(storeFile, name));
+    }
+}
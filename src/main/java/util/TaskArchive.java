@@ -0,0 +1,269 @@
+package util;
+
+import model.task.Task;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+// Cold tier for completed tasks. Every archive run writes one immutable, Deflate-compressed
+// segment file. The segment header keeps the sorted ids uncompressed, so the in-memory index
+// is just (file, id range, ids) and a segment is only inflated when one of its tasks is needed.
+// The most recently used inflated segments are kept, so repeated searches and lookups do not
+// inflate the same segments again.
+public class TaskArchive {
+
+    public static final String DEFAULT_ARCHIVE_DIRECTORY = "src/main/resources/archive";
+    public static final int DEFAULT_CACHED_SEGMENTS = 16;
+
+    private static final int SEGMENT_MAGIC = 0x54534547; // "TSEG"
+    private static final int SEGMENT_VERSION = 1;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final List<Segment> segments = new ArrayList<>();
+
+    // Inflated segments, least recently used first
+    private final LinkedHashMap<Segment, List<Task>> inflated;
+    private long segmentsInflated;
+
+    public TaskArchive() {
+        this(Paths.get(DEFAULT_ARCHIVE_DIRECTORY));
+    }
+
+    public TaskArchive(Path directory) {
+        this(directory, DEFAULT_CACHED_SEGMENTS);
+    }
+
+    public TaskArchive(Path directory, int cachedSegments) {
+        if (cachedSegments < 1) {
+            throw new IllegalArgumentException("Cached segment count must be positive: " + cachedSegments);
+        }
+        this.directory = directory;
+        this.inflated = new LinkedHashMap<Segment, List<Task>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Segment, List<Task>> eldest) {
+                return size() > cachedSegments;
+            }
+        };
+        loadIndex();
+    }
+
+    private void loadIndex() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        } catch (IOException e) {
+            System.err.println("Error listing archive segments: " + e.getMessage());
+            return;
+        }
+        Collections.sort(files);
+        for (Path file : files) {
+            try {
+                segments.add(readSegmentHeader(file));
+            } catch (IOException e) {
+                System.err.println("Skipping unreadable archive segment " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public synchronized void writeSegment(Collection<Task> tasks) throws IOException {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        List<Task> sorted = new ArrayList<>(tasks);
+        sorted.sort(Comparator.comparingLong(Task::getId));
+        long[] ids = new long[sorted.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = sorted.get(i).getId();
+        }
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (DataOutputStream body = new DataOutputStream(new DeflaterOutputStream(compressed))) {
+            for (Task task : sorted) {
+                TaskCodec.writeTask(body, task);
+            }
+        }
+
+        Files.createDirectories(directory);
+        Path file = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, nextSegmentNumber(), SEGMENT_SUFFIX));
+        Path tempFile = directory.resolve(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(SEGMENT_MAGIC);
+            out.writeInt(SEGMENT_VERSION);
+            out.writeInt(ids.length);
+            for (long id : ids) {
+                out.writeLong(id);
+            }
+            out.writeInt(compressed.size());
+            compressed.writeTo(out);
+        }
+        // segments are immutable once visible
+        Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE);
+        segments.add(new Segment(file, ids, Files.size(file)));
+    }
+
+    public synchronized Task getTaskById(long id) {
+        for (Segment segment : segments) {
+            if (segment.contains(id)) {
+                for (Task task : tasksOf(segment)) {
+                    if (task.getId() == id) {
+                        return task;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    public synchronized boolean contains(long id) {
+        for (Segment segment : segments) {
+            if (segment.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Same matching rules as TaskManagerImpl.searchTask: case-insensitive substring on both fields
+    public synchronized Set<Task> searchTask(String title, String description) {
+        String searchTitle = (title != null) ? title.toLowerCase() : "";
+        String searchDescription = (description != null) ? description.toLowerCase() : "";
+        Set<Task> found = new HashSet<>();
+        for (Segment segment : segments) {
+            for (Task task : tasksOf(segment)) {
+                if (task.getTitle().toLowerCase().contains(searchTitle) &&
+                        task.getDescription().toLowerCase().contains(searchDescription)) {
+                    found.add(task);
+                }
+            }
+        }
+        return found;
+    }
+
+    public synchronized long getMaxId() {
+        long maxId = 0;
+        for (Segment segment : segments) {
+            maxId = Math.max(maxId, segment.maxId());
+        }
+        return maxId;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    public synchronized long getTaskCount() {
+        long count = 0;
+        for (Segment segment : segments) {
+            count += segment.ids.length;
+        }
+        return count;
+    }
+
+    public synchronized long getSizeInBytes() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.sizeInBytes;
+        }
+        return size;
+    }
+
+    // Number of times a segment was read and inflated
+    public synchronized long getSegmentsInflated() {
+        return segmentsInflated;
+    }
+
+    private List<Task> tasksOf(Segment segment) {
+        List<Task> cached = inflated.get(segment);
+        if (cached != null) {
+            return cached;
+        }
+        List<Task> tasks = new ArrayList<>(segment.ids.length);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment.file)))) {
+            readIds(in); // skip the header
+            int compressedLength = in.readInt();
+            byte[] compressed = new byte[compressedLength];
+            in.readFully(compressed);
+            try (DataInputStream body = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(compressed)))) {
+                for (int i = 0; i < segment.ids.length; i++) {
+                    tasks.add(TaskCodec.readTask(body));
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading archive segment " + segment.file + ": " + e.getMessage());
+            return Collections.emptyList();
+        }
+        segmentsInflated++;
+        inflated.put(segment, tasks);
+        return tasks;
+    }
+
+    private int nextSegmentNumber() {
+        int next = 1;
+        for (Segment segment : segments) {
+            String name = segment.file.getFileName().toString();
+            String number = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+            try {
+                next = Math.max(next, Integer.parseInt(number) + 1);
+            } catch (NumberFormatException ignored) {
+                // foreign file name, does not take part in numbering
+            }
+        }
+        return next;
+    }
+
+    private static Segment readSegmentHeader(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            long[] ids = readIds(in);
+            return new Segment(file, ids, Files.size(file));
+        }
+    }
+
+    private static long[] readIds(DataInputStream in) throws IOException {
+        if (in.readInt() != SEGMENT_MAGIC) {
+            throw new IOException("not an archive segment");
+        }
+        int version = in.readInt();
+        if (version != SEGMENT_VERSION) {
+            throw new IOException("unsupported segment version " + version);
+        }
+        long[] ids = new long[in.readInt()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = in.readLong();
+        }
+        return ids;
+    }
+
+    private static class Segment {
+        private final Path file;
+        private final long[] ids; // sorted ascending
+        private final long sizeInBytes;
+
+        Segment(Path file, long[] ids, long sizeInBytes) {
+            this.file = file;
+            this.ids = ids;
+            this.sizeInBytes = sizeInBytes;
+        }
+
+        long minId() {
+            return ids.length == 0 ? Long.MAX_VALUE : ids[0];
+        }
+
+        long maxId() {
+            return ids.length == 0 ? 0 : ids[ids.length - 1];
+        }
+
+        boolean contains(long id) {
+            return id >= minId() && id <= maxId() && Arrays.binarySearch(ids, id) >= 0;
+        }
+    }
+}
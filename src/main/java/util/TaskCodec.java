@@ -0,0 +1,142 @@
+package util;
+
+import model.task.*;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+// Compact binary encoding of a Task. Enums are written as ordinals and dates as epoch days,
+// so a record is a handful of bytes plus its strings. A record starts with a format byte;
+// records written before there was one start with the high byte of the id, which is always
+// 0, and are still read (they have no version or owner). Strings are UTF-8 behind an int
+// length, so unlike writeUTF they are not limited to 64 KB.
+public class TaskCodec {
+
+    private static final int LEGACY_FORMAT = 0;
+    private static final int FORMAT = 2;
+    // the delta mask bit saying its strings are written with writeString
+    private static final int LONG_STRINGS = 1 << 7;
+    // guards against allocating for a corrupt length
+    private static final int MAX_STRING_BYTES = 1 << 24;
+
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Status[] STATUSES = Status.values();
+    private static final Category[] CATEGORIES = Category.values();
+
+    public static void writeTask(DataOutput out, Task task) throws IOException {
+        out.writeByte(FORMAT);
+        out.writeLong(task.getId());
+        writeString(out, task.getTitle());
+        writeString(out, task.getDescription());
+        out.writeInt((int) task.getDueDate().toEpochDay());
+        out.writeByte(task.getPriority().ordinal());
+        out.writeByte(task.getStatus().ordinal());
+        out.writeByte(task.getCategory().ordinal());
+        out.writeInt((int) task.getCreationDate().toEpochDay());
+        out.writeLong(task.getVersion());
+        writeString(out, task.getOwner());
+    }
+
+    public static Task readTask(DataInput in) throws IOException {
+        int format = in.readUnsignedByte();
+        if (format == LEGACY_FORMAT) {
+            return readLegacyTask(in);
+        }
+        if (format != FORMAT) {
+            throw new IOException("unknown task record format " + format);
+        }
+        long id = in.readLong();
+        String title = readString(in);
+        String description = readString(in);
+        LocalDate dueDate = LocalDate.ofEpochDay(in.readInt());
+        Priority priority = PRIORITIES[in.readUnsignedByte()];
+        Status status = STATUSES[in.readUnsignedByte()];
+        Category category = CATEGORIES[in.readUnsignedByte()];
+        LocalDate creationDate = LocalDate.ofEpochDay(in.readInt());
+        Task task = TaskCreator.createTask(id, title, description, dueDate, priority, status, category, creationDate);
+        task.setVersion(in.readLong());
+        task.setOwner(readString(in));
+        return task;
+    }
+
+    // The first byte of the id was already read as the format byte
+    private static Task readLegacyTask(DataInput in) throws IOException {
+        long id = 0;
+        for (int i = 0; i < 7; i++) {
+            id = (id << 8) | in.readUnsignedByte();
+        }
+        String title = in.readUTF();
+        String description = in.readUTF();
+        LocalDate dueDate = LocalDate.ofEpochDay(in.readInt());
+        Priority priority = PRIORITIES[in.readUnsignedByte()];
+        Status status = STATUSES[in.readUnsignedByte()];
+        Category category = CATEGORIES[in.readUnsignedByte()];
+        LocalDate creationDate = LocalDate.ofEpochDay(in.readInt());
+        return TaskCreator.createTask(id, title, description, dueDate, priority, status, category, creationDate);
+    }
+
+    // UTF-8 behind its length in bytes, -1 for null
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > MAX_STRING_BYTES) {
+            throw new IOException("string of " + length + " bytes is too long");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Task id, version, a field mask and only the fields it names
+    public static void writeDelta(DataOutput out, TaskDelta delta) throws IOException {
+        TaskUpdate changes = delta.getChanges();
+        int mask = changes.getFieldMask();
+        out.writeLong(delta.getTaskId());
+        out.writeLong(delta.getVersion());
+        out.writeByte(mask | LONG_STRINGS);
+        if ((mask & TaskUpdate.TITLE) != 0) {
+            writeString(out, changes.getTitle());
+        }
+        if ((mask & TaskUpdate.DESCRIPTION) != 0) {
+            writeString(out, changes.getDescription());
+        }
+        if ((mask & TaskUpdate.DUE_DATE) != 0) {
+            out.writeInt((int) changes.getDueDate().toEpochDay());
+        }
+        if ((mask & TaskUpdate.PRIORITY) != 0) {
+            out.writeByte(changes.getPriority().ordinal());
+        }
+        if ((mask & TaskUpdate.STATUS) != 0) {
+            out.writeByte(changes.getStatus().ordinal());
+        }
+    }
+
+    public static TaskDelta readDelta(DataInput in) throws IOException {
+        long taskId = in.readLong();
+        long version = in.readLong();
+        int mask = in.readUnsignedByte();
+        // records from before LONG_STRINGS use writeUTF
+        boolean longStrings = (mask & LONG_STRINGS) != 0;
+        String title = (mask & TaskUpdate.TITLE) == 0 ? null : longStrings ? readString(in) : in.readUTF();
+        String description = (mask & TaskUpdate.DESCRIPTION) == 0 ? null : longStrings ? readString(in) : in.readUTF();
+        LocalDate dueDate = (mask & TaskUpdate.DUE_DATE) != 0 ? LocalDate.ofEpochDay(in.readInt()) : null;
+        Priority priority = (mask & TaskUpdate.PRIORITY) != 0 ? PRIORITIES[in.readUnsignedByte()] : null;
+        Status status = (mask & TaskUpdate.STATUS) != 0 ? STATUSES[in.readUnsignedByte()] : null;
+        return new TaskDelta(taskId, version, new TaskUpdate(title, description, dueDate, priority, status));
+    }
+}
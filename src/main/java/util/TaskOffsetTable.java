@@ -0,0 +1,322 @@
+package util;
+
+import model.task.Task;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+// Id -> (byte offset, length) of every task block in a plain-text tasks file, sorted by id,
+// so a single task can be read and parsed without loading the rest of the file.
+// Saved as an IndexCheckpoint of the tasks file; a table that no longer matches its tasks
+// file is ignored. Startup checks the table against the file's stamp (size, modification time
+// and store generation) recorded at write time, so it does not read the file; the full CRC
+// check is left to verify(), for a background thread.
+public class TaskOffsetTable {
+
+    private static final String CHECKPOINT_NAME = "offsets";
+    private static final int VERSION = 2;
+
+    private final long[] ids;
+    private final long[] offsets;
+    private final int[] lengths;
+    // the tasks file the table was built for; null if built, not loaded
+    private final FileStamp stamp;
+
+    private TaskOffsetTable(long[] ids, long[] offsets, int[] lengths, FileStamp stamp) {
+        this.ids = ids;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.stamp = stamp;
+    }
+
+    // Cheap identity of a tasks file: FileHandler bumps the store generation on every rewrite,
+    // which catches rewrites that keep the size within the modification time's resolution
+    static final class FileStamp {
+        private final long size;
+        private final long modifiedMillis;
+        private final long generation;
+
+        FileStamp(long size, long modifiedMillis, long generation) {
+            this.size = size;
+            this.modifiedMillis = modifiedMillis;
+            this.generation = generation;
+        }
+
+        // The current stamp; call with at least a shared lock on the store's FILE region
+        static FileStamp of(Path tasksFile) throws IOException {
+            return of(tasksFile, TaskStoreLock.forFile(tasksFile).readGeneration().getFileGeneration());
+        }
+
+        static FileStamp of(Path tasksFile, long generation) throws IOException {
+            return new FileStamp(Files.size(tasksFile), Files.getLastModifiedTime(tasksFile).toMillis(), generation);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FileStamp that = (FileStamp) o;
+            return size == that.size && modifiedMillis == that.modifiedMillis && generation == that.generation;
+        }
+
+        @Override
+        public int hashCode() {
+            return (Long.hashCode(size) * 31 + Long.hashCode(modifiedMillis)) * 31 + Long.hashCode(generation);
+        }
+    }
+
+    public static class Builder {
+        private long[] ids;
+        private long[] offsets;
+        private int[] lengths;
+        private int size;
+
+        public Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            ids = new long[capacity];
+            offsets = new long[capacity];
+            lengths = new int[capacity];
+        }
+
+        public void add(long id, long offset, int length) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+            ids[size] = id;
+            offsets[size] = offset;
+            lengths[size] = length;
+            size++;
+        }
+
+        public TaskOffsetTable build() {
+            long[] sortedIds = Arrays.copyOf(ids, size);
+            long[] sortedOffsets = Arrays.copyOf(offsets, size);
+            int[] sortedLengths = Arrays.copyOf(lengths, size);
+            sort(sortedIds, sortedOffsets, sortedLengths, 0, size - 1);
+            return new TaskOffsetTable(sortedIds, sortedOffsets, sortedLengths, null);
+        }
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean contains(long id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    // Reads and parses one task block; null if the id is not in the table
+    public Task readTask(RandomAccessFile tasksFile, long id) throws IOException {
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return null;
+        }
+        byte[] block = new byte[lengths[index]];
+        tasksFile.seek(offsets[index]);
+        tasksFile.readFully(block);
+        return FileHandler.parseTaskBlock(new String(block, Charset.defaultCharset()));
+    }
+
+    public static Path tableFileFor(Path tasksFile) {
+        return IndexCheckpoint.checkpointFileFor(tasksFile, CHECKPOINT_NAME);
+    }
+
+    void save(Path tasksFile, IndexCheckpoint.StoreFingerprint store, FileStamp fileStamp) throws IOException {
+        IndexCheckpoint.save(tasksFile, CHECKPOINT_NAME, VERSION, store, out -> {
+            out.writeLong(fileStamp.size);
+            out.writeLong(fileStamp.modifiedMillis);
+            out.writeLong(fileStamp.generation);
+            out.writeInt(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                out.writeLong(ids[i]);
+                out.writeLong(offsets[i]);
+                out.writeInt(lengths[i]);
+            }
+        });
+    }
+
+    // The saved table if the tasks file still has the content it was taken from (full CRC),
+    // otherwise null
+    public static TaskOffsetTable load(Path tasksFile) throws IOException {
+        return load(tasksFile, IndexCheckpoint.StoreFingerprint.of(tasksFile));
+    }
+
+    // store null: the caller checks the stamp instead of the content
+    private static TaskOffsetTable load(Path tasksFile, IndexCheckpoint.StoreFingerprint store) {
+        return IndexCheckpoint.load(tasksFile, CHECKPOINT_NAME, VERSION, store, in -> {
+            FileStamp fileStamp = new FileStamp(in.readLong(), in.readLong(), in.readLong());
+            int count = in.readInt();
+            long[] ids = new long[count];
+            long[] offsets = new long[count];
+            int[] lengths = new int[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = in.readLong();
+                offsets[i] = in.readLong();
+                lengths[i] = in.readInt();
+            }
+            return new TaskOffsetTable(ids, offsets, lengths, fileStamp);
+        });
+    }
+
+    // Loads the saved table if the file's stamp is unchanged, otherwise scans the tasks file
+    // (checksumming it in the same pass) and saves a fresh one. Call with at least a shared
+    // lock on the store's FILE region.
+    public static TaskOffsetTable loadOrBuild(Path tasksFile) throws IOException {
+        FileStamp fileStamp = FileStamp.of(tasksFile);
+        TaskOffsetTable table = load(tasksFile, null);
+        if (table != null && fileStamp.equals(table.stamp)) {
+            return table;
+        }
+        CRC32 crc = new CRC32();
+        table = scan(tasksFile, crc);
+        // only if the file did not change during the scan
+        if (fileStamp.equals(FileStamp.of(tasksFile))) {
+            table.save(tasksFile, new IndexCheckpoint.StoreFingerprint(fileStamp.size, crc.getValue()), fileStamp);
+        }
+        return table;
+    }
+
+    // Checks the saved table against the full content of the tasks file and deletes it if it
+    // does not match, e.g. after an edit that kept the stamp, so the next start rebuilds it.
+    // Reads the whole file: meant for a background thread once the table is no longer in use.
+    public static boolean verify(Path tasksFile) throws IOException {
+        if (load(tasksFile) != null) {
+            return true;
+        }
+        IndexCheckpoint.delete(tasksFile, CHECKPOINT_NAME);
+        return false;
+    }
+
+    // Byte-level scan for block boundaries and ID lines, using the same block rule as
+    // FileHandler.readTasksFromFile (a line starting with "task" opens a block). Much cheaper
+    // than parsing the blocks.
+    public static TaskOffsetTable build(Path tasksFile) throws IOException {
+        return scan(tasksFile, new CRC32());
+    }
+
+    private static TaskOffsetTable scan(Path tasksFile, CRC32 crc) throws IOException {
+        Builder builder = new Builder(1024);
+        try (InputStream in = Files.newInputStream(tasksFile)) {
+            byte[] buffer = new byte[65536];
+            byte[] line = new byte[64]; // only line prefixes matter
+            int lineLength = 0;
+            long lineStart = 0;
+            long position = 0;
+            long blockStart = -1;
+            long blockId = -1;
+            int read;
+            while (true) {
+                read = in.read(buffer);
+                if (read > 0) {
+                    crc.update(buffer, 0, read);
+                }
+                // a final pass with read < 0 ends the last line
+                int end = read < 0 ? 1 : read;
+                for (int i = 0; i < end; i++) {
+                    if (read >= 0 && buffer[i] != '\n') {
+                        if (lineLength < line.length) {
+                            line[lineLength++] = buffer[i];
+                        }
+                        position++;
+                        continue;
+                    }
+                    int start = 0;
+                    while (start < lineLength && line[start] <= ' ') {
+                        start++;
+                    }
+                    if (startsWith(line, start, lineLength, "task")) {
+                        if (blockStart >= 0 && blockId >= 0) {
+                            builder.add(blockId, blockStart, (int) (lineStart - blockStart));
+                        }
+                        blockStart = lineStart;
+                        blockId = -1;
+                    } else if (blockId < 0 && startsWith(line, 0, lineLength, "ID:")) {
+                        blockId = parseId(line, 3, lineLength);
+                    }
+                    if (read >= 0) {
+                        position++;
+                    }
+                    lineStart = position;
+                    lineLength = 0;
+                }
+                if (read < 0) {
+                    break;
+                }
+            }
+            if (blockStart >= 0 && blockId >= 0) {
+                builder.add(blockId, blockStart, (int) (position - blockStart));
+            }
+        }
+        return builder.build();
+    }
+
+    private static boolean startsWith(byte[] line, int from, int length, String prefix) {
+        if (length - from < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (line[from + i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseId(byte[] line, int from, int length) {
+        long id = 0;
+        int digits = 0;
+        for (int i = from; i < length && line[i] >= '0' && line[i] <= '9'; i++) {
+            id = id * 10 + (line[i] - '0');
+            digits++;
+        }
+        return digits > 0 ? id : -1;
+    }
+
+    // Quicksort of the three parallel arrays by id
+    private static void sort(long[] ids, long[] offsets, int[] lengths, int low, int high) {
+        while (low < high) {
+            long pivot = ids[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (ids[i] < pivot) {
+                    i++;
+                }
+                while (ids[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(ids, offsets, lengths, i++, j--);
+                }
+            }
+            // recurse into the smaller half, loop on the larger one
+            if (j - low < high - i) {
+                sort(ids, offsets, lengths, low, j);
+                low = i;
+            } else {
+                sort(ids, offsets, lengths, i, high);
+                high = j;
+            }
+        }
+    }
+
+    private static void swap(long[] ids, long[] offsets, int[] lengths, int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        long offset = offsets[a];
+        offsets[a] = offsets[b];
+        offsets[b] = offset;
+        int length = lengths[a];
+        lengths[a] = lengths[b];
+        lengths[b] = length;
+    }
+}
@@ -0,0 +1,275 @@
+package util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Coordinates processes sharing one tasks file through a small lock file next to it
+// ("tasks.lock"). The lock file has one 8-byte region per part of the store, each holding
+// that part's generation counter and guarded by FileChannel region locks:
+//  - FILE: the tasks file itself; its generation is bumped on every full rewrite
+//  - DELTAS: the delta log; its generation is bumped on every append
+// Readers lock a region shared and writers exclusive, so an append to the delta log does not
+// keep other processes from reading the tasks file. A JVM may hold only one lock per region,
+// so its threads share that lock and queue on a ReentrantReadWriteLock in front of it.
+// Locks are reentrant; always take FILE before DELTAS.
+public class TaskStoreLock {
+
+    public enum Region {
+        FILE(0), DELTAS(8);
+
+        private final long position;
+
+        Region(long position) {
+            this.position = position;
+        }
+    }
+
+    private static final Map<Path, TaskStoreLock> LOCKS = new ConcurrentHashMap<>();
+
+    private final Path lockFile;
+    private final FileChannel channel;
+    private final RegionLock[] regions;
+
+    private TaskStoreLock(Path lockFile) throws IOException {
+        this.lockFile = lockFile;
+        this.channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.regions = new RegionLock[Region.values().length];
+        for (Region region : Region.values()) {
+            regions[region.ordinal()] = new RegionLock(region.position);
+        }
+    }
+
+    public static Path lockFileFor(Path tasksFile) {
+        return tasksFile.resolveSibling(tasksFile.getFileName() + ".lock");
+    }
+
+    // The lock of the given tasks file, shared by every caller in this JVM
+    public static TaskStoreLock forFile(Path tasksFile) throws IOException {
+        Path lockFile = lockFileFor(tasksFile.toAbsolutePath().normalize());
+        TaskStoreLock lock = LOCKS.get(lockFile);
+        if (lock == null) {
+            synchronized (LOCKS) {
+                lock = LOCKS.get(lockFile);
+                if (lock == null) {
+                    lock = new TaskStoreLock(lockFile);
+                    LOCKS.put(lockFile, lock);
+                }
+            }
+        }
+        return lock;
+    }
+
+    public Path getLockFile() {
+        return lockFile;
+    }
+
+    public Hold lock(Region region, boolean exclusive) throws IOException {
+        Hold hold = new Hold(1);
+        hold.acquire(regions[region.ordinal()], exclusive);
+        return hold;
+    }
+
+    // Both regions, FILE first
+    public Hold lock(boolean exclusiveFile, boolean exclusiveDeltas) throws IOException {
+        Hold hold = new Hold(2);
+        try {
+            hold.acquire(regions[Region.FILE.ordinal()], exclusiveFile);
+            hold.acquire(regions[Region.DELTAS.ordinal()], exclusiveDeltas);
+        } catch (IOException | RuntimeException e) {
+            hold.close();
+            throw e;
+        }
+        return hold;
+    }
+
+    // Both counters, read under a shared lock (or the caller's own lock)
+    public Generation readGeneration() throws IOException {
+        try (Hold ignored = lock(false, false)) {
+            return new Generation(readCounter(Region.FILE), readCounter(Region.DELTAS));
+        }
+    }
+
+    // Increments the region's counter; the caller must hold the region exclusively
+    public long bump(Region region) throws IOException {
+        if (!regions[region.ordinal()].local.isWriteLockedByCurrentThread()) {
+            throw new IllegalStateException("Region " + region + " of " + lockFile + " is not locked exclusively.");
+        }
+        long generation = readCounter(region) + 1;
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        buffer.putLong(0, generation);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, region.position + buffer.position());
+        }
+        return generation;
+    }
+
+    private long readCounter(Region region) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, region.position + buffer.position()) < 0) {
+                return 0; // never written
+            }
+        }
+        return buffer.getLong(0);
+    }
+
+    // One process-wide lock on a region of the lock file
+    private final class RegionLock {
+        final long position;
+        final ReentrantReadWriteLock local = new ReentrantReadWriteLock();
+        // guarded by this
+        FileLock fileLock;
+        int sharedHolders;
+
+        RegionLock(long position) {
+            this.position = position;
+        }
+
+        // Returns whether the caller took part in the file lock and must release it
+        boolean lockShared() throws IOException {
+            local.readLock().lock();
+            if (local.isWriteLockedByCurrentThread()) {
+                return false; // covered by this thread's exclusive lock
+            }
+            synchronized (this) {
+                if (sharedHolders == 0) {
+                    try {
+                        fileLock = channel.lock(position, 8, true);
+                    } catch (IOException | RuntimeException e) {
+                        local.readLock().unlock();
+                        throw e;
+                    }
+                }
+                sharedHolders++;
+            }
+            return true;
+        }
+
+        void unlockShared(boolean counted) {
+            try {
+                if (counted) {
+                    synchronized (this) {
+                        if (--sharedHolders == 0) {
+                            releaseFileLock();
+                        }
+                    }
+                }
+            } finally {
+                local.readLock().unlock();
+            }
+        }
+
+        boolean lockExclusive() throws IOException {
+            if (local.getReadHoldCount() > 0 && !local.isWriteLockedByCurrentThread()) {
+                throw new IllegalStateException("Cannot lock " + lockFile + " exclusively while holding it shared.");
+            }
+            local.writeLock().lock();
+            if (local.getWriteHoldCount() > 1) {
+                return false;
+            }
+            try {
+                fileLock = channel.lock(position, 8, false);
+            } catch (IOException | RuntimeException e) {
+                local.writeLock().unlock();
+                throw e;
+            }
+            return true;
+        }
+
+        void unlockExclusive(boolean counted) {
+            try {
+                if (counted) {
+                    releaseFileLock();
+                }
+            } finally {
+                local.writeLock().unlock();
+            }
+        }
+
+        private void releaseFileLock() {
+            try {
+                fileLock.release();
+            } catch (IOException e) {
+                System.err.println("Error releasing lock on " + lockFile + ": " + e.getMessage());
+            }
+            fileLock = null;
+        }
+    }
+
+    // Regions locked together; released in reverse order by close()
+    public final class Hold implements AutoCloseable {
+        private final RegionLock[] held;
+        private final boolean[] exclusive;
+        private final boolean[] counted;
+        private int count;
+
+        private Hold(int capacity) {
+            held = new RegionLock[capacity];
+            exclusive = new boolean[capacity];
+            counted = new boolean[capacity];
+        }
+
+        private void acquire(RegionLock region, boolean exclusiveLock) throws IOException {
+            counted[count] = exclusiveLock ? region.lockExclusive() : region.lockShared();
+            exclusive[count] = exclusiveLock;
+            held[count++] = region;
+        }
+
+        @Override
+        public void close() {
+            while (count > 0) {
+                count--;
+                if (exclusive[count]) {
+                    held[count].unlockExclusive(counted[count]);
+                } else {
+                    held[count].unlockShared(counted[count]);
+                }
+            }
+        }
+    }
+
+    // Counters of the store's parts. A process compares the generation it last synced with
+    // against the current one to tell whether, and which part of, the store changed.
+    public static final class Generation {
+        private final long fileGeneration;
+        private final long deltaGeneration;
+
+        public Generation(long fileGeneration, long deltaGeneration) {
+            this.fileGeneration = fileGeneration;
+            this.deltaGeneration = deltaGeneration;
+        }
+
+        public long getFileGeneration() {
+            return fileGeneration;
+        }
+
+        public long getDeltaGeneration() {
+            return deltaGeneration;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Generation)) return false;
+            Generation other = (Generation) o;
+            return fileGeneration == other.fileGeneration && deltaGeneration == other.deltaGeneration;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(fileGeneration) * 31 + Long.hashCode(deltaGeneration);
+        }
+
+        @Override
+        public String toString() {
+            return fileGeneration + "." + deltaGeneration;
+        }
+    }
+}
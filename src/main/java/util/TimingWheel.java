@@ -0,0 +1,194 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hierarchical timing wheel: LEVELS wheels of SLOTS buckets each, level n ticking SLOTS
+// times slower than level n-1. Scheduling and cancelling are O(1) (a bucket is an intrusive
+// doubly linked list), and advancing touches only the buckets whose time has come; entries
+// in a coarse bucket are cascaded into finer levels when that bucket comes due.
+// Deadlines beyond the top level's range park in the top level and are re-placed on cascade.
+// Not thread-safe; callers synchronize.
+public class TimingWheel<T> {
+
+    private static final int SLOTS = 64;
+    private static final int LEVELS = 4;
+
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadline;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+        private Bucket<T> bucket;
+
+        private Timeout(T payload, long deadline) {
+            this.payload = payload;
+            this.deadline = deadline;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public boolean isPending() {
+            return bucket != null;
+        }
+    }
+
+    private static final class Bucket<T> {
+        private Timeout<T> head;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.previous = null;
+            timeout.next = head;
+            if (head != null) {
+                head.previous = timeout;
+            }
+            head = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+
+        // Detaches and returns the whole list
+        Timeout<T> drain() {
+            Timeout<T> first = head;
+            head = null;
+            return first;
+        }
+    }
+
+    private final long tickMillis;
+    private final long[] levelTicks = new long[LEVELS];
+    private final List<Bucket<T>[]> levels = new ArrayList<>(LEVELS);
+    private final Bucket<T> expired = new Bucket<>();
+    private long currentTime;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive.");
+        }
+        this.tickMillis = tickMillis;
+        long tick = tickMillis;
+        for (int level = 0; level < LEVELS; level++) {
+            levelTicks[level] = tick;
+            Bucket<T>[] buckets = (Bucket<T>[]) new Bucket<?>[SLOTS];
+            for (int slot = 0; slot < SLOTS; slot++) {
+                buckets[slot] = new Bucket<>();
+            }
+            levels.add(buckets);
+            tick *= SLOTS;
+        }
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+    }
+
+    public Timeout<T> schedule(T payload, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(payload, deadlineMillis);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout == null || timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.remove(timeout);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getCurrentTime() {
+        return currentTime;
+    }
+
+    // Moves the wheel forward to nowMillis and returns the payloads whose deadline is
+    // <= nowMillis, in no particular order
+    public List<T> advanceTo(long nowMillis) {
+        List<T> due = new ArrayList<>();
+        drainExpired(due);
+        while (currentTime + tickMillis <= nowMillis) {
+            if (size == 0) {
+                // nothing to cascade or fire; jump straight to now
+                currentTime = nowMillis - Math.floorMod(nowMillis, tickMillis);
+                break;
+            }
+            currentTime += tickMillis;
+            // coarse levels first, so cascaded entries land in the finer buckets handled below
+            for (int level = LEVELS - 1; level >= 0; level--) {
+                long tick = levelTicks[level];
+                if (Math.floorMod(currentTime, tick) != 0) {
+                    continue;
+                }
+                Bucket<T> bucket = levels.get(level)[(int) Math.floorMod(currentTime / tick, (long) SLOTS)];
+                Timeout<T> timeout = bucket.drain();
+                while (timeout != null) {
+                    Timeout<T> next = timeout.next;
+                    timeout.bucket = null;
+                    place(timeout);
+                    timeout = next;
+                }
+            }
+            drainExpired(due);
+        }
+        return due;
+    }
+
+    private void drainExpired(List<T> due) {
+        Timeout<T> timeout = expired.drain();
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+            due.add(timeout.payload);
+            size--;
+            timeout = next;
+        }
+    }
+
+    // Bucket for the deadline relative to currentTime. Deadlines are rounded up to a whole
+    // tick, so an entry never fires before its deadline. Level n holds deadlines less than
+    // SLOTS ticks of that level ahead; a bucket is drained when currentTime reaches its start.
+    private void place(Timeout<T> timeout) {
+        long deadline = timeout.deadline + Math.floorMod(-timeout.deadline, tickMillis);
+        if (deadline <= currentTime) {
+            expired.add(timeout);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            long tick = levelTicks[level];
+            long levelStart = currentTime - Math.floorMod(currentTime, tick);
+            if (deadline < levelStart + tick * SLOTS) {
+                levels.get(level)[(int) Math.floorMod(deadline / tick, (long) SLOTS)].add(timeout);
+                return;
+            }
+        }
+        // beyond the top level: park in its last bucket and re-place when that comes due
+        long topTick = levelTicks[LEVELS - 1];
+        long parkedTime = currentTime - Math.floorMod(currentTime, topTick) + topTick * (SLOTS - 1);
+        levels.get(LEVELS - 1)[(int) Math.floorMod(parkedTime / topTick, (long) SLOTS)].add(timeout);
+    }
+}
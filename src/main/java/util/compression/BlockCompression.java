@@ -0,0 +1,135 @@
+package util.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+// Block framing for compressed files: data is cut into independent blocks, each written as
+// [magic][codec id][raw length][compressed length][bytes]. Blocks carry their own codec and
+// sizes, so frames can be appended to a file one at a time and decoded in parallel.
+public class BlockCompression {
+
+    public static final int MAGIC = 0x54424C4B; // "TBLK"
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+    private static final int HEADER_SIZE = 13;
+
+    public static boolean isCompressed(byte[] data) {
+        return data.length >= 4 && readInt(data, 0) == MAGIC;
+    }
+
+    public static byte[] compress(byte[] data, CompressionCodec codec) {
+        return compress(data, 0, data.length, codec, DEFAULT_BLOCK_SIZE);
+    }
+
+    public static byte[] compress(final byte[] data, int offset, int length, final CompressionCodec codec, int blockSize) {
+        List<CompletableFuture<byte[]>> blocks = new ArrayList<>();
+        for (int start = offset; start < offset + length; start += blockSize) {
+            final int blockStart = start;
+            final int blockLength = Math.min(blockSize, offset + length - start);
+            blocks.add(submit(() -> codec.compress(data, blockStart, blockLength), blocks.isEmpty() && length <= blockSize));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2 + HEADER_SIZE);
+        try {
+            DataOutputStream frames = new DataOutputStream(out);
+            int start = offset;
+            for (CompletableFuture<byte[]> block : blocks) {
+                int blockLength = Math.min(blockSize, offset + length - start);
+                writeFrameHeader(frames, codec, blockLength, block.join().length);
+                frames.write(block.join());
+                start += blockLength;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // cannot happen on a byte array
+        }
+        return out.toByteArray();
+    }
+
+    // Writes a single frame, e.g. one flush of an append-only log
+    public static void writeFrame(OutputStream out, CompressionCodec codec, byte[] data, int offset, int length) throws IOException {
+        byte[] compressed = codec.compress(data, offset, length);
+        DataOutputStream frame = new DataOutputStream(out);
+        writeFrameHeader(frame, codec, length, compressed.length);
+        frame.write(compressed);
+    }
+
+    public static byte[] decompress(byte[] framed) {
+        List<int[]> frames = new ArrayList<>(); // {dataOffset, compressedLength, rawLength, codecId}
+        int position = 0;
+        long totalLength = 0;
+        while (position < framed.length) {
+            if (framed.length - position < HEADER_SIZE || readInt(framed, position) != MAGIC) {
+                throw new IllegalStateException("Corrupt compressed data at byte " + position);
+            }
+            int codecId = framed[position + 4];
+            int rawLength = readInt(framed, position + 5);
+            int compressedLength = readInt(framed, position + 9);
+            frames.add(new int[]{position + HEADER_SIZE, compressedLength, rawLength, codecId});
+            position += HEADER_SIZE + compressedLength;
+            totalLength += rawLength;
+        }
+        if (position != framed.length) {
+            throw new IllegalStateException("Truncated compressed data");
+        }
+
+        final byte[] output = new byte[(int) totalLength];
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        int outputOffset = 0;
+        for (final int[] frame : frames) {
+            final int target = outputOffset;
+            pending.add(submit(() -> {
+                byte[] raw = CompressionCodecs.forId((byte) frame[3]).decompress(framed, frame[0], frame[1], frame[2]);
+                System.arraycopy(raw, 0, output, target, raw.length);
+                return null;
+            }, frames.size() == 1));
+            outputOffset += frame[2];
+        }
+        for (CompletableFuture<Void> block : pending) {
+            block.join();
+        }
+        return output;
+    }
+
+    // Reads the next frame from a stream and returns its decompressed bytes, or null at end of stream
+    public static byte[] readFrame(InputStream in) throws IOException {
+        DataInputStream frame = new DataInputStream(in);
+        int magic;
+        try {
+            magic = frame.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (magic != MAGIC) {
+            throw new IOException("not a compressed block");
+        }
+        CompressionCodec codec = CompressionCodecs.forId(frame.readByte());
+        int rawLength = frame.readInt();
+        byte[] compressed = new byte[frame.readInt()];
+        frame.readFully(compressed);
+        return codec.decompress(compressed, 0, compressed.length, rawLength);
+    }
+
+    private static void writeFrameHeader(DataOutputStream out, CompressionCodec codec, int rawLength, int compressedLength) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(codec.getId());
+        out.writeInt(rawLength);
+        out.writeInt(compressedLength);
+    }
+
+    private static <T> CompletableFuture<T> submit(Supplier<T> work, boolean inline) {
+        // a single block is not worth a trip through the pool
+        return inline ? CompletableFuture.completedFuture(work.get()) : CompletableFuture.supplyAsync(work);
+    }
+
+    private static int readInt(byte[] data, int position) {
+        return ((data[position] & 0xff) << 24) | ((data[position + 1] & 0xff) << 16)
+                | ((data[position + 2] & 0xff) << 8) | (data[position + 3] & 0xff);
+    }
+}
@@ -0,0 +1,13 @@
+package util.compression;
+
+public interface CompressionCodec {
+
+    // Stored in every block frame so readers know how to decode it
+    byte getId();
+
+    String getName();
+
+    byte[] compress(byte[] input, int offset, int length);
+
+    byte[] decompress(byte[] input, int offset, int length, int rawLength);
+}
@@ -0,0 +1,32 @@
+package util.compression;
+
+public class CompressionCodecs {
+
+    public static final CompressionCodec DEFLATE = new DeflateCodec();
+    public static final CompressionCodec LZ = new LzCodec();
+
+    public static CompressionCodec forId(byte id) {
+        switch (id) {
+            case DeflateCodec.ID:
+                return DEFLATE;
+            case LzCodec.ID:
+                return LZ;
+            default:
+                throw new IllegalArgumentException("Unknown compression codec id: " + id);
+        }
+    }
+
+    // "none" (or null) means no compression
+    public static CompressionCodec forName(String name) {
+        if (name == null || name.equalsIgnoreCase("none")) {
+            return null;
+        }
+        if (name.equalsIgnoreCase(DEFLATE.getName())) {
+            return DEFLATE;
+        }
+        if (name.equalsIgnoreCase(LZ.getName())) {
+            return LZ;
+        }
+        throw new IllegalArgumentException("Unknown compression codec: " + name);
+    }
+}
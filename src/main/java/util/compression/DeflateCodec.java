@@ -0,0 +1,76 @@
+package util.compression;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public class DeflateCodec implements CompressionCodec {
+
+    public static final byte ID = 1;
+
+    private final int level;
+
+    public DeflateCodec() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public DeflateCodec(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return "deflate";
+    }
+
+    @Override
+    public byte[] compress(byte[] input, int offset, int length) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(input, offset, length);
+            deflater.finish();
+            byte[] output = new byte[length + (length >> 3) + 64];
+            int size = 0;
+            while (!deflater.finished()) {
+                if (size == output.length) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                size += deflater.deflate(output, size, output.length - size);
+            }
+            return Arrays.copyOf(output, size);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public byte[] decompress(byte[] input, int offset, int length, int rawLength) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input, offset, length);
+            byte[] output = new byte[rawLength];
+            int size = 0;
+            while (size < rawLength) {
+                int inflated = inflater.inflate(output, size, rawLength - size);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                size += inflated;
+            }
+            if (size != rawLength) {
+                throw new IllegalStateException("Corrupt deflate block: expected " + rawLength + " bytes, got " + size);
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt deflate block: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
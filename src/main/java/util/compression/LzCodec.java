@@ -0,0 +1,148 @@
+package util.compression;
+
+import java.util.Arrays;
+
+// Small LZ77 codec in the spirit of LZ4: greedy matching through a 4-byte hash table and
+// sequences of (token, literals, 2-byte offset, extra length). Much faster than Deflate,
+// and the task file's repeated labels and enum names still compress well.
+public class LzCodec implements CompressionCodec {
+
+    public static final byte ID = 2;
+
+    private static final int MIN_MATCH = 4;
+    private static final int HASH_BITS = 14;
+    private static final int MAX_OFFSET = 65535;
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return "lz";
+    }
+
+    @Override
+    public byte[] compress(byte[] input, int offset, int length) {
+        int end = offset + length;
+        byte[] output = new byte[length + length / 255 + 16];
+        int[] table = new int[1 << HASH_BITS];
+        Arrays.fill(table, -1);
+
+        int op = 0;
+        int anchor = offset;
+        int ip = offset;
+        int matchLimit = end - MIN_MATCH;
+        while (ip <= matchLimit) {
+            int sequence = readInt(input, ip);
+            int hash = (sequence * -1640531535) >>> (32 - HASH_BITS);
+            int ref = table[hash];
+            table[hash] = ip;
+            if (ref < 0 || ip - ref > MAX_OFFSET || readInt(input, ref) != sequence) {
+                // skip faster through data that does not compress
+                ip += 1 + ((ip - anchor) >>> 6);
+                continue;
+            }
+            int matchLength = MIN_MATCH;
+            while (ip + matchLength < end && input[ref + matchLength] == input[ip + matchLength]) {
+                matchLength++;
+            }
+            op = writeSequence(output, op, input, anchor, ip - anchor, ip - ref, matchLength);
+            ip += matchLength;
+            anchor = ip;
+        }
+        op = writeLastLiterals(output, op, input, anchor, end - anchor);
+        return Arrays.copyOf(output, op);
+    }
+
+    @Override
+    public byte[] decompress(byte[] input, int offset, int length, int rawLength) {
+        byte[] output = new byte[rawLength];
+        int ip = offset;
+        int end = offset + length;
+        int op = 0;
+        try {
+            while (ip < end) {
+                int token = input[ip++] & 0xff;
+                int literalLength = token >>> 4;
+                if (literalLength == 15) {
+                    int extra;
+                    do {
+                        extra = input[ip++] & 0xff;
+                        literalLength += extra;
+                    } while (extra == 255);
+                }
+                System.arraycopy(input, ip, output, op, literalLength);
+                ip += literalLength;
+                op += literalLength;
+                if (ip >= end) {
+                    break; // the last sequence carries literals only
+                }
+                int matchOffset = (input[ip] & 0xff) | ((input[ip + 1] & 0xff) << 8);
+                ip += 2;
+                int matchLength = token & 0x0f;
+                if (matchLength == 15) {
+                    int extra;
+                    do {
+                        extra = input[ip++] & 0xff;
+                        matchLength += extra;
+                    } while (extra == 255);
+                }
+                matchLength += MIN_MATCH;
+                int ref = op - matchOffset;
+                if (ref < 0 || matchOffset == 0) {
+                    throw new IllegalStateException("Corrupt lz block: bad match offset " + matchOffset);
+                }
+                // byte by byte: the match may overlap the bytes it produces
+                for (int i = 0; i < matchLength; i++) {
+                    output[op++] = output[ref++];
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalStateException("Corrupt lz block", e);
+        }
+        if (op != rawLength) {
+            throw new IllegalStateException("Corrupt lz block: expected " + rawLength + " bytes, got " + op);
+        }
+        return output;
+    }
+
+    private static int writeSequence(byte[] output, int op, byte[] input, int literalStart, int literalLength, int matchOffset, int matchLength) {
+        int matchCode = matchLength - MIN_MATCH;
+        int tokenPosition = op++;
+        int token = (Math.min(literalLength, 15) << 4) | Math.min(matchCode, 15);
+        output[tokenPosition] = (byte) token;
+        op = writeLength(output, op, literalLength);
+        System.arraycopy(input, literalStart, output, op, literalLength);
+        op += literalLength;
+        output[op++] = (byte) matchOffset;
+        output[op++] = (byte) (matchOffset >>> 8);
+        return writeLength(output, op, matchCode);
+    }
+
+    private static int writeLastLiterals(byte[] output, int op, byte[] input, int literalStart, int literalLength) {
+        output[op++] = (byte) (Math.min(literalLength, 15) << 4);
+        op = writeLength(output, op, literalLength);
+        System.arraycopy(input, literalStart, output, op, literalLength);
+        return op + literalLength;
+    }
+
+    // Lengths of 15 and more continue in bytes of 255 plus a final remainder byte
+    private static int writeLength(byte[] output, int op, int length) {
+        if (length >= 15) {
+            int remaining = length - 15;
+            while (remaining >= 255) {
+                output[op++] = (byte) 255;
+                remaining -= 255;
+            }
+            output[op++] = (byte) remaining;
+        }
+        return op;
+    }
+
+    private static int readInt(byte[] input, int position) {
+        return (input[position] & 0xff) | ((input[position + 1] & 0xff) << 8)
+                | ((input[position + 2] & 0xff) << 16) | ((input[position + 3] & 0xff) << 24);
+    }
+}
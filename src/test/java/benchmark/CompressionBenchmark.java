@@ -0,0 +1,93 @@
+package benchmark;
+
+import model.task.*;
+import util.FileHandler;
+import util.compression.CompressionCodec;
+import util.compression.CompressionCodecs;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Compression ratio vs. save/load throughput of the tasks file for each codec.
+// Run with: java -cp target/classes:target/test-classes benchmark.CompressionBenchmark [taskCount]
+public class CompressionBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Set<Task> tasks = generateTasks(taskCount);
+        Path file = Files.createTempFile("tasks-benchmark", ".tmp");
+        CompressionCodec[] codecs = {null, CompressionCodecs.DEFLATE, CompressionCodecs.LZ};
+
+        PrintStream console = System.out;
+        long plainSize = -1;
+        console.printf("%d tasks, best of %d rounds%n", taskCount, ROUNDS);
+        console.printf("%-8s %12s %7s %14s %14s%n", "codec", "file bytes", "ratio", "save MB/s", "load MB/s");
+        try {
+            for (CompressionCodec codec : codecs) {
+                FileHandler.setCompressionCodec(codec);
+                long bestSave = Long.MAX_VALUE;
+                long bestLoad = Long.MAX_VALUE;
+                for (int round = 0; round < ROUNDS; round++) {
+                    System.setOut(new PrintStream(new NullOutputStream()));
+                    long start = System.nanoTime();
+                    FileHandler.writeTasksToFile(tasks, file);
+                    bestSave = Math.min(bestSave, System.nanoTime() - start);
+
+                    start = System.nanoTime();
+                    Set<Task> loaded = FileHandler.readTasksFromFile(file);
+                    bestLoad = Math.min(bestLoad, System.nanoTime() - start);
+                    System.setOut(console);
+                    if (loaded.size() != taskCount) {
+                        throw new IllegalStateException("Loaded " + loaded.size() + " of " + taskCount + " tasks");
+                    }
+                }
+                long size = Files.size(file);
+                if (codec == null) {
+                    plainSize = size;
+                }
+                console.printf("%-8s %12d %6.2fx %14.1f %14.1f%n",
+                        codec == null ? "none" : codec.getName(), size, (double) plainSize / size,
+                        megabytesPerSecond(plainSize, bestSave), megabytesPerSecond(plainSize, bestLoad));
+            }
+        } finally {
+            System.setOut(console);
+            FileHandler.setCompressionCodec(null);
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Set<Task> generateTasks(int count) {
+        Set<Task> tasks = new TreeSet<>();
+        Priority[] priorities = Priority.values();
+        LocalDate today = LocalDate.now();
+        for (int i = 1; i <= count; i++) {
+            tasks.add(TaskCreator.createTask(i, "Task number " + i, "Description of task " + (i % 97),
+                    today.plusDays(i % 365), priorities[i % priorities.length],
+                    i % 4 == 0 ? Status.COMPLETED : Status.PENDING,
+                    i % 2 == 0 ? Category.WORK : Category.PERSONAL, today.minusDays(i % 30)));
+        }
+        return tasks;
+    }
+
+    // throughput measured on the uncompressed size, so codecs are comparable
+    private static double megabytesPerSecond(long bytes, long nanos) {
+        return bytes / (1024.0 * 1024.0) / (nanos / 1_000_000_000.0);
+    }
+
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
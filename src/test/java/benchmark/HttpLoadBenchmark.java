@@ -0,0 +1,168 @@
+package benchmark;
+
+import model.task.*;
+import service.TaskManagerImpl;
+import service.async.AsyncTaskManagerImpl;
+import service.http.TaskHttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Closed-loop load test of TaskHttpServer over localhost: each client thread sends its next
+// request as soon as the previous one is answered, on a kept-alive connection. 90% of the
+// requests read a random task, 10% create one. The manager is in-memory, so this measures the
+// HTTP and dispatch path rather than file writes.
+// Run with: java -cp target/classes:target/test-classes benchmark.HttpLoadBenchmark [tasks] [clients] [seconds] [workers]
+// (workers: thread pool size, default a virtual thread per request where available)
+public class HttpLoadBenchmark {
+
+    private static final int WARM_UP_SECONDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        ExecutorService workers = args.length > 3
+                ? Executors.newFixedThreadPool(Integer.parseInt(args[3]))
+                : AsyncTaskManagerImpl.newDefaultExecutor();
+
+        // HttpURLConnection keeps only 5 idle connections per host by default
+        System.setProperty("http.maxConnections", String.valueOf(clients));
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(new NullOutputStream()));
+        TaskManagerImpl taskManager = new TaskManagerImpl(new ArrayList<>());
+        List<TaskDraft> drafts = new ArrayList<>(taskCount);
+        LocalDate today = LocalDate.now();
+        for (int i = 1; i <= taskCount; i++) {
+            drafts.add(new TaskDraft("Task number " + i, "Description of task " + (i % 97), today.plusDays(i % 365),
+                    Priority.MEDIUM, Status.PENDING, Category.WORK, today));
+        }
+        taskManager.createTasks(drafts, false);
+        TaskHttpServer server = new TaskHttpServer(new AsyncTaskManagerImpl(taskManager, workers),
+                new InetSocketAddress("127.0.0.1", 0), workers);
+        server.start();
+        String base = "http://127.0.0.1:" + server.getPort() + "/tasks";
+
+        AtomicInteger created = new AtomicInteger();
+        try {
+            run(base, taskCount, clients, WARM_UP_SECONDS, created);
+            long[][] latencies = run(base, taskCount, clients, seconds, created);
+            long[] all = merge(latencies);
+            System.setOut(console);
+            console.printf("%d tasks, %d clients, %d s, workers: %s%n", taskCount, clients, seconds,
+                    args.length > 3 ? args[3] + " threads" : "default executor");
+            console.printf("throughput %.0f requests/s%n", all.length / (double) seconds);
+            console.printf("latency ms  p50 %.3f  p90 %.3f  p99 %.3f  p99.9 %.3f  max %.3f%n",
+                    percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), percentile(all, 0.999),
+                    all[all.length - 1] / 1_000_000.0);
+        } finally {
+            System.setOut(console);
+            server.close();
+            workers.shutdown();
+        }
+    }
+
+    private static long[][] run(String base, int taskCount, int clients, int seconds, AtomicInteger created) throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long[][] latencies = new long[clients][];
+        Thread[] threads = new Thread[clients];
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            threads[c] = new Thread(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        if (random.nextInt(10) == 0) {
+                            request("POST", base, "{\"title\":\"Load " + created.incrementAndGet()
+                                    + "\",\"dueDate\":\"2030-01-01\",\"priority\":\"LOW\",\"category\":\"WORK\"}", 201);
+                        } else {
+                            request("GET", base + "/" + (1 + random.nextInt(taskCount)), null, 200);
+                        }
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Request failed: " + e.getMessage(), e);
+                    }
+                    if (count == samples.length) {
+                        samples = Arrays.copyOf(samples, count * 2);
+                    }
+                    samples[count++] = System.nanoTime() - start;
+                }
+                latencies[client] = Arrays.copyOf(samples, count);
+            }, "load-client-" + c);
+            threads[c].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return latencies;
+    }
+
+    private static void request(String method, String url, String body, int expectedStatus) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        if (status != expectedStatus) {
+            throw new IOException(method + " " + url + " returned " + status);
+        }
+        // reading the body to the end returns the connection to the keep-alive cache
+        byte[] buffer = new byte[1024];
+        try (InputStream in = connection.getInputStream()) {
+            while (in.read(buffer) != -1) {
+                // discard
+            }
+        }
+    }
+
+    private static long[] merge(long[][] latencies) {
+        int total = 0;
+        for (long[] samples : latencies) {
+            total += samples.length;
+        }
+        long[] all = new long[total];
+        int position = 0;
+        for (long[] samples : latencies) {
+            System.arraycopy(samples, 0, all, position, samples.length);
+            position += samples.length;
+        }
+        Arrays.sort(all);
+        return all;
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
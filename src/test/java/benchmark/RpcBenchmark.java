@@ -0,0 +1,133 @@
+package benchmark;
+
+import model.task.*;
+import service.TaskManagerImpl;
+import service.async.AsyncTaskManagerImpl;
+import service.rpc.TaskRpcClient;
+import service.rpc.TaskRpcServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Localhost throughput and latency of TaskRpcServer for random getTaskById calls, with
+// increasing pipeline depth: each connection sends `depth` requests, flushes once and waits
+// for all replies before the next round. The manager is in-memory.
+// Run with: java -cp target/classes:target/test-classes benchmark.RpcBenchmark [tasks] [connections] [seconds]
+public class RpcBenchmark {
+
+    private static final int[] DEPTHS = {1, 8, 64, 256};
+
+    public static void main(String[] args) throws Exception {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(new NullOutputStream()));
+        TaskManagerImpl taskManager = new TaskManagerImpl(new ArrayList<>());
+        List<TaskDraft> drafts = new ArrayList<>(taskCount);
+        LocalDate today = LocalDate.now();
+        for (int i = 1; i <= taskCount; i++) {
+            drafts.add(new TaskDraft("Task number " + i, "Description of task " + (i % 97), today.plusDays(i % 365),
+                    Priority.MEDIUM, Status.PENDING, Category.WORK, today));
+        }
+        taskManager.createTasks(drafts, false);
+        ExecutorService executor = AsyncTaskManagerImpl.newDefaultExecutor();
+        TaskRpcServer server = new TaskRpcServer(new AsyncTaskManagerImpl(taskManager, executor), new InetSocketAddress("127.0.0.1", 0));
+        server.start();
+        System.setOut(console);
+
+        console.printf("%d tasks, %d connections, %d s per depth%n", taskCount, connections, seconds);
+        console.printf("%6s %14s %10s %10s %10s %14s%n", "depth", "requests/s", "p50 ms", "p99 ms", "max ms", "direct buffers");
+        try {
+            for (int depth : DEPTHS) {
+                run(server.getPort(), taskCount, connections, depth, 1);
+                long[] latencies = run(server.getPort(), taskCount, connections, depth, seconds);
+                console.printf("%6d %14.0f %10.3f %10.3f %10.3f %14d%n", depth, latencies.length / (double) seconds,
+                        percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1_000_000.0,
+                        server.getAllocatedBufferCount());
+            }
+        } finally {
+            server.close();
+            executor.shutdown();
+        }
+    }
+
+    private static long[] run(int port, int taskCount, int connections, int depth, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long[][] latencies = new long[connections][];
+        Thread[] threads = new Thread[connections];
+        for (int c = 0; c < connections; c++) {
+            int connection = c;
+            threads[c] = new Thread(() -> {
+                long[] samples = new long[4096];
+                int count = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                List<CompletableFuture<Task>> round = new ArrayList<>(depth);
+                try (TaskRpcClient client = new TaskRpcClient("127.0.0.1", port)) {
+                    client.setAutoFlush(false);
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        for (int i = 0; i < depth; i++) {
+                            round.add(client.getTaskById(1 + random.nextInt(taskCount)));
+                        }
+                        client.flush();
+                        for (CompletableFuture<Task> reply : round) {
+                            if (reply.join() == null) {
+                                throw new IllegalStateException("Task not found");
+                            }
+                            if (count == samples.length) {
+                                samples = Arrays.copyOf(samples, count * 2);
+                            }
+                            samples[count++] = System.nanoTime() - start;
+                        }
+                        round.clear();
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException("Connection failed: " + e.getMessage(), e);
+                }
+                latencies[connection] = Arrays.copyOf(samples, count);
+            }, "rpc-benchmark-" + c);
+            threads[c].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        int total = 0;
+        for (long[] samples : latencies) {
+            total += samples.length;
+        }
+        long[] all = new long[total];
+        int position = 0;
+        for (long[] samples : latencies) {
+            System.arraycopy(samples, 0, all, position, samples.length);
+            position += samples.length;
+        }
+        Arrays.sort(all);
+        return all;
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package benchmark;
+
+import com.sun.management.GcInfo;
+import model.task.*;
+import model.user.Administrator;
+import model.user.Employee;
+import model.user.User;
+import service.TaskManagerImpl;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-loop load and soak test: simulated Employee and Administrator users drive an in-memory
+// TaskManagerImpl through their User objects at a fixed total request rate, with a weighted
+// mix of create/search/complete/delete. Keys are picked with a Zipfian distribution over the
+// seeded tasks, so a few tasks are hot.
+// Each user has a schedule of intended start times; latency is measured from the intended
+// start, not from when the user got round to sending, so a stall counts for every request it
+// delayed (corrected for coordinated omission). Every report interval prints throughput,
+// latency percentiles, heap use, the heap left live after the last GC and GC time; a live
+// heap that keeps growing over a long run points at a leak.
+// Run with: java -cp target/classes:target/test-classes benchmark.SoakBenchmark [key=value ...]
+//   users=16 rate=2000 (requests/s, all users) seconds=60 report=10 (seconds) tasks=10000
+//   skew=0.99 (Zipf theta) mix=create:25,search:30,complete:30,delete:15
+public class SoakBenchmark {
+
+    private enum Operation {CREATE, SEARCH, COMPLETE, DELETE}
+
+    private static final int OPERATIONS = Operation.values().length;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 1) {
+                throw new IllegalArgumentException("Expected key=value but got " + arg);
+            }
+            options.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+        int userCount = Integer.parseInt(options.getOrDefault("users", "16"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "2000"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "60"));
+        int reportSeconds = Integer.parseInt(options.getOrDefault("report", "10"));
+        int taskCount = Integer.parseInt(options.getOrDefault("tasks", "10000"));
+        double skew = Double.parseDouble(options.getOrDefault("skew", "0.99"));
+        int[] weights = parseMix(options.getOrDefault("mix", "create:25,search:30,complete:30,delete:15"));
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(new NullOutputStream()));
+        TaskManagerImpl taskManager = new TaskManagerImpl(new ArrayList<>());
+        LocalDate today = LocalDate.now();
+        List<TaskDraft> drafts = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            drafts.add(new TaskDraft(title(i), "Seeded task " + (i % 97), today.plusDays(i % 365), Priority.MEDIUM,
+                    Status.PENDING, i % 2 == 0 ? Category.WORK : Category.PERSONAL, today));
+        }
+        taskManager.createTasks(drafts, false);
+
+        ZipfianGenerator keys = new ZipfianGenerator(taskCount, skew);
+        AtomicLong nextNewKey = new AtomicLong(taskCount);
+        long intervalNanos = (long) (userCount * 1_000_000_000L / rate);
+        long start = System.nanoTime() + 100_000_000L;
+        long end = start + seconds * 1_000_000_000L;
+        UserLoad[] loads = new UserLoad[userCount];
+        for (int u = 0; u < userCount; u++) {
+            User user = u % 2 == 0
+                    ? new Employee("employee" + u, "password", taskManager)
+                    : new Administrator("admin" + u, "password", taskManager);
+            // staggered, so the users do not all fire at once
+            loads[u] = new UserLoad(user, keys, nextNewKey, weights, start + intervalNanos * u / userCount, intervalNanos, end);
+            loads[u].thread.start();
+        }
+
+        console.printf("%d users, target %.0f requests/s, %d s, %d seeded tasks, Zipf theta %.2f, mix %s%n",
+                userCount, rate, seconds, taskCount, skew, options.getOrDefault("mix", "create:25,search:30,complete:30,delete:15"));
+        console.printf("%6s %10s %9s %9s %9s %9s %9s %9s %7s %8s %8s%n", "time s", "requests/s", "p50 ms", "p99 ms",
+                "p99.9 ms", "max ms", "heap MB", "live MB", "GCs", "GC ms", "tasks");
+        LatencyHistogram[] totals = newHistograms();
+        LatencyHistogram interval = new LatencyHistogram();
+        GcSample gcStart = GcSample.now();
+        GcSample gcBefore = gcStart;
+        long firstLive = -1;
+        long lastLive = -1;
+        long reportAt = start;
+        while (reportAt < end) {
+            reportAt = Math.min(end, reportAt + reportSeconds * 1_000_000_000L);
+            while (System.nanoTime() < reportAt) {
+                LockSupport.parkNanos(reportAt - System.nanoTime());
+            }
+            if (reportAt == end) {
+                for (UserLoad load : loads) {
+                    load.thread.join();
+                }
+            }
+            interval.reset();
+            for (UserLoad load : loads) {
+                load.drainInto(interval, totals);
+            }
+            GcSample gcNow = GcSample.now();
+            long live = liveHeapBytes();
+            if (firstLive < 0) {
+                firstLive = live;
+            }
+            lastLive = live;
+            double elapsed = (reportAt - start) / 1e9;
+            console.printf("%6.0f %10.0f %9.3f %9.3f %9.3f %9.3f %9.1f %9.1f %7d %8d %8d%n", elapsed,
+                    interval.getTotalCount() / (double) reportSeconds, millis(interval.getValueAtPercentile(0.50)),
+                    millis(interval.getValueAtPercentile(0.99)), millis(interval.getValueAtPercentile(0.999)),
+                    millis(interval.getMax()), heapUsedBytes() / 1048576.0, live / 1048576.0,
+                    gcNow.count - gcBefore.count, gcNow.millis - gcBefore.millis, taskManager.getTasks().size());
+            gcBefore = gcNow;
+        }
+        System.setOut(console);
+
+        LatencyHistogram all = new LatencyHistogram();
+        for (LatencyHistogram histogram : totals) {
+            all.add(histogram);
+        }
+        long behind = 0;
+        for (UserLoad load : loads) {
+            behind = Math.max(behind, load.behindNanos);
+        }
+        console.printf("%ntotal %d requests, %.0f requests/s (target %.0f), most behind schedule %.1f ms%n",
+                all.getTotalCount(), all.getTotalCount() / (double) seconds, rate, millis(behind));
+        console.printf("%-9s %9s %9s %9s %9s %9s %9s%n", "operation", "count", "mean ms", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            printSummary(console, operation.name().toLowerCase(), totals[operation.ordinal()]);
+        }
+        printSummary(console, "all", all);
+        GcSample gcEnd = GcSample.now();
+        console.printf("GC: %d collections, %d ms (%.2f%% of the run); live heap %.1f MB -> %.1f MB%n",
+                gcEnd.count - gcStart.count, gcEnd.millis - gcStart.millis,
+                100.0 * (gcEnd.millis - gcStart.millis) / (seconds * 1000.0), firstLive / 1048576.0, lastLive / 1048576.0);
+    }
+
+    private static int[] parseMix(String mix) {
+        int[] weights = new int[OPERATIONS];
+        for (String part : mix.split(",")) {
+            String[] entry = part.split(":");
+            if (entry.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got " + part);
+            }
+            weights[Operation.valueOf(entry[0].trim().toUpperCase()).ordinal()] = Integer.parseInt(entry[1].trim());
+        }
+        return weights;
+    }
+
+    private static String title(long key) {
+        return "Soak task " + key;
+    }
+
+    private static LatencyHistogram[] newHistograms() {
+        LatencyHistogram[] histograms = new LatencyHistogram[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+
+    private static void printSummary(PrintStream console, String name, LatencyHistogram histogram) {
+        console.printf("%-9s %9d %9.3f %9.3f %9.3f %9.3f %9.3f%n", name, histogram.getTotalCount(), millis((long) histogram.getMean()),
+                millis(histogram.getValueAtPercentile(0.50)), millis(histogram.getValueAtPercentile(0.99)),
+                millis(histogram.getValueAtPercentile(0.999)), millis(histogram.getMax()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static long heapUsedBytes() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // Heap in use right after the most recent collection, close to the live set; on JVMs
+    // without GcInfo, what each pool held after its own last collection
+    private static long liveHeapBytes() {
+        GcInfo latest = null;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof com.sun.management.GarbageCollectorMXBean) {
+                GcInfo info = ((com.sun.management.GarbageCollectorMXBean) gc).getLastGcInfo();
+                if (info != null && (latest == null || info.getEndTime() > latest.getEndTime())) {
+                    latest = info;
+                }
+            }
+        }
+        long live = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) {
+                continue;
+            }
+            MemoryUsage usage = latest != null ? latest.getMemoryUsageAfterGc().get(pool.getName()) : pool.getCollectionUsage();
+            if (usage != null) {
+                live += usage.getUsed();
+            }
+        }
+        return live;
+    }
+
+    private static final class GcSample {
+        final long count;
+        final long millis;
+
+        private GcSample(long count, long millis) {
+            this.count = count;
+            this.millis = millis;
+        }
+
+        static GcSample now() {
+            long count = 0;
+            long millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, gc.getCollectionCount());
+                millis += Math.max(0, gc.getCollectionTime());
+            }
+            return new GcSample(count, millis);
+        }
+    }
+
+    // One simulated user: a thread issuing a request every intervalNanos on its own schedule
+    private static final class UserLoad {
+        final Thread thread;
+        // recorded by the user's thread, drained by the reporter; guarded by this
+        private final LatencyHistogram[] histograms = newHistograms();
+        volatile long behindNanos;
+
+        UserLoad(User user, ZipfianGenerator keys, AtomicLong nextNewKey, int[] weights, long firstStart, long intervalNanos, long end) {
+            int totalWeight = 0;
+            for (int weight : weights) {
+                totalWeight += weight;
+            }
+            final int weightSum = totalWeight;
+            LocalDate today = LocalDate.now();
+            thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long intendedStart = firstStart;
+                while (intendedStart < end) {
+                    long now = System.nanoTime();
+                    if (now < intendedStart) {
+                        LockSupport.parkNanos(intendedStart - now);
+                        continue;
+                    }
+                    behindNanos = Math.max(behindNanos, now - intendedStart);
+                    Operation operation = pick(weights, weightSum, random.nextInt(weightSum));
+                    switch (operation) {
+                        case CREATE: {
+                            long key = nextNewKey.getAndIncrement();
+                            user.createTask(title(key), "Created under load", today.plusDays(key % 365), Priority.LOW,
+                                    Status.PENDING, random.nextBoolean() ? Category.WORK : Category.PERSONAL, today);
+                            break;
+                        }
+                        case SEARCH:
+                            user.searchTask(title(keys.nextKey()), "");
+                            break;
+                        case COMPLETE:
+                            user.completeTask(keys.nextKey() + 1);
+                            break;
+                        case DELETE:
+                            user.deleteTask(keys.nextKey() + 1);
+                            break;
+                    }
+                    long latency = System.nanoTime() - intendedStart;
+                    synchronized (this) {
+                        histograms[operation.ordinal()].record(latency);
+                    }
+                    intendedStart += intervalNanos;
+                }
+            }, "soak-" + user.getUsername());
+            thread.setDaemon(true);
+        }
+
+        private static Operation pick(int[] weights, int weightSum, int draw) {
+            for (int i = 0; i < weights.length; i++) {
+                draw -= weights[i];
+                if (draw < 0) {
+                    return Operation.values()[i];
+                }
+            }
+            return Operation.values()[weights.length - 1];
+        }
+
+        synchronized void drainInto(LatencyHistogram interval, LatencyHistogram[] totals) {
+            for (int i = 0; i < OPERATIONS; i++) {
+                interval.add(histograms[i]);
+                totals[i].add(histograms[i]);
+                histograms[i].reset();
+            }
+        }
+    }
+
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Keys 0..n-1 drawn with a Zipfian distribution: the key of rank r comes up with probability
+// proportional to 1 / r^theta (Gray et al., "Quickly Generating Billion-Record Synthetic
+// Databases", as used by YCSB). Ranks are scrambled with FNV-1a so that the hot keys are
+// spread over the key space instead of being the lowest ids. Thread-safe.
+public class ZipfianGenerator {
+
+    private final long items;
+    private final double theta;
+    private final double zetaN;
+    private final double alpha;
+    private final double eta;
+
+    // theta in (0, 1); YCSB's default is 0.99
+    public ZipfianGenerator(long items, double theta) {
+        if (items < 2) {
+            throw new IllegalArgumentException("Need at least 2 items.");
+        }
+        if (theta <= 0 || theta >= 1) {
+            throw new IllegalArgumentException("Theta must be between 0 and 1.");
+        }
+        this.items = items;
+        this.theta = theta;
+        this.zetaN = zeta(items, theta);
+        this.alpha = 1.0 / (1.0 - theta);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta(2, theta) / zetaN);
+    }
+
+    private static double zeta(long n, double theta) {
+        double sum = 0;
+        for (long i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+
+    // Rank of the next key, 0 being the most popular
+    public long nextRank() {
+        double u = ThreadLocalRandom.current().nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < 1.0 + Math.pow(0.5, theta)) {
+            return 1;
+        }
+        return Math.min(items - 1, (long) (items * Math.pow(eta * u - eta + 1, alpha)));
+    }
+
+    public long nextKey() {
+        return Math.floorMod(fnv1a(nextRank()), items);
+    }
+
+    private static long fnv1a(long value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < 8; i++) {
+            hash ^= value & 0xff;
+            hash *= 0x100000001b3L;
+            value >>>= 8;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,91 @@
+package model.user;
+
+import model.task.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.TaskManagerImpl;
+import util.FileHandler;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    private TaskManagerImpl taskManager;
+    private UserRegistry users;
+    private User ivan;
+    private User pesho;
+
+    @BeforeEach
+    void setUp() {
+        taskManager = new TaskManagerImpl(new ArrayList<>());
+        users = new UserRegistry();
+        ivan = new Employee("ivan", "123", taskManager);
+        pesho = new Administrator("pesho", "1234", taskManager);
+        users.register(ivan);
+        users.register(pesho);
+    }
+
+    private Task create(User user, String title, Category category) {
+        return user.createTask(title, title + " description", TODAY, Priority.MEDIUM, Status.PENDING, category, TODAY);
+    }
+
+    @Test
+    void authenticate_checksHashedCredentials() {
+        assertSame(ivan, users.authenticate("ivan", "123"));
+        assertNull(users.authenticate("ivan", "1234"));
+        assertNull(users.authenticate("nobody", "123"));
+        assertNull(users.authenticate("pesho", null));
+        assertThrows(IllegalArgumentException.class, () -> users.register(new Employee("ivan", "other", taskManager)));
+    }
+
+    @Test
+    void myTasks_areTheTasksTheUserCreated() {
+        create(ivan, "Ivan work", Category.WORK);
+        create(ivan, "Ivan personal", Category.PERSONAL);
+        Task peshoTask = create(pesho, "Pesho work", Category.WORK);
+        taskManager.createTask("Nobody's", "no owner", TODAY, Priority.LOW, Status.PENDING, Category.WORK, TODAY);
+
+        Set<Task> ivanTasks = ivan.getMyTasks();
+        assertEquals(2, ivanTasks.size());
+        assertEquals("Ivan personal", ivanTasks.iterator().next().getTitle());
+        assertEquals("ivan", ivanTasks.iterator().next().getOwner());
+
+        pesho.deleteTask(peshoTask.getId());
+        assertTrue(pesho.getMyTasks().isEmpty());
+
+        // the owner survives updates and the tasks file
+        Task updated = taskManager.updateTask(1L, 0, new TaskUpdate(null, "changed", null, null, null));
+        assertEquals("ivan", updated.getOwner());
+        assertEquals(2, ivan.getMyTasks().size());
+        Task parsed = FileHandler.parseTaskBlock(updated.toString());
+        assertEquals("ivan", parsed.getOwner());
+        assertEquals(1, parsed.getVersion());
+        assertNull(FileHandler.parseTaskBlock(taskManager.getTaskById(4L).toString()).getOwner());
+    }
+
+    @Test
+    void employee_mayChangeOnlyPersonalTasks() {
+        Task work = create(pesho, "Work", Category.WORK);
+        Task personal = create(pesho, "Personal", Category.PERSONAL);
+
+        ivan.completeTask(work.getId());
+        ivan.deleteTask(work.getId());
+        assertEquals(Status.PENDING, taskManager.getTaskById(work.getId()).getStatus());
+
+        ivan.completeTask(personal.getId());
+        assertEquals(Status.COMPLETED, taskManager.getTaskById(personal.getId()).getStatus());
+        ivan.deleteTask(personal.getId());
+        assertNull(taskManager.getTaskById(personal.getId()));
+        ivan.deleteTask(42L);
+
+        pesho.deleteTask(work.getId());
+        assertEquals(new TreeSet<>(), new TreeSet<>(taskManager.getTasks()));
+    }
+}
@@ -0,0 +1,157 @@
+package service;
+
+import model.task.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import util.FileHandler;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Guards the hot paths against allocation regressions: each test measures the bytes the
+// current thread allocates per operation with the JVM's thread allocation counter and
+// checks them against a budget. Budgets leave room for JIT differences, not for new
+// per-operation garbage; a failure means a change started allocating on that path.
+public class TaskAllocationTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+    private static final int OPERATIONS = 5_000;
+    private static final int ROUNDS = 5;
+    // one task per call, so a path that changes a task never sees one it already changed
+    private static final int TASKS = OPERATIONS * ROUNDS;
+
+    private com.sun.management.ThreadMXBean threads;
+    private PrintStream console;
+    private TaskManagerImpl taskManager;
+
+    @BeforeEach
+    void setUp() {
+        Assumptions.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "Thread allocation counters are not available on this JVM.");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported(), "Thread allocation counters are not supported.");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        // the manager reports every change on System.out; keep the console out of the measurement
+        console = System.out;
+        System.setOut(new PrintStream(new NullOutputStream()));
+
+        taskManager = new TaskManagerImpl(new ArrayList<>());
+        List<TaskDraft> drafts = new ArrayList<>(TASKS);
+        for (int i = 1; i <= TASKS; i++) {
+            drafts.add(new TaskDraft("Task " + i, "Description of task " + i, TODAY.plusDays(i % 365),
+                    Priority.MEDIUM, Status.PENDING, i % 2 == 0 ? Category.WORK : Category.PERSONAL, TODAY));
+        }
+        taskManager.createTasks(drafts, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (console != null) {
+            System.setOut(console);
+        }
+    }
+
+    private interface Operation {
+        void run(int i);
+    }
+
+    // Median bytes per operation over several rounds of OPERATIONS calls, each call getting
+    // its own index: the first round also warms the path up, and the median ignores that
+    // round without picking the one round the JIT happened to favour
+    private long bytesPerOperation(Operation operation) {
+        long threadId = Thread.currentThread().getId();
+        long[] rounds = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < OPERATIONS; i++) {
+                operation.run(round * OPERATIONS + i);
+            }
+            rounds[round] = (threads.getThreadAllocatedBytes(threadId) - before) / OPERATIONS;
+        }
+        Arrays.sort(rounds);
+        return rounds[ROUNDS / 2];
+    }
+
+    @Test
+    void getTaskById_allocatesNothing() {
+        Long[] ids = new Long[TASKS];
+        for (int i = 0; i < TASKS; i++) {
+            ids[i] = (long) i + 1;
+        }
+        long[] found = new long[1];
+        long bytes = bytesPerOperation(i -> found[0] += taskManager.getTaskById(ids[i % TASKS]).getId());
+        assertTrue(found[0] > 0);
+        assertTrue(bytes <= 8, "getTaskById allocates " + bytes + " bytes per call");
+    }
+
+    @Test
+    void completeTask_allocatesOnlyItsMessage() {
+        Long[] ids = new Long[TASKS];
+        for (int i = 0; i < TASKS; i++) {
+            ids[i] = (long) i + 1;
+        }
+        long bytes = bytesPerOperation(i -> taskManager.completeTask(ids[i]));
+        // every call completed a pending task, none was a no-op
+        assertEquals(Status.COMPLETED, taskManager.getTaskById(1L).getStatus());
+        assertEquals(Status.COMPLETED, taskManager.getTaskById((long) TASKS).getStatus());
+        assertTrue(bytes <= 512, "completeTask allocates " + bytes + " bytes per call");
+    }
+
+    @Test
+    void createTask_allocatesOnlyTheTaskAndItsIndexEntries() {
+        String[] titles = new String[ROUNDS * OPERATIONS];
+        for (int i = 0; i < titles.length; i++) {
+            titles[i] = "Created " + i;
+        }
+        long bytes = bytesPerOperation(i -> taskManager.createTask(titles[i], "created", TODAY, Priority.LOW,
+                Status.PENDING, Category.PERSONAL, TODAY));
+        assertEquals(TASKS + titles.length, taskManager.getTasks().size());
+        assertTrue(bytes <= 1024, "createTask allocates " + bytes + " bytes per call");
+    }
+
+    @Test
+    void parseTaskBlock_allocatesOnlyTheTask() {
+        String[] blocks = new String[1000];
+        for (int i = 0; i < blocks.length; i++) {
+            Task task = taskManager.getTaskById((long) i + 1);
+            task.setVersion(i);
+            task.setOwner(i % 3 == 0 ? "ivan" : null);
+            blocks[i] = "task\n" + task + "\n\n";
+        }
+        Task parsed = FileHandler.parseTaskBlock(blocks[3]);
+        assertEquals("Task 4", parsed.getTitle());
+        assertEquals("Description of task 4", parsed.getDescription());
+        assertEquals(TODAY.plusDays(4), parsed.getDueDate());
+        assertEquals(3, parsed.getVersion());
+        assertEquals("ivan", parsed.getOwner());
+
+        // the title, description, owner, two dates and the task itself
+        long bytes = bytesPerOperation(i -> FileHandler.parseTaskBlock(blocks[i % blocks.length]));
+        assertTrue(bytes <= 640, "parseTaskBlock allocates " + bytes + " bytes per call");
+    }
+
+    @Test
+    void searchTask_doesNotAllocatePerScannedTask() {
+        long bytes = bytesPerOperation(i -> assertTrue(i < 0 || taskManager.searchTask("no such title", "").isEmpty()));
+        assertTrue(bytes <= 256, "searchTask allocates " + bytes + " bytes per call over " + TASKS + " tasks");
+    }
+
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
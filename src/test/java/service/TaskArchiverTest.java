@@ -0,0 +1,74 @@
+package service;
+
+import model.task.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import util.TaskArchive;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskArchiverTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    private TaskManagerImpl taskManager;
+    private Path directory;
+    private TaskArchiver archiver;
+
+    // Tasks 1-5 are completed and overdue, 6-8 pending
+    @BeforeEach
+    void setUp() throws IOException {
+        taskManager = new TaskManagerImpl(new ArrayList<>());
+        List<TaskDraft> drafts = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            drafts.add(new TaskDraft("Task " + i, "Description of task " + i, TODAY.minusDays(30), Priority.MEDIUM,
+                    i <= 5 ? Status.COMPLETED : Status.PENDING, Category.WORK, TODAY.minusDays(60)));
+        }
+        taskManager.createTasks(drafts, false);
+        taskManager.getTaskById(2L).setOwner("ivan");
+        directory = Files.createTempDirectory("task-archiver");
+        archiver = new TaskArchiver(taskManager, new TaskArchive(directory));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Path[] files = Files.walk(directory).sorted(Comparator.reverseOrder()).toArray(Path[]::new);
+        for (Path file : files) {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void archiveCompletedTasks_movesOverdueCompletedTasks() {
+        assertEquals(5, archiver.archiveCompletedTasks(TODAY));
+        assertEquals(3, taskManager.getTasks().size());
+        assertNull(taskManager.getLiveTask(1L));
+        // still found by id, with its owner
+        Task archived = taskManager.getTaskById(2L);
+        assertEquals("Task 2", archived.getTitle());
+        assertEquals("ivan", archived.getOwner());
+        assertEquals(0, archiver.archiveCompletedTasks(TODAY));
+    }
+
+    @Test
+    void archiveCompletedTasks_archivesTheLiveVersion() {
+        Task before = taskManager.getTaskById(3L);
+        Task renamed = taskManager.updateTask(3L, before.getVersion(), new TaskUpdate("Renamed", null, null, null, null));
+        taskManager.updateTask(4L, taskManager.getTaskById(4L).getVersion(), new TaskUpdate(null, null, null, null, Status.PENDING));
+
+        assertEquals(4, archiver.archiveCompletedTasks(TODAY));
+        assertEquals(Status.PENDING, taskManager.getLiveTask(4L).getStatus());
+        Task archived = archiver.getArchive().getTaskById(3L);
+        assertEquals("Renamed", archived.getTitle());
+        assertEquals(renamed.getVersion(), archived.getVersion());
+    }
+}
@@ -0,0 +1,110 @@
+package service;
+
+import model.task.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskFileBlockIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    private Path directory;
+    private Path file;
+    private List<Task> tasks;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("task-blocks");
+        file = directory.resolve("tasks");
+        tasks = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            tasks.add(TaskCreator.createTask(i, "Task " + i, "Description of task " + i, TODAY, Priority.MEDIUM,
+                    Status.PENDING, Category.WORK, TODAY));
+        }
+        write(tasks, "");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.delete(directory);
+    }
+
+    // The layout FileHandler writes, plus optional trailing bytes
+    private void write(List<Task> content, String tail) throws IOException {
+        String separator = System.lineSeparator();
+        StringBuilder text = new StringBuilder();
+        for (Task task : content) {
+            text.append("task").append(separator).append(task).append(separator).append(separator);
+        }
+        Files.write(file, text.append(tail).toString().getBytes(Charset.defaultCharset()));
+    }
+
+    @Test
+    void diff_parsesOnlyChangedBlocksAndListsEveryId() throws IOException {
+        TaskFileBlockIndex index = new TaskFileBlockIndex();
+        index.index(file);
+        assertEquals(0, index.getBlocksParsed());
+
+        tasks.set(2, TaskCreator.createTask(3, "Task 3", "Changed elsewhere", TODAY, Priority.HIGH,
+                Status.COMPLETED, Category.WORK, TODAY));
+        tasks.remove(6);
+        write(tasks, "");
+        TaskFileBlockIndex.Diff diff = index.diff(file);
+
+        assertNotNull(diff);
+        assertEquals(1, index.getBlocksParsed());
+        assertEquals(1, diff.changedTasks.size());
+        assertEquals("Changed elsewhere", diff.changedTasks.get(0).getDescription());
+        assertEquals(9, diff.presentIds.size());
+        assertFalse(diff.presentIds.contains(7L));
+
+        // nothing new the second time
+        diff = index.diff(file);
+        assertTrue(diff.changedTasks.isEmpty());
+        assertEquals(1, index.getBlocksParsed());
+    }
+
+    @Test
+    void diff_retriesOnATruncatedOrUnparseableTail() throws IOException {
+        TaskFileBlockIndex index = new TaskFileBlockIndex();
+        index.index(file);
+
+        String separator = System.lineSeparator();
+        String eleventh = "task" + separator + TaskCreator.createTask(11, "Task 11", "Appended", TODAY, Priority.LOW,
+                Status.PENDING, Category.PERSONAL, TODAY) + separator + separator;
+        // half written: no removals, no changes, just "try again"
+        write(tasks, eleventh.substring(0, eleventh.length() / 2));
+        assertNull(index.diff(file));
+        write(tasks, "task" + separator + "ID:11" + separator + "Title:Task 11" + separator + separator);
+        assertNull(index.diff(file));
+
+        // the index was left as it was, so only the new block is parsed once complete
+        write(tasks, eleventh);
+        long parsedBefore = index.getBlocksParsed();
+        TaskFileBlockIndex.Diff diff = index.diff(file);
+        assertNotNull(diff);
+        assertEquals(1, diff.changedTasks.size());
+        assertEquals(11, diff.presentIds.size());
+        assertEquals(parsedBefore + 1, index.getBlocksParsed());
+    }
+
+    @Test
+    void diff_retriesWhenTheFileIsMissing() throws IOException {
+        TaskFileBlockIndex index = new TaskFileBlockIndex();
+        index.index(file);
+        Files.delete(file);
+        assertNull(index.diff(file));
+    }
+}
@@ -0,0 +1,135 @@
+package service;
+
+import model.task.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import util.FileHandler;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskVersioningTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    private TaskManagerImpl taskManager;
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        taskManager = new TaskManagerImpl(new ArrayList<>());
+        taskManager.createTask("Alpha", "first", TODAY, Priority.MEDIUM, Status.PENDING, Category.WORK, TODAY);
+        taskManager.createTask("Beta", "second", TODAY, Priority.LOW, Status.PENDING, Category.PERSONAL, TODAY);
+        directory = Files.createTempDirectory("task-versions");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (Path file : Files.list(directory).toArray(Path[]::new)) {
+            Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void updateTask_changesOnlyGivenFieldsAndBumpsVersion() {
+        Task before = taskManager.getTaskById(1L);
+        assertEquals(0, before.getVersion());
+
+        Task updated = taskManager.updateTask(1L, 0, new TaskUpdate(null, null, null, Priority.HIGH, null));
+
+        assertEquals(1, updated.getVersion());
+        assertEquals(Priority.HIGH, updated.getPriority());
+        assertEquals("first", updated.getDescription());
+        assertSame(updated, taskManager.getTaskById(1L));
+        assertEquals(Priority.MEDIUM, before.getPriority(), "The previous task object is left as it was.");
+
+        // setting a field to the value it already has is not a change
+        assertSame(updated, taskManager.updateTask(1L, 1, new TaskUpdate("Alpha", null, null, Priority.HIGH, null)));
+        assertNull(taskManager.updateTask(42L, 0, new TaskUpdate(null, null, null, Priority.LOW, null)));
+    }
+
+    @Test
+    void updateTask_rejectsStaleVersionsAndTakenTitles() {
+        taskManager.updateTask(1L, 0, new TaskUpdate(null, "edited", null, null, null));
+
+        TaskVersionConflictException conflict = assertThrows(TaskVersionConflictException.class,
+                () -> taskManager.updateTask(1L, 0, new TaskUpdate(null, null, null, Priority.LOW, null)));
+        assertEquals(1L, conflict.getTaskId());
+        assertEquals(1L, conflict.getActualVersion());
+        assertEquals(Priority.MEDIUM, taskManager.getTaskById(1L).getPriority());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> taskManager.updateTask(1L, 1, new TaskUpdate("Beta", null, null, null, null)));
+        assertEquals("Alpha", taskManager.getTaskById(1L).getTitle());
+
+        Task beforeCompletion = taskManager.getTaskById(2L);
+        taskManager.completeTask(2L);
+        assertEquals(1, taskManager.getTaskById(2L).getVersion());
+        assertEquals(Status.COMPLETED, taskManager.getTaskById(2L).getStatus());
+        // replaced, like an update: the copy read before is left as it was
+        assertEquals(Status.PENDING, beforeCompletion.getStatus());
+        assertEquals(0, beforeCompletion.getVersion());
+    }
+
+    @Test
+    void deltaLog_roundTripsAndDropsTornRecords() throws IOException {
+        Path tasksFile = directory.resolve("tasks");
+        TaskUpdate rename = new TaskUpdate("Alpha renamed", null, null, null, null);
+        TaskUpdate reschedule = new TaskUpdate(null, "moved", TODAY.plusDays(3), Priority.HIGH, Status.COMPLETED);
+        FileHandler.appendTaskDelta(new TaskDelta(1L, 1, rename), tasksFile);
+        FileHandler.appendTaskDelta(new TaskDelta(1L, 2, reschedule), tasksFile);
+        long validLength = Files.size(FileHandler.deltaFileFor(tasksFile));
+        FileHandler.appendTaskDelta(new TaskDelta(2L, 1, rename), tasksFile);
+        try (RandomAccessFile file = new RandomAccessFile(FileHandler.deltaFileFor(tasksFile).toFile(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        List<TaskDelta> deltas = FileHandler.readTaskDeltas(tasksFile);
+
+        assertEquals(2, deltas.size());
+        assertEquals(TaskUpdate.TITLE, deltas.get(0).getChanges().getFieldMask());
+        TaskUpdate read = deltas.get(1).getChanges();
+        assertEquals(2, deltas.get(1).getVersion());
+        assertEquals(TODAY.plusDays(3), read.getDueDate());
+        assertEquals(Status.COMPLETED, read.getStatus());
+        assertNull(read.getTitle());
+        assertEquals(validLength, Files.size(FileHandler.deltaFileFor(tasksFile)), "The torn record is cut off.");
+
+        // a full write of the tasks file makes the log obsolete
+        FileHandler.writeTasksToFile(new TreeSet<>(taskManager.getTasks()), tasksFile);
+        assertFalse(Files.exists(FileHandler.deltaFileFor(tasksFile)));
+    }
+
+    @Test
+    void versions_surviveTheTasksFileAndReplaySkipsOlderDeltas() {
+        Path tasksFile = directory.resolve("tasks");
+        taskManager.updateTask(1L, 0, new TaskUpdate(null, "edited", null, null, null));
+        FileHandler.writeTasksToFile(new TreeSet<>(taskManager.getTasks()), tasksFile);
+
+        Task read = FileHandler.readTasksFromFile(tasksFile).stream()
+                .filter(task -> task.getId() == 1L).findFirst().orElse(null);
+        assertNotNull(read);
+        assertEquals(1, read.getVersion());
+        assertEquals("edited", read.getDescription());
+
+        TaskDelta alreadyWritten = new TaskDelta(1L, 1, new TaskUpdate(null, "stale", null, null, null));
+        TaskDelta newer = new TaskDelta(1L, 2, new TaskUpdate(null, null, null, Priority.HIGH, null));
+        assertSame(read, alreadyWritten.applyTo(read));
+        Task replayed = newer.applyTo(alreadyWritten.applyTo(read));
+        assertEquals(2, replayed.getVersion());
+        assertEquals("edited", replayed.getDescription());
+        assertEquals(Priority.HIGH, replayed.getPriority());
+        assertEquals(Collections.emptyList(), FileHandler.readTaskDeltas(tasksFile));
+    }
+}
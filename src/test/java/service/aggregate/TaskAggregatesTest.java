@@ -0,0 +1,97 @@
+package service.aggregate;
+
+import model.task.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.TaskManagerImpl;
+import util.FenwickTree;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskAggregatesTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 6, 2);
+
+    private TaskManagerImpl taskManager;
+    private TaskAggregates aggregates;
+
+    @BeforeEach
+    void setUp() {
+        taskManager = new TaskManagerImpl(new ArrayList<>(Collections.singletonList(
+                TaskCreator.createTask(1, "Existing", "d", MONDAY, Priority.HIGH, Status.PENDING, Category.WORK, MONDAY))));
+        aggregates = new TaskAggregates();
+        aggregates.attach(taskManager);
+    }
+
+    @Test
+    void attach_countsExistingTasks() {
+        assertEquals(1, aggregates.total());
+        assertEquals(1, aggregates.count(Status.PENDING, Priority.HIGH, Category.WORK));
+        assertEquals(0, aggregates.count(Status.COMPLETED, null, null));
+    }
+
+    @Test
+    void createCompleteDelete_updateCube() {
+        Task task = taskManager.createTask("New", "d", MONDAY.plusDays(1), Priority.LOW, Status.PENDING, Category.PERSONAL, MONDAY);
+        assertEquals(2, aggregates.count(Status.PENDING, null, null));
+        assertEquals(1, aggregates.count(null, Priority.LOW, Category.PERSONAL));
+
+        taskManager.completeTask(task.getId());
+        taskManager.completeTask(task.getId()); // already completed, must not move counts again
+        assertEquals(1, aggregates.count(Status.PENDING, null, null));
+        assertEquals(1, aggregates.count(Status.COMPLETED, Priority.LOW, Category.PERSONAL));
+
+        taskManager.deleteTask(task.getId());
+        assertEquals(0, aggregates.count(Status.COMPLETED, null, null));
+        assertEquals(1, aggregates.total());
+    }
+
+    @Test
+    void dueDateRanges_followStatusChanges() {
+        Task nextWeek = taskManager.createTask("Next week", "d", MONDAY.plusDays(8), Priority.MEDIUM, Status.PENDING, Category.WORK, MONDAY);
+        taskManager.createTask("Far", "d", MONDAY.plusYears(10), Priority.MEDIUM, Status.PENDING, Category.WORK, MONDAY);
+
+        assertEquals(1, aggregates.countDueInWeek(null, MONDAY.plusDays(3)));
+        assertEquals(2, aggregates.countDueBetween(Status.PENDING, MONDAY, MONDAY.plusDays(8)));
+        assertEquals(3, aggregates.countDueBetween(null, MONDAY.minusYears(5), MONDAY.plusYears(20)));
+
+        taskManager.completeTask(nextWeek.getId());
+        assertEquals(1, aggregates.countDueInWeek(Status.COMPLETED, MONDAY.plusDays(7)));
+        assertEquals(0, aggregates.countDueInWeek(Status.PENDING, MONDAY.plusDays(7)));
+
+        Map<LocalDate, Long> weekly = aggregates.weeklyDueTotals(null, MONDAY.plusDays(2), MONDAY.plusDays(20));
+        assertEquals(3, weekly.size());
+        assertEquals(Long.valueOf(1), weekly.get(MONDAY));
+        assertEquals(Long.valueOf(1), weekly.get(MONDAY.plusWeeks(1)));
+        assertEquals(Long.valueOf(0), weekly.get(MONDAY.plusWeeks(2)));
+    }
+
+    @Test
+    void putTask_replacementIsCountedAsUpdate() {
+        taskManager.putTask(TaskCreator.createTask(1, "Existing", "d", MONDAY.plusDays(30), Priority.LOW, Status.COMPLETED, Category.PERSONAL, MONDAY));
+
+        assertEquals(1, aggregates.total());
+        assertEquals(0, aggregates.count(Status.PENDING, null, null));
+        assertEquals(1, aggregates.count(Status.COMPLETED, Priority.LOW, Category.PERSONAL));
+        assertEquals(0, aggregates.countDueInWeek(null, MONDAY));
+    }
+
+    @Test
+    void fenwickTree_growsInBothDirections() {
+        FenwickTree tree = new FenwickTree(0);
+        tree.add(5, 2);
+        tree.add(-100_000, 1);
+        tree.add(1_000_000, 4);
+
+        assertEquals(7, tree.total());
+        assertEquals(2, tree.get(5));
+        assertEquals(3, tree.rangeSum(-100_000, 5));
+        assertEquals(6, tree.rangeSum(0, 2_000_000));
+        assertEquals(0, tree.rangeSum(6, 999_999));
+    }
+}
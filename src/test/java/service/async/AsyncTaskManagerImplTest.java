@@ -0,0 +1,123 @@
+package service.async;
+
+import model.task.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.TaskManagerImpl;
+import service.TaskVersionConflictException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncTaskManagerImplTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    // counts the batches it runs; the first one waits until released
+    private static class BatchCountingTaskManager extends TaskManagerImpl {
+        final AtomicInteger batches = new AtomicInteger();
+        final CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        BatchCountingTaskManager() {
+            super(new ArrayList<>());
+        }
+
+        @Override
+        public void runBatch(Runnable operations) {
+            if (batches.incrementAndGet() == 1) {
+                firstBatchStarted.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            super.runBatch(operations);
+        }
+    }
+
+    private ExecutorService executor;
+    private BatchCountingTaskManager taskManager;
+    private AsyncTaskManagerImpl asyncManager;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        taskManager = new BatchCountingTaskManager();
+        asyncManager = new AsyncTaskManagerImpl(taskManager, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskManager.release.countDown();
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<Task> create(String title) {
+        return asyncManager.createTask(title, title + " description", TODAY, Priority.MEDIUM, Status.PENDING, Category.WORK, TODAY);
+    }
+
+    @Test
+    void pipelinedWrites_areAppliedInOrderAndGrouped() throws Exception {
+        CompletableFuture<Task> first = create("Task 0");
+        assertTrue(taskManager.firstBatchStarted.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<Task>> pipelined = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            pipelined.add(create("Task " + i));
+        }
+        CompletableFuture<Void> completed = asyncManager.completeTask(100L);
+        assertFalse(first.isDone(), "Futures complete only after their batch ran.");
+
+        taskManager.release.countDown();
+        completed.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1L, first.get().getId());
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < pipelined.size(); i++) {
+            Task task = pipelined.get(i).get();
+            assertEquals(i + 2, task.getId());
+            ids.add(task.getId());
+        }
+        assertEquals(100, ids.size());
+        assertEquals(Status.COMPLETED, asyncManager.getTaskById(100L).get().getStatus());
+        assertTrue(asyncManager.getBatchCount() <= 3, "Writes queued behind a batch share the next one.");
+        assertEquals(102.0 / asyncManager.getBatchCount(), asyncManager.getAverageBatchSize(), 0.0001);
+    }
+
+    @Test
+    void failedWrite_failsOnlyItsOwnFuture() throws Exception {
+        taskManager.release.countDown();
+        Task alpha = create("Alpha").get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Task> stale = asyncManager.updateTask(alpha.getId(), 7, new TaskUpdate(null, "edited", null, null, null));
+        CompletableFuture<Task> current = asyncManager.updateTask(alpha.getId(), 0, new TaskUpdate(null, "edited", null, null, null));
+
+        CompletionException failure = assertThrows(CompletionException.class, stale::join);
+        assertTrue(failure.getCause() instanceof TaskVersionConflictException);
+        assertEquals(1, current.get(5, TimeUnit.SECONDS).getVersion());
+        assertEquals(1, asyncManager.searchTask("alpha", "edited").get(5, TimeUnit.SECONDS).size());
+    }
+
+    @Test
+    void closedExecutor_failsNewRequests() {
+        taskManager.release.countDown();
+        executor.shutdown();
+
+        assertThrows(CompletionException.class, () -> create("Late").join());
+        assertThrows(CompletionException.class, () -> asyncManager.getTaskById(1L).join());
+    }
+}
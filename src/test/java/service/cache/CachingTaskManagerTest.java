@@ -0,0 +1,177 @@
+package service.cache;
+
+import model.task.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.TaskManager;
+import service.TaskManagerImpl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingTaskManagerTest {
+
+    private CountingTaskManager backend;
+    private CachingTaskManager cachingManager;
+
+    @BeforeEach
+    void setUp() {
+        backend = new CountingTaskManager();
+        cachingManager = new CachingTaskManager(backend, 4, 4);
+    }
+
+    @Test
+    void getTaskById_secondLookupIsServedFromCache() {
+        Task task = backend.add(1, "Cached Task");
+
+        assertSame(task, cachingManager.getTaskById(1L));
+        assertSame(task, cachingManager.getTaskById(1L));
+
+        assertEquals(1, backend.getByIdCalls, "Backend should be hit only once.");
+        CacheStats stats = cachingManager.getStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+    }
+
+    @Test
+    void getTaskById_unknownIdIsNegativelyCached() {
+        assertNull(cachingManager.getTaskById(42L));
+        assertNull(cachingManager.getTaskById(42L));
+
+        assertEquals(1, backend.getByIdCalls, "Unknown id should reach the backend only once.");
+        assertEquals(1, cachingManager.getStats().getNegativeHitCount());
+    }
+
+    @Test
+    void createTask_clearsNegativeEntryForNewId() {
+        assertNull(cachingManager.getTaskById(1L));
+
+        Task created = cachingManager.createTask("New", "Desc", LocalDate.now(), Priority.LOW, Status.PENDING, Category.PERSONAL, LocalDate.now());
+
+        assertEquals(1, created.getId());
+        assertSame(created, cachingManager.getTaskById(1L));
+    }
+
+    @Test
+    void deleteTask_invalidatesCachedEntry() {
+        backend.add(1, "Doomed");
+        assertNotNull(cachingManager.getTaskById(1L));
+
+        cachingManager.deleteTask(1L);
+
+        assertNull(cachingManager.getTaskById(1L));
+        assertEquals(2, backend.getByIdCalls, "Lookup after delete should go back to the backend.");
+    }
+
+    @Test
+    void completeTask_invalidatesCachedEntry() {
+        backend.add(1, "Finish me");
+        cachingManager.getTaskById(1L);
+
+        cachingManager.completeTask(1L);
+
+        assertEquals(Status.COMPLETED, cachingManager.getTaskById(1L).getStatus());
+        assertEquals(2, backend.getByIdCalls);
+    }
+
+    @Test
+    void writesMadeDirectlyOnTheManager_invalidateTheCache() {
+        TaskManagerImpl taskManager = new TaskManagerImpl(new ArrayList<>());
+        CachingTaskManager cache = new CachingTaskManager(taskManager, 4, 4);
+        assertNull(cache.getTaskById(1L));
+
+        taskManager.createTask("Behind the cache", "Desc", LocalDate.now(), Priority.LOW, Status.PENDING, Category.WORK, LocalDate.now());
+        assertEquals("Behind the cache", cache.getTaskById(1L).getTitle());
+
+        taskManager.completeTask(1L);
+        assertEquals(Status.COMPLETED, cache.getTaskById(1L).getStatus());
+
+        taskManager.deleteTask(1L);
+        assertNull(cache.getTaskById(1L));
+    }
+
+    @Test
+    void cacheIsBoundedAndKeepsHotEntries() {
+        for (long id = 1; id <= 10; id++) {
+            backend.add(id, "Task " + id);
+        }
+        // make task 1 hot so it is promoted to the protected segment
+        cachingManager.getTaskById(1L);
+        cachingManager.getTaskById(1L);
+
+        for (long id = 2; id <= 10; id++) {
+            cachingManager.getTaskById(id);
+        }
+
+        assertEquals(4, cachingManager.size());
+        assertTrue(cachingManager.getStats().getEvictionCount() > 0);
+        int callsBefore = backend.getByIdCalls;
+        cachingManager.getTaskById(1L);
+        assertEquals(callsBefore, backend.getByIdCalls, "Hot task should survive the scan.");
+    }
+
+    // Minimal in-memory backend that counts getTaskById calls
+    private static class CountingTaskManager implements TaskManager {
+        private final Map<Long, Task> tasks = new HashMap<>();
+        private int getByIdCalls;
+
+        Task add(long id, String title) {
+            Task task = TaskCreator.createTask(id, title, "Desc", LocalDate.now(), Priority.MEDIUM, Status.PENDING, Category.PERSONAL, LocalDate.now());
+            tasks.put(id, task);
+            return task;
+        }
+
+        @Override
+        public Task createTask(String title, String description, LocalDate dueDate, Priority priority, Status status, Category category, LocalDate creationDate) {
+            long id = tasks.size() + 1;
+            Task task = TaskCreator.createTask(id, title, description, dueDate, priority, status, category, creationDate);
+            tasks.put(id, task);
+            return task;
+        }
+
+        @Override
+        public void displayAllTasks() {
+        }
+
+        @Override
+        public Set<Task> searchTask(String title, String description) {
+            return new HashSet<>(tasks.values());
+        }
+
+        @Override
+        public void completeTask(Long taskIdToComplete) {
+            Task task = tasks.get(taskIdToComplete);
+            if (task != null) {
+                task.setStatus(Status.COMPLETED);
+            }
+        }
+
+        @Override
+        public void deleteTask(Long completedTaskId) {
+            tasks.remove(completedTaskId);
+        }
+
+        @Override
+        public Task getTaskById(Long id) {
+            getByIdCalls++;
+            return tasks.get(id);
+        }
+
+        @Override
+        public Task updateTask(Long taskId, long expectedVersion, TaskUpdate update) {
+            Task task = tasks.get(taskId);
+            if (task == null) {
+                return null;
+            }
+            Task updated = update.applyTo(task, task.getVersion() + 1);
+            tasks.put(taskId, updated);
+            return updated;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package service.event;
+
+import model.task.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.TaskManagerImpl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskEventBusTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    private Path directory;
+    private TaskEventBus bus;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("task-events");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (bus != null) {
+            bus.close();
+        }
+        Path[] files = Files.walk(directory).sorted(Comparator.reverseOrder()).toArray(Path[]::new);
+        for (Path file : files) {
+            Files.delete(file);
+        }
+    }
+
+    private static Task task(long id) {
+        return TaskCreator.createTask(id, "Task " + id, "Description of task " + id, TODAY, Priority.MEDIUM,
+                Status.PENDING, Category.WORK, TODAY);
+    }
+
+    private static void awaitSize(List<?> list, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            synchronized (list) {
+                if (list.size() >= size) {
+                    return;
+                }
+            }
+            Thread.sleep(1);
+        }
+        synchronized (list) {
+            assertEquals(size, list.size());
+        }
+    }
+
+    @Test
+    void publish_doesNotWaitForAStalledSubscriber() throws Exception {
+        bus = new TaskEventBus(16, new BlockingWaitStrategy(), new EventJournal(directory.resolve("journal")));
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> seen = Collections.synchronizedList(new ArrayList<>());
+        bus.subscribe("stalled", (event, sequence, endOfBatch) -> {
+            release.await();
+            seen.add(sequence);
+        }, 0);
+
+        Thread writer = new Thread(() -> {
+            for (long i = 1; i <= 1000; i++) {
+                bus.publish(TaskEventType.CREATED, task(i));
+            }
+        });
+        writer.start();
+        writer.join(10_000);
+        assertFalse(writer.isAlive(), "the publisher waited for the stalled subscriber");
+
+        // lapped in the ring, it catches up from the journal without gaps
+        release.countDown();
+        awaitSize(seen, 1000);
+        synchronized (seen) {
+            for (int i = 0; i < seen.size(); i++) {
+                assertEquals(i, (long) seen.get(i));
+            }
+        }
+    }
+
+    @Test
+    void taskUpdates_arePublishedAsOneUpdatedEvent() throws Exception {
+        bus = new TaskEventBus();
+        TaskManagerImpl taskManager = new TaskManagerImpl(new ArrayList<>());
+        taskManager.createTask("Alpha", "first", TODAY, Priority.MEDIUM, Status.PENDING, Category.WORK, TODAY);
+        taskManager.addTaskChangeListener(bus);
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        bus.subscribe("updates", (event, sequence, endOfBatch) -> seen.add(event.getType() + " " + event.getTitle()),
+                bus.getCursor() + 1);
+
+        taskManager.updateTask(1L, 0, new TaskUpdate("Renamed", null, null, null, null));
+        awaitSize(seen, 1);
+        Thread.sleep(20);
+        assertEquals(Collections.singletonList("UPDATED Renamed"), seen);
+    }
+
+    @Test
+    void offsets_areSavedWhenTheProcessorStops() throws Exception {
+        bus = new TaskEventBus(64, new BlockingWaitStrategy(), new EventJournal(directory.resolve("journal")));
+        FileOffsetStore offsets = new FileOffsetStore(directory.resolve("offsets"));
+        List<Long> seen = Collections.synchronizedList(new ArrayList<>());
+        EventProcessor processor = bus.subscribe("counter", (event, sequence, endOfBatch) -> seen.add(sequence), offsets);
+        for (long i = 1; i <= 200; i++) {
+            bus.publish(TaskEventType.CREATED, task(i));
+        }
+        awaitSize(seen, 200);
+        processor.halt();
+        assertEquals(199, offsets.load("counter"));
+
+        // a restarted subscriber resumes after the saved offset
+        bus.publish(TaskEventType.DELETED, task(1));
+        List<Long> resumed = Collections.synchronizedList(new ArrayList<>());
+        bus.subscribe("counter", (event, sequence, endOfBatch) -> resumed.add(sequence), offsets);
+        awaitSize(resumed, 1);
+        assertEquals(Collections.singletonList(200L), resumed);
+    }
+
+    @Test
+    void journal_continuesNumberingAfterARestart() throws Exception {
+        Path journalFile = directory.resolve("journal");
+        bus = new TaskEventBus(16, new BlockingWaitStrategy(), new EventJournal(journalFile));
+        for (long i = 1; i <= 50; i++) {
+            bus.publish(TaskEventType.CREATED, task(i));
+        }
+        bus.close();
+        assertTrue(Files.exists(journalFile.resolveSibling("journal.tail")));
+        assertEquals(49, new EventJournal(journalFile).lastSequence());
+
+        // appended after the last clean close, as after a crash: the tail is read past it
+        bus = new TaskEventBus(16, new BlockingWaitStrategy(), new EventJournal(journalFile));
+        assertEquals(49, bus.getCursor());
+        EventJournal crashed = new EventJournal(journalFile);
+        TaskEvent event = new TaskEvent();
+        for (long sequence = 50; sequence < 55; sequence++) {
+            event.set(sequence, TaskEventType.CREATED, 0, task(sequence));
+            crashed.append(event);
+        }
+        crashed.flush();
+        assertEquals(54, new EventJournal(journalFile).lastSequence());
+    }
+}
@@ -0,0 +1,139 @@
+package service.http;
+
+import model.task.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.TaskManagerImpl;
+import service.async.AsyncTaskManagerImpl;
+import util.Json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskHttpServerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    private ExecutorService executor;
+    private TaskManagerImpl taskManager;
+    private TaskHttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        executor = Executors.newFixedThreadPool(4);
+        taskManager = new TaskManagerImpl(new ArrayList<>());
+        taskManager.createTask("Alpha", "first task", TODAY, Priority.MEDIUM, Status.PENDING, Category.WORK, TODAY);
+        server = new TaskHttpServer(new AsyncTaskManagerImpl(taskManager, executor), new InetSocketAddress("127.0.0.1", 0), executor);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+        executor.shutdownNow();
+    }
+
+    private static final class Reply {
+        final int status;
+        final String body;
+
+        Reply(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private Reply request(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        if (in != null) {
+            try (InputStream stream = in) {
+                byte[] buffer = new byte[1024];
+                int read;
+                while ((read = stream.read(buffer)) != -1) {
+                    content.write(buffer, 0, read);
+                }
+            }
+        }
+        return new Reply(status, content.toString("UTF-8"));
+    }
+
+    @Test
+    void createGetCompleteDelete() throws IOException {
+        Reply created = request("POST", "/tasks",
+                "{\"title\":\"Beta \\\"quoted\\\"\",\"description\":\"second\",\"dueDate\":\"2025-06-10\",\"priority\":\"HIGH\",\"category\":\"PERSONAL\"}");
+        assertEquals(201, created.status, created.body);
+        Map<String, String> task = Json.parseObject(created.body);
+        assertEquals("Beta \"quoted\"", task.get("title"));
+        assertEquals("2", task.get("id"));
+        assertEquals("PENDING", task.get("status"));
+
+        assertEquals("second", Json.parseObject(request("GET", "/tasks/2", null).body).get("description"));
+
+        Reply completed = request("POST", "/tasks/2/complete", null);
+        assertEquals(200, completed.status);
+        assertEquals("COMPLETED", Json.parseObject(completed.body).get("status"));
+        assertEquals(Status.COMPLETED, taskManager.getTaskById(2L).getStatus());
+
+        assertEquals(204, request("DELETE", "/tasks/2", null).status);
+        assertNull(taskManager.getTaskById(2L));
+        assertEquals(404, request("GET", "/tasks/2", null).status);
+        assertEquals(404, request("DELETE", "/tasks/2", null).status);
+    }
+
+    @Test
+    void search_returnsMatchingTasksAsArray() throws IOException {
+        taskManager.createTask("Alphabet", "letters", TODAY, Priority.LOW, Status.PENDING, Category.WORK, TODAY);
+
+        Reply all = request("GET", "/tasks?title=alpha", null);
+        assertEquals(200, all.status);
+        assertTrue(all.body.startsWith("[{\"id\":1,"), all.body);
+        assertTrue(all.body.contains("\"title\":\"Alphabet\""), all.body);
+
+        Reply filtered = request("GET", "/tasks?title=alpha&description=first%20task", null);
+        assertFalse(filtered.body.contains("Alphabet"), filtered.body);
+        assertEquals("[]", request("GET", "/tasks?title=nothing", null).body);
+    }
+
+    @Test
+    void invalidRequests_getErrorStatuses() throws IOException {
+        assertEquals(409, request("POST", "/tasks",
+                "{\"title\":\"Alpha\",\"dueDate\":\"2025-06-10\",\"priority\":\"HIGH\",\"category\":\"WORK\"}").status);
+        Reply missingField = request("POST", "/tasks", "{\"title\":\"Gamma\",\"priority\":\"HIGH\",\"category\":\"WORK\"}");
+        assertEquals(400, missingField.status);
+        assertTrue(missingField.body.contains("dueDate is required"), missingField.body);
+        assertEquals(400, request("POST", "/tasks", "not json").status);
+        // line breaks would forge Status/Owner lines or whole tasks in the tasks file
+        Reply forged = request("POST", "/tasks", "{\"title\":\"Gamma\\nStatus:COMPLETED\\nOwner:admin\",\"dueDate\":\"2025-06-10\","
+                + "\"priority\":\"HIGH\",\"category\":\"WORK\"}");
+        assertEquals(400, forged.status);
+        assertTrue(forged.body.contains("line breaks"), forged.body);
+        assertEquals(1, taskManager.getTasks().size());
+        assertEquals(400, request("GET", "/tasks/abc", null).status);
+        assertEquals(405, request("PUT", "/tasks/1", "{}").status);
+        assertEquals(404, request("GET", "/tasks/1/2/3", null).status);
+    }
+}
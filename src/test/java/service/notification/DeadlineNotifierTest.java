@@ -0,0 +1,148 @@
+package service.notification;
+
+import model.task.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.TaskManagerImpl;
+import util.TimingWheel;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeadlineNotifierTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    private MutableClock clock;
+    private TaskManagerImpl taskManager;
+    private DeadlineNotifier notifier;
+    private final List<String> events = new ArrayList<>();
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(TODAY.atTime(9, 0).atZone(ZONE).toInstant());
+        taskManager = new TaskManagerImpl(new ArrayList<>(Collections.singletonList(
+                TaskCreator.createTask(1, "Already late", "d", TODAY.minusDays(3), Priority.HIGH, Status.PENDING, Category.WORK, TODAY))));
+        notifier = new DeadlineNotifier(clock, Duration.ofHours(12), new DeadlineNotifier.DeadlineListener() {
+            @Override
+            public void onReminder(Task task) {
+                events.add("reminder " + task.getTitle());
+            }
+
+            @Override
+            public void onOverdue(Task task) {
+                events.add("overdue " + task.getTitle());
+            }
+        });
+        notifier.attach(taskManager);
+    }
+
+    @Test
+    void alreadyOverdueTask_firesOnFirstAdvance() {
+        assertEquals(1, notifier.advance());
+        assertEquals(Collections.singletonList("overdue Already late"), events);
+        assertEquals(0, notifier.getScheduledTaskCount());
+    }
+
+    @Test
+    void reminderThenOverdue_atTheRightTime() {
+        notifier.advance();
+        events.clear();
+        taskManager.createTask("Due tomorrow", "d", TODAY.plusDays(1), Priority.LOW, Status.PENDING, Category.WORK, TODAY);
+
+        clock.advance(Duration.ofHours(28)); // 13:00 next day, reminder was due at 12:00
+        notifier.advance();
+        assertEquals(Collections.singletonList("reminder Due tomorrow"), events);
+
+        clock.advance(Duration.ofHours(10).plusMinutes(59)); // 23:59, not overdue yet
+        notifier.advance();
+        assertEquals(1, events.size());
+
+        clock.advance(Duration.ofMinutes(2));
+        notifier.advance();
+        assertEquals("overdue Due tomorrow", events.get(1));
+        assertEquals(1, notifier.getFiredReminderCount());
+        assertEquals(2, notifier.getFiredOverdueCount());
+    }
+
+    @Test
+    void completedAndDeletedTasks_areCancelled() {
+        Task done = taskManager.createTask("Done", "d", TODAY, Priority.LOW, Status.PENDING, Category.WORK, TODAY);
+        Task gone = taskManager.createTask("Gone", "d", TODAY, Priority.LOW, Status.PENDING, Category.WORK, TODAY);
+        taskManager.createTask("Stays", "d", TODAY, Priority.LOW, Status.PENDING, Category.WORK, TODAY);
+        taskManager.completeTask(done.getId());
+        taskManager.deleteTask(gone.getId());
+
+        clock.advance(Duration.ofDays(2));
+        notifier.advance();
+
+        assertTrue(events.contains("overdue Stays"));
+        assertFalse(events.contains("overdue Done"));
+        assertFalse(events.contains("overdue Gone"));
+    }
+
+    @Test
+    void timingWheel_firesEveryDeadlineOnceAndNeverEarly() {
+        long start = 1_000_000L;
+        TimingWheel<Long> wheel = new TimingWheel<>(10, start);
+        Random random = new Random(42);
+        List<TimingWheel.Timeout<Long>> cancelled = new ArrayList<>();
+        int expected = 0;
+        for (int i = 0; i < 20_000; i++) {
+            long deadline = start + (long) (Math.pow(random.nextDouble(), 3) * 200_000_000L);
+            TimingWheel.Timeout<Long> timeout = wheel.schedule(deadline, deadline);
+            if (i % 10 == 0) {
+                cancelled.add(timeout);
+            } else {
+                expected++;
+            }
+        }
+        for (TimingWheel.Timeout<Long> timeout : cancelled) {
+            assertTrue(wheel.cancel(timeout));
+        }
+
+        int fired = 0;
+        for (long now = start; now <= start + 200_000_000L + 10; now += 7_919) {
+            for (long deadline : wheel.advanceTo(now)) {
+                assertTrue(deadline <= now, "fired early");
+                assertTrue(deadline > now - 7_919 - 10, "fired late");
+                fired++;
+            }
+        }
+        assertEquals(expected, fired);
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,90 @@
+package service.query;
+
+import model.task.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.TaskManagerImpl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryEngineTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    private TaskManagerImpl taskManager;
+    private QueryEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            tasks.add(TaskCreator.createTask(i, "Task " + i, "Description " + i, START.plusDays(i % 100),
+                    Priority.values()[i % 3], i % 10 == 0 ? Status.PENDING : Status.COMPLETED,
+                    Category.values()[i % 2], START));
+        }
+        taskManager = new TaskManagerImpl(tasks);
+        engine = new QueryEngine(taskManager);
+    }
+
+    @Test
+    void execute_matchesBruteForceFilterInOrder() {
+        List<Task> results = engine.execute("status=PENDING and priority in (HIGH,MEDIUM) and due < 2026-03-01 order by due limit 20");
+
+        assertEquals(20, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            Task task = results.get(i);
+            assertEquals(Status.PENDING, task.getStatus());
+            assertNotEquals(Priority.LOW, task.getPriority());
+            assertTrue(task.getDueDate().isBefore(LocalDate.of(2026, 3, 1)));
+            if (i > 0) {
+                assertFalse(task.getDueDate().isBefore(results.get(i - 1).getDueDate()));
+            }
+        }
+    }
+
+    @Test
+    void explain_picksIndexesFromCardinality() {
+        assertTrue(engine.explain("id = 7").contains("IdLookup"));
+        assertTrue(engine.explain("status = PENDING").contains("IndexScan status"));
+        assertTrue(engine.explain("due = 2026-01-05 and status = COMPLETED").contains("IndexRangeScan due"));
+        assertTrue(engine.explain("order by due desc limit 3").contains("IndexRangeScan due [-inf, +inf] desc"));
+        // matches nearly everything, scanning is cheaper than going through the index
+        assertTrue(engine.explain("status = COMPLETED").contains("FullScan"));
+        assertTrue(engine.explain("title contains '5' order by created limit 5").contains("Filter"));
+    }
+
+    @Test
+    void execute_topNAndDescendingOrder() {
+        List<Task> results = engine.execute("category = WORK order by id desc limit 3");
+
+        assertEquals(3, results.size());
+        assertEquals(999, results.get(0).getId());
+        assertEquals(997, results.get(1).getId());
+        assertEquals(995, results.get(2).getId());
+    }
+
+    @Test
+    void execute_seesLaterChanges() {
+        taskManager.completeTask(10L);
+        taskManager.deleteTask(20L);
+        Task created = taskManager.createTask("Fresh", "d", START, Priority.HIGH, Status.PENDING, Category.WORK, START);
+
+        List<Task> pending = engine.execute("status = PENDING and (id = 10 or id = 20 or title = 'Fresh')");
+        assertEquals(1, pending.size());
+        assertEquals(created.getId(), pending.get(0).getId());
+        assertEquals(1, engine.execute("id = 10 and status = COMPLETED").size());
+    }
+
+    @Test
+    void parse_rejectsMalformedQueries() {
+        assertThrows(IllegalArgumentException.class, () -> engine.execute("status = DONE"));
+        assertThrows(IllegalArgumentException.class, () -> engine.execute("colour = red"));
+        assertThrows(IllegalArgumentException.class, () -> engine.execute("due < 2026-01-01 limit"));
+        assertThrows(IllegalArgumentException.class, () -> engine.execute("priority in (HIGH"));
+        assertThrows(IllegalArgumentException.class, () -> engine.execute("status contains 'x'"));
+    }
+}
@@ -0,0 +1,157 @@
+package service.recurrence;
+
+import model.task.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.TaskArchiver;
+import service.TaskManagerImpl;
+import util.TaskArchive;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecurringTaskServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    private Path file;
+    private TaskManagerImpl taskManager;
+    private RecurringTaskService service;
+    private RecurringTask standup;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("recurring", ".jsonl");
+        Files.delete(file);
+        taskManager = new TaskManagerImpl(new ArrayList<>());
+        service = new RecurringTaskService(taskManager, file);
+        standup = service.addRecurringTask("Standup", "Daily sync", Priority.MEDIUM, Category.WORK,
+                new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 1, START, START.plusDays(364)), START);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void occurrences_areExpandedWithoutStoringTasks() throws IOException {
+        List<Occurrence> year = service.occurrences(START.minusDays(10), START.plusYears(2));
+
+        assertEquals(365, year.size());
+        assertEquals(START, year.get(0).getDate());
+        assertEquals("Standup (2026-01-01)", year.get(0).getTask().getTitle());
+        assertFalse(year.get(0).isMaterialized());
+        assertTrue(taskManager.getTasks().isEmpty());
+        assertEquals(1, Files.readAllLines(file).size());
+    }
+
+    @Test
+    void completeOccurrence_materializesOnlyThatDate() {
+        LocalDate date = START.plusDays(3);
+        Task completed = service.completeOccurrence(standup.getId(), date);
+
+        assertEquals(1, taskManager.getTasks().size());
+        assertEquals(Status.COMPLETED, taskManager.getTaskById(completed.getId()).getStatus());
+        List<Occurrence> window = service.occurrences(date.minusDays(1), date.plusDays(1));
+        assertEquals(3, window.size());
+        assertTrue(window.get(1).isMaterialized());
+        assertEquals(Status.COMPLETED, window.get(1).getTask().getStatus());
+        assertSame(completed, service.materialize(standup.getId(), date));
+    }
+
+    @Test
+    void archivedOrPurgedTasks_areNotSkips() throws IOException {
+        LocalDate archivedDate = START.plusDays(5);
+        LocalDate purgedDate = START.plusDays(6);
+        Path archiveDirectory = Files.createTempDirectory("recurring-archive");
+        try {
+            Task archived = service.completeOccurrence(standup.getId(), archivedDate);
+            assertEquals(1, new TaskArchiver(taskManager, new TaskArchive(archiveDirectory)).archiveCompletedTasks(START.plusYears(1)));
+            Task purged = service.completeOccurrence(standup.getId(), purgedDate);
+            taskManager.retireTasks(Collections.singletonList(purged.getId()));
+
+            List<Occurrence> window = service.occurrences(archivedDate, purgedDate.plusDays(1));
+            assertEquals(2, window.size(), "the purged date is left out, not turned back into a virtual one");
+            assertTrue(window.get(0).isMaterialized());
+            assertEquals(archived.getId(), window.get(0).getTask().getId());
+            assertEquals(Status.COMPLETED, window.get(0).getTask().getStatus());
+            assertEquals(archived.getId(), service.materialize(standup.getId(), archivedDate).getId());
+            assertThrows(IllegalStateException.class, () -> service.materialize(standup.getId(), purgedDate));
+            // a user delete still skips
+            Task deleted = service.materialize(standup.getId(), purgedDate.plusDays(1));
+            taskManager.deleteTask(deleted.getId());
+            assertEquals(1, service.occurrences(archivedDate, purgedDate.plusDays(1)).size());
+        } finally {
+            try (Stream<Path> files = Files.walk(archiveDirectory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    void deletingMaterializedTask_skipsTheDate() {
+        LocalDate date = START.plusDays(5);
+        Task task = service.materialize(standup.getId(), date);
+        taskManager.deleteTask(task.getId());
+        service.skipOccurrence(standup.getId(), date.plusDays(1));
+
+        assertEquals(2, service.occurrences(date.minusDays(1), date.plusDays(2)).size());
+        assertThrows(IllegalStateException.class, () -> service.materialize(standup.getId(), date));
+        assertThrows(IllegalArgumentException.class, () -> service.materialize(standup.getId(), START.minusDays(1)));
+    }
+
+    @Test
+    void query_filtersAndLimitsOccurrencesInDateOrder() {
+        service.addRecurringTask("Payroll", "Monthly payroll", Priority.HIGH, Category.WORK,
+                new RecurrenceRule(RecurrenceRule.Frequency.MONTHLY, 1, LocalDate.of(2026, 1, 31), null), START);
+
+        List<Task> payroll = service.query("priority = HIGH limit 3", START, START.plusYears(1));
+        assertEquals(3, payroll.size());
+        assertEquals(LocalDate.of(2026, 1, 31), payroll.get(0).getDueDate());
+        assertEquals(LocalDate.of(2026, 2, 28), payroll.get(1).getDueDate());
+        assertEquals(LocalDate.of(2026, 3, 31), payroll.get(2).getDueDate());
+
+        assertEquals(2, service.query("due >= 2026-02-28 and due <= 2026-02-28", START, START.plusYears(1)).size());
+    }
+
+    @Test
+    void definitionsAndOverrides_surviveReload() {
+        Task task = service.completeOccurrence(standup.getId(), START.plusDays(1));
+        service.skipOccurrence(standup.getId(), START.plusDays(2));
+
+        RecurringTaskService reloaded = new RecurringTaskService(taskManager, file);
+        List<Occurrence> window = reloaded.occurrences(START, START.plusDays(3));
+
+        assertEquals(3, window.size());
+        assertTrue(window.get(1).isMaterialized());
+        assertEquals(task.getId(), window.get(1).getTask().getId());
+        assertEquals(START.plusDays(3), window.get(2).getDate());
+    }
+
+    @Test
+    void recurrenceRule_weeklyIntervalAndMonthEnd() {
+        RecurrenceRule everyOtherWeek = new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY, 2, START, null);
+        Iterator<LocalDate> dates = everyOtherWeek.occurrences(START.plusDays(1), START.plusDays(42));
+        assertEquals(START.plusDays(14), dates.next());
+        assertEquals(START.plusDays(28), dates.next());
+        assertEquals(START.plusDays(42), dates.next());
+        assertFalse(dates.hasNext());
+
+        RecurrenceRule monthEnd = new RecurrenceRule(RecurrenceRule.Frequency.MONTHLY, 1, LocalDate.of(2026, 1, 31), null);
+        assertTrue(monthEnd.isOccurrence(LocalDate.of(2026, 2, 28)));
+        assertTrue(monthEnd.isOccurrence(LocalDate.of(2026, 3, 31)));
+        assertFalse(monthEnd.isOccurrence(LocalDate.of(2026, 3, 28)));
+    }
+}
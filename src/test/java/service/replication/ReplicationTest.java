@@ -0,0 +1,154 @@
+package service.replication;
+
+import model.task.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.TaskManagerImpl;
+import service.event.TaskEventBus;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicationTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+    private static final int FOLLOWER_QUEUE_CAPACITY = 64;
+
+    private TaskManagerImpl taskManager;
+    private TaskEventBus eventBus;
+    private ReplicationPrimary primary;
+    private final List<ReplicationFollower> followers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        taskManager = new TaskManagerImpl(new ArrayList<>());
+        List<TaskDraft> drafts = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            drafts.add(new TaskDraft("Task " + i, "Description of task " + i, TODAY, Priority.MEDIUM, Status.PENDING, Category.WORK, TODAY));
+        }
+        taskManager.createTasks(drafts, false);
+        eventBus = new TaskEventBus();
+        taskManager.addTaskChangeListener(eventBus);
+        primary = new ReplicationPrimary(taskManager, eventBus, 0, FOLLOWER_QUEUE_CAPACITY);
+        primary.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (ReplicationFollower follower : followers) {
+            follower.close();
+        }
+        primary.close();
+        eventBus.close();
+    }
+
+    private ReplicationFollower startFollower() {
+        ReplicationFollower follower = new ReplicationFollower("127.0.0.1", primary.getPort());
+        followers.add(follower);
+        follower.start();
+        return follower;
+    }
+
+    // A new follower has nothing to wait for by sequence until it has its snapshot
+    private static void awaitSnapshot(ReplicationFollower follower) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (follower.getSnapshotsLoaded() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, follower.getSnapshotsLoaded());
+    }
+
+    @Test
+    void newFollower_loadsASnapshotOfAllTasks() throws Exception {
+        ReplicationFollower follower = startFollower();
+        awaitSnapshot(follower);
+        assertEquals(50, follower.getTasks().size());
+        assertEquals("Task 7", follower.getTaskById(7L).getTitle());
+    }
+
+    @Test
+    void follower_appliesStreamedChanges() throws Exception {
+        ReplicationFollower follower = startFollower();
+        awaitSnapshot(follower);
+
+        Task created = taskManager.createTask("Streamed", "sent after the snapshot", TODAY, Priority.HIGH, Status.PENDING, Category.PERSONAL, TODAY);
+        taskManager.completeTask(3L);
+        taskManager.deleteTask(4L);
+        assertTrue(follower.awaitSequence(eventBus.getCursor(), 5000));
+
+        assertEquals("Streamed", follower.getTaskById(created.getId()).getTitle());
+        assertEquals(Status.COMPLETED, follower.getTaskById(3L).getStatus());
+        assertNull(follower.getTaskById(4L));
+        assertEquals(50, follower.getTasks().size());
+        assertEquals(1, follower.getSnapshotsLoaded());
+    }
+
+    @Test
+    void follower_keepsOwnerAndVersionOfStreamedTasks() throws Exception {
+        ReplicationFollower follower = startFollower();
+        awaitSnapshot(follower);
+
+        Task owned = taskManager.createTask("Owned", "by ivan", TODAY, Priority.LOW, Status.PENDING, Category.PERSONAL, TODAY, "ivan");
+        taskManager.updateTask(owned.getId(), 0, new TaskUpdate(null, "edited", null, null, null));
+        taskManager.completeTask(owned.getId());
+        assertTrue(follower.awaitSequence(eventBus.getCursor(), 5000));
+
+        Task replicated = follower.getTaskById(owned.getId());
+        assertEquals("ivan", replicated.getOwner());
+        assertEquals(2, replicated.getVersion());
+        assertEquals("edited", replicated.getDescription());
+        assertEquals(Status.COMPLETED, replicated.getStatus());
+    }
+
+    @Test
+    void stalledFollower_isDroppedWithoutBlockingThePrimary() throws Exception {
+        ReplicationFollower follower = startFollower();
+        awaitSnapshot(follower);
+
+        // handshakes like a follower, then never reads
+        Socket stalled = new Socket();
+        stalled.setReceiveBufferSize(4096);
+        stalled.connect(new InetSocketAddress("127.0.0.1", primary.getPort()));
+        try {
+            DataOutputStream out = new DataOutputStream(stalled.getOutputStream());
+            out.writeInt(ReplicationProtocol.MAGIC);
+            out.writeLong(-1);
+            out.flush();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (primary.getFollowerCount() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(2, primary.getFollowerCount());
+
+            // large events fill the stalled socket quickly; with a blocking writer the
+            // publisher, and with it the manager, would wait on the stalled follower
+            char[] text = new char[4096];
+            Arrays.fill(text, 'x');
+            String description = new String(text);
+            Thread writer = new Thread(() -> {
+                for (int i = 1; i <= 2000; i++) {
+                    taskManager.createTask("Large " + i, description, TODAY, Priority.LOW, Status.PENDING, Category.WORK, TODAY);
+                }
+            });
+            writer.start();
+            writer.join(30_000);
+            assertFalse(writer.isAlive(), "the publisher waited on the stalled follower");
+
+            assertTrue(primary.getDroppedFollowerCount() >= 1);
+            // the healthy follower keeps up, or catches up after a reconnect if it was dropped too
+            assertTrue(follower.awaitSequence(eventBus.getCursor(), 10_000));
+            assertEquals(taskManager.getTasks().size(), follower.getTasks().size());
+        } finally {
+            stalled.close();
+        }
+    }
+}
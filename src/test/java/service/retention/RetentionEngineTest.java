@@ -0,0 +1,125 @@
+package service.retention;
+
+import model.task.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.TaskManagerImpl;
+import util.FileHandler;
+import util.TaskArchive;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetentionEngineTest {
+
+    private static final LocalDate CREATED = LocalDate.of(2025, 1, 6);
+
+    private TaskManagerImpl taskManager;
+    private TaskArchive archive;
+    private Path directory;
+    private List<RetentionPolicy> policies;
+
+    // Tasks 1-10 are completed work (purged), 11-15 completed personal (archived), 16-20 pending
+    @BeforeEach
+    void setUp() throws IOException {
+        taskManager = new TaskManagerImpl(new ArrayList<>());
+        List<TaskDraft> drafts = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            drafts.add(new TaskDraft("Task " + i, "Description of task " + i, CREATED.plusDays(1), Priority.MEDIUM,
+                    i <= 15 ? Status.COMPLETED : Status.PENDING, i > 10 && i <= 15 ? Category.PERSONAL : Category.WORK, CREATED));
+        }
+        taskManager.createTasks(drafts, false);
+        directory = Files.createTempDirectory("task-retention");
+        archive = new TaskArchive(directory);
+        policies = Arrays.asList(
+                RetentionPolicy.archiveCompleted(Category.PERSONAL, 30, RetentionPolicy.DateBasis.CREATION_DATE),
+                RetentionPolicy.purgeCompleted(null, 30, RetentionPolicy.DateBasis.CREATION_DATE));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Path[] files = Files.walk(directory).sorted(Comparator.reverseOrder()).toArray(Path[]::new);
+        for (Path file : files) {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void runSweep_purgesAndArchivesMatchingTasks() {
+        long expectedBytes = 0;
+        for (long id = 1; id <= 15; id++) {
+            expectedBytes += FileHandler.recordSizeInBytes(taskManager.getTaskById(id));
+        }
+
+        RetentionReport report = new RetentionEngine(taskManager, policies, archive, 4, 1000).runSweep();
+
+        assertEquals(20, report.getTasksScanned());
+        assertEquals(10, report.getTasksPurged());
+        assertEquals(5, report.getTasksArchived());
+        assertEquals(expectedBytes, report.getBytesReclaimed());
+        assertEquals(5, taskManager.getTasks().size());
+        assertNull(taskManager.getLiveTask(3L));
+        assertTrue(archive.contains(12));
+        assertFalse(archive.contains(3));
+        // archived tasks stay reachable by id through the manager
+        assertEquals("Task 12", taskManager.getTaskById(12L).getTitle());
+    }
+
+    @Test
+    void laterSlices_recheckTasksChangedSinceTheSweepStarted() {
+        RetentionEngine engine = new RetentionEngine(taskManager, policies, archive, 4, 1000);
+        RetentionReport first = engine.runSlice();
+        assertEquals(4, first.getTasksReclaimed());
+
+        // the sweep still holds the old copies of these tasks
+        List<Long> reopened = new ArrayList<>();
+        Task retitled = null;
+        for (long id = 1; id <= 15; id++) {
+            Task task = taskManager.getLiveTask(id);
+            if (task == null) {
+                continue;
+            }
+            if (task.getCategory() == Category.PERSONAL && retitled == null) {
+                retitled = taskManager.updateTask(id, task.getVersion(), new TaskUpdate("Renamed " + id, null, null, null, null));
+            } else if (reopened.size() < 3) {
+                taskManager.updateTask(id, task.getVersion(), new TaskUpdate(null, null, null, null, Status.PENDING));
+                reopened.add(id);
+            }
+        }
+        assertNotNull(retitled);
+
+        RetentionReport rest = engine.runSweep();
+        assertEquals(15 - 4 - 3, rest.getTasksReclaimed());
+        for (Long id : reopened) {
+            assertEquals(Status.PENDING, taskManager.getLiveTask(id).getStatus());
+        }
+        // the live version is archived, not the one in the sweep
+        assertEquals(retitled.getTitle(), archive.getTaskById(retitled.getId()).getTitle());
+    }
+
+    @Test
+    void tasksDeletedSinceTheSweepStarted_areNotCounted() {
+        RetentionEngine engine = new RetentionEngine(taskManager, policies, archive, 4, 1000);
+        engine.runSlice();
+        int deleted = 0;
+        for (long id = 1; id <= 15; id++) {
+            if (taskManager.getLiveTask(id) != null && deleted < 2) {
+                taskManager.deleteTask(id);
+                deleted++;
+            }
+        }
+
+        RetentionReport rest = engine.runSweep();
+        assertEquals(15 - 4 - 2, rest.getTasksReclaimed());
+        assertEquals(5, taskManager.getTasks().size());
+    }
+}
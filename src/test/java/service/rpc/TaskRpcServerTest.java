@@ -0,0 +1,170 @@
+package service.rpc;
+
+import model.task.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.TaskManagerImpl;
+import service.TaskVersionConflictException;
+import service.async.AsyncTaskManagerImpl;
+import util.TaskCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskRpcServerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    private ExecutorService executor;
+    private TaskManagerImpl taskManager;
+    private TaskRpcServer server;
+    private TaskRpcClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        executor = Executors.newFixedThreadPool(4);
+        taskManager = new TaskManagerImpl(new ArrayList<>());
+        List<TaskDraft> drafts = new ArrayList<>();
+        for (int i = 1; i <= 300; i++) {
+            drafts.add(new TaskDraft("Task " + i, "Description of task " + i + " with a longer text to fill the frames",
+                    TODAY, Priority.MEDIUM, Status.PENDING, Category.WORK, TODAY));
+        }
+        taskManager.createTasks(drafts, false);
+        server = new TaskRpcServer(new AsyncTaskManagerImpl(taskManager, executor), new InetSocketAddress("127.0.0.1", 0));
+        server.start();
+        client = new TaskRpcClient("127.0.0.1", server.getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+        executor.shutdownNow();
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        return future.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void operations_roundTripOverTheWire() throws Exception {
+        Task created = await(client.createTask("Wire task", "sent as bytes", TODAY.plusDays(1), Priority.HIGH, Status.PENDING, Category.PERSONAL, TODAY));
+        assertEquals(301, created.getId());
+        assertEquals(Category.PERSONAL, created.getCategory());
+        assertNull(await(client.createTask("Task 1", "taken title", TODAY, Priority.LOW, Status.PENDING, Category.WORK, TODAY)));
+        CompletionException forged = assertThrows(CompletionException.class, () -> client.createTask("Wire\nStatus:COMPLETED",
+                "x", TODAY, Priority.HIGH, Status.PENDING, Category.WORK, TODAY).join());
+        assertTrue(forged.getCause() instanceof IllegalArgumentException);
+        assertTrue(taskManager.searchTask("Status:", "").isEmpty());
+
+        assertEquals("sent as bytes", await(client.getTaskById(301)).getDescription());
+        assertNull(await(client.getTaskById(999)));
+
+        Task updated = await(client.updateTask(301, 0, new TaskUpdate(null, null, null, Priority.LOW, null)));
+        assertEquals(1, updated.getVersion());
+        CompletionException conflict = assertThrows(CompletionException.class,
+                () -> client.updateTask(301, 0, new TaskUpdate(null, "late", null, null, null)).join());
+        assertTrue(conflict.getCause() instanceof TaskVersionConflictException);
+
+        assertEquals(Status.COMPLETED, await(client.completeTask(301)).getStatus());
+        assertNull(await(client.completeTask(999)));
+        assertTrue(await(client.deleteTask(301)));
+        assertFalse(await(client.deleteTask(301)));
+        assertNull(taskManager.getTaskById(301L));
+    }
+
+    @Test
+    void pipelinedRequests_areAnsweredInOrder() throws Exception {
+        client.setAutoFlush(false);
+        List<CompletableFuture<Task>> replies = new ArrayList<>();
+        for (int round = 0; round < 20; round++) {
+            for (long id = 1; id <= 300; id++) {
+                replies.add(client.getTaskById(id));
+            }
+        }
+        CompletableFuture<List<Task>> search = client.searchTask("task", "longer text");
+        client.flush();
+
+        for (int i = 0; i < replies.size(); i++) {
+            assertEquals(i % 300 + 1, await(replies.get(i)).getId());
+        }
+        // 300 tasks do not fit one buffer, so the reply spans several
+        assertEquals(300, await(search).size());
+        assertEquals(6001, server.getRequestCount());
+        assertTrue(server.getAllocatedBufferCount() < 64, "Buffers are reused: " + server.getAllocatedBufferCount());
+    }
+
+    @Test
+    void clientThatDoesNotRead_doesNotPileUpReplyBuffers() throws Exception {
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(64 * 1024);
+            socket.connect(new InetSocketAddress("127.0.0.1", server.getPort()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            // each reply holds all 300 tasks, about 30 KB: 30 MB in total if nothing held them back
+            for (int i = 0; i < TaskRpcServer.MAX_PIPELINED; i++) {
+                out.writeInt(5);
+                out.writeByte(TaskRpcProtocol.SEARCH);
+                out.writeUTF("");
+                out.writeUTF("");
+            }
+            out.flush();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (server.getRequestCount() < TaskRpcServer.MAX_PIPELINED && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(300);
+            long buffers = server.getAllocatedBufferCount();
+            assertTrue(buffers < 2 * TaskRpcServer.MAX_QUEUED_REPLY_BYTES / TaskRpcServer.BUFFER_SIZE,
+                    "Replies the client has not read are capped: " + buffers + " buffers");
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            for (int i = 0; i < TaskRpcServer.MAX_PIPELINED; i++) {
+                byte[] reply = new byte[in.readInt()];
+                in.readFully(reply);
+                assertEquals(TaskRpcProtocol.TASKS, reply[0]);
+            }
+        }
+    }
+
+    @Test
+    void malformedRequest_getsBadRequestAndConnectionStaysUsable() throws Exception {
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            out.writeInt(1);
+            out.writeByte(99); // unknown request
+            out.writeInt(3);
+            out.writeByte(TaskRpcProtocol.GET); // id cut short
+            out.writeShort(0);
+            out.writeInt(9);
+            out.writeByte(TaskRpcProtocol.GET);
+            out.writeLong(2);
+            out.flush();
+
+            for (int i = 0; i < 2; i++) {
+                in.readInt();
+                assertEquals(TaskRpcProtocol.BAD_REQUEST, in.readByte());
+                assertTrue(in.readUTF().startsWith("Malformed request"));
+            }
+            in.readInt();
+            assertEquals(TaskRpcProtocol.TASK, in.readByte());
+            assertEquals(2, TaskCodec.readTask(in).getId());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package service.search;
+
+import model.task.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.TaskManagerImpl;
+
+import util.FileHandler;
+import util.IndexCheckpoint;
+import util.TaskStoreLock;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskSearchIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    private TaskManagerImpl taskManager;
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        taskManager = new TaskManagerImpl(new ArrayList<>());
+        create("Quarterly report", "Write the quarterly finance report");
+        create("Team meeting", "Discuss the report draft");
+        create("Groceries", "Milk, bread and eggs");
+        index = new TaskSearchIndex();
+        index.attach(taskManager);
+    }
+
+    private Task create(String title, String description) {
+        return taskManager.createTask(title, description, TODAY, Priority.MEDIUM, Status.PENDING, Category.WORK, TODAY);
+    }
+
+    @Test
+    void search_ranksTitleMatchesFirst() {
+        List<SearchHit> hits = index.search("report", 10, false);
+
+        assertEquals(2, hits.size());
+        assertEquals("Quarterly report", hits.get(0).getTask().getTitle());
+        assertEquals("Team meeting", hits.get(1).getTask().getTitle());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void search_toleratesTypos() {
+        assertTrue(index.search("quartrly", 10, false).isEmpty());
+
+        List<SearchHit> hits = index.search("quartrly", 10, true);
+        assertEquals(1, hits.size());
+        assertEquals("Quarterly report", hits.get(0).getTask().getTitle());
+    }
+
+    @Test
+    void search_returnsOnlyTopK() {
+        for (int i = 0; i < 50; i++) {
+            create("Report " + i, i % 2 == 0 ? "report report" : "other");
+        }
+
+        List<SearchHit> hits = index.search("report", 5);
+        assertEquals(5, hits.size());
+        for (int i = 1; i < hits.size(); i++) {
+            assertTrue(hits.get(i - 1).getScore() >= hits.get(i).getScore());
+        }
+    }
+
+    @Test
+    void deleteAndUpdate_areReflected() {
+        Task groceries = taskManager.searchTask("Groceries", "").iterator().next();
+        taskManager.deleteTask(groceries.getId());
+        assertTrue(index.search("milk", 10).isEmpty());
+
+        Task meeting = taskManager.searchTask("Team meeting", "").iterator().next();
+        taskManager.putTask(TaskCreator.createTask(meeting.getId(), "Team meeting", "Plan the offsite",
+                TODAY, Priority.LOW, Status.PENDING, Category.WORK, TODAY));
+        assertEquals(1, index.search("report", 10, false).size());
+        assertEquals(1, index.search("offsite", 10, false).size());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void compaction_keepsResultsCorrect() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            ids.add(create("Bulk " + i, "filler text").getId());
+        }
+        taskManager.removeTasks(ids.subList(0, 2500));
+
+        assertEquals(503, index.size());
+        assertEquals(500, index.search("filler", 1000).size());
+        assertEquals(1, index.search("quarterly", 10).size());
+    }
+
+    @Test
+    void checkpoint_reloadsSameIndexUntilStoreChanges() throws IOException {
+        taskManager.deleteTask(2L); // leaves a dead document behind
+        create("Report review", "Review the report with the team");
+        Path directory = Files.createTempDirectory("search-checkpoint-test");
+        Path storeFile = directory.resolve("tasks");
+        try {
+            FileHandler.writeTasksToFile(new TreeSet<>(taskManager.getTasks()), storeFile);
+            index.saveCheckpoint(storeFile);
+
+            TaskSearchIndex reloaded = new TaskSearchIndex();
+            assertTrue(reloaded.attach(taskManager, storeFile), "Checkpoint of the current store should be used.");
+            assertEquals(index.size(), reloaded.size());
+            for (String query : new String[]{"report", "reveiw", "milk team"}) {
+                List<SearchHit> expected = index.search(query, 10);
+                List<SearchHit> actual = reloaded.search(query, 10);
+                assertEquals(expected.size(), actual.size(), query);
+                for (int i = 0; i < expected.size(); i++) {
+                    assertSame(expected.get(i).getTask(), actual.get(i).getTask(), query);
+                    assertEquals(expected.get(i).getScore(), actual.get(i).getScore(), 1e-9, query);
+                }
+            }
+
+            // the reloaded index keeps following changes
+            create("Milk delivery", "Order milk");
+            assertEquals(2, reloaded.search("milk", 10, false).size());
+
+            // the store no longer matches the checkpoint
+            FileHandler.writeTasksToFile(new TreeSet<>(taskManager.getTasks()), storeFile);
+            TaskSearchIndex rebuilt = new TaskSearchIndex();
+            assertFalse(rebuilt.attach(taskManager, storeFile));
+            assertEquals(taskManager.getTasks().size(), rebuilt.size());
+        } finally {
+            IndexCheckpoint.delete(storeFile, "search");
+            Files.deleteIfExists(storeFile);
+            Files.deleteIfExists(TaskStoreLock.lockFileFor(storeFile));
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    void checkpoint_isNotUsedAfterAnUpdateOnlyInTheDeltaLog() throws IOException {
+        Task alpha = create("Alpha one", "First draft");
+        Path directory = Files.createTempDirectory("search-checkpoint-test");
+        Path storeFile = directory.resolve("tasks");
+        try {
+            FileHandler.writeTasksToFile(new TreeSet<>(taskManager.getTasks()), storeFile);
+            index.saveCheckpoint(storeFile);
+
+            // an update leaves the tasks file alone and only appends its delta
+            TaskUpdate update = new TaskUpdate("Beta two", null, null, null, null);
+            Task beta = taskManager.updateTask(alpha.getId(), alpha.getVersion(), update);
+            FileHandler.appendTaskDelta(new TaskDelta(beta.getId(), beta.getVersion(), update), storeFile);
+
+            // restart from the tasks file and its delta log
+            List<Task> restored = new ArrayList<>(FileHandler.readTasksFromFile(storeFile));
+            for (TaskDelta delta : FileHandler.readTaskDeltas(storeFile)) {
+                restored.replaceAll(task -> task.getId() == delta.getTaskId() ? delta.applyTo(task) : task);
+            }
+            TaskManagerImpl restarted = new TaskManagerImpl(restored);
+            TaskSearchIndex reloaded = new TaskSearchIndex();
+            assertFalse(reloaded.attach(restarted, storeFile), "Checkpoint predates the delta log.");
+            assertEquals(1, reloaded.search("beta", 10, false).size());
+            assertEquals(0, reloaded.search("alpha", 10, false).size());
+
+            Task current = restarted.getTaskById(alpha.getId());
+            restarted.updateTask(current.getId(), current.getVersion(), new TaskUpdate("Gamma three", null, null, null, null));
+            assertEquals(1, reloaded.search("gamma", 10, false).size());
+            assertEquals(0, reloaded.search("beta", 10, false).size());
+        } finally {
+            IndexCheckpoint.delete(storeFile, "search");
+            Files.deleteIfExists(storeFile);
+            Files.deleteIfExists(FileHandler.deltaFileFor(storeFile));
+            Files.deleteIfExists(TaskStoreLock.lockFileFor(storeFile));
+            Files.deleteIfExists(directory);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package service.transaction;
+
+import model.task.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.TaskChangeListener;
+import service.TaskManagerImpl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionManagerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    private TaskManagerImpl taskManager;
+    private TransactionManager transactions;
+
+    @BeforeEach
+    void setUp() {
+        taskManager = new TaskManagerImpl(new ArrayList<>());
+        create("Alpha");
+        create("Beta");
+        create("Gamma");
+        transactions = new TransactionManager(taskManager);
+    }
+
+    private Task create(String title) {
+        return taskManager.createTask(title, title + " description", TODAY, Priority.MEDIUM, Status.PENDING, Category.WORK, TODAY);
+    }
+
+    private static TaskDraft draft(String title, Priority priority) {
+        return new TaskDraft(title, title + " description", TODAY, priority, Status.PENDING, Category.WORK, TODAY);
+    }
+
+    @Test
+    void commit_appliesAllChangesAtOnce() {
+        List<String> events = new ArrayList<>();
+        taskManager.addTaskChangeListener(new TaskChangeListener() {
+            @Override
+            public void onTaskCreated(Task task) {
+                events.add("created " + task.getTitle());
+            }
+
+            @Override
+            public void onTaskCompleted(Task task) {
+                events.add("completed " + task.getTitle());
+            }
+
+            @Override
+            public void onTaskDeleted(Task task) {
+                events.add("deleted " + task.getTitle());
+            }
+
+            @Override
+            public void onTaskUpdated(Task previous, Task current) {
+                events.add("updated " + current.getTitle());
+            }
+        });
+
+        TaskTransaction transaction = transactions.begin();
+        Task delta = transaction.createTask("Delta", "new", TODAY, Priority.HIGH, Status.PENDING, Category.PERSONAL, TODAY);
+        transaction.completeTask(1L);
+        transaction.deleteTask(2L);
+        transaction.updateTask(3L, draft("Gamma renamed", Priority.HIGH));
+
+        // nothing is visible outside the transaction before commit
+        assertEquals(3, taskManager.getTasks().size());
+        assertEquals(Status.PENDING, taskManager.getTaskById(1L).getStatus());
+        assertTrue(events.isEmpty());
+        assertEquals(Status.COMPLETED, transaction.getTaskById(1L).getStatus());
+        assertNull(transaction.getTaskById(2L));
+        assertEquals(3, transaction.getTasks().size());
+
+        transaction.commit();
+
+        assertFalse(transaction.isActive());
+        assertEquals(4, events.size(), events.toString());
+        assertEquals(Status.COMPLETED, taskManager.getTaskById(1L).getStatus());
+        assertNull(taskManager.getTaskById(2L));
+        assertEquals("Gamma renamed", taskManager.getTaskById(3L).getTitle());
+        assertEquals("Delta", taskManager.getTaskById(delta.getId()).getTitle());
+        assertEquals(4, delta.getId());
+        assertEquals(5, create("Epsilon").getId(), "Ids keep counting after reserved ones.");
+    }
+
+    @Test
+    void readers_seeTheirSnapshotUntilTheyEnd() {
+        TaskTransaction reader = transactions.begin();
+
+        taskManager.completeTask(1L);
+        TaskTransaction writer = transactions.begin();
+        writer.deleteTask(2L);
+        writer.commit();
+
+        assertEquals(Status.PENDING, reader.getTaskById(1L).getStatus());
+        assertNotNull(reader.getTaskById(2L));
+        assertEquals(3, reader.getTasks().size());
+
+        TaskTransaction later = transactions.begin();
+        assertEquals(Status.COMPLETED, later.getTaskById(1L).getStatus());
+        assertNull(later.getTaskById(2L));
+        assertEquals(2, later.getTasks().size());
+
+        reader.close();
+        later.close();
+        assertEquals(0, transactions.getActiveTransactionCount());
+    }
+
+    @Test
+    void commit_detectsWriteWriteConflicts() {
+        TaskTransaction first = transactions.begin();
+        TaskTransaction second = transactions.begin();
+        first.updateTask(1L, draft("Alpha", Priority.HIGH));
+        second.updateTask(1L, draft("Alpha", Priority.LOW));
+        second.deleteTask(3L);
+
+        first.commit();
+        TransactionConflictException conflict = assertThrows(TransactionConflictException.class, second::commit);
+
+        assertEquals(1L, conflict.getTaskId());
+        assertFalse(second.isActive());
+        assertEquals(Priority.HIGH, taskManager.getTaskById(1L).getPriority());
+        assertNotNull(taskManager.getTaskById(3L), "No change of a conflicting transaction may be applied.");
+
+        // direct changes through the manager conflict as well
+        TaskTransaction third = transactions.begin();
+        third.completeTask(2L);
+        taskManager.deleteTask(2L);
+        assertThrows(TransactionConflictException.class, third::commit);
+    }
+
+    @Test
+    void commit_rejectsTakenTitlesWithoutApplyingAnything() {
+        TaskTransaction transaction = transactions.begin();
+        transaction.deleteTask(1L);
+        transaction.createTask("Beta", "duplicate", TODAY, Priority.LOW, Status.PENDING, Category.WORK, TODAY);
+
+        assertThrows(IllegalArgumentException.class, transaction::commit);
+        assertNotNull(taskManager.getTaskById(1L));
+        assertEquals(3, taskManager.getTasks().size());
+
+        // a title freed in the same transaction can be reused
+        TaskTransaction rename = transactions.begin();
+        rename.deleteTask(2L);
+        rename.updateTask(3L, draft("Beta", Priority.LOW));
+        rename.commit();
+        assertEquals("Beta", taskManager.getTaskById(3L).getTitle());
+        assertEquals(2, taskManager.getTasks().size());
+    }
+
+    @Test
+    void rollback_discardsChanges() {
+        TaskTransaction transaction = transactions.begin();
+        transaction.deleteTask(1L);
+        transaction.createTask("Delta", "new", TODAY, Priority.HIGH, Status.PENDING, Category.PERSONAL, TODAY);
+        transaction.rollback();
+
+        assertEquals(3, taskManager.getTasks().size());
+        assertThrows(IllegalStateException.class, () -> transaction.deleteTask(2L));
+        assertThrows(IllegalArgumentException.class, () -> transactions.begin().completeTask(42L));
+    }
+}
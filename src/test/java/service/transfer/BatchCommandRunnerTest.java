@@ -0,0 +1,112 @@
+package service.transfer;
+
+import model.task.Priority;
+import model.task.Status;
+import model.task.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.TaskChangeListener;
+import service.TaskManagerImpl;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchCommandRunnerTest {
+
+    private TaskManagerImpl taskManager;
+    private int runBatchCalls;
+
+    @BeforeEach
+    void setUp() {
+        taskManager = new TaskManagerImpl(new ArrayList<>()) {
+            @Override
+            public synchronized void runBatch(Runnable operations) {
+                runBatchCalls++;
+                super.runBatch(operations);
+            }
+        };
+    }
+
+    @Test
+    void script_runsInOrderWithOneCommitPerBatch() throws IOException {
+        String script = "# import\n"
+                + "create,Write report,\"quarterly, with charts\",2025-07-01,HIGH,WORK\n"
+                + "create,Buy milk,,2025-06-03,low,pending,personal,2025-06-01\n"
+                + "CREATE,Plan trip,\"line one\nline two\",2025-08-01,MEDIUM,COMPLETED,PERSONAL\n"
+                + "\n"
+                + "complete,1\n"
+                + "search,buy\n"
+                + "delete,2\n"
+                + "delete,2\n"
+                + "complete,42\n"
+                + "create,Write report,again,2025-07-01,HIGH,WORK\n"
+                + "create,Broken,no date,,HIGH,WORK\n"
+                + "archive,3\n";
+
+        BatchReport report = new BatchCommandRunner(4).run(taskManager, new StringReader(script));
+
+        assertEquals(11, report.getCommands());
+        assertEquals(2, report.getCreated());
+        assertEquals(1, report.getCompleted());
+        assertEquals(1, report.getDeleted());
+        assertEquals(1, report.getSearches());
+        assertEquals(3, report.getFailed()); // second delete of 2, unknown 42, duplicate title
+        assertEquals(3, report.getRejected()); // multi-line description, missing due date, unknown command
+        assertEquals(2, report.getBatches()); // the 8 accepted commands, 4 per batch
+        assertEquals(2, runBatchCalls);
+
+        Task report1 = taskManager.getTaskById(1L);
+        assertEquals("quarterly, with charts", report1.getDescription());
+        assertEquals(Status.COMPLETED, report1.getStatus());
+        assertEquals(Priority.HIGH, report1.getPriority());
+        assertNull(taskManager.getTaskById(2L));
+        // line breaks would corrupt the line-based tasks file
+        assertTrue(taskManager.searchTask("Plan trip", "").isEmpty());
+        assertEquals(1, taskManager.getTasks().size());
+    }
+
+    @Test
+    void errorInABatch_failsThatBatchAndTheScriptGoesOn() throws IOException {
+        taskManager.addTaskChangeListener(new TaskChangeListener() {
+            @Override
+            public void onTaskCreated(Task task) {
+            }
+
+            @Override
+            public void onTaskCompleted(Task task) {
+                if (task.getId() == 2) {
+                    throw new IllegalStateException("listener failed");
+                }
+            }
+
+            @Override
+            public void onTaskDeleted(Task task) {
+            }
+        });
+        String script = "create,One,d,2025-07-01,HIGH,WORK\n"
+                + "create,Two,d,2025-07-01,HIGH,WORK\n"
+                + "complete,2\n"
+                + "search,one\n"
+                + "complete,1\n"
+                + "delete,1\n";
+
+        BatchReport report = new BatchCommandRunner(4).run(taskManager, new StringReader(script));
+
+        assertEquals(6, report.getCommands());
+        assertEquals(2, report.getCreated());
+        assertEquals(2, report.getFailed()); // the completion that threw and the search after it
+        assertEquals(1, report.getCompleted());
+        assertEquals(1, report.getDeleted());
+        assertEquals(2, report.getBatches());
+        assertNull(taskManager.getTaskById(1L));
+        assertNotNull(taskManager.getTaskById(2L));
+    }
+
+    @Test
+    void rejectsNonPositiveBatchSize() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchCommandRunner(0));
+    }
+}
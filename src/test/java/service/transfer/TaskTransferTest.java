@@ -0,0 +1,133 @@
+package service.transfer;
+
+import model.task.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.TaskManagerImpl;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskTransferTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    private TaskManagerImpl source;
+    private TaskManagerImpl target;
+    private int saves;
+
+    @BeforeEach
+    void setUp() {
+        source = new TaskManagerImpl(new ArrayList<>());
+        source.createTask("Write report", "quarterly, with \"charts\"", TODAY.plusDays(30), Priority.HIGH, Status.PENDING, Category.WORK, TODAY);
+        source.createTask("Buy milk", "", TODAY.plusDays(1), Priority.LOW, Status.PENDING, Category.PERSONAL, TODAY);
+        source.createTask("Plan trip, summer", "flights, hotel", TODAY.plusDays(60), Priority.MEDIUM, Status.COMPLETED, Category.PERSONAL, TODAY.minusDays(3));
+        source.createTask("Team meeting", "weekly", TODAY.plusDays(7), Priority.MEDIUM, Status.PENDING, Category.WORK, TODAY);
+        source.createTask("Dentist", "at 9", TODAY.plusDays(14), Priority.HIGH, Status.PENDING, Category.PERSONAL, TODAY);
+        target = new TaskManagerImpl(new ArrayList<>()) {
+            @Override
+            public synchronized void saveAllTasks() {
+                saves++;
+                super.saveAllTasks();
+            }
+        };
+    }
+
+    private String export(TransferFormat format) throws IOException {
+        StringWriter out = new StringWriter();
+        assertEquals(source.getTasks().size(), new TaskExporter(2, 1).export(source, format, out)); // three pages
+        return out.toString();
+    }
+
+    private void assertSameTasks() {
+        List<Task> expected = new ArrayList<>(source.getTasks());
+        List<Task> actual = new ArrayList<>(target.getTasks());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Task want = expected.get(i);
+            Task got = actual.get(i);
+            assertEquals(want.getTitle(), got.getTitle());
+            assertEquals(want.getDescription(), got.getDescription());
+            assertEquals(want.getDueDate(), got.getDueDate());
+            assertEquals(want.getPriority(), got.getPriority());
+            assertEquals(want.getStatus(), got.getStatus());
+            assertEquals(want.getCategory(), got.getCategory());
+            assertEquals(want.getCreationDate(), got.getCreationDate());
+        }
+    }
+
+    @Test
+    void csv_roundTripsInSeveralBatchesAndSavesOnce() throws IOException {
+        String csv = export(TransferFormat.CSV);
+        assertTrue(csv.startsWith(TransferFormat.CSV.header() + "\n"));
+        assertTrue(csv.contains("\"Plan trip, summer\",\"flights, hotel\""));
+
+        ImportReport report = new TaskImporter(2, 1, 0).importTasks(target, TransferFormat.CSV, new StringReader(csv));
+
+        assertEquals(5, report.getRecordsRead()); // the header is not a record
+        assertEquals(5, report.getImported());
+        assertEquals(0, report.getRejected());
+        assertEquals(1, saves);
+        assertSameTasks();
+    }
+
+    @Test
+    void jsonLines_roundTripsAndSavesEveryNBatches() throws IOException {
+        String json = export(TransferFormat.JSON_LINES);
+        assertEquals(5, json.split("\n").length);
+
+        ImportReport report = new TaskImporter(1, 1, 2).importTasks(target, TransferFormat.JSON_LINES, new StringReader(json));
+
+        assertEquals(5, report.getImported());
+        assertEquals(3, saves); // after batches 2 and 4, then the last one
+        assertSameTasks();
+    }
+
+    @Test
+    void import_countsRejectedAndDuplicateRecords() throws IOException {
+        String csv = TransferFormat.CSV.header() + "\n"
+                + "1,Write report,\"a, b\",2025-07-01,HIGH,PENDING,WORK,2025-06-01\n"
+                + "2,Broken,no date,,HIGH,PENDING,WORK,2025-06-01\n"
+                + "3,Too few,columns\n"
+                + "\n"
+                + "4,Write report,again,2025-07-01,HIGH,PENDING,WORK,2025-06-01\n"
+                + "5,Buy milk,,2025-06-03,LOW,PENDING,PERSONAL,2025-06-01\n";
+
+        ImportReport report = new TaskImporter(2, 1, 1).importTasks(target, TransferFormat.CSV, new StringReader(csv));
+
+        assertEquals(5, report.getRecordsRead());
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getDuplicates());
+        assertEquals(2, report.getRejected());
+        assertEquals(2, saves); // one per batch of accepted records
+        Task imported = target.getTasks().stream().filter(task -> task.getTitle().equals("Write report")).findFirst().get();
+        assertEquals("a, b", imported.getDescription());
+    }
+
+    @Test
+    void interruptedTransfers_failWithoutTouchingTheStore() {
+        String csv = TransferFormat.CSV.header() + "\n"
+                + "1,Write report,x,2025-07-01,HIGH,PENDING,WORK,2025-06-01\n";
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(IOException.class, () -> new TaskImporter().importTasks(target, TransferFormat.CSV, new StringReader(csv)));
+        } finally {
+            assertTrue(Thread.interrupted(), "The interrupt should be kept.");
+        }
+        assertEquals(0, target.getTasks().size());
+        assertEquals(0, saves);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(IOException.class, () -> new TaskExporter().export(source, TransferFormat.CSV, new StringWriter()));
+        } finally {
+            assertTrue(Thread.interrupted(), "The interrupt should be kept.");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package service.transfer;
+
+import model.task.*;
+import org.junit.jupiter.api.Test;
+import service.TaskManagerImpl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransferFormatTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+    // would end the title line in the tasks file and forge a Status and an Owner line
+    private static final String FORGED_TITLE = "hello\nStatus:COMPLETED\nOwner:admin";
+    // would start a second task block in the tasks file
+    private static final String FORGED_DESCRIPTION = "notes\ntask\nID:99\nTitle:ghost";
+
+    @Test
+    void parse_rejectsLineBreaksInTextFields() {
+        assertEquals("a, b", TransferFormat.CSV.parse("1,Plain,\"a, b\",2025-07-01,HIGH,PENDING,WORK,2025-06-01").getDescription());
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> TransferFormat.CSV.parse("1,\"hello\nStatus:COMPLETED\",x,2025-07-01,HIGH,PENDING,WORK,2025-06-01"));
+        assertEquals("title must not contain line breaks", e.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> TransferFormat.CSV.parse("1,Plain,\"one\r\ntwo\",2025-07-01,HIGH,PENDING,WORK,2025-06-01"));
+        assertThrows(IllegalArgumentException.class, () -> TransferFormat.JSON_LINES.parse(
+                "{\"title\":\"Plain\",\"description\":\"notes\\ntask\\nID:99\",\"dueDate\":\"2025-07-01\",\"priority\":\"HIGH\",\"category\":\"WORK\"}"));
+    }
+
+    @Test
+    void taskManager_rejectsLineBreaksFromEveryEntryPoint() {
+        TaskManagerImpl taskManager = new TaskManagerImpl(new ArrayList<>());
+        Task task = taskManager.createTask("Plain", "notes", TODAY, Priority.LOW, Status.PENDING, Category.WORK, TODAY);
+
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createTask(FORGED_TITLE, "notes", TODAY,
+                Priority.LOW, Status.PENDING, Category.WORK, TODAY));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createTask("Other", FORGED_DESCRIPTION, TODAY,
+                Priority.LOW, Status.PENDING, Category.WORK, TODAY));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createTask("Other", "notes", TODAY,
+                Priority.LOW, Status.PENDING, Category.WORK, TODAY, "ivan\nStatus:COMPLETED"));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createTasks(Collections.singletonList(
+                new TaskDraft("Other", FORGED_DESCRIPTION, TODAY, Priority.LOW, Status.PENDING, Category.WORK, TODAY)), true));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.updateTask(task.getId(), task.getVersion(),
+                new TaskUpdate(FORGED_TITLE, null, null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.putTask(
+                TaskCreator.createTask(7, "Other", "a\rb", TODAY, Priority.LOW, Status.PENDING, Category.WORK, TODAY)));
+
+        assertEquals(1, taskManager.getTasks().size());
+        assertSame(task, taskManager.getTaskById(task.getId()));
+        assertEquals("notes", task.getDescription());
+    }
+}
@@ -0,0 +1,121 @@
+package util;
+
+import model.task.Category;
+import model.task.Priority;
+import model.task.Status;
+import model.task.Task;
+import model.task.TaskCreator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexCheckpointTest {
+
+    private Path directory;
+    private Path storeFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("checkpoint-test");
+        storeFile = directory.resolve("tasks");
+        Files.write(storeFile, "some store content".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        FileHandler.setCheckpointsEnabled(false);
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private void saveNumbers(int version, IndexCheckpoint.StoreFingerprint store) throws IOException {
+        IndexCheckpoint.save(storeFile, "numbers", version, store, out -> {
+            out.writeInt(3);
+            out.writeLong(10);
+            out.writeLong(20);
+            out.writeLong(30);
+        });
+    }
+
+    private Long loadSum(int version) throws IOException {
+        return IndexCheckpoint.load(storeFile, "numbers", version, IndexCheckpoint.StoreFingerprint.of(storeFile), in -> {
+            long sum = 0;
+            for (int i = in.readInt(); i > 0; i--) {
+                sum += in.readLong();
+            }
+            return sum;
+        });
+    }
+
+    @Test
+    void load_returnsPayloadOnlyForMatchingStoreAndVersion() throws IOException {
+        saveNumbers(1, IndexCheckpoint.StoreFingerprint.of(storeFile));
+
+        assertEquals(Long.valueOf(60), loadSum(1));
+        assertNull(loadSum(2), "A checkpoint of another index version must be ignored.");
+
+        // same size, different content
+        Files.write(storeFile, "some store CONTENT".getBytes(StandardCharsets.UTF_8));
+        assertNull(loadSum(1), "A checkpoint of other store content must be ignored.");
+        assertNull(IndexCheckpoint.load(storeFile, "missing", 1, IndexCheckpoint.StoreFingerprint.of(storeFile), in -> in.readInt()));
+    }
+
+    @Test
+    void load_rejectsCorruptAndTruncatedCheckpoints() throws IOException {
+        saveNumbers(1, IndexCheckpoint.StoreFingerprint.of(storeFile));
+        Path checkpointFile = IndexCheckpoint.checkpointFileFor(storeFile, "numbers");
+        byte[] content = Files.readAllBytes(checkpointFile);
+
+        byte[] corrupt = content.clone();
+        corrupt[corrupt.length - 12] ^= 1; // inside the last payload value
+        Files.write(checkpointFile, corrupt);
+        assertNull(loadSum(1));
+
+        Files.write(checkpointFile, Arrays.copyOf(content, content.length - 4));
+        assertNull(loadSum(1));
+
+        Files.write(checkpointFile, content);
+        assertEquals(Long.valueOf(60), loadSum(1));
+    }
+
+    @Test
+    void readTasksFromFile_usesSnapshotUntilFileChanges() throws IOException {
+        Set<Task> tasks = new TreeSet<>();
+        for (int i = 1; i <= 100; i++) {
+            tasks.add(TaskCreator.createTask(i, "Task " + i, "Description " + i, LocalDate.of(2025, 3, 1).plusDays(i),
+                    Priority.HIGH, i % 2 == 0 ? Status.COMPLETED : Status.PENDING, Category.PERSONAL, LocalDate.of(2025, 1, 1)));
+        }
+        FileHandler.writeTasksToFile(tasks, storeFile);
+        FileHandler.setCheckpointsEnabled(true);
+
+        assertEquals(tasks, FileHandler.readTasksFromFile(storeFile));
+        Path snapshot = IndexCheckpoint.checkpointFileFor(storeFile, "snapshot");
+        assertTrue(Files.exists(snapshot), "Parsing should leave a snapshot behind.");
+
+        Set<Task> fromSnapshot = FileHandler.readTasksFromFile(storeFile);
+        assertEquals(tasks, fromSnapshot);
+        Task first = fromSnapshot.iterator().next();
+        Task expected = tasks.iterator().next();
+        assertEquals(expected.getId(), first.getId());
+        assertEquals(expected.getStatus(), first.getStatus());
+        assertEquals(expected.getDueDate(), first.getDueDate());
+
+        tasks.remove(expected);
+        FileHandler.writeTasksToFile(tasks, storeFile);
+        assertEquals(99, FileHandler.readTasksFromFile(storeFile).size(), "A changed file must be parsed again.");
+    }
+}
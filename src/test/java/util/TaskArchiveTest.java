@@ -0,0 +1,115 @@
+package util;
+
+import model.task.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskArchiveTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("task-archive");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Path[] files = Files.walk(directory).sorted(Comparator.reverseOrder()).toArray(Path[]::new);
+        for (Path file : files) {
+            Files.delete(file);
+        }
+    }
+
+    private static Task task(long id, String title, String description) {
+        return TaskCreator.createTask(id, title, description, TODAY, Priority.MEDIUM, Status.COMPLETED, Category.WORK, TODAY);
+    }
+
+    @Test
+    void segments_keepOwnerVersionAndLongText() throws IOException {
+        char[] text = new char[70_000];
+        Arrays.fill(text, '\u00e9'); // two bytes each in UTF-8
+        Task owned = task(1, "Owned", new String(text));
+        owned.setVersion(7);
+        owned.setOwner("ivan");
+        Task plain = task(2, "Plain", "no owner");
+
+        TaskArchive archive = new TaskArchive(directory);
+        archive.writeSegment(Arrays.asList(owned, plain));
+        // read back from disk, not from the cache
+        TaskArchive reopened = new TaskArchive(directory);
+
+        Task read = reopened.getTaskById(1);
+        assertEquals(owned.toString(), read.toString());
+        assertEquals(7, read.getVersion());
+        assertEquals("ivan", read.getOwner());
+        assertEquals(70_000, read.getDescription().length());
+        assertNull(reopened.getTaskById(2).getOwner());
+    }
+
+    @Test
+    void searchTask_inflatesEachSegmentOnlyOnce() throws IOException {
+        TaskArchive archive = new TaskArchive(directory, 4);
+        for (int segment = 0; segment < 3; segment++) {
+            List<Task> tasks = new ArrayList<>();
+            for (int i = 1; i <= 10; i++) {
+                long id = segment * 10 + i;
+                tasks.add(task(id, "Task " + id, "Archived task " + id));
+            }
+            archive.writeSegment(tasks);
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(1, archive.searchTask("Task 17", "").size());
+            assertEquals(30, archive.searchTask("", "archived").size());
+        }
+        assertEquals(3, archive.getSegmentsInflated());
+        assertEquals("Task 25", archive.getTaskById(25).getTitle());
+        assertEquals(3, archive.getSegmentsInflated());
+
+        // over the limit the least recently used segment is inflated again
+        TaskArchive small = new TaskArchive(directory, 2);
+        small.getTaskById(1);
+        small.getTaskById(11);
+        small.getTaskById(21);
+        small.getTaskById(11);
+        assertEquals(3, small.getSegmentsInflated());
+        small.getTaskById(1);
+        assertEquals(4, small.getSegmentsInflated());
+    }
+
+    @Test
+    void readTask_readsRecordsWrittenBeforeTheFormatByte() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(42);
+        out.writeUTF("Old title");
+        out.writeUTF("Old description");
+        out.writeInt((int) TODAY.toEpochDay());
+        out.writeByte(Priority.HIGH.ordinal());
+        out.writeByte(Status.PENDING.ordinal());
+        out.writeByte(Category.PERSONAL.ordinal());
+        out.writeInt((int) TODAY.minusDays(1).toEpochDay());
+
+        Task task = TaskCodec.readTask(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(42, task.getId());
+        assertEquals("Old description", task.getDescription());
+        assertEquals(Category.PERSONAL, task.getCategory());
+        assertEquals(TODAY.minusDays(1), task.getCreationDate());
+        assertNull(task.getOwner());
+    }
+}
@@ -0,0 +1,152 @@
+package util;
+
+import model.task.Category;
+import model.task.Priority;
+import model.task.Status;
+import model.task.Task;
+import model.task.TaskCreator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskOffsetTableTest {
+
+    private Path directory;
+    private Path tasksFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("offset-table-test");
+        tasksFile = directory.resolve("tasks");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        FileHandler.setOffsetTableEnabled(false);
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static Set<Task> tasks(int count) {
+        Set<Task> tasks = new TreeSet<>();
+        for (int i = 1; i <= count; i++) {
+            // ids deliberately not in title order
+            long id = (i * 7L) % 1009 + 1;
+            tasks.add(TaskCreator.createTask(id, "Task " + i, "Description " + i, LocalDate.of(2025, 1, 1).plusDays(i),
+                    Priority.values()[i % 3], Status.PENDING, Category.WORK, LocalDate.of(2024, 12, 1)));
+        }
+        return tasks;
+    }
+
+    @Test
+    void writer_savesTableThatReadsEveryTask() throws IOException {
+        Set<Task> tasks = tasks(300);
+        FileHandler.setOffsetTableEnabled(true);
+        FileHandler.writeTasksToFile(tasks, tasksFile);
+
+        TaskOffsetTable table = TaskOffsetTable.load(tasksFile);
+        assertNotNull(table, "Writer should save a table matching the tasks file.");
+        assertEquals(300, table.size());
+        try (RandomAccessFile file = new RandomAccessFile(tasksFile.toFile(), "r")) {
+            for (Task task : tasks) {
+                Task read = table.readTask(file, task.getId());
+                assertNotNull(read);
+                assertEquals(task.getId(), read.getId());
+                assertEquals(task.getTitle(), read.getTitle());
+                assertEquals(task.getDueDate(), read.getDueDate());
+            }
+            assertNull(table.readTask(file, 5000));
+        }
+        assertEquals(tasks, FileHandler.readTasksFromFile(tasksFile), "Indexed writer must produce the normal file format.");
+    }
+
+    @Test
+    void build_scanMatchesTableSavedByWriter() throws IOException {
+        Set<Task> tasks = tasks(50);
+        FileHandler.setOffsetTableEnabled(true);
+        FileHandler.writeTasksToFile(tasks, tasksFile);
+        TaskOffsetTable written = TaskOffsetTable.load(tasksFile);
+
+        TaskOffsetTable scanned = TaskOffsetTable.build(tasksFile);
+        assertEquals(written.size(), scanned.size());
+        try (RandomAccessFile file = new RandomAccessFile(tasksFile.toFile(), "r")) {
+            for (Task task : tasks) {
+                assertEquals(written.readTask(file, task.getId()).getTitle(), scanned.readTask(file, task.getId()).getTitle());
+            }
+        }
+    }
+
+    @Test
+    void build_handlesHandEditedFiles() throws IOException {
+        String content = "task\nID:3\nTitle:Third\nDescription:x\nDue Date:2025-08-15\nPriority:LOW\nStatus:PENDING\nCategory:WORK\nCreation Date:2025-06-12\n"
+                + "  task\r\nID:12\r\nTitle:Twelfth\r\nDescription:y\r\nDue Date:2025-08-16\r\nPriority:HIGH\r\nStatus:COMPLETED\r\nCategory:PERSONAL\r\nCreation Date:2025-06-12";
+        Files.write(tasksFile, content.getBytes(StandardCharsets.UTF_8));
+
+        TaskOffsetTable table = TaskOffsetTable.build(tasksFile);
+        assertEquals(2, table.size());
+        try (RandomAccessFile file = new RandomAccessFile(tasksFile.toFile(), "r")) {
+            assertEquals("Third", table.readTask(file, 3).getTitle());
+            Task last = table.readTask(file, 12);
+            assertEquals("Twelfth", last.getTitle());
+            assertEquals(Status.COMPLETED, last.getStatus());
+        }
+    }
+
+    @Test
+    void load_ignoresTableOfAChangedFile() throws IOException {
+        FileHandler.setOffsetTableEnabled(true);
+        FileHandler.writeTasksToFile(tasks(10), tasksFile);
+        assertNotNull(TaskOffsetTable.load(tasksFile));
+
+        // rewritten without the table: the old one no longer describes the file
+        FileHandler.setOffsetTableEnabled(false);
+        FileHandler.writeTasksToFile(tasks(20), tasksFile);
+        assertNull(TaskOffsetTable.load(tasksFile), "A table for a different file size must be ignored.");
+
+        TaskOffsetTable rebuilt = TaskOffsetTable.loadOrBuild(tasksFile);
+        assertEquals(20, rebuilt.size());
+        assertNotNull(TaskOffsetTable.load(tasksFile), "loadOrBuild should save the rebuilt table.");
+    }
+
+    @Test
+    void loadOrBuild_trustsTheStampAndVerifyChecksTheContent() throws IOException {
+        FileHandler.setOffsetTableEnabled(true);
+        FileHandler.writeTasksToFile(tasks(10), tasksFile);
+        assertEquals(10, TaskOffsetTable.loadOrBuild(tasksFile).size());
+
+        // same size and modification time, different content: only the CRC notices
+        FileTime modified = Files.getLastModifiedTime(tasksFile);
+        byte[] content = Files.readAllBytes(tasksFile);
+        String text = new String(content, StandardCharsets.UTF_8).replace("Task 1\n", "Tusk 1\n");
+        Files.write(tasksFile, text.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(tasksFile, modified);
+        assertNotNull(TaskOffsetTable.loadOrBuild(tasksFile));
+        assertFalse(TaskOffsetTable.verify(tasksFile));
+        assertFalse(Files.exists(TaskOffsetTable.tableFileFor(tasksFile)), "verify should delete the stale table.");
+
+        // a rewrite through FileHandler bumps the generation even if size and time collide
+        FileHandler.writeTasksToFile(tasks(10), tasksFile);
+        assertTrue(TaskOffsetTable.verify(tasksFile));
+        FileHandler.setOffsetTableEnabled(false);
+        FileHandler.writeTasksToFile(tasks(10), tasksFile);
+        Files.setLastModifiedTime(tasksFile, modified);
+        TaskOffsetTable rebuilt = TaskOffsetTable.loadOrBuild(tasksFile);
+        assertEquals(10, rebuilt.size());
+        assertTrue(TaskOffsetTable.verify(tasksFile), "the rebuilt table should be saved for the new generation");
+    }
+}
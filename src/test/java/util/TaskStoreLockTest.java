@@ -0,0 +1,130 @@
+package util;
+
+import model.task.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskStoreLockTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    private Path directory;
+    private Path tasksFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("task-store-lock");
+        tasksFile = directory.resolve("tasks");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (Path file : Files.list(directory).toArray(Path[]::new)) {
+            Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void writes_bumpTheGenerationOfTheRegionTheyChange() {
+        TreeSet<Task> tasks = new TreeSet<>();
+        Task task = TaskCreator.createTask(1, "Alpha", "first", TODAY, Priority.MEDIUM, Status.PENDING, Category.WORK, TODAY);
+        tasks.add(task);
+        TaskStoreLock.Generation initial = generation();
+
+        FileHandler.writeTasksToFile(tasks, tasksFile);
+        TaskStoreLock.Generation written = generation();
+        assertEquals(initial.getFileGeneration() + 1, written.getFileGeneration());
+        assertEquals(initial.getDeltaGeneration(), written.getDeltaGeneration());
+
+        FileHandler.appendTaskDelta(new TaskDelta(1, 1, new TaskUpdate(null, "one", null, null, null)), tasksFile);
+        long firstRecordEnd = FileHandler.deltaFileFor(tasksFile).toFile().length();
+        FileHandler.appendTaskDelta(new TaskDelta(1, 2, new TaskUpdate(null, "two", null, null, null)), tasksFile);
+        TaskStoreLock.Generation appended = generation();
+        assertEquals(written.getFileGeneration(), appended.getFileGeneration());
+        assertEquals(written.getDeltaGeneration() + 2, appended.getDeltaGeneration());
+
+        // a process that has read the first record reads only the second
+        List<TaskDelta> newer = FileHandler.readTaskDeltas(tasksFile, firstRecordEnd);
+        assertEquals(1, newer.size());
+        assertEquals(2, newer.get(0).getVersion());
+        assertEquals(2, FileHandler.readTaskDeltas(tasksFile).size());
+    }
+
+    @Test
+    void locks_areReentrantWithinAThread() throws IOException {
+        TaskStoreLock lock = TaskStoreLock.forFile(tasksFile);
+        assertSame(lock, TaskStoreLock.forFile(directory.resolve(".").resolve("tasks")));
+        try (TaskStoreLock.Hold exclusive = lock.lock(true, true)) {
+            try (TaskStoreLock.Hold shared = lock.lock(false, false)) {
+                lock.bump(TaskStoreLock.Region.FILE);
+            }
+            assertEquals(1, lock.readGeneration().getFileGeneration());
+        }
+        try (TaskStoreLock.Hold shared = lock.lock(TaskStoreLock.Region.DELTAS, false)) {
+            assertThrows(IllegalStateException.class, () -> lock.lock(TaskStoreLock.Region.DELTAS, true));
+            assertThrows(IllegalStateException.class, () -> lock.bump(TaskStoreLock.Region.DELTAS));
+        }
+    }
+
+    @Test
+    void regions_areLockedAgainstOtherProcesses() throws Exception {
+        TaskStoreLock lock = TaskStoreLock.forFile(tasksFile);
+        try (TaskStoreLock.Hold deltas = lock.lock(TaskStoreLock.Region.DELTAS, true)) {
+            assertEquals("FILE exclusive: locked", probe("FILE", false));
+            assertEquals("DELTAS shared: busy", probe("DELTAS", true));
+        }
+        try (TaskStoreLock.Hold file = lock.lock(TaskStoreLock.Region.FILE, false)) {
+            assertEquals("FILE shared: locked", probe("FILE", true));
+            assertEquals("FILE exclusive: busy", probe("FILE", false));
+        }
+    }
+
+    private TaskStoreLock.Generation generation() {
+        try {
+            return TaskStoreLock.forFile(tasksFile).readGeneration();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Runs LockProbe in a separate JVM, since a JVM cannot test its own locks
+    private String probe(String region, boolean shared) throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), LockProbe.class.getName(),
+                TaskStoreLock.lockFileFor(tasksFile).toString(), region, String.valueOf(shared))
+                .redirectErrorStream(true).start();
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line = out.readLine();
+            process.waitFor();
+            return line;
+        }
+    }
+
+    public static class LockProbe {
+        public static void main(String[] args) throws IOException {
+            TaskStoreLock.Region region = TaskStoreLock.Region.valueOf(args[1]);
+            boolean shared = Boolean.parseBoolean(args[2]);
+            try (FileChannel channel = FileChannel.open(new File(args[0]).toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.tryLock(region.ordinal() * 8L, 8, shared);
+                System.out.println(region + (shared ? " shared: " : " exclusive: ") + (lock != null ? "locked" : "busy"));
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package util.compression;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockCompressionTest {
+
+    private static byte[] taskFileLikeContent(int tasks) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 1; i <= tasks; i++) {
+            text.append("task\nID:").append(i)
+                    .append("\nTitle:title ").append(i)
+                    .append("\nDescription:some description\nDue Date:2025-08-15\nPriority:LOW\nStatus:PENDING\nCategory:WORK\nCreation Date:2025-06-12\n\n");
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void lzCodec_roundTripsAndCompressesRepetitiveText() {
+        byte[] data = taskFileLikeContent(500);
+        byte[] compressed = CompressionCodecs.LZ.compress(data, 0, data.length);
+
+        assertTrue(compressed.length < data.length / 3, "Task text should compress at least 3x.");
+        assertArrayEquals(data, CompressionCodecs.LZ.decompress(compressed, 0, compressed.length, data.length));
+    }
+
+    @Test
+    void lzCodec_roundTripsIncompressibleAndTinyInput() {
+        byte[] random = new byte[10_000];
+        new Random(42).nextBytes(random);
+        byte[] compressed = CompressionCodecs.LZ.compress(random, 0, random.length);
+        assertArrayEquals(random, CompressionCodecs.LZ.decompress(compressed, 0, compressed.length, random.length));
+
+        byte[] tiny = {1, 2, 3};
+        byte[] tinyCompressed = CompressionCodecs.LZ.compress(tiny, 0, tiny.length);
+        assertArrayEquals(tiny, CompressionCodecs.LZ.decompress(tinyCompressed, 0, tinyCompressed.length, tiny.length));
+    }
+
+    @Test
+    void lzCodec_handlesLongRunsWithOverlappingMatches() {
+        byte[] run = new byte[70_000];
+        java.util.Arrays.fill(run, (byte) 'a');
+        byte[] compressed = CompressionCodecs.LZ.compress(run, 0, run.length);
+
+        assertTrue(compressed.length < 1000);
+        assertArrayEquals(run, CompressionCodecs.LZ.decompress(compressed, 0, compressed.length, run.length));
+    }
+
+    @Test
+    void blockCompression_roundTripsManyBlocksForEachCodec() {
+        byte[] data = taskFileLikeContent(5000); // several 64 KB blocks
+        for (CompressionCodec codec : new CompressionCodec[]{CompressionCodecs.DEFLATE, CompressionCodecs.LZ}) {
+            byte[] framed = BlockCompression.compress(data, codec);
+
+            assertTrue(BlockCompression.isCompressed(framed));
+            assertArrayEquals(data, BlockCompression.decompress(framed));
+        }
+    }
+
+    @Test
+    void blockCompression_readsAppendedFramesOneByOne() throws Exception {
+        byte[] first = "first block".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "second block".getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BlockCompression.writeFrame(out, CompressionCodecs.LZ, first, 0, first.length);
+        BlockCompression.writeFrame(out, CompressionCodecs.DEFLATE, second, 0, second.length);
+
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        assertArrayEquals(first, BlockCompression.readFrame(in));
+        assertArrayEquals(second, BlockCompression.readFrame(in));
+        assertNull(BlockCompression.readFrame(in));
+    }
+
+    @Test
+    void plainTextIsNotDetectedAsCompressed() {
+        assertFalse(BlockCompression.isCompressed(taskFileLikeContent(1)));
+    }
+}